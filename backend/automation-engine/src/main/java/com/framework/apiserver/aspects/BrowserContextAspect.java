@@ -15,14 +15,15 @@ public class BrowserContextAspect {
     private BrowserContextManager browserContextManager;
 
     /**
-     * Automatically extract browser type before any test execution service method
+     * Binds the browser of the current request or job to the thread for the duration of any
+     * test execution service method
      */
     @Around("execution(* com.framework.apiserver.service.TestExecutionService.*(..)) || " +
             "execution(* com.framework.apiserver.service.TestRerunService.*(..))")
     public Object setBrowserContextForTestExecution(ProceedingJoinPoint joinPoint) throws Throwable {
-        // Extract and set browser type BEFORE method execution
-        String browserType = browserContextManager.extractAndSetBrowserType();
-        try {
+        // Resolve the browser BEFORE method execution; it stays bound to this thread only
+        String browserType = browserContextManager.getBrowserType();
+        try (BrowserContextManager.Scope scope = browserContextManager.open(browserType)) {
             // Execute the original method
             Object result = joinPoint.proceed();
             return result;
@@ -0,0 +1,18 @@
+package com.framework.apiserver.config;
+
+/**
+ * Enumeration representing how a test run is executed.
+ */
+public enum ExecutionMode {
+    /**
+     * Runs in a separate runner JVM: a pre-started pool worker when the runner pool is
+     * enabled and one is idle, otherwise a newly launched JVM. Strongest isolation.
+     */
+    FORKED,
+
+    /**
+     * Runs Cucumber inside the server on a long-lived worker with its own class loader,
+     * so the runner classes and the glue Spring context stay warm between runs.
+     */
+    IN_PROCESS
+}
@@ -0,0 +1,425 @@
+package com.framework.apiserver.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ExecutionProperties is a configuration class that maps properties
+ * prefixed with "execution" from the application's configuration file.
+ *
+ * <p>It selects the default {@link ExecutionMode} for test runs and tunes the
+ * in-process execution engine and the pool of pre-started runner JVMs.</p>
+ *
+ * <p>Usage:</p>
+ * <ul>
+ *   <li>Define "execution.default-mode", "execution.in-process.*", "execution.pool.*",
+ *       "execution.progress.*", "execution.session-pool.*", "execution.browser-contexts.*",
+ *       "execution.network-blocking.*", "execution.element-cache.*",
+ *       "execution.command-profiler.*" and "execution.page-metrics.*" in the application properties or YAML file.</li>
+ *   <li>Inject this class into other Spring components to access these properties.</li>
+ * </ul>
+ */
+@Component
+@ConfigurationProperties(prefix = "execution")
+@Getter
+@Setter
+public class ExecutionProperties {
+
+    /**
+     * The execution mode used when a job does not request one.
+     */
+    private ExecutionMode defaultMode = ExecutionMode.FORKED;
+
+    /**
+     * Number of scenarios executed in parallel when a job does not request a thread count.
+     */
+    private int defaultThreads = 1;
+
+    /**
+     * Upper bound for the thread count a job may request, typically the number of
+     * cores or Grid slots available to one run.
+     */
+    private int maxThreads = 4;
+
+    /**
+     * Number of runner processes a run is split across when a job does not request a shard count.
+     */
+    private int defaultShards = 1;
+
+    /**
+     * Upper bound for the shard count a job may request, typically the number of cores of the agent.
+     */
+    private int maxShards = 4;
+
+    /**
+     * Seconds a cancelled runner JVM is given to quit its browsers before its whole process
+     * tree is killed.
+     */
+    private int cancelGracePeriodSeconds = 10;
+
+    /**
+     * Deadline of a whole run in minutes when a job does not request one; the run is stopped
+     * and its job marked TIMED_OUT once it passes. 0 disables the deadline.
+     */
+    private int runTimeoutMinutes = 0;
+
+    /**
+     * Deadline of a single scenario in seconds, enforced inside the runner; a scenario passing
+     * it is failed after its diagnostics are captured. 0 disables the deadline.
+     */
+    private int scenarioTimeoutSeconds = 0;
+
+    /**
+     * Settings for the in-process execution engine.
+     */
+    private InProcess inProcess = new InProcess();
+
+    /**
+     * Settings for the pool of pre-started runner JVMs used by forked runs.
+     */
+    private Pool pool = new Pool();
+
+    /**
+     * Settings for the live progress streamed by runners while a run executes.
+     */
+    private Progress progress = new Progress();
+
+    /**
+     * Settings for the warm browser sessions runners reuse across scenarios.
+     */
+    private SessionPool sessionPool = new SessionPool();
+
+    /**
+     * Settings for running parallel scenarios in isolated contexts of a shared browser.
+     */
+    private BrowserContexts browserContexts = new BrowserContexts();
+
+    /**
+     * Settings for the network requests runner browsers block to load pages faster.
+     */
+    private NetworkBlocking networkBlocking = new NetworkBlocking();
+
+    /**
+     * Settings for the cache of elements located by page objects.
+     */
+    private ElementCache elementCache = new ElementCache();
+
+    /**
+     * Settings for timing the WebDriver commands of runs.
+     */
+    private CommandProfiler commandProfiler = new CommandProfiler();
+
+    /**
+     * Settings for recording the load performance of the pages runs visit.
+     */
+    private PageMetrics pageMetrics = new PageMetrics();
+
+    /**
+     * Settings for reusing the browser sessions of successful logins.
+     */
+    private SessionCache sessionCache = new SessionCache();
+
+    /**
+     * Settings for the classpath of the JVMs and class loaders executing scenarios.
+     */
+    private RunnerClasspath runnerClasspath = new RunnerClasspath();
+
+    /**
+     * Settings for starting runners from a class-data sharing archive.
+     */
+    private Cds cds = new Cds();
+
+    /**
+     * Settings for batch runs, which execute several tag expressions in one runner process.
+     */
+    private Batch batch = new Batch();
+
+    /**
+     * Settings for the in-process execution engine.
+     */
+    @Getter
+    @Setter
+    public static class InProcess {
+
+        /**
+         * Number of runs served by one isolated class loader before it is discarded and
+         * rebuilt, bounding any static state or memory the glue code accumulates.
+         */
+        private int maxRunsPerClassLoader = 50;
+    }
+
+    /**
+     * Settings for the pool of pre-started runner JVMs used by forked runs.
+     */
+    @Getter
+    @Setter
+    public static class Pool {
+
+        /**
+         * Whether forked runs are handed to pre-started workers instead of cold-starting a JVM.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Number of workers kept alive.
+         */
+        private int size = 2;
+
+        /**
+         * Number of runs a worker serves before it is replaced.
+         */
+        private int maxRunsPerWorker = 20;
+
+        /**
+         * Heap a worker retained after its last garbage collection, read after each run, above
+         * which it is replaced. The figure lags the run until the next collection, so leave
+         * headroom below the worker's maximum heap.
+         */
+        private long maxHeapMb = 768;
+
+        /**
+         * Browsers whose driver binaries are resolved while a worker warms up.
+         */
+        private List<String> warmBrowsers = new ArrayList<>(List.of("chrome"));
+
+        /**
+         * Extra JVM options passed to every worker (e.g. -Xmx1g).
+         */
+        private List<String> jvmArgs = new ArrayList<>();
+    }
+
+    /**
+     * Settings for the live progress streamed by runners while a run executes.
+     */
+    @Getter
+    @Setter
+    public static class Progress {
+
+        /**
+         * Whether runners stream scenario and step results to the server.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Minimum interval between two step-level progress broadcasts of the same job;
+         * scenario starts and results are always broadcast.
+         */
+        private long stepBroadcastIntervalMs = 500;
+    }
+
+    /**
+     * Settings for the warm browser sessions runners reuse across scenarios.
+     */
+    @Getter
+    @Setter
+    public static class SessionPool {
+
+        /**
+         * Whether the browser of a passed scenario is reset and reused by the next scenario
+         * instead of being quit. Off by default, as scenarios may depend on a fresh browser.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Number of scenarios a browser session serves before it is quit and replaced.
+         */
+        private int maxUsesPerSession = 20;
+    }
+
+    /**
+     * Settings for running parallel scenarios in isolated contexts of a shared browser.
+     */
+    @Getter
+    @Setter
+    public static class BrowserContexts {
+
+        /**
+         * Whether Chrome and Edge scenarios get an isolated context of a shared browser instead
+         * of a browser of their own; takes precedence over the session pool.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Number of scenario contexts one shared browser hosts before another browser is started.
+         */
+        private int maxPerBrowser = 4;
+    }
+
+    /**
+     * Settings for the cache of elements located by page objects.
+     */
+    @Getter
+    @Setter
+    public static class ElementCache {
+
+        /**
+         * Whether page object fields reuse their located element until it goes stale, instead
+         * of locating it again on every access.
+         */
+        private boolean enabled = false;
+    }
+
+    /**
+     * Settings for timing the WebDriver commands of runs.
+     */
+    @Getter
+    @Setter
+    public static class CommandProfiler {
+
+        /**
+         * Whether every WebDriver command of a scenario is timed for the command latency report.
+         * Off by default, as it wraps every driver call of the run.
+         */
+        private boolean enabled = false;
+    }
+
+    /**
+     * Settings for recording the load performance of the pages runs visit.
+     */
+    @Getter
+    @Setter
+    public static class PageMetrics {
+
+        /**
+         * Whether the Navigation Timing, paint, layout shift and CDP metrics of the page are read
+         * after every step. Off by default, as it runs scripts in the page after every step.
+         */
+        private boolean enabled = false;
+
+        /**
+         * The slowdown, in percent of the baseline, from which a page metric is reported as a
+         * regression.
+         */
+        private int regressionThresholdPercent = 20;
+
+        /**
+         * The number of earlier runs of a page whose median is the baseline of a regression.
+         */
+        private int baselineRuns = 5;
+    }
+
+    /**
+     * Settings for restoring the cookies and storage of an earlier login instead of logging in
+     * through the form again.
+     */
+    @Getter
+    @Setter
+    public static class SessionCache {
+
+        /**
+         * Whether the session of a successful login is kept for later scenarios logging in with
+         * the same credentials on the same application. Off by default, as scenarios may
+         * depend on going through the login themselves.
+         */
+        private boolean enabled = false;
+
+        /**
+         * How long, in seconds, a kept session is restored; sessions whose cookies expire earlier
+         * are dropped then.
+         */
+        private long ttlSeconds = 900;
+    }
+
+    /**
+     * Settings for the classpath runners start with: the server classpath without the jars
+     * only the server uses.
+     */
+    @Getter
+    @Setter
+    public static class RunnerClasspath {
+
+        /**
+         * Jar file name patterns left out of runner classpaths, {@code *} matching any
+         * characters. Empty to give runners the full server classpath.
+         */
+        private List<String> excludedJars = new ArrayList<>(List.of("spring-boot-devtools-*",
+                "spring-boot-actuator-*", "springdoc-openapi-*", "swagger-*", "spring-security-*", "jjwt-*",
+                "tomcat-embed-websocket-*"));
+    }
+
+    /**
+     * Settings for the class-data sharing (CDS) archive runners start from, trained by the
+     * {@code cds} build profile.
+     */
+    @Getter
+    @Setter
+    public static class Cds {
+
+        /**
+         * Whether runners start from the archive when it exists and matches their classpath.
+         */
+        private boolean enabled = true;
+
+        /**
+         * The path of the runner archive, relative to the working directory of the server.
+         */
+        private String runnerArchive = "target/cds/runner.jsa";
+    }
+
+    /**
+     * Settings for batch runs.
+     */
+    @Getter
+    @Setter
+    public static class Batch {
+
+        /**
+         * Maximum number of tag expressions one batch run accepts. The runs of a batch execute
+         * one after the other, so a large batch holds its scheduler slot for a long time.
+         */
+        private int maxRuns = 20;
+    }
+
+    /**
+     * Settings for the network requests runner browsers block to load pages faster.
+     *
+     * <p>A profile lists URL patterns ({@code *} matches any characters) and resource types
+     * (image, font, media, stylesheet) the browser does not request. A job selects a profile
+     * by name; jobs that do not select one use the profile of the first matching tag, then
+     * the default profile.</p>
+     */
+    @Getter
+    @Setter
+    public static class NetworkBlocking {
+
+        /**
+         * The profile used when neither the job nor its tag selects one; empty blocks nothing.
+         */
+        private String defaultProfile = "";
+
+        /**
+         * Profiles selected by the tags of a job, e.g. {@code @smoke -> lite}.
+         */
+        private Map<String, String> tagProfiles = new LinkedHashMap<>();
+
+        /**
+         * The blocking profiles, by name.
+         */
+        private Map<String, Profile> profiles = new LinkedHashMap<>();
+    }
+
+    /**
+     * The requests blocked by one network blocking profile.
+     */
+    @Getter
+    @Setter
+    public static class Profile {
+
+        /**
+         * URL patterns of blocked requests, e.g. {@code *doubleclick.net*}.
+         */
+        private List<String> urlPatterns = new ArrayList<>();
+
+        /**
+         * Resource types of blocked requests: image, font, media or stylesheet.
+         */
+        private List<String> resourceTypes = new ArrayList<>();
+    }
+}
@@ -0,0 +1,47 @@
+package com.framework.apiserver.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * GridProperties is a configuration class that maps properties
+ * prefixed with "grid" from the application's configuration file.
+ *
+ * <p>It locates the Selenium Grid and tunes how often its readiness and free
+ * slots are checked in the background.</p>
+ *
+ * <p>Usage:</p>
+ * <ul>
+ *   <li>Define "grid.url", "grid.poll-interval-seconds", "grid.connect-timeout-ms" and
+ *       "grid.read-timeout-ms" in the application properties or YAML file.</li>
+ *   <li>Inject this class into other Spring components to access these properties.</li>
+ * </ul>
+ */
+@Component
+@ConfigurationProperties(prefix = "grid")
+@Getter
+@Setter
+public class GridProperties {
+
+    /**
+     * The URL of the Selenium Grid hub; empty to always run browsers locally.
+     */
+    private String url;
+
+    /**
+     * Seconds between two checks of the Grid status.
+     */
+    private int pollIntervalSeconds = 10;
+
+    /**
+     * Connect timeout of a Grid status check in milliseconds.
+     */
+    private int connectTimeoutMs = 2000;
+
+    /**
+     * Read timeout of a Grid status check in milliseconds.
+     */
+    private int readTimeoutMs = 3000;
+}
@@ -0,0 +1,27 @@
+package com.framework.apiserver.config;
+
+/**
+ * Enumeration representing the kind of work an asynchronous job executes.
+ * Queued jobs are rebuilt from their kind and request, so any server instance can run them.
+ */
+public enum JobKind {
+    /**
+     * Runs the scenarios selected by the run options.
+     */
+    RUN,
+
+    /**
+     * Reruns every scenario of a previous run.
+     */
+    RERUN,
+
+    /**
+     * Reruns the failed scenarios of a previous run.
+     */
+    RERUN_FAILED,
+
+    /**
+     * Runs several tag expressions one after the other in a single runner process.
+     */
+    BATCH
+}
@@ -0,0 +1,24 @@
+package com.framework.apiserver.config;
+
+/**
+ * Enumeration representing the scheduling priority of an asynchronous job.
+ *
+ * <p>Jobs waiting in the scheduler queue are dispatched in priority order
+ * (HIGH first), and in submission order within the same priority.</p>
+ */
+public enum JobPriority {
+    /**
+     * Short, fast-feedback runs such as smoke suites.
+     */
+    HIGH,
+
+    /**
+     * Default priority for runs that do not match any configured tag.
+     */
+    NORMAL,
+
+    /**
+     * Long-running suites such as full regression.
+     */
+    LOW
+}
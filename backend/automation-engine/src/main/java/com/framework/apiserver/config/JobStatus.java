@@ -7,15 +7,20 @@ package com.framework.apiserver.config;
  * The possible states are:
  * <ul>
  *   <li>PENDING - The job is created but not yet started.</li>
+ *   <li>QUEUED - The job is waiting in the scheduler queue for a free execution slot.</li>
  *   <li>RUNNING - The job is currently in progress.</li>
  *   <li>COMPLETED - The job has finished successfully.</li>
  *   <li>FAILED - The job has encountered an error and did not complete successfully.</li>
+ *   <li>CANCELLED - The job has been canceled by the user or system.</li>
+ *   <li>TIMED_OUT - The job's run exceeded its deadline and was stopped by the watchdog.</li>
  * </ul>
  */
 public enum JobStatus {
     PENDING,    // The job is created but not yet started.
+    QUEUED,     // The job is waiting in the scheduler queue for a free execution slot.
     RUNNING,    // The job is currently in progress.
     COMPLETED,  // The job has finished successfully.
     FAILED,      // The job has encountered an error and did not complete successfully.
-    CANCELLED   // The job has been canceled by the user or system.
+    CANCELLED,  // The job has been canceled by the user or system.
+    TIMED_OUT   // The job's run exceeded its deadline and was stopped by the watchdog.
 }
\ No newline at end of file
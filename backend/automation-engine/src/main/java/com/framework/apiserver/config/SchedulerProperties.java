@@ -0,0 +1,130 @@
+package com.framework.apiserver.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SchedulerProperties is a configuration class that maps properties
+ * prefixed with "scheduler" from the application's configuration file.
+ *
+ * <p>It controls how many test runs may execute at the same time, how many
+ * may wait in the queue before new submissions are rejected, and which tags
+ * map to a high or low scheduling priority.</p>
+ *
+ * <p>Usage:</p>
+ * <ul>
+ *   <li>Define "scheduler.max-concurrent-jobs", "scheduler.max-queue-size",
+ *       "scheduler.high-priority-tags" and "scheduler.low-priority-tags"
+ *       in the application properties or YAML file.</li>
+ *   <li>Define the "scheduler.durable.*" properties to share the job queue between
+ *       several server instances through the database.</li>
+ *   <li>Define the "scheduler.grid-admission.*" properties to hold jobs until the Selenium
+ *       Grid has free browser slots for them.</li>
+ *   <li>Inject this class into other Spring components to access these properties.</li>
+ * </ul>
+ */
+@Component
+@ConfigurationProperties(prefix = "scheduler")
+@Getter
+@Setter
+public class SchedulerProperties {
+
+    /**
+     * The maximum number of test runs executing at the same time.
+     */
+    private int maxConcurrentJobs = 2;
+
+    /**
+     * The maximum number of jobs allowed to wait for a free slot.
+     */
+    private int maxQueueSize = 20;
+
+    /**
+     * Tags whose runs are scheduled with {@link JobPriority#HIGH}.
+     */
+    private List<String> highPriorityTags = new ArrayList<>(List.of("@smoke"));
+
+    /**
+     * Tags whose runs are scheduled with {@link JobPriority#LOW}.
+     */
+    private List<String> lowPriorityTags = new ArrayList<>(List.of("@regression"));
+
+    /**
+     * Settings for the database-backed job queue shared by server instances.
+     */
+    private Durable durable = new Durable();
+
+    /**
+     * Settings for holding jobs until the Selenium Grid has browser slots for them.
+     */
+    private GridAdmission gridAdmission = new GridAdmission();
+
+    /**
+     * Settings for the database-backed job queue.
+     */
+    @Getter
+    @Setter
+    public static class Durable {
+
+        /**
+         * Whether jobs are queued in the database, surviving restarts and claimable by any
+         * instance, instead of in the memory of the instance that accepted them.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Name of this instance in the queue; defaults to the host name and process ID.
+         */
+        private String instanceId;
+
+        /**
+         * Interval at which the instance claims queued jobs for its free slots.
+         */
+        private long pollIntervalMs = 2000;
+
+        /**
+         * Time a claimed job stays owned by its instance without a heartbeat.
+         */
+        private int leaseSeconds = 60;
+
+        /**
+         * Interval at which an instance renews the leases of the jobs it runs.
+         */
+        private int heartbeatSeconds = 15;
+
+        /**
+         * Number of times a job is claimed before it is failed, when its instances keep dying.
+         */
+        private int maxAttempts = 2;
+    }
+
+    /**
+     * Settings for holding jobs until the Selenium Grid has browser slots for them.
+     */
+    @Getter
+    @Setter
+    public static class GridAdmission {
+
+        /**
+         * Whether jobs wait in the server queue until the Grid has enough free slots for
+         * their browser, instead of waiting in the Grid's session queue with a runner started.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Seconds the slots of an admitted job are counted as taken, until the Grid reports
+         * the sessions of its runner.
+         */
+        private int reservationSeconds = 30;
+
+        /**
+         * Interval at which waiting jobs check the Grid capacity again.
+         */
+        private long checkIntervalMs = 1000;
+    }
+}
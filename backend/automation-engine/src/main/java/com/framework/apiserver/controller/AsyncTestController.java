@@ -1,6 +1,11 @@
 package com.framework.apiserver.controller;
 
+import com.framework.apiserver.config.ExecutionMode;
+import com.framework.apiserver.config.JobPriority;
 import com.framework.apiserver.config.JobStatus;
+import com.framework.apiserver.dto.RunOptions;
+import com.framework.apiserver.execution.BatchRunCoordinator;
+import com.framework.apiserver.execution.MatrixRunCoordinator;
 import com.framework.apiserver.service.TestExecutionService;
 import com.framework.apiserver.service.TestRerunService;
 import com.framework.apiserver.utilities.AsyncJobManager;
@@ -9,9 +14,11 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 
@@ -33,25 +40,201 @@ public class AsyncTestController {
     @Autowired
     private AsyncJobManager asyncJobManager;
 
+    @Autowired
+    private MatrixRunCoordinator matrixRunCoordinator;
+
+    @Autowired
+    private BatchRunCoordinator batchRunCoordinator;
+
     /**
      * Initiates an asynchronous test execution based on the provided tags.
      *
-     * @param tags The tags to filter the tests to be executed.
-     * @return A ResponseEntity containing a map with the generated job ID.
+     * @param tags     The tags to filter the tests to be executed.
+     * @param priority The scheduling priority; derived from the tags when omitted.
+     * @param executionMode Whether to fork a runner JVM or run in-process; the configured default when omitted.
+     * @param threads  The number of scenarios executed in parallel; the configured default when omitted.
+     * @param shards   The number of runner processes the run is split across; the configured default when omitted.
+     * @param timeoutMinutes The deadline of the run, after which the job is TIMED_OUT; the configured default when omitted.
+     * @param networkProfile The network blocking profile, "none" to block nothing; derived from the tags when omitted.
+     * @return A ResponseEntity containing a map with the generated job ID and its queue position,
+     *         or 429 if the scheduler queue is full.
      */
     @Operation(
             summary = "Run tests asynchronously",
             description = "Initiates an asynchronous test execution based on the provided tags.",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Job initiated successfully"),
+                    @ApiResponse(responseCode = "429", description = "Scheduler queue is full"),
                     @ApiResponse(responseCode = "500", description = "Internal server error")
             }
     )
     @PostMapping("/async-run")
-    public ResponseEntity<Map<String, String>> runAsync(@RequestParam String tags,
-                                                        @RequestParam(defaultValue = "system") String createdBy) {
-        String jobId = testExecutionService.runTestsAsync(tags, createdBy);
-        return ResponseEntity.ok(Collections.singletonMap("jobId", jobId));
+    public ResponseEntity<Map<String, Object>> runAsync(@RequestParam String tags,
+                                                        @RequestParam(defaultValue = "system") String createdBy,
+                                                        @RequestParam(required = false) JobPriority priority,
+                                                        @RequestParam(required = false) ExecutionMode executionMode,
+                                                        @RequestParam(required = false) Integer threads,
+                                                        @RequestParam(required = false) Integer shards,
+                                                        @RequestParam(required = false) Integer timeoutMinutes,
+                                                        @RequestParam(required = false) String networkProfile) {
+        RunOptions options = RunOptions.builder()
+                .tag(tags)
+                .priority(priority)
+                .executionMode(executionMode)
+                .threads(threads)
+                .shards(shards)
+                .timeoutMinutes(timeoutMinutes)
+                .networkProfile(networkProfile)
+                .build();
+        return submit(() -> testExecutionService.runTestsAsync(options, createdBy));
+    }
+
+    /**
+     * Initiates a matrix run: the tests of the provided tags on each of the given browsers,
+     * in parallel runner processes, tracked as one parent job with a child job per browser.
+     *
+     * @param tags     The tags to filter the tests to be executed.
+     * @param browsers The browsers to run on; chrome, firefox and edge when omitted.
+     * @param priority The scheduling priority; derived from the tags when omitted.
+     * @param threads  The number of scenarios executed in parallel per browser; the configured default when omitted.
+     * @param shards   The number of runner processes each browser's run is split across; the configured default when omitted.
+     * @param timeoutMinutes The deadline of each browser's run; the configured default when omitted.
+     * @param networkProfile The network blocking profile, "none" to block nothing; derived from the tags when omitted.
+     * @return A ResponseEntity containing a map with the parent job ID, its status and the child job of each browser,
+     *         400 if no browser is given, or 429 if the scheduler queue is full.
+     */
+    @Operation(
+            summary = "Run tests on several browsers",
+            description = "Fans the tests of the provided tags out across browsers in parallel runner processes, tracked as one parent job.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Matrix run initiated successfully"),
+                    @ApiResponse(responseCode = "400", description = "No browser given"),
+                    @ApiResponse(responseCode = "429", description = "Scheduler queue is full"),
+                    @ApiResponse(responseCode = "500", description = "Internal server error")
+            }
+    )
+    @PostMapping("/matrix-run")
+    public ResponseEntity<Map<String, Object>> runMatrix(@RequestParam String tags,
+                                                         @RequestParam(defaultValue = "chrome,firefox,edge") List<String> browsers,
+                                                         @RequestParam(defaultValue = "system") String createdBy,
+                                                         @RequestParam(required = false) JobPriority priority,
+                                                         @RequestParam(required = false) Integer threads,
+                                                         @RequestParam(required = false) Integer shards,
+                                                         @RequestParam(required = false) Integer timeoutMinutes,
+                                                         @RequestParam(required = false) String networkProfile) {
+        RunOptions options = RunOptions.builder()
+                .tag(tags)
+                .priority(priority)
+                .threads(threads)
+                .shards(shards)
+                .timeoutMinutes(timeoutMinutes)
+                .networkProfile(networkProfile)
+                .build();
+        try {
+            ResponseEntity<Map<String, Object>> response = submit(() -> matrixRunCoordinator.submit(options, browsers, createdBy));
+            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
+                matrixRunCoordinator.getStatus(String.valueOf(response.getBody().get("jobId")))
+                        .ifPresent(matrix -> response.getBody().put("browsers", matrix.getBrowsers()));
+            }
+            return response;
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    /**
+     * Retrieves a matrix run with the status and result of each browser.
+     *
+     * @param jobId The ID of the parent job of the matrix run.
+     * @return A ResponseEntity containing the matrix run, or 404 if it does not exist.
+     */
+    @Operation(
+            summary = "Get matrix run status",
+            description = "Retrieves the combined status of a matrix run and the status and result of each browser.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Matrix run retrieved successfully"),
+                    @ApiResponse(responseCode = "404", description = "Matrix run not found")
+            }
+    )
+    @GetMapping("/matrix/{jobId}")
+    public ResponseEntity<?> getMatrixStatus(@PathVariable String jobId) {
+        return matrixRunCoordinator.getStatus(jobId)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body("Invalid matrix jobId: " + jobId));
+    }
+
+    /**
+     * Initiates a batch run: the tests of each of the provided tag expressions, executed one
+     * after the other in a single runner process, tracked as one batch job with a job and run
+     * ID per tag expression.
+     *
+     * @param tags     The tag expressions to run, in the order they run.
+     * @param priority The scheduling priority; derived from the tags when omitted.
+     * @param threads  The number of scenarios each run executes in parallel; the configured default when omitted.
+     * @param timeoutMinutes The deadline of each run; the batch's deadline is this times the number of runs.
+     * @param networkProfile The network blocking profile of every run, "none" to block nothing; derived from the tags when omitted.
+     * @return A ResponseEntity containing a map with the batch job ID, its status and the job and run ID of each
+     *         tag expression, 400 if no or too many tag expressions are given, or 429 if the scheduler queue is full.
+     */
+    @Operation(
+            summary = "Run several tag expressions in one runner process",
+            description = "Executes the tests of each tag expression one after the other in a single runner process, "
+                    + "recording a separate run and job per tag expression.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Batch run initiated successfully"),
+                    @ApiResponse(responseCode = "400", description = "No or too many tag expressions given"),
+                    @ApiResponse(responseCode = "429", description = "Scheduler queue is full"),
+                    @ApiResponse(responseCode = "500", description = "Internal server error")
+            }
+    )
+    @PostMapping("/batch-run")
+    public ResponseEntity<Map<String, Object>> runBatch(@RequestParam List<String> tags,
+                                                        @RequestParam(defaultValue = "system") String createdBy,
+                                                        @RequestParam(required = false) JobPriority priority,
+                                                        @RequestParam(required = false) Integer threads,
+                                                        @RequestParam(required = false) Integer timeoutMinutes,
+                                                        @RequestParam(required = false) String networkProfile) {
+        RunOptions options = RunOptions.builder()
+                .priority(priority)
+                .threads(threads)
+                .timeoutMinutes(timeoutMinutes)
+                .networkProfile(networkProfile)
+                .build();
+        try {
+            ResponseEntity<Map<String, Object>> response = submit(() -> batchRunCoordinator.submit(options, tags, createdBy));
+            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
+                batchRunCoordinator.getStatus(String.valueOf(response.getBody().get("jobId")))
+                        .ifPresent(batch -> response.getBody().put("runs", batch.getRuns()));
+            }
+            return response;
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    /**
+     * Retrieves a batch run with the status, run ID and result of each tag expression.
+     *
+     * @param jobId The ID of the batch job.
+     * @return A ResponseEntity containing the batch run, or 404 if it does not exist.
+     */
+    @Operation(
+            summary = "Get batch run status",
+            description = "Retrieves the combined status of a batch run and the status, run ID and result of each tag expression.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Batch run retrieved successfully"),
+                    @ApiResponse(responseCode = "404", description = "Batch run not found")
+            }
+    )
+    @GetMapping("/batch/{jobId}")
+    public ResponseEntity<?> getBatchStatus(@PathVariable String jobId) {
+        return batchRunCoordinator.getStatus(jobId)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body("Invalid batch jobId: " + jobId));
     }
 
     /**
@@ -65,14 +248,14 @@ public class AsyncTestController {
             description = "Initiates an asynchronous rerun of tests for a specific run ID.",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Job initiated successfully"),
+                    @ApiResponse(responseCode = "429", description = "Scheduler queue is full"),
                     @ApiResponse(responseCode = "500", description = "Internal server error")
             }
     )
     @PostMapping("/async-rerun")
-    public ResponseEntity<Map<String, String>> rerunAsync(@RequestParam String runId,
+    public ResponseEntity<Map<String, Object>> rerunAsync(@RequestParam String runId,
                                                           @RequestParam(defaultValue = "system") String createdBy) {
-        String jobId = testRerunService.rerunTestsAsync(runId, createdBy);
-        return ResponseEntity.ok(Collections.singletonMap("jobId", jobId));
+        return submit(() -> testRerunService.rerunTestsAsync(runId, createdBy));
     }
 
     /**
@@ -86,25 +269,26 @@ public class AsyncTestController {
             description = "Initiates an asynchronous rerun of only the failed tests for a specific run ID.",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Job initiated successfully"),
+                    @ApiResponse(responseCode = "429", description = "Scheduler queue is full"),
                     @ApiResponse(responseCode = "500", description = "Internal server error")
             }
     )
     @PostMapping("/async-rerun/failed")
-    public ResponseEntity<Map<String, String>> rerunFailedAsync(@RequestParam String runId,
+    public ResponseEntity<Map<String, Object>> rerunFailedAsync(@RequestParam String runId,
                                                                 @RequestParam(defaultValue = "system") String createdBy) {
-        String jobId = testRerunService.rerunFailedTestsAsync(runId, createdBy);
-        return ResponseEntity.ok(Collections.singletonMap("jobId", jobId));
+        return submit(() -> testRerunService.rerunFailedTestsAsync(runId, createdBy));
     }
 
     /**
      * Retrieves the status of a specific asynchronous job.
+     * With the durable job queue the status is shared, so any server instance can answer.
      *
      * @param jobId The unique identifier of the job.
      * @return A ResponseEntity containing the job status and additional details if available.
      */
     @Operation(
             summary = "Get job status",
-            description = "Retrieves the status of a specific asynchronous job.",
+            description = "Retrieves the status of a specific asynchronous job, whichever server instance runs it.",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Job status retrieved successfully"),
                     @ApiResponse(responseCode = "404", description = "Job not found"),
@@ -123,6 +307,10 @@ public class AsyncTestController {
         response.put("jobId", jobId);
         response.put("status", status);
 
+        if (status == JobStatus.QUEUED) {
+            response.put("queuePosition", asyncJobManager.getQueuePosition(jobId));
+            response.put("estimatedWaitSeconds", asyncJobManager.getEstimatedWaitSeconds(jobId));
+        }
         if (status == JobStatus.COMPLETED) {
             response.put("result", asyncJobManager.getResult(jobId));
         }
@@ -155,4 +343,25 @@ public class AsyncTestController {
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * Submits a job through the given action and builds the common submission response.
+     *
+     * @param action The service call that queues the job and returns its ID.
+     * @return 200 with the job ID, status and queue position, or 429 with the queue depth if the
+     *         scheduler cannot admit more jobs.
+     */
+    private ResponseEntity<Map<String, Object>> submit(Supplier<String> action) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            String jobId = action.get();
+            response.put("jobId", jobId);
+            response.put("status", asyncJobManager.getStatus(jobId));
+            response.put("queuePosition", asyncJobManager.getQueuePosition(jobId));
+            return ResponseEntity.ok(response);
+        } catch (RejectedExecutionException e) {
+            response.put("error", e.getMessage());
+            response.put("queueDepth", asyncJobManager.getQueueDepth());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(response);
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package com.framework.apiserver.controller;
 
+import com.framework.apiserver.dto.dashboard.PagePerformanceRegression;
 import com.framework.apiserver.dto.dashboard.PassFailPieResponse;
 import com.framework.apiserver.dto.dashboard.TopFailure;
 import com.framework.apiserver.dto.dashboard.WeeklySummaryResponse;
+import com.framework.apiserver.entity.PagePerformance;
 import com.framework.apiserver.entity.TestRunInfoEntity;
 import com.framework.apiserver.repository.TestRunInfoRepository;
 import com.framework.apiserver.service.DashboardService;
+import com.framework.apiserver.service.PagePerformanceService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -23,7 +26,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
  *
  * <p>This controller provides endpoints to retrieve test run information,
  * including all runs, latest runs, statistics, weekly summaries, pass/fail pie charts,
- * and top failures.</p>
+ * top failures and the load performance history of the pages runs visit.</p>
  */
 @RestController
 @RequestMapping("/api/dashboard")
@@ -35,6 +38,8 @@ public class DashboardController {
 
     private final TestRunInfoRepository repository;
 
+    private final PagePerformanceService pagePerformanceService;
+
     /**
      * Retrieves all test runs sorted by start time in descending order.
      *
@@ -183,4 +188,67 @@ public class DashboardController {
     public List<TopFailure> getTopFailures() {
         return dashboardService.getTopFailures();
     }
-}
\ No newline at end of file
+
+    /**
+     * Retrieves the load performance of the pages a test run visited.
+     *
+     * @param runId The unique identifier of the test run.
+     * @return The pages of the run with their averaged metrics.
+     */
+    @Operation(
+            summary = "Get page performance of a run",
+            description = "Retrieves the Navigation Timing, paint, layout shift and browser metrics of the pages a run loaded.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Page performance retrieved successfully"),
+                    @ApiResponse(responseCode = "500", description = "Internal server error")
+            }
+    )
+    @GetMapping("/page-performance/runs/{runId}")
+    public List<PagePerformance> getRunPagePerformance(@PathVariable String runId) {
+        return pagePerformanceService.getRun(runId);
+    }
+
+    /**
+     * Retrieves the performance history of a page.
+     *
+     * @param page The page URL without its query string.
+     * @param days The number of days of history (default is 30).
+     * @return The runs that loaded the page, oldest first.
+     */
+    @Operation(
+            summary = "Get page performance trend",
+            description = "Retrieves the metrics of a page in every run of the last days, oldest first.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Page performance trend retrieved successfully"),
+                    @ApiResponse(responseCode = "500", description = "Internal server error")
+            }
+    )
+    @GetMapping("/page-performance/trend")
+    public List<PagePerformance> getPagePerformanceTrend(@RequestParam String page,
+                                                         @RequestParam(defaultValue = "30") int days) {
+        return pagePerformanceService.getTrend(page, days);
+    }
+
+    /**
+     * Retrieves the page metrics whose latest run is slower than the median of the earlier runs.
+     *
+     * @param days             The number of days of history compared (default is 30).
+     * @param thresholdPercent The slowdown from which a metric is reported; the configured
+     *                         threshold if absent.
+     * @return The regressions, largest slowdown first.
+     */
+    @Operation(
+            summary = "Get page performance regressions",
+            description = "Retrieves the page metrics whose latest run is slower than their baseline by more than the threshold.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Page performance regressions retrieved successfully"),
+                    @ApiResponse(responseCode = "500", description = "Internal server error")
+            }
+    )
+    @GetMapping("/page-performance/regressions")
+    public List<PagePerformanceRegression> getPagePerformanceRegressions(
+            @RequestParam(defaultValue = "30") int days,
+            @RequestParam(required = false) Integer thresholdPercent) {
+        return pagePerformanceService.getRegressions(days, thresholdPercent);
+    }
+}
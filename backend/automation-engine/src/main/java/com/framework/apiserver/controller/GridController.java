@@ -0,0 +1,38 @@
+package com.framework.apiserver.controller;
+
+import com.framework.apiserver.dto.GridStatus;
+import com.framework.apiserver.execution.GridMonitor;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller exposing the state of the Selenium Grid.
+ * The state is served from the last background check, so requests never wait on the Grid.
+ */
+@RestController
+@RequestMapping("/api/grid")
+@CrossOrigin(origins = "*")
+@RequiredArgsConstructor
+public class GridController {
+
+    private final GridMonitor gridMonitor;
+
+    @Operation(
+            summary = "Get Selenium Grid status",
+            description = "Retrieves the readiness and the total and free slots per browser of the Selenium Grid, as of its last background check.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Grid status retrieved successfully"),
+                    @ApiResponse(responseCode = "500", description = "Internal server error")
+            }
+    )
+    @GetMapping("/status")
+    public ResponseEntity<GridStatus> getGridStatus() {
+        return ResponseEntity.ok(gridMonitor.getStatus());
+    }
+}
@@ -1,7 +1,9 @@
 package com.framework.apiserver.controller;
 
 import com.framework.apiserver.dto.JobStatusSummary;
+import com.framework.apiserver.dto.RunProgress;
 import com.framework.apiserver.entity.JobTracking;
+import com.framework.apiserver.execution.RunProgressServer;
 import com.framework.apiserver.service.JobTrackingService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -28,6 +30,9 @@ public class JobTrackingController {
     @Autowired
     private JobTrackingService jobTrackingService;
 
+    @Autowired
+    private RunProgressServer runProgressServer;
+
     @Operation(
             summary = "Get real-time job updates via Server-Sent Events",
             description = "Establishes an SSE connection for real-time job status updates",
@@ -68,6 +73,22 @@ public class JobTrackingController {
         return ResponseEntity.ok(jobTrackingService.getActiveJobs());
     }
 
+    @Operation(
+            summary = "Get live progress of a running job",
+            description = "Retrieves the scenario counters, running scenarios and failures streamed so far by the runner of a job.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Job progress retrieved successfully"),
+                    @ApiResponse(responseCode = "404", description = "Job is not running"),
+                    @ApiResponse(responseCode = "500", description = "Internal server error")
+            }
+    )
+    @GetMapping("/{jobId}/progress")
+    public ResponseEntity<RunProgress> getJobProgress(@PathVariable String jobId) {
+        return runProgressServer.getProgress(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @Operation(
             summary = "Get job by ID",
             description = "Retrieves a job by its unique identifier.",
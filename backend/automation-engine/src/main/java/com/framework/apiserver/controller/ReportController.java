@@ -70,4 +70,27 @@ public class ReportController {
         return reportService.viewSparkReport(runId);
     }
 
+    /**
+     * Retrieves the WebDriver command latencies of the given runId: a histogram per command,
+     * the steps spending the most time in commands and the slowest single commands.
+     *
+     * @param runId The unique identifier of the test run.
+     * @param top   The number of slowest steps and single commands to include.
+     * @return A ResponseEntity containing the command latency report or an error response.
+     */
+    @Operation(
+            summary = "Get WebDriver command latencies by runId",
+            description = "Returns the per-command latency histograms, the slowest steps and the slowest commands of a run",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Command latencies retrieved successfully"),
+                    @ApiResponse(responseCode = "404", description = "No command latency report for the run"),
+                    @ApiResponse(responseCode = "500", description = "Internal server error")
+            }
+    )
+    @GetMapping("/{runId}/commands")
+    public ResponseEntity<?> getCommandLatency(@PathVariable String runId,
+                                               @RequestParam(defaultValue = "20") int top) {
+        return reportService.getCommandLatency(runId, top);
+    }
+
 }
\ No newline at end of file
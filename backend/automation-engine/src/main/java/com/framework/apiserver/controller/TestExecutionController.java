@@ -1,6 +1,9 @@
 package com.framework.apiserver.controller;
 
+import com.framework.apiserver.config.ExecutionMode;
+import com.framework.apiserver.dto.RunOptions;
 import com.framework.apiserver.dto.TestExecutionResponse;
+import com.framework.apiserver.service.BrowserContextManager;
 import com.framework.apiserver.service.JobTrackingService;
 import com.framework.apiserver.service.TestExecutionService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -43,11 +46,24 @@ public class TestExecutionController {
     @Autowired
     private JobTrackingService jobTrackingService;
 
+    @Autowired
+    private BrowserContextManager browserContextManager;
+
     /**
      * Executes Cucumber tests based on the provided tags.
      *
      * @param tags A comma-separated list of tags to filter the tests (optional).
      *             Defaults to an empty string if not provided.
+     * @param executionMode Whether to fork a runner JVM or run in-process (optional).
+     *             Defaults to the configured execution mode.
+     * @param threads The number of scenarios executed in parallel (optional).
+     *             Defaults to the configured thread count.
+     * @param shards The number of runner processes the run is split across (optional).
+     *             Defaults to the configured shard count.
+     * @param timeoutMinutes The deadline of the run, after which the job is TIMED_OUT (optional).
+     *             Defaults to the configured run timeout.
+     * @param networkProfile The network blocking profile, "none" to block nothing (optional).
+     *             Defaults to the profile of the tags, then the configured default profile.
      * @return A TestExecutionResponse object containing the results of the test execution.
      */
     @Operation(
@@ -60,9 +76,23 @@ public class TestExecutionController {
     )
     @PostMapping("/run")
     public TestExecutionResponse runTests(@RequestParam(defaultValue = "") String tags,
-                                          @RequestParam(defaultValue = "system") String createdBy) {
+                                          @RequestParam(defaultValue = "system") String createdBy,
+                                          @RequestParam(required = false) ExecutionMode executionMode,
+                                          @RequestParam(required = false) Integer threads,
+                                          @RequestParam(required = false) Integer shards,
+                                          @RequestParam(required = false) Integer timeoutMinutes,
+                                          @RequestParam(required = false) String networkProfile) {
         String jobId = jobTrackingService.startSyncJob(tags, createdBy);
-        return testExecutionService.runCucumberTests(tags, jobId, false);
+        RunOptions options = RunOptions.builder()
+                .tag(tags)
+                .browserType(browserContextManager.getBrowserType())
+                .executionMode(executionMode)
+                .threads(threads)
+                .shards(shards)
+                .timeoutMinutes(timeoutMinutes)
+                .networkProfile(networkProfile)
+                .build();
+        return testExecutionService.runCucumberTests(options, jobId, false);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,75 @@
+package com.framework.apiserver.dto;
+
+import com.framework.apiserver.config.JobStatus;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) representing a batch run: several tag expressions executed one
+ * after the other in one runner process, tracked as a batch job with one job per tag expression.
+ */
+@Data
+@Builder
+public class BatchRunStatus {
+
+    /**
+     * The ID of the batch job.
+     */
+    private String jobId;
+
+    /**
+     * The browser every run of the batch uses.
+     */
+    private String browserType;
+
+    /**
+     * The status of the batch job: RUNNING while its runner process runs, then the combined outcome.
+     */
+    private JobStatus status;
+
+    private LocalDateTime startTime;
+
+    private LocalDateTime endTime;
+
+    /**
+     * The combined failure count of the runs that finished.
+     */
+    private int failures;
+
+    /**
+     * The run of each tag expression, in the order the batch runs them.
+     */
+    private List<TagRun> runs;
+
+    /**
+     * The job running one tag expression of the batch.
+     */
+    @Data
+    @Builder
+    public static class TagRun {
+
+        private String tag;
+
+        private String jobId;
+
+        private JobStatus status;
+
+        /**
+         * The run ID of the tag expression's run, assigned when the batch is submitted.
+         */
+        private String runId;
+
+        /**
+         * The run's status message, or the error of a failed job.
+         */
+        private String result;
+
+        /**
+         * The failed scenarios of the run, null until it finished.
+         */
+        private Integer failures;
+    }
+}
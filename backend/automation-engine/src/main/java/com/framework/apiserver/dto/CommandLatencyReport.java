@@ -0,0 +1,177 @@
+package com.framework.apiserver.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Data Transfer Object (DTO) holding the latency of the WebDriver commands of a test run.
+ *
+ * <p>Written by the runner to {@code reports/{runId}/command-latency.json} and merged across
+ * the shards of a run by the server. Latencies are kept in histograms with fixed bucket
+ * bounds, so reports of several runners can be added up.</p>
+ */
+@Data
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CommandLatencyReport {
+
+    /**
+     * Upper bounds of the histogram buckets in milliseconds; a last bucket holds slower commands.
+     */
+    public static final long[] BUCKET_BOUNDS_MS = {5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000};
+
+    /**
+     * Latency of every command, by command name (e.g. WebElement.click).
+     */
+    private Map<String, CommandLatency> commands = new TreeMap<>();
+
+    /**
+     * Time the steps spent in WebDriver commands, slowest first.
+     */
+    private List<StepLatency> steps = new ArrayList<>();
+
+    /**
+     * The slowest single commands, slowest first.
+     */
+    private List<CommandCall> slowest = new ArrayList<>();
+
+    /**
+     * Adds the commands of another report to this one.
+     *
+     * @param other The report of another runner of the same run.
+     * @return This report.
+     */
+    public CommandLatencyReport merge(CommandLatencyReport other) {
+        other.getCommands().forEach((command, latency) ->
+                commands.computeIfAbsent(command, name -> new CommandLatency()).add(latency));
+        steps.addAll(other.getSteps());
+        slowest.addAll(other.getSlowest());
+        return this;
+    }
+
+    /**
+     * Keeps the slowest steps and commands only.
+     *
+     * @param limit The number of steps and of single commands kept.
+     * @return This report.
+     */
+    public CommandLatencyReport top(int limit) {
+        steps = steps.stream()
+                .sorted(Comparator.comparingLong(StepLatency::getTotalMs).reversed())
+                .limit(limit)
+                .collect(Collectors.toCollection(ArrayList::new));
+        slowest = slowest.stream()
+                .sorted(Comparator.comparingLong(CommandCall::getMs).reversed())
+                .limit(limit)
+                .collect(Collectors.toCollection(ArrayList::new));
+        return this;
+    }
+
+    /**
+     * The latency histogram of one command.
+     */
+    @Data
+    @NoArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class CommandLatency {
+
+        private long count;
+        private long totalMs;
+        private long maxMs;
+
+        /**
+         * Commands per bucket of {@link #BUCKET_BOUNDS_MS}, plus the bucket of slower commands.
+         */
+        private long[] buckets = new long[BUCKET_BOUNDS_MS.length + 1];
+
+        /**
+         * Records one command.
+         *
+         * @param ms The latency of the command.
+         */
+        public void record(long ms) {
+            count++;
+            totalMs += ms;
+            maxMs = Math.max(maxMs, ms);
+            int bucket = 0;
+            while (bucket < BUCKET_BOUNDS_MS.length && ms > BUCKET_BOUNDS_MS[bucket]) {
+                bucket++;
+            }
+            buckets[bucket]++;
+        }
+
+        /**
+         * Adds the commands of another histogram of the same command.
+         *
+         * @param other The other histogram.
+         */
+        public void add(CommandLatency other) {
+            count += other.getCount();
+            totalMs += other.getTotalMs();
+            maxMs = Math.max(maxMs, other.getMaxMs());
+            for (int i = 0; i < buckets.length && i < other.getBuckets().length; i++) {
+                buckets[i] += other.getBuckets()[i];
+            }
+        }
+
+        /**
+         * @return The average latency in milliseconds.
+         */
+        public long getAverageMs() {
+            return count == 0 ? 0 : totalMs / count;
+        }
+
+        /**
+         * @return The upper bound of the bucket holding the 95th percentile, or the maximum
+         *         latency if it is in the bucket of the slowest commands.
+         */
+        public long getP95Ms() {
+            long threshold = (long) Math.ceil(count * 0.95);
+            long seen = 0;
+            for (int i = 0; i < BUCKET_BOUNDS_MS.length; i++) {
+                seen += buckets[i];
+                if (seen >= threshold) {
+                    return Math.min(BUCKET_BOUNDS_MS[i], maxMs);
+                }
+            }
+            return maxMs;
+        }
+    }
+
+    /**
+     * The time one step of a scenario spent in WebDriver commands.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StepLatency {
+
+        private String scenario;
+        private String step;
+        private long commands;
+        private long totalMs;
+    }
+
+    /**
+     * One slow command and the step it was sent by.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CommandCall {
+
+        private String command;
+        private String scenario;
+        private String step;
+        private long ms;
+    }
+}
@@ -0,0 +1,61 @@
+package com.framework.apiserver.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Data Transfer Object (DTO) representing the last known state of the Selenium Grid.
+ * Refreshed in the background by the Grid monitor.
+ */
+@Data
+@NoArgsConstructor
+public class GridStatus {
+
+    /**
+     * The URL of the Grid hub, null if no Grid is configured.
+     */
+    private String url;
+
+    /**
+     * Whether the Grid answered the last status check and reported itself ready.
+     */
+    private boolean ready;
+
+    /**
+     * The message of the Grid, or the reason the last status check failed.
+     */
+    private String message;
+
+    /**
+     * The slots of the Grid, by browser name.
+     */
+    private Map<String, BrowserSlots> browsers = new LinkedHashMap<>();
+
+    /**
+     * When the Grid status was last checked.
+     */
+    private LocalDateTime checkedAt;
+
+    public GridStatus(String url, boolean ready, String message) {
+        this.url = url;
+        this.ready = ready;
+        this.message = message;
+        this.checkedAt = LocalDateTime.now();
+    }
+
+    /**
+     * The slots of one browser on the available nodes of the Grid.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BrowserSlots {
+        private int total;
+        private int free;
+    }
+}
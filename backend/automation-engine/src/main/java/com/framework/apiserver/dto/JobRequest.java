@@ -0,0 +1,33 @@
+package com.framework.apiserver.dto;
+
+import com.framework.apiserver.config.JobKind;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) describing the work of an asynchronous job.
+ * It is stored with the queued job, so the job can be executed by any server instance.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobRequest {
+
+    /**
+     * The kind of work the job executes.
+     */
+    private JobKind kind;
+
+    /**
+     * The run options, with the browser captured when the job was submitted.
+     */
+    private RunOptions options;
+
+    /**
+     * The ID of the run being rerun, for rerun jobs.
+     */
+    private String sourceRunId;
+}
@@ -29,6 +29,26 @@ public class JobStatusSummary {
      */
     private int syncJobs;
 
+    /**
+     * The number of jobs waiting in the scheduler queue.
+     */
+    private int queuedJobs;
+
+    /**
+     * The number of jobs currently running.
+     */
+    private int runningJobs;
+
+    /**
+     * How long the oldest queued job has been waiting, in seconds.
+     */
+    private long oldestQueuedWaitSeconds;
+
+    /**
+     * The average time running jobs waited in the queue before starting, in seconds.
+     */
+    private double averageWaitSeconds;
+
     /**
      * A list of active jobs with their details.
      */
@@ -0,0 +1,75 @@
+package com.framework.apiserver.dto;
+
+import com.framework.apiserver.config.JobStatus;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) representing a matrix run: one tag expression executed on
+ * several browsers, tracked as a parent job with one child job per browser.
+ */
+@Data
+@Builder
+public class MatrixRunStatus {
+
+    /**
+     * The ID of the parent job.
+     */
+    private String jobId;
+
+    /**
+     * The tag expression every browser runs.
+     */
+    private String tag;
+
+    /**
+     * The status of the parent job: RUNNING while any browser runs, then the combined outcome.
+     */
+    private JobStatus status;
+
+    private LocalDateTime startTime;
+
+    private LocalDateTime endTime;
+
+    /**
+     * The combined failure count of the browsers that finished their run.
+     */
+    private int failures;
+
+    /**
+     * The run of each browser.
+     */
+    private List<BrowserRun> browsers;
+
+    /**
+     * The child job running the matrix on one browser.
+     */
+    @Data
+    @Builder
+    public static class BrowserRun {
+
+        private String browserType;
+
+        private String jobId;
+
+        private JobStatus status;
+
+        /**
+         * The run ID of the browser's run, null until it finished.
+         */
+        private String runId;
+
+        /**
+         * The run's status message, or the error of a failed job.
+         */
+        private String result;
+
+        /**
+         * The failed scenarios of the run, null until it finished.
+         */
+        private Integer failures;
+    }
+}
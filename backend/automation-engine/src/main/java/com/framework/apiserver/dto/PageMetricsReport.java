@@ -0,0 +1,77 @@
+package com.framework.apiserver.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) holding the browser-side performance metrics of the pages a
+ * test run loaded.
+ *
+ * <p>Written by the runner to {@code reports/{runId}/page-metrics.json}, one sample per page
+ * load, and folded into the {@code page_performance} table by the server when the run is
+ * recorded.</p>
+ */
+@Data
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class PageMetricsReport {
+
+    /**
+     * The network blocking profile of the run, as blocked requests change page timings.
+     */
+    private String networkProfile;
+
+    /**
+     * One sample per page load, in the order the pages were loaded.
+     */
+    private List<PageSample> samples = new ArrayList<>();
+
+    /**
+     * The metrics of one page load, read after the last step that ran on the page.
+     *
+     * <p>Timings are in milliseconds from the start of the navigation; 0 when the browser did
+     * not report them, e.g. for a page that had not finished loading.</p>
+     */
+    @Data
+    @NoArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class PageSample {
+
+        /**
+         * The name of the scenario that loaded the page.
+         */
+        private String scenario;
+
+        /**
+         * The page URL without its query string and fragment.
+         */
+        private String page;
+
+        private long ttfbMs;
+        private long domContentLoadedMs;
+        private long loadMs;
+        private long fcpMs;
+        private long lcpMs;
+
+        /**
+         * The cumulative layout shift of the page, the largest session window of shifts.
+         */
+        private double cls;
+
+        private long transferBytes;
+
+        /**
+         * JavaScript heap in use, from the CDP {@code Performance.getMetrics}; 0 without CDP.
+         */
+        private long jsHeapUsedBytes;
+
+        /**
+         * DOM nodes of the browser tab, from the CDP {@code Performance.getMetrics}; 0 without CDP.
+         */
+        private long domNodes;
+    }
+}
@@ -0,0 +1,60 @@
+package com.framework.apiserver.dto;
+
+import com.framework.apiserver.config.ExecutionMode;
+import com.framework.apiserver.config.JobPriority;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) describing how a single test run should be executed.
+ *
+ * <p>Options left null fall back to the server defaults.</p>
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class RunOptions {
+
+    /**
+     * The Cucumber tag expression selecting the scenarios to run.
+     */
+    private String tag;
+
+    /**
+     * The browser the UI scenarios run on (e.g., chrome, firefox, edge).
+     */
+    private String browserType;
+
+    /**
+     * The scheduling priority of the job.
+     */
+    private JobPriority priority;
+
+    /**
+     * Whether the run is forked into its own JVM or executed in-process.
+     */
+    private ExecutionMode executionMode;
+
+    /**
+     * The number of scenarios executed in parallel within the run.
+     */
+    private Integer threads;
+
+    /**
+     * The number of runner processes the run is split across.
+     */
+    private Integer shards;
+
+    /**
+     * The deadline of the whole run in minutes; 0 disables it.
+     */
+    private Integer timeoutMinutes;
+
+    /**
+     * The network blocking profile of the run; "none" blocks nothing.
+     */
+    private String networkProfile;
+}
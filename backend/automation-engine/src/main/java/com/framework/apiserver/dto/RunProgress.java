@@ -0,0 +1,86 @@
+package com.framework.apiserver.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) representing the live progress of a running job.
+ * Updated incrementally from the scenario results streamed by the runner.
+ */
+@Data
+@NoArgsConstructor
+public class RunProgress {
+
+    /**
+     * The ID of the job the run belongs to.
+     */
+    private String jobId;
+
+    /**
+     * The ID of the test run.
+     */
+    private String runId;
+
+    /**
+     * The number of scenarios that have finished.
+     */
+    private int completed;
+
+    /**
+     * The number of scenarios that passed.
+     */
+    private int passed;
+
+    /**
+     * The number of scenarios that failed.
+     */
+    private int failed;
+
+    /**
+     * The number of scenarios that were skipped, pending or undefined.
+     */
+    private int skipped;
+
+    /**
+     * The scenarios currently running.
+     */
+    private List<String> runningScenarios = new ArrayList<>();
+
+    /**
+     * The scenarios that failed so far.
+     */
+    private List<ScenarioFailure> failures = new ArrayList<>();
+
+    /**
+     * The last step that finished, with its status.
+     */
+    private String lastStep;
+
+    /**
+     * When the progress was last updated.
+     */
+    private LocalDateTime updatedAt;
+
+    public RunProgress(String jobId, String runId) {
+        this.jobId = jobId;
+        this.runId = runId;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    /**
+     * A failed scenario and the reason it failed.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ScenarioFailure {
+        private String scenario;
+        private String location;
+        private String error;
+    }
+}
@@ -0,0 +1,21 @@
+package com.framework.apiserver.dto.dashboard;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A page metric whose latest run is slower than the median of the earlier runs of the page.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PagePerformanceRegression {
+    private String page;
+    private String networkProfile;
+    private String metric;
+    private double baseline;
+    private double latest;
+    private double changePercent;
+    private String latestRunId;
+}
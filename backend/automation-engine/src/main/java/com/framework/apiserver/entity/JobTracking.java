@@ -1,5 +1,6 @@
 package com.framework.apiserver.entity;
 
+import com.framework.apiserver.config.JobPriority;
 import com.framework.apiserver.config.JobStatus;
 import com.framework.apiserver.config.JobType;
 import jakarta.persistence.*;
@@ -51,6 +52,42 @@ public class JobTracking {
     @Enumerated(EnumType.STRING)
     private JobStatus status;
 
+    /**
+     * The scheduling priority of the job (e.g., HIGH for smoke runs).
+     */
+    @Enumerated(EnumType.STRING)
+    private JobPriority priority;
+
+    /**
+     * The number of seconds the job waited for an execution slot before it started running.
+     */
+    @Column(name = "wait_time_seconds")
+    private Long waitTimeSeconds;
+
+    /**
+     * The number of seconds a queued job is expected to wait for Selenium Grid capacity, null if unknown.
+     */
+    @Column(name = "estimated_wait_seconds")
+    private Long estimatedWaitSeconds;
+
+    /**
+     * The browser the job runs on; for the parent job of a matrix run, its comma-separated browsers.
+     */
+    @Column(name = "browser_type")
+    private String browserType;
+
+    /**
+     * The parent job of a matrix run this job is one browser of, null for other jobs.
+     */
+    @Column(name = "parent_job_id")
+    private String parentJobId;
+
+    /**
+     * The batch run this job is one tag expression of, null for other jobs.
+     */
+    @Column(name = "batch_job_id")
+    private String batchJobId;
+
     /**
      * The start time of the job execution.
      */
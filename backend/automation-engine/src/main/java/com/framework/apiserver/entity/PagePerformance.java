@@ -0,0 +1,95 @@
+package com.framework.apiserver.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing the browser-side load performance of one page in one test run.
+ *
+ * <p>The page loads a run recorded are averaged per page and stored next to the
+ * {@link TestRunInfoEntity} of the run, so the history of a page shows when it got slower.
+ * Timings are averaged over the loads that reported them.</p>
+ */
+@Entity
+@Table(name = "page_performance", indexes = {
+        @Index(name = "idx_page_performance_run_id", columnList = "run_id"),
+        @Index(name = "idx_page_performance_page", columnList = "page, run_start_time")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PagePerformance {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * The run ID that loaded the page.
+     */
+    @Column(name = "run_id")
+    private String runId;
+
+    /**
+     * The start time of the run, the time axis of the page history.
+     */
+    @Column(name = "run_start_time")
+    private LocalDateTime runStartTime;
+
+    /**
+     * The page URL without its query string and fragment.
+     */
+    @Column(name = "page", length = 1024)
+    private String page;
+
+    /**
+     * The network blocking profile of the run, null if it blocked nothing.
+     */
+    @Column(name = "network_profile")
+    private String networkProfile;
+
+    /**
+     * The number of times the run loaded the page.
+     */
+    @Column(name = "samples")
+    private int samples;
+
+    @Column(name = "avg_ttfb_ms")
+    private long avgTtfbMs;
+
+    @Column(name = "avg_dom_content_loaded_ms")
+    private long avgDomContentLoadedMs;
+
+    @Column(name = "avg_load_ms")
+    private long avgLoadMs;
+
+    @Column(name = "avg_fcp_ms")
+    private long avgFcpMs;
+
+    @Column(name = "avg_lcp_ms")
+    private long avgLcpMs;
+
+    @Column(name = "max_lcp_ms")
+    private long maxLcpMs;
+
+    @Column(name = "avg_cls")
+    private double avgCls;
+
+    @Column(name = "max_cls")
+    private double maxCls;
+
+    @Column(name = "avg_transfer_bytes")
+    private long avgTransferBytes;
+
+    @Column(name = "avg_js_heap_used_bytes")
+    private long avgJsHeapUsedBytes;
+
+    @Column(name = "avg_dom_nodes")
+    private long avgDomNodes;
+}
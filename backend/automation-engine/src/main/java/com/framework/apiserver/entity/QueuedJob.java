@@ -0,0 +1,133 @@
+package com.framework.apiserver.entity;
+
+import com.framework.apiserver.config.JobKind;
+import com.framework.apiserver.config.JobPriority;
+import com.framework.apiserver.config.JobStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing an asynchronous job in the database-backed job queue.
+ *
+ * <p>Server instances claim QUEUED rows for their free slots and hold a lease on them while
+ * the job runs; a job whose lease expires belonged to a dead instance and is queued again.
+ * The row also keeps the job's status and result, so every instance can report on it.</p>
+ */
+@Entity
+@Table(name = "job_queue", indexes = {
+        @Index(name = "idx_job_queue_claim", columnList = "status, priority_rank, enqueued_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QueuedJob {
+
+    /**
+     * The ID of the job, shared with its job tracking entry.
+     */
+    @Id
+    @Column(name = "job_id")
+    private String jobId;
+
+    /**
+     * The kind of work the job executes.
+     */
+    @Enumerated(EnumType.STRING)
+    private JobKind kind;
+
+    /**
+     * The JSON serialized {@link com.framework.apiserver.dto.JobRequest} of the job.
+     */
+    @Column(name = "request", columnDefinition = "TEXT")
+    private String request;
+
+    /**
+     * The scheduling priority of the job.
+     */
+    @Enumerated(EnumType.STRING)
+    private JobPriority priority;
+
+    /**
+     * The ordinal of the priority, so jobs are claimed HIGH before NORMAL before LOW.
+     */
+    @Column(name = "priority_rank")
+    private int priorityRank;
+
+    /**
+     * The status of the job.
+     */
+    @Enumerated(EnumType.STRING)
+    private JobStatus status;
+
+    /**
+     * The time the job was queued, or queued again after its instance died.
+     */
+    @Column(name = "enqueued_at")
+    private LocalDateTime enqueuedAt;
+
+    /**
+     * The instance running the job.
+     */
+    @Column(name = "claimed_by")
+    private String claimedBy;
+
+    /**
+     * The time the job was last claimed.
+     */
+    @Column(name = "claimed_at")
+    private LocalDateTime claimedAt;
+
+    /**
+     * The time after which the job is considered abandoned by its instance.
+     */
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+
+    /**
+     * The number of times the job was claimed.
+     */
+    @Column(name = "attempts")
+    private int attempts;
+
+    /**
+     * Whether a cancellation was requested on an instance not running the job.
+     */
+    @Column(name = "cancel_requested")
+    private boolean cancelRequested;
+
+    /**
+     * The status message of the job's result.
+     */
+    @Column(name = "result_status", length = 2000)
+    private String resultStatus;
+
+    /**
+     * The exit code of the job's result.
+     */
+    @Column(name = "result_exit_code")
+    private Integer resultExitCode;
+
+    /**
+     * The run ID of the job's result.
+     */
+    @Column(name = "result_run_id")
+    private String resultRunId;
+
+    /**
+     * The error of a failed job.
+     */
+    @Column(name = "error_message", length = 2000)
+    private String errorMessage;
+
+    /**
+     * The time the job was last updated.
+     */
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,60 @@
+package com.framework.apiserver.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing the historical execution time of a single scenario.
+ * Used to bin-pack scenarios into shards of similar duration.
+ */
+@Entity
+@Table(name = "scenario_duration")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScenarioDuration {
+
+    /**
+     * The scenario key, the feature file path relative to the features folder
+     * followed by the scenario (or example row) line, e.g. "BookStoreDemo.feature:12".
+     */
+    @Id
+    @Column(name = "scenario_key")
+    private String scenarioKey;
+
+    /**
+     * The name of the scenario.
+     */
+    @Column(name = "scenario_name")
+    private String scenarioName;
+
+    /**
+     * The moving average of the scenario duration in milliseconds.
+     */
+    @Column(name = "average_duration_ms")
+    private long averageDurationMs;
+
+    /**
+     * The number of runs the average is based on.
+     */
+    @Column(name = "samples")
+    private int samples;
+
+    /**
+     * The run ID that last updated the average.
+     */
+    @Column(name = "last_run_id")
+    private String lastRunId;
+
+    /**
+     * The time the average was last updated.
+     */
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
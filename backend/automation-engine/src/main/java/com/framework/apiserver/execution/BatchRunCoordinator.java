@@ -0,0 +1,380 @@
+package com.framework.apiserver.execution;
+
+import com.framework.apiserver.config.ExecutionMode;
+import com.framework.apiserver.config.ExecutionProperties;
+import com.framework.apiserver.config.JobKind;
+import com.framework.apiserver.config.JobPriority;
+import com.framework.apiserver.config.JobStatus;
+import com.framework.apiserver.dto.BatchRunStatus;
+import com.framework.apiserver.dto.JobRequest;
+import com.framework.apiserver.dto.RunOptions;
+import com.framework.apiserver.dto.RunProgress;
+import com.framework.apiserver.dto.TestExecutionResponse;
+import com.framework.apiserver.entity.JobTracking;
+import com.framework.apiserver.event.JobStatusChangedEvent;
+import com.framework.apiserver.service.BrowserContextManager;
+import com.framework.apiserver.service.JobTrackingService;
+import com.framework.apiserver.service.PagePerformanceService;
+import com.framework.apiserver.service.ScenarioDurationService;
+import com.framework.apiserver.service.TestRunInfoService;
+import com.framework.apiserver.utilities.AsyncJobManager;
+import com.framework.apiserver.utilities.CommonUtils;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Executes several tag expressions in one runner process and tracks each as a run of its own.
+ *
+ * <p>A batch run is a batch job with one job per tag expression. Only the batch job is
+ * queued: it takes one scheduler slot and starts one runner JVM, which executes the tag
+ * expressions one after the other, so JVM startup and the glue Spring context are paid once
+ * for the whole batch instead of once per tag. Every tag expression still gets its own run
+ * ID, reports, {@code TestRunInfoEntity} row, scenario durations, page metrics and job with
+ * the run's result, as if it had been submitted on its own.</p>
+ *
+ * <p>The runs share the batch's options (browser, threads and network blocking profile) and
+ * always run forked, unsharded. Their results are recorded once the runner exits; cancelling
+ * the batch or exceeding its deadline, which is the run timeout times the number of runs,
+ * stops the runner, keeps the runs that finished and records the partial results of the
+ * others. A tag expression whose job is cancelled before the batch starts is left out.</p>
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class BatchRunCoordinator implements DisposableBean {
+
+    private static final Set<JobStatus> FINISHED_STATUSES =
+            Set.of(JobStatus.COMPLETED, JobStatus.FAILED, JobStatus.CANCELLED, JobStatus.TIMED_OUT);
+
+    private final AsyncJobManager asyncJobManager;
+
+    private final JobTrackingService jobTrackingService;
+
+    private final BrowserContextManager browserContextManager;
+
+    private final TestRunLauncher testRunLauncher;
+
+    private final RunProgressServer runProgressServer;
+
+    private final RunWatchdog runWatchdog;
+
+    private final CommonUtils commonUtils;
+
+    private final TestRunInfoService testRunInfoService;
+
+    private final ScenarioDurationService scenarioDurationService;
+
+    private final PagePerformanceService pagePerformanceService;
+
+    private final ExecutionProperties executionProperties;
+
+    private final ExecutorService coordinator = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "batch-coordinator");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Registers the execution of queued batch runs with the job manager.
+     */
+    @PostConstruct
+    void registerJobHandler() {
+        asyncJobManager.registerHandler(JobKind.BATCH, this::execute);
+    }
+
+    /**
+     * Queues a batch run: a batch job, and a job and run ID for each tag expression.
+     *
+     * @param options   The run options shared by every tag expression; the tag is set to the
+     *                  combined tag expressions and the browser defaults to that of the request.
+     * @param tags      The tag expressions to run, in the order they run.
+     * @param createdBy The ID of the user who started the batch.
+     * @return The unique identifier of the batch job.
+     * @throws IllegalArgumentException if no tag expression, or more than the configured maximum, is given.
+     * @throws java.util.concurrent.RejectedExecutionException if the scheduler queue is full.
+     */
+    public String submit(RunOptions options, List<String> tags, String createdBy) {
+        List<String> batch = tags.stream()
+                .map(String::trim)
+                .filter(tag -> !tag.isEmpty())
+                .distinct()
+                .toList();
+        if (batch.isEmpty()) {
+            throw new IllegalArgumentException("A batch run needs at least one tag expression");
+        }
+        int maxRuns = executionProperties.getBatch().getMaxRuns();
+        if (batch.size() > maxRuns) {
+            throw new IllegalArgumentException("A batch run accepts at most " + maxRuns + " tag expressions, got " + batch.size());
+        }
+
+        String combinedTag = String.join(", ", batch);
+        RunOptions batchOptions = options.toBuilder()
+                .tag(combinedTag)
+                .browserType(options.getBrowserType() != null ? options.getBrowserType() : browserContextManager.getBrowserType())
+                .executionMode(ExecutionMode.FORKED)
+                .shards(1)
+                .build();
+        JobPriority priority = asyncJobManager.resolvePriority(combinedTag, options.getPriority());
+        String batchJobId = asyncJobManager.createJobWithTracking(null, combinedTag, createdBy, priority);
+        jobTrackingService.recordBatchJob(batchJobId, null, batchOptions.getBrowserType());
+
+        // Run IDs are only unique per second, so the runs of a batch are numbered; the number also orders them
+        String baseRunId = CommonUtils.generateRunId();
+        List<String> runJobIds = new ArrayList<>();
+        try {
+            for (int i = 0; i < batch.size(); i++) {
+                String runId = String.format("%s-batch-%02d", baseRunId, i + 1);
+                String runJobId = asyncJobManager.createJobWithTracking(runId, batch.get(i), createdBy);
+                runJobIds.add(runJobId);
+                jobTrackingService.recordBatchJob(runJobId, batchJobId, batchOptions.getBrowserType());
+                asyncJobManager.updateJobStatus(runJobId, JobStatus.QUEUED);
+            }
+            asyncJobManager.enqueueJob(batchJobId, priority, JobRequest.builder()
+                    .kind(JobKind.BATCH)
+                    .options(batchOptions)
+                    .build());
+        } catch (RuntimeException e) {
+            runJobIds.forEach(runJobId -> asyncJobManager.failJob(runJobId, "Could not queue the batch run: " + e.getMessage()));
+            asyncJobManager.failJob(batchJobId, "Could not queue the batch run: " + e.getMessage());
+            throw e;
+        }
+        log.info("Batch run {} queued with {} tag expression(s): {}", batchJobId, batch.size(), batch);
+        return batchJobId;
+    }
+
+    /**
+     * Retrieves a batch run with the status and result of each tag expression.
+     *
+     * @param batchJobId The ID of the batch job.
+     * @return The batch run, or empty if the job does not exist or is not a batch run.
+     */
+    public Optional<BatchRunStatus> getStatus(String batchJobId) {
+        return jobTrackingService.getJobById(batchJobId)
+                .filter(batch -> batch.getBatchJobId() == null)
+                .flatMap(batch -> {
+                    List<JobTracking> jobs = jobTrackingService.getBatchJobs(batchJobId);
+                    if (jobs.isEmpty()) {
+                        return Optional.empty();
+                    }
+                    List<BatchRunStatus.TagRun> runs = jobs.stream().map(this::tagRun).toList();
+                    return Optional.of(BatchRunStatus.builder()
+                            .jobId(batchJobId)
+                            .browserType(batch.getBrowserType())
+                            .status(batch.getStatus())
+                            .startTime(batch.getStartTime())
+                            .endTime(batch.getEndTime())
+                            .failures(sumFailures(runs))
+                            .runs(runs)
+                            .build());
+                });
+    }
+
+    /**
+     * Cancels the tag expressions of a batch cancelled while queued, once the cancellation is
+     * committed. A batch cancelled while it runs records the runs of its tag expressions itself,
+     * since some may have finished.
+     *
+     * @param event The job status change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJobStatusChanged(JobStatusChangedEvent event) {
+        JobTracking job = event.getJobTracking();
+        if (job.getBatchJobId() == null && job.getStatus() == JobStatus.CANCELLED) {
+            String jobId = job.getJobId();
+            coordinator.execute(() -> cancelRuns(jobId));
+        }
+    }
+
+    /**
+     * Executes a queued batch run on the current scheduler slot.
+     *
+     * @param batchJobId The ID of the batch job.
+     * @param request    The request of the batch job, holding the shared run options.
+     */
+    private void execute(String batchJobId, JobRequest request) {
+        if (!asyncJobManager.setJobRunning(batchJobId)) {
+            return;
+        }
+        RunOptions options = request.getOptions();
+        Map<String, JobTracking> jobsByRunId = new LinkedHashMap<>();
+        try {
+            for (JobTracking job : jobTrackingService.getBatchJobs(batchJobId)) {
+                // A run cancelled since the batch was queued is left out
+                if (!FINISHED_STATUSES.contains(job.getStatus()) && asyncJobManager.setJobRunning(job.getJobId())) {
+                    jobsByRunId.put(job.getRunId(), job);
+                }
+            }
+            if (jobsByRunId.isEmpty()) {
+                asyncJobManager.completeJob(batchJobId, new TestExecutionResponse("Batch run had nothing to run", 0, null));
+                return;
+            }
+            Map<String, String> tagsByRunId = new LinkedHashMap<>();
+            jobsByRunId.forEach((runId, job) -> {
+                tagsByRunId.put(runId, job.getTag());
+                runProgressServer.register(runId, job.getJobId());
+            });
+
+            LocalDateTime startTime = LocalDateTime.now();
+            Duration timeout = testRunLauncher.resolveRunTimeout(options).multipliedBy(tagsByRunId.size());
+            boolean stopped = false;
+            try (RunWatchdog.Deadline deadline = runWatchdog.watch(batchJobId, timeout, () ->
+                    asyncJobManager.timeoutJob(batchJobId, "Batch run exceeded its deadline of " + timeout.toMinutes() + " minute(s)"))) {
+                testRunLauncher.launchBatch(options, tagsByRunId);
+            } catch (InterruptedException e) {
+                stopped = true;
+            } finally {
+                tagsByRunId.keySet().forEach(runProgressServer::unregister);
+            }
+            recordRuns(Paths.get("reports"), batchJobId, jobsByRunId, startTime, stopped);
+        } catch (Exception e) {
+            jobsByRunId.values().forEach(job -> asyncJobManager.failJob(job.getJobId(), e.getMessage()));
+            asyncJobManager.failJob(batchJobId, e.getMessage());
+        }
+    }
+
+    /**
+     * Splits the results of the batch's runner back into the runs of its tag expressions and
+     * finishes their jobs and the batch job.
+     *
+     * <p>A run's window ends when its Cucumber JSON report was written, and starts where the
+     * previous run's ended. A run without a report had not finished when the runner stopped:
+     * it gets the partial results streamed while it ran if the batch was stopped, and fails
+     * otherwise.</p>
+     *
+     * @param reportsDir  The folder holding the report folders of the runs.
+     * @param batchJobId  The ID of the batch job.
+     * @param jobsByRunId The jobs of the runs, in the order they ran.
+     * @param startTime   The start time of the batch's runner.
+     * @param stopped     Whether the runner was stopped, by a cancellation or the deadline.
+     */
+    void recordRuns(Path reportsDir, String batchJobId, Map<String, JobTracking> jobsByRunId, LocalDateTime startTime,
+                    boolean stopped) {
+        JobStatus stopStatus = asyncJobManager.isTimedOut(batchJobId) ? JobStatus.TIMED_OUT : JobStatus.CANCELLED;
+        LocalDateTime runStart = startTime;
+        List<String> summary = new ArrayList<>();
+        int failures = 0;
+        boolean failed = false;
+        for (Map.Entry<String, JobTracking> entry : jobsByRunId.entrySet()) {
+            String runId = entry.getKey();
+            JobTracking job = entry.getValue();
+            Optional<LocalDateTime> reportTime = reportTime(reportsDir, runId);
+            LocalDateTime runEnd = reportTime.orElseGet(LocalDateTime::now);
+            long durationSeconds = Duration.between(runStart, runEnd).getSeconds();
+            HashMap<String, Object> result;
+            if (reportTime.isPresent()) {
+                result = commonUtils.createRunInfoFileAndDb(testRunInfoService, job.getTag(), runId, runStart, runEnd,
+                        durationSeconds);
+                scenarioDurationService.recordRun(runId);
+                pagePerformanceService.recordRun(runId, runStart);
+            } else if (stopped) {
+                RunProgress progress = runProgressServer.getRunProgress(runId)
+                        .orElseGet(() -> new RunProgress(job.getJobId(), runId));
+                result = commonUtils.createStoppedRunInfo(testRunInfoService, job.getTag(), runId, runStart, runEnd,
+                        durationSeconds, progress, stopStatus == JobStatus.TIMED_OUT ? "Timed Out" : "Cancelled");
+                if (stopStatus == JobStatus.TIMED_OUT) {
+                    asyncJobManager.timeoutJob(job.getJobId(), "Batch run " + batchJobId + " exceeded its deadline");
+                } else {
+                    asyncJobManager.updateJobStatus(job.getJobId(), JobStatus.CANCELLED);
+                }
+            } else {
+                result = null;
+            }
+            runStart = runEnd;
+
+            if (result == null) {
+                failed = true;
+                summary.add(job.getTag() + ": no results");
+                asyncJobManager.failJob(job.getJobId(), "The batch runner produced no results for run " + runId);
+                continue;
+            }
+            int runFailures = (Integer) result.get("failureCount");
+            failures += runFailures;
+            summary.add(job.getTag() + ": " + result.get("status"));
+            asyncJobManager.completeJob(job.getJobId(), new TestExecutionResponse(String.valueOf(result.get("status")),
+                    runFailures, runId));
+        }
+
+        String combined = String.join("; ", summary);
+        if (failed) {
+            asyncJobManager.failJob(batchJobId, "Batch run failed on a tag expression: " + combined);
+        } else {
+            asyncJobManager.completeJob(batchJobId, new TestExecutionResponse("Batch run finished: " + combined,
+                    failures, null));
+        }
+        log.info("Batch run {} finished: {}", batchJobId, combined);
+    }
+
+    /**
+     * @return The time the run's Cucumber JSON report was written, or empty if it was not.
+     */
+    private Optional<LocalDateTime> reportTime(Path reportsDir, String runId) {
+        Path report = reportsDir.resolve(runId).resolve("cucumber-reports.json");
+        try {
+            if (Files.isRegularFile(report)) {
+                return Optional.of(LocalDateTime.ofInstant(Files.getLastModifiedTime(report).toInstant(), ZoneId.systemDefault()));
+            }
+        } catch (IOException e) {
+            log.warn("Could not read the report of batch run {}: {}", runId, e.getMessage());
+        }
+        return Optional.empty();
+    }
+
+    private void cancelRuns(String batchJobId) {
+        try {
+            for (JobTracking job : jobTrackingService.getBatchJobs(batchJobId)) {
+                if (job.getStatus() == JobStatus.QUEUED || job.getStatus() == JobStatus.PENDING) {
+                    asyncJobManager.cancelJob(job.getJobId());
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not cancel the runs of batch run {}: {}", batchJobId, e.getMessage());
+        }
+    }
+
+    private BatchRunStatus.TagRun tagRun(JobTracking job) {
+        TestExecutionResponse result = asyncJobManager.getResult(job.getJobId());
+        return BatchRunStatus.TagRun.builder()
+                .tag(job.getTag())
+                .jobId(job.getJobId())
+                .status(job.getStatus())
+                .runId(job.getRunId())
+                .result(job.getErrorMessage() != null ? job.getErrorMessage()
+                        : result != null ? result.getStatus() : null)
+                .failures(result != null && result.getExitCode() >= 0 ? result.getExitCode() : null)
+                .build();
+    }
+
+    private static int sumFailures(List<BatchRunStatus.TagRun> runs) {
+        return runs.stream()
+                .map(BatchRunStatus.TagRun::getFailures)
+                .filter(failures -> failures != null && failures > 0)
+                .mapToInt(Integer::intValue)
+                .sum();
+    }
+
+    @Override
+    public void destroy() {
+        coordinator.shutdownNow();
+    }
+}
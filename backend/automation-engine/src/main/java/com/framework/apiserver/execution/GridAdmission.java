@@ -0,0 +1,301 @@
+package com.framework.apiserver.execution;
+
+import com.framework.apiserver.config.ExecutionProperties;
+import com.framework.apiserver.config.SchedulerProperties;
+import com.framework.apiserver.dto.GridStatus;
+import com.framework.apiserver.dto.RunOptions;
+import com.framework.apiserver.service.JobTrackingService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds jobs in the server until the Selenium Grid has free slots for their browsers.
+ *
+ * <p>A job needs one Grid session per scenario thread of each of its shards (fewer when
+ * scenarios share browser contexts). Without admission its runner JVM would start and wait
+ * in the Grid's session queue; instead the job stays QUEUED and only starts once the free
+ * slots reported by the {@link GridMonitor}, minus the slots reserved for jobs admitted
+ * moments ago whose sessions the Grid does not report yet, cover its needs. A job that is
+ * not admitted gives its scheduler slot back and is queued again, so jobs of browsers with
+ * free Grid slots run meanwhile. Jobs waiting for the same browser are admitted first come,
+ * first served.</p>
+ *
+ * <p>While a job waits, its expected wait is recorded on the job: the runs ahead of it and
+ * the average time admitted jobs of the same browser held their slots. Jobs run locally,
+ * because no Grid is ready or it has no node for their browser, are admitted at once.</p>
+ */
+@Component
+@Slf4j
+public class GridAdmission {
+
+    private final SchedulerProperties.GridAdmission properties;
+
+    private final ExecutionProperties.BrowserContexts browserContexts;
+
+    private final GridMonitor gridMonitor;
+
+    private final TestRunLauncher testRunLauncher;
+
+    private final JobTrackingService jobTrackingService;
+
+    // Jobs waiting for capacity in arrival order, guarded by this
+    private final Map<String, Waiter> waiting = new LinkedHashMap<>();
+
+    // Admitted jobs whose sessions may not be reported by the Grid yet, guarded by this
+    private final List<Reservation> reservations = new ArrayList<>();
+
+    // Moving average of how long admitted jobs held their slots, by browser
+    private final Map<String, Long> averageHoldSeconds = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a GridAdmission.
+     *
+     * @param schedulerProperties The scheduler configuration.
+     * @param executionProperties The execution configuration.
+     * @param gridMonitor         The monitor reporting the free Grid slots.
+     * @param testRunLauncher     The launcher resolving the threads and shards of a run.
+     * @param jobTrackingService  The service recording the expected wait of jobs.
+     */
+    public GridAdmission(SchedulerProperties schedulerProperties, ExecutionProperties executionProperties,
+                         GridMonitor gridMonitor, TestRunLauncher testRunLauncher,
+                         JobTrackingService jobTrackingService) {
+        this.properties = schedulerProperties.getGridAdmission();
+        this.browserContexts = executionProperties.getBrowserContexts();
+        this.gridMonitor = gridMonitor;
+        this.testRunLauncher = testRunLauncher;
+        this.jobTrackingService = jobTrackingService;
+    }
+
+    /**
+     * Admits a run if the Grid has enough free slots for it, without waiting.
+     *
+     * <p>A job that is not admitted keeps its place among the jobs waiting for its browser
+     * until it is admitted or {@linkplain #withdraw(String) withdrawn}, and is expected to try
+     * again after the {@linkplain #getCheckInterval() check interval}. The Grid status, which
+     * may be refreshed over the network, and the expected wait, which is written to the
+     * database, are handled outside the lock, so they never hold up other jobs or the release
+     * of slots.</p>
+     *
+     * @param jobId   The ID of the job.
+     * @param options The run options, may be null.
+     * @return The admission, to be closed once the run finished, or null if the job must wait.
+     */
+    public Admission tryAdmit(String jobId, RunOptions options) {
+        String browser = browserOf(options);
+        GridStatus status = gridMonitor.getStatus();
+        int total = properties.isEnabled() ? totalSlots(status, browser) : 0;
+        if (total == 0) {
+            // Run locally, or the Grid went down or lost its last node for the browser while the job waited
+            if (withdraw(jobId)) {
+                log.info("Job {} admitted, the Grid has no {} slots any more", jobId, browser);
+            }
+            return new Admission(new Reservation(browser, 0));
+        }
+        int needed = Math.min(sessionsNeeded(browser, options), total);
+        Waiter waiter;
+        Long estimate;
+        boolean firstCheck;
+        synchronized (this) {
+            waiter = waiting.computeIfAbsent(jobId, id -> new Waiter(browser, needed));
+            firstCheck = waiter.checks++ == 0;
+            if (isAdmissible(waiter, status)) {
+                waiting.remove(jobId);
+                Reservation reservation = new Reservation(browser, needed);
+                reservations.add(reservation);
+                if (!firstCheck) {
+                    log.info("Job {} admitted after waiting {}s for Grid capacity", jobId,
+                            Duration.between(waiter.since, Instant.now()).getSeconds());
+                }
+                return new Admission(reservation);
+            }
+            estimate = estimateWaitSeconds(waiter, status);
+            if (estimate == null || estimate.equals(waiter.recordedEstimate)) {
+                estimate = null;
+            } else {
+                waiter.recordedEstimate = estimate;
+            }
+        }
+        if (firstCheck) {
+            log.info("Job {} waits for {} free {} slot(s) on the Grid", jobId, needed, browser);
+        }
+        if (estimate != null) {
+            recordEstimate(jobId, estimate);
+        }
+        return null;
+    }
+
+    /**
+     * Gives up the place of a job that no longer waits for the Grid, e.g. because it was cancelled.
+     *
+     * @param jobId The ID of the job.
+     * @return True if the job was waiting.
+     */
+    public synchronized boolean withdraw(String jobId) {
+        return waiting.remove(jobId) != null;
+    }
+
+    /**
+     * @return How long a job that was not admitted waits before it tries again.
+     */
+    public Duration getCheckInterval() {
+        return Duration.ofMillis(Math.max(100, properties.getCheckIntervalMs()));
+    }
+
+    /**
+     * A job is admissible once no earlier job waits for its browser and the free slots cover its needs.
+     */
+    private boolean isAdmissible(Waiter waiter, GridStatus status) {
+        int ahead = 0;
+        for (Waiter other : waiting.values()) {
+            if (other == waiter) {
+                break;
+            }
+            if (other.browser.equals(waiter.browser)) {
+                ahead += other.needed;
+            }
+        }
+        return ahead == 0 && available(status, waiter.browser) >= waiter.needed;
+    }
+
+    /**
+     * Free slots reported by the Grid, minus the slots of recently admitted jobs.
+     */
+    private int available(GridStatus status, String browser) {
+        Instant cutoff = Instant.now().minusSeconds(properties.getReservationSeconds());
+        reservations.removeIf(reservation -> reservation.admittedAt.isBefore(cutoff));
+        int reserved = reservations.stream()
+                .filter(reservation -> reservation.browser.equals(browser))
+                .mapToInt(reservation -> reservation.slots)
+                .sum();
+        GridStatus.BrowserSlots slots = slotsOf(status, browser);
+        return (slots == null ? 0 : slots.getFree()) - reserved;
+    }
+
+    /**
+     * Estimates the wait of a job from the slots needed ahead of it and the average time
+     * jobs of its browser hold their slots; null while no job of the browser finished yet.
+     */
+    private Long estimateWaitSeconds(Waiter waiter, GridStatus status) {
+        Long hold = averageHoldSeconds.get(waiter.browser);
+        int total = totalSlots(status, waiter.browser);
+        if (hold == null || total == 0) {
+            return null;
+        }
+        int slotsAhead = waiter.needed - Math.max(0, available(status, waiter.browser));
+        for (Waiter other : waiting.values()) {
+            if (other == waiter) {
+                break;
+            }
+            if (other.browser.equals(waiter.browser)) {
+                slotsAhead += other.needed;
+            }
+        }
+        long rounds = (Math.max(0, slotsAhead) + total - 1) / total;
+        return Math.max(1, rounds) * hold;
+    }
+
+    private void recordEstimate(String jobId, Long estimate) {
+        try {
+            jobTrackingService.updateEstimatedWait(jobId, estimate);
+        } catch (RuntimeException e) {
+            log.debug("Could not record the expected wait of job {}: {}", jobId, e.getMessage());
+        }
+    }
+
+    private int sessionsNeeded(String browser, RunOptions options) {
+        int threads = testRunLauncher.resolveThreads(options);
+        int shards = testRunLauncher.resolveShards(options);
+        boolean sharedContexts = browserContexts.isEnabled() && browserContexts.getMaxPerBrowser() > 0
+                && (browser.equals("chrome") || browser.equals("edge"));
+        int perShard = sharedContexts
+                ? (threads + browserContexts.getMaxPerBrowser() - 1) / browserContexts.getMaxPerBrowser()
+                : threads;
+        return Math.max(1, perShard * shards);
+    }
+
+    private static int totalSlots(GridStatus status, String browser) {
+        GridStatus.BrowserSlots slots = slotsOf(status, browser);
+        return slots == null ? 0 : slots.getTotal();
+    }
+
+    private static GridStatus.BrowserSlots slotsOf(GridStatus status, String browser) {
+        if (!status.isReady()) {
+            return null;
+        }
+        // The Grid names Edge by its WebDriver browser name
+        return status.getBrowsers().get(browser.equals("edge") ? "microsoftedge" : browser);
+    }
+
+    private static String browserOf(RunOptions options) {
+        String browser = options == null ? null : options.getBrowserType();
+        return browser == null || browser.isBlank() ? "chrome" : browser.toLowerCase();
+    }
+
+    /**
+     * Folds how long an admitted job held its slots into the average of its browser.
+     */
+    void recordHold(String browser, Duration held) {
+        // Weighs the last job a fifth, so the estimate follows changes of the suites
+        averageHoldSeconds.merge(browser, held.getSeconds(), (average, latest) -> (average * 4 + latest) / 5);
+    }
+
+    /**
+     * The slots a job was admitted with, held until its run finished.
+     */
+    public final class Admission implements AutoCloseable {
+
+        private final Reservation reservation;
+
+        private Admission(Reservation reservation) {
+            this.reservation = reservation;
+        }
+
+        /**
+         * Releases the reservation of the job and records how long its run held its slots.
+         */
+        @Override
+        public void close() {
+            if (reservation.slots == 0) {
+                return;
+            }
+            recordHold(reservation.browser, Duration.between(reservation.admittedAt, Instant.now()));
+            synchronized (GridAdmission.this) {
+                reservations.remove(reservation);
+            }
+        }
+    }
+
+    private static final class Waiter {
+
+        private final String browser;
+        private final int needed;
+        private final Instant since = Instant.now();
+        private int checks;
+        private Long recordedEstimate;
+
+        private Waiter(String browser, int needed) {
+            this.browser = browser;
+            this.needed = needed;
+        }
+    }
+
+    private static final class Reservation {
+
+        private final String browser;
+        private final int slots;
+        private final Instant admittedAt = Instant.now();
+
+        private Reservation(String browser, int slots) {
+            this.browser = browser;
+            this.slots = slots;
+        }
+    }
+}
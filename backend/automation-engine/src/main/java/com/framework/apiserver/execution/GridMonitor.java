@@ -0,0 +1,237 @@
+package com.framework.apiserver.execution;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.framework.apiserver.config.GridProperties;
+import com.framework.apiserver.dto.GridStatus;
+import com.framework.apiserver.testrunner.RunnerWorker;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the readiness and free slots of the Selenium Grid up to date in the background.
+ *
+ * <p>The server checks the Grid's {@code /status} on a schedule, so deciding between the Grid
+ * and a local browser never waits on the network. Runner JVMs load the same component for
+ * their glue code; they do not poll, but check the Grid on demand once the last check is
+ * older than {@link GridProperties#getPollIntervalSeconds()}, with the short timeouts of a
+ * background check.</p>
+ *
+ * <p>The state is exposed through {@code /api/grid/status} and the {@code grid.ready},
+ * {@code grid.slots.total} and {@code grid.slots.free} (by browser) gauges.</p>
+ */
+@Component
+@Slf4j
+public class GridMonitor implements DisposableBean {
+
+    private final GridProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "grid-monitor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Browsers whose slot gauges are registered
+    private final Set<String> meteredBrowsers = ConcurrentHashMap.newKeySet();
+
+    private volatile GridStatus status;
+
+    // Whether the status is kept fresh by the background checks
+    private volatile boolean polling;
+
+    /**
+     * Constructs a GridMonitor.
+     *
+     * @param properties    The Grid configuration.
+     * @param meterRegistry The registry of the Grid gauges.
+     */
+    public GridMonitor(GridProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.status = new GridStatus(gridUrl(), false, "Not checked yet");
+        this.status.setCheckedAt(null);
+        Gauge.builder("grid.ready", this, monitor -> monitor.status.isReady() ? 1 : 0)
+                .description("Whether the Selenium Grid is ready")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts checking the Grid in the background once the server is ready. Nothing is started
+     * when no Grid is configured or inside a runner JVM.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (gridUrl() == null || RunnerWorker.isRunnerJvm()) {
+            return;
+        }
+        polling = true;
+        scheduler.scheduleWithFixedDelay(this::refresh, 0, Math.max(1, properties.getPollIntervalSeconds()),
+                TimeUnit.SECONDS);
+        log.info("Monitoring Selenium Grid {} every {}s", gridUrl(), properties.getPollIntervalSeconds());
+    }
+
+    /**
+     * @return The URL of the Grid hub, or null if no Grid is configured.
+     */
+    public String gridUrl() {
+        String url = properties.getUrl();
+        return url == null || url.isBlank() ? null : url.trim();
+    }
+
+    /**
+     * @return The last known state of the Grid.
+     */
+    public GridStatus getStatus() {
+        if (!polling && gridUrl() != null && isStale()) {
+            refresh();
+        }
+        return status;
+    }
+
+    /**
+     * @return True if a Grid is configured and was ready when last checked.
+     */
+    public boolean isReady() {
+        return getStatus().isReady();
+    }
+
+    /**
+     * Retrieves the free slots of a browser on the Grid.
+     *
+     * @param browserName The browser name, e.g. chrome.
+     * @return The free slots, 0 if the Grid is not ready or has no node for the browser.
+     */
+    public int getFreeSlots(String browserName) {
+        GridStatus current = getStatus();
+        if (!current.isReady() || browserName == null) {
+            return 0;
+        }
+        String name = browserName.toLowerCase();
+        // The Grid names Edge by its WebDriver browser name
+        GridStatus.BrowserSlots slots = current.getBrowsers().get(name.equals("edge") ? "microsoftedge" : name);
+        return slots == null ? 0 : slots.getFree();
+    }
+
+    /**
+     * Checks the Grid status now and caches the result.
+     */
+    public synchronized void refresh() {
+        String url = gridUrl();
+        if (url == null) {
+            status = new GridStatus(null, false, "No Grid configured");
+            return;
+        }
+        GridStatus checked;
+        try {
+            checked = parse(url, fetchStatus(url));
+        } catch (Exception e) {
+            checked = new GridStatus(url, false, "Status check failed: " + e.getMessage());
+        }
+        if (checked.isReady() != status.isReady()) {
+            log.info("Selenium Grid {} is {}: {}", url, checked.isReady() ? "ready" : "not ready", checked.getMessage());
+        }
+        status = checked;
+        checked.getBrowsers().keySet().forEach(this::registerSlotGauges);
+    }
+
+    private boolean isStale() {
+        LocalDateTime checkedAt = status.getCheckedAt();
+        return checkedAt == null
+                || Duration.between(checkedAt, LocalDateTime.now()).getSeconds() >= Math.max(1, properties.getPollIntervalSeconds());
+    }
+
+    private JsonNode fetchStatus(String url) throws IOException {
+        HttpURLConnection conn = (HttpURLConnection) URI.create(url.replaceAll("/+$", "") + "/status").toURL().openConnection();
+        conn.setRequestMethod("GET");
+        conn.setConnectTimeout(properties.getConnectTimeoutMs());
+        conn.setReadTimeout(properties.getReadTimeoutMs());
+        try {
+            int responseCode = conn.getResponseCode();
+            if (responseCode != HttpURLConnection.HTTP_OK) {
+                throw new IOException("HTTP " + responseCode);
+            }
+            try (InputStream in = conn.getInputStream()) {
+                return mapper.readTree(in);
+            }
+        } finally {
+            conn.disconnect();
+        }
+    }
+
+    /**
+     * Reads the readiness and per-browser slots of a Grid 4 status response. Slots of nodes
+     * that are not UP are ignored; a slot without a session is free.
+     */
+    private static GridStatus parse(String url, JsonNode response) {
+        JsonNode value = response.path("value");
+        GridStatus parsed = new GridStatus(url, value.path("ready").asBoolean(false), value.path("message").asText(null));
+        for (JsonNode node : value.path("nodes")) {
+            if (!"UP".equalsIgnoreCase(node.path("availability").asText("UP"))) {
+                continue;
+            }
+            for (JsonNode slot : node.path("slots")) {
+                String browser = slot.path("stereotype").path("browserName").asText("").toLowerCase();
+                if (browser.isEmpty()) {
+                    continue;
+                }
+                GridStatus.BrowserSlots slots = parsed.getBrowsers()
+                        .computeIfAbsent(browser, name -> new GridStatus.BrowserSlots(0, 0));
+                slots.setTotal(slots.getTotal() + 1);
+                if (slot.path("session").isMissingNode() || slot.path("session").isNull()) {
+                    slots.setFree(slots.getFree() + 1);
+                }
+            }
+        }
+        return parsed;
+    }
+
+    private void registerSlotGauges(String browser) {
+        if (!meteredBrowsers.add(browser)) {
+            return;
+        }
+        Gauge.builder("grid.slots.total", this, monitor -> monitor.slotsOf(browser).getTotal())
+                .description("Slots of the Selenium Grid")
+                .tag("browser", browser)
+                .register(meterRegistry);
+        Gauge.builder("grid.slots.free", this, monitor -> monitor.slotsOf(browser).getFree())
+                .description("Free slots of the Selenium Grid")
+                .tag("browser", browser)
+                .register(meterRegistry);
+    }
+
+    private GridStatus.BrowserSlots slotsOf(String browser) {
+        Map<String, GridStatus.BrowserSlots> browsers = status.getBrowsers();
+        return browsers.getOrDefault(browser, new GridStatus.BrowserSlots(0, 0));
+    }
+
+    /**
+     * Stops the background checks when the application context is closed.
+     */
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+}
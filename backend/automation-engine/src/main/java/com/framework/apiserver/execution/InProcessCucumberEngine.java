@@ -0,0 +1,215 @@
+package com.framework.apiserver.execution;
+
+import com.framework.apiserver.config.ExecutionProperties;
+import com.framework.apiserver.testrunner.RunSettings;
+import com.framework.apiserver.testrunner.RunnerClasspath;
+import com.framework.apiserver.testrunner.TestRunner;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Executes Cucumber runs inside the server JVM instead of forking a runner process.
+ *
+ * <p>Runs are executed one at a time on a dedicated worker thread. The runner classes are
+ * loaded by an isolated class loader built from the server classpath, so the glue code's
+ * static state (driver, scenario, page objects) never leaks into the server, while the
+ * Cucumber runtime, the step definition classes and the glue Spring context stay loaded
+ * between runs. The class loader is discarded and rebuilt after
+ * {@link ExecutionProperties.InProcess#getMaxRunsPerClassLoader()} runs; the warm and shared
+ * browsers kept by its glue code are quit first.</p>
+ *
+ * <p>The Extent adapter keeps one report per JVM, so in-process runs only produce the
+ * Cucumber HTML and JSON reports.</p>
+ */
+@Component
+@Slf4j
+public class InProcessCucumberEngine implements DisposableBean {
+
+    private static final String CUCUMBER_MAIN = "io.cucumber.core.cli.Main";
+
+    private static final String DRIVER_MANAGER = "com.framework.apiserver.utilities.DriverManager";
+
+    private static final String RUN_SETTINGS = RunSettings.class.getName();
+
+    private final ExecutionProperties executionProperties;
+
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "in-process-runner");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Only touched from the worker thread
+    private URLClassLoader runnerClassLoader;
+    private int runsOnClassLoader;
+
+    // The class loader of the run in progress, read by cancelling callers
+    private volatile ClassLoader activeClassLoader;
+
+    /**
+     * Constructs an InProcessCucumberEngine.
+     *
+     * @param executionProperties The execution configuration.
+     */
+    public InProcessCucumberEngine(ExecutionProperties executionProperties) {
+        this.executionProperties = executionProperties;
+    }
+
+    /**
+     * Runs Cucumber in-process and blocks until the run finishes.
+     *
+     * <p>If the calling thread is interrupted (e.g. the job is cancelled) the run is
+     * interrupted as well and every browser it opened is quit, so the remaining steps fail
+     * fast and the run releases the worker.</p>
+     *
+     * @param runId       The unique identifier of the test run.
+     * @param features    The feature path, or {@code @file} pointing to a rerun file.
+     * @param tag         The tag expression used to filter scenarios, may be null.
+     * @param browserName The browser the UI scenarios run on.
+     * @param threads     The number of scenarios executed in parallel.
+     * @param runProperties Runner system properties applied for the duration of the run, see {@link RunSettings}.
+     * @return The Cucumber exit status, 0 if every scenario passed.
+     * @throws IOException          If the runner classes cannot be loaded or the run fails.
+     * @throws InterruptedException If the calling thread is interrupted while waiting.
+     */
+    public int run(String runId, String features, String tag, String browserName, int threads,
+                   Map<String, String> runProperties) throws IOException, InterruptedException {
+        String[] argv = TestRunner.buildCucumberOptions(runId, features, tag, threads, false);
+        Future<Integer> future = worker.submit(() -> execute(runId, browserName, argv, runProperties));
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            quitRunnerDrivers(runId);
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException("In-process run " + runId + " failed: " + cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * Executes a single run on the worker thread.
+     *
+     * <p>The run ID, browser and run properties are applied to the runner class loader's
+     * {@link RunSettings}, not as system properties, which the server reads too.</p>
+     */
+    private int execute(String runId, String browserName, String[] argv, Map<String, String> runProperties)
+            throws Exception {
+        ClassLoader classLoader = acquireClassLoader();
+        Thread current = Thread.currentThread();
+        ClassLoader previous = current.getContextClassLoader();
+        Map<String, String> settings = new HashMap<>(runProperties);
+        settings.put(RunSettings.RUN_ID, runId);
+        settings.put(RunSettings.BROWSER_NAME, browserName == null ? "chrome" : browserName);
+        Class<?> runSettings = classLoader.loadClass(RUN_SETTINGS);
+        log.info("Starting in-process run {} ({} of {} on this class loader)", runId, runsOnClassLoader,
+                executionProperties.getInProcess().getMaxRunsPerClassLoader());
+        try {
+            current.setContextClassLoader(classLoader);
+            activeClassLoader = classLoader;
+            runSettings.getMethod("apply", Map.class).invoke(null, settings);
+            Method main = classLoader.loadClass(CUCUMBER_MAIN).getMethod("run", String[].class, ClassLoader.class);
+            byte status = (byte) main.invoke(null, argv, classLoader);
+            log.info("In-process run {} finished with exit status {}", runId, status);
+            return status;
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw new IOException("Cucumber failed for run " + runId + ": " + cause.getMessage(), cause);
+        } finally {
+            activeClassLoader = null;
+            current.setContextClassLoader(previous);
+            runSettings.getMethod("clear").invoke(null);
+        }
+    }
+
+    /**
+     * Quits the drivers opened by the glue code of the run in progress.
+     */
+    private void quitRunnerDrivers(String runId) {
+        ClassLoader classLoader = activeClassLoader;
+        if (classLoader == null) {
+            return;
+        }
+        try {
+            classLoader.loadClass(DRIVER_MANAGER).getMethod("quitAllDrivers").invoke(null);
+            log.info("Quit the browsers of cancelled in-process run {}", runId);
+        } catch (ReflectiveOperationException e) {
+            log.warn("Failed to quit the browsers of cancelled in-process run {}: {}", runId, e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the runner class loader, rebuilding it once it has served its quota of runs.
+     */
+    private ClassLoader acquireClassLoader() throws IOException {
+        int maxRuns = Math.max(1, executionProperties.getInProcess().getMaxRunsPerClassLoader());
+        if (runnerClassLoader != null && runsOnClassLoader >= maxRuns) {
+            log.info("Recycling in-process runner class loader after {} runs", runsOnClassLoader);
+            closeClassLoader();
+        }
+        if (runnerClassLoader == null) {
+            runnerClassLoader = new URLClassLoader("in-process-runner", classpathUrls(),
+                    ClassLoader.getPlatformClassLoader());
+            runsOnClassLoader = 0;
+        }
+        runsOnClassLoader++;
+        return runnerClassLoader;
+    }
+
+    /**
+     * Converts the runner classpath into class loader URLs.
+     */
+    private static URL[] classpathUrls() throws MalformedURLException {
+        List<URL> urls = new ArrayList<>();
+        for (String entry : RunnerClasspath.entries()) {
+            urls.add(new File(entry).toURI().toURL());
+        }
+        return urls.toArray(new URL[0]);
+    }
+
+    private void closeClassLoader() {
+        try {
+            runnerClassLoader.loadClass(DRIVER_MANAGER).getMethod("quitAllDrivers").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            log.warn("Failed to quit the pooled and shared browsers of the in-process runner: {}", e.getMessage());
+        }
+        try {
+            runnerClassLoader.close();
+        } catch (IOException e) {
+            log.warn("Failed to close in-process runner class loader: {}", e.getMessage());
+        }
+        runnerClassLoader = null;
+    }
+
+    /**
+     * Stops the worker and releases the runner class loader when the application context is closed.
+     */
+    @Override
+    public void destroy() {
+        worker.shutdownNow();
+        if (runnerClassLoader != null) {
+            closeClassLoader();
+        }
+    }
+}
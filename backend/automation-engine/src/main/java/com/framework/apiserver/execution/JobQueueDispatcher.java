@@ -0,0 +1,139 @@
+package com.framework.apiserver.execution;
+
+import com.framework.apiserver.config.SchedulerProperties;
+import com.framework.apiserver.entity.QueuedJob;
+import com.framework.apiserver.service.JobQueueService;
+import com.framework.apiserver.utilities.AsyncJobManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Feeds the local execution slots from the database-backed job queue.
+ *
+ * <p>While the durable queue is enabled every instance periodically:</p>
+ * <ul>
+ *   <li>claims as many queued jobs as it has free {@link JobScheduler} slots and runs them;</li>
+ *   <li>cancels the jobs it runs whose cancellation was requested on another instance;</li>
+ *   <li>renews the leases of the jobs it runs, proving it is alive;</li>
+ *   <li>queues again the jobs of instances whose leases expired;</li>
+ *   <li>deletes jobs that finished more than a day ago.</li>
+ * </ul>
+ *
+ * @see JobQueueService
+ */
+@Component
+@Slf4j
+public class JobQueueDispatcher implements DisposableBean {
+
+    private static final long CLEANUP_INTERVAL_MINUTES = 60;
+
+    private static final long RETENTION_HOURS = 24;
+
+    private final JobQueueService jobQueueService;
+
+    private final AsyncJobManager asyncJobManager;
+
+    private final JobScheduler jobScheduler;
+
+    private final SchedulerProperties.Durable properties;
+
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Constructs a JobQueueDispatcher.
+     *
+     * @param jobQueueService     The database-backed job queue.
+     * @param asyncJobManager     The manager running claimed jobs.
+     * @param jobScheduler        The local execution slots.
+     * @param schedulerProperties The scheduler configuration.
+     */
+    public JobQueueDispatcher(JobQueueService jobQueueService, AsyncJobManager asyncJobManager,
+                              JobScheduler jobScheduler, SchedulerProperties schedulerProperties) {
+        this.jobQueueService = jobQueueService;
+        this.asyncJobManager = asyncJobManager;
+        this.jobScheduler = jobScheduler;
+        this.properties = schedulerProperties.getDurable();
+        AtomicInteger threadCounter = new AtomicInteger();
+        // Heartbeats get their own thread, so a slow claim does not let leases expire
+        this.scheduler = Executors.newScheduledThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "job-queue-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts polling the queue once the server is ready. Nothing is started when the durable
+     * queue is disabled or inside a runner JVM.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!jobQueueService.isEnabled()) {
+            return;
+        }
+        long heartbeatMs = TimeUnit.SECONDS.toMillis(Math.max(1, properties.getHeartbeatSeconds()));
+        scheduler.scheduleWithFixedDelay(() -> guarded("poll", this::poll),
+                0, properties.getPollIntervalMs(), TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(() -> guarded("heartbeat", this::heartbeat),
+                heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(() -> guarded("cleanup", this::cleanup),
+                CLEANUP_INTERVAL_MINUTES, CLEANUP_INTERVAL_MINUTES, TimeUnit.MINUTES);
+        log.info("Durable job queue enabled for instance {} (lease {}s, heartbeat {}s)",
+                jobQueueService.getInstanceId(), properties.getLeaseSeconds(), properties.getHeartbeatSeconds());
+    }
+
+    private void poll() {
+        for (String jobId : jobQueueService.findCancelRequested()) {
+            log.info("Cancelling job {} as requested by another instance", jobId);
+            asyncJobManager.cancelJob(jobId);
+        }
+        int freeSlots = jobScheduler.getMaxConcurrentJobs() - jobScheduler.getRunningCount() - jobScheduler.getQueueDepth();
+        if (freeSlots <= 0) {
+            return;
+        }
+        List<QueuedJob> claimed = jobQueueService.claim(freeSlots);
+        for (QueuedJob job : claimed) {
+            asyncJobManager.runClaimedJob(job);
+        }
+    }
+
+    private void heartbeat() {
+        jobQueueService.renewLeases();
+        int recovered = jobQueueService.recoverExpiredLeases();
+        if (recovered > 0) {
+            log.warn("Recovered {} job(s) abandoned by other instances", recovered);
+        }
+    }
+
+    private void cleanup() {
+        jobQueueService.deleteFinishedBefore(LocalDateTime.now().minusHours(RETENTION_HOURS));
+    }
+
+    private void guarded(String name, Runnable action) {
+        try {
+            action.run();
+        } catch (Exception e) {
+            // An exception would cancel the periodic task
+            log.error("Job queue {} failed: {}", name, e.getMessage());
+        }
+    }
+
+    /**
+     * Stops polling when the application context is closed. The leases of running jobs are
+     * not renewed anymore, so other instances pick their jobs up if this instance dies.
+     */
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,341 @@
+package com.framework.apiserver.execution;
+
+import com.framework.apiserver.config.JobPriority;
+import com.framework.apiserver.config.SchedulerProperties;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded, priority-aware scheduler for asynchronous test runs.
+ *
+ * <p>Each test run forks a runner JVM and one or more browsers, so the number of runs
+ * executing at the same time is capped by {@link SchedulerProperties#getMaxConcurrentJobs()}.
+ * Jobs submitted while every slot is busy wait in an in-memory priority queue and are
+ * dispatched HIGH before NORMAL before LOW, first-in first-out within a priority.
+ * Once {@link SchedulerProperties#getMaxQueueSize()} jobs are waiting, further submissions
+ * are rejected with a {@link RejectedExecutionException} so callers can apply back-pressure.</p>
+ *
+ * <p>A job that cannot start yet on its slot, e.g. because the Selenium Grid has no slots for
+ * its browser, gives the slot back and is {@linkplain #requeue queued again} after a delay,
+ * so it never holds up the jobs behind it while it waits.</p>
+ *
+ * @see JobPriority
+ * @see SchedulerProperties
+ */
+@Component
+@Slf4j
+public class JobScheduler implements DisposableBean {
+
+    private final SchedulerProperties properties;
+
+    private final ThreadPoolExecutor executor;
+
+    // Jobs currently waiting in the queue, by job ID
+    private final Map<String, ScheduledJob> queuedJobs = new ConcurrentHashMap<>();
+
+    // Monotonic counter used to keep FIFO order within the same priority
+    private final AtomicLong sequence = new AtomicLong();
+
+    // Holds back the jobs queued again until their delay elapsed
+    private final ScheduledExecutorService requeueTimer = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("job-requeue").daemon().factory());
+
+    /**
+     * Constructs a JobScheduler with a fixed number of execution slots.
+     *
+     * @param properties The scheduler configuration.
+     */
+    public JobScheduler(SchedulerProperties properties) {
+        this.properties = properties;
+        int slots = Math.max(1, properties.getMaxConcurrentJobs());
+        // Slots orchestrate runs and mostly wait on runner processes and the database,
+        // so they are virtual threads; the pool size still bounds concurrent runs
+        ThreadFactory threadFactory = Thread.ofVirtual().name("job-slot-", 1).factory();
+        this.executor = new ThreadPoolExecutor(slots, slots, 0L, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>(), threadFactory);
+        log.info("Job scheduler started with {} execution slots and a queue of {}", slots, properties.getMaxQueueSize());
+    }
+
+    /**
+     * Resolves the scheduling priority for a tag expression.
+     *
+     * <p>An explicitly requested priority always wins. Otherwise the tags the expression
+     * selects are matched against the configured high and low priority tags; anything else
+     * is {@link JobPriority#NORMAL}. Negated tags, e.g. {@code @smoke} in
+     * {@code @regression and not @smoke}, exclude scenarios and do not count.</p>
+     *
+     * @param tag       The Cucumber tag expression of the run, may be null.
+     * @param requested The priority requested by the caller, may be null.
+     * @return The effective priority.
+     */
+    public JobPriority resolvePriority(String tag, JobPriority requested) {
+        if (requested != null) {
+            return requested;
+        }
+        if (tag == null || tag.isBlank()) {
+            return JobPriority.NORMAL;
+        }
+        List<String> tags = selectedTags(tag);
+        if (tags.stream().anyMatch(properties.getHighPriorityTags()::contains)) {
+            return JobPriority.HIGH;
+        }
+        if (tags.stream().anyMatch(properties.getLowPriorityTags()::contains)) {
+            return JobPriority.LOW;
+        }
+        return JobPriority.NORMAL;
+    }
+
+    /**
+     * Lists the tags of a tag expression that are not negated, taking {@code not} in front of
+     * a tag or a parenthesized group into account. Commas separate the expressions of a batch.
+     */
+    private static List<String> selectedTags(String tagExpression) {
+        List<String> tags = new ArrayList<>();
+        Deque<Boolean> groups = new ArrayDeque<>();
+        boolean negatedGroup = false;
+        boolean negateNext = false;
+        String spaced = tagExpression.replace("(", " ( ").replace(")", " ) ").replace(",", " ");
+        for (String token : spaced.trim().split("\\s+")) {
+            switch (token) {
+                case "not" -> negateNext = !negateNext;
+                case "and", "or" -> negateNext = false;
+                case "(" -> {
+                    groups.push(negatedGroup);
+                    negatedGroup = negatedGroup ^ negateNext;
+                    negateNext = false;
+                }
+                case ")" -> {
+                    negatedGroup = !groups.isEmpty() && groups.pop();
+                    negateNext = false;
+                }
+                default -> {
+                    if (!(negatedGroup ^ negateNext)) {
+                        tags.add(token);
+                    }
+                    negateNext = false;
+                }
+            }
+        }
+        return tags;
+    }
+
+    /**
+     * Verifies that a new job can be admitted without exceeding the queue limit.
+     *
+     * @throws RejectedExecutionException if every slot is busy and the queue is full.
+     */
+    public void ensureCapacity() {
+        if (isSaturated()) {
+            throw new RejectedExecutionException("Job queue is full (" + getQueueDepth() + "/"
+                    + properties.getMaxQueueSize() + " waiting, " + getRunningCount() + " running)");
+        }
+    }
+
+    /**
+     * Submits a job for execution. The job starts immediately if a slot is free,
+     * otherwise it waits in the priority queue.
+     *
+     * @param jobId    The ID of the job.
+     * @param priority The scheduling priority of the job.
+     * @param task     The work to execute once a slot is available.
+     * @throws RejectedExecutionException if every slot is busy and the queue is full.
+     */
+    public synchronized void submit(String jobId, JobPriority priority, Runnable task) {
+        ensureCapacity();
+        ScheduledJob job = new ScheduledJob(jobId, priority, sequence.incrementAndGet(), task);
+        queuedJobs.put(jobId, job);
+        try {
+            executor.execute(job);
+        } catch (RejectedExecutionException e) {
+            queuedJobs.remove(jobId);
+            throw e;
+        }
+        log.info("Job {} submitted with priority {} (queue depth {})", jobId, priority, getQueueDepth());
+    }
+
+    /**
+     * Queues a job again that gave its slot back because it cannot start yet. It waits for
+     * the delay and then for a slot like any other job, and can be removed meanwhile. It was
+     * accepted before, so the queue limit does not apply.
+     *
+     * @param jobId    The ID of the job.
+     * @param priority The scheduling priority of the job.
+     * @param delay    How long the job waits before it competes for a slot again.
+     * @param task     The work to execute once a slot is available.
+     * @throws RejectedExecutionException if the scheduler is shut down.
+     */
+    public void requeue(String jobId, JobPriority priority, Duration delay, Runnable task) {
+        ScheduledJob job = new ScheduledJob(jobId, priority, sequence.incrementAndGet(), task);
+        queuedJobs.put(jobId, job);
+        try {
+            job.delayed = requeueTimer.schedule(() -> dispatch(job), delay.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            queuedJobs.remove(jobId, job);
+            throw e;
+        }
+        log.debug("Job {} queued again in {} ms", jobId, delay.toMillis());
+    }
+
+    private void dispatch(ScheduledJob job) {
+        // Removed while it was held back
+        if (queuedJobs.get(job.getJobId()) != job) {
+            return;
+        }
+        try {
+            executor.execute(job);
+        } catch (RejectedExecutionException e) {
+            queuedJobs.remove(job.getJobId(), job);
+            log.warn("Job {} could not be queued again: {}", job.getJobId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Removes a job from the queue before it starts.
+     *
+     * @param jobId The ID of the job.
+     * @return True if the job was still waiting and has been removed, false otherwise.
+     */
+    public boolean remove(String jobId) {
+        ScheduledJob job = queuedJobs.remove(jobId);
+        if (job == null) {
+            return false;
+        }
+        ScheduledFuture<?> delayed = job.delayed;
+        return (delayed != null && delayed.cancel(false)) || executor.remove(job);
+    }
+
+    /**
+     * Checks whether a job is still waiting for a slot.
+     *
+     * @param jobId The ID of the job.
+     * @return True if the job is queued, false otherwise.
+     */
+    public boolean isQueued(String jobId) {
+        return queuedJobs.containsKey(jobId);
+    }
+
+    /**
+     * Returns the 1-based position of a job in the dispatch order.
+     *
+     * @param jobId The ID of the job.
+     * @return The queue position, or 0 if the job is not waiting.
+     */
+    public int getQueuePosition(String jobId) {
+        List<ScheduledJob> snapshot = new ArrayList<>(queuedJobs.values());
+        snapshot.sort(null);
+        for (int i = 0; i < snapshot.size(); i++) {
+            if (snapshot.get(i).getJobId().equals(jobId)) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Returns how long a job has been waiting in the queue.
+     *
+     * @param jobId The ID of the job.
+     * @return The wait time in seconds, or 0 if the job is not waiting.
+     */
+    public long getWaitSeconds(String jobId) {
+        ScheduledJob job = queuedJobs.get(jobId);
+        return job == null ? 0 : Duration.between(job.getEnqueuedAt(), LocalDateTime.now()).getSeconds();
+    }
+
+    /**
+     * @return The number of jobs waiting for a slot, including those queued again.
+     */
+    public int getQueueDepth() {
+        return queuedJobs.size();
+    }
+
+    /**
+     * @return The number of jobs currently executing.
+     */
+    public int getRunningCount() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * @return The number of execution slots.
+     */
+    public int getMaxConcurrentJobs() {
+        return executor.getMaximumPoolSize();
+    }
+
+    /**
+     * @return The maximum number of jobs allowed to wait for a slot.
+     */
+    public int getMaxQueueSize() {
+        return properties.getMaxQueueSize();
+    }
+
+    /**
+     * @return True if every slot is busy and the queue is full.
+     */
+    public boolean isSaturated() {
+        return getRunningCount() >= getMaxConcurrentJobs() && getQueueDepth() >= properties.getMaxQueueSize();
+    }
+
+    /**
+     * Stops the execution slots when the application context is closed.
+     */
+    @Override
+    public void destroy() {
+        requeueTimer.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    /**
+     * A job waiting in, or dispatched from, the priority queue.
+     */
+    @Getter
+    private class ScheduledJob implements Runnable, Comparable<ScheduledJob> {
+
+        private final String jobId;
+        private final JobPriority priority;
+        private final long sequence;
+        private final Runnable task;
+        private final LocalDateTime enqueuedAt = LocalDateTime.now();
+        private volatile ScheduledFuture<?> delayed;
+
+        ScheduledJob(String jobId, JobPriority priority, long sequence, Runnable task) {
+            this.jobId = jobId;
+            this.priority = priority;
+            this.sequence = sequence;
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            queuedJobs.remove(jobId, this);
+            task.run();
+        }
+
+        @Override
+        public int compareTo(ScheduledJob other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+}
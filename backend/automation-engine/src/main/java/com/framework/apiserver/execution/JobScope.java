@@ -0,0 +1,145 @@
+package com.framework.apiserver.execution;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs the subtasks of a job on virtual threads, with their lifetime bound to the scope.
+ *
+ * <p>Subtasks of a job (the shards of a run, the steps of its report post-processing) spend
+ * their time blocked on runner processes, files and the database, so each gets its own
+ * virtual thread instead of a platform thread from a pool. The scope keeps them structured:</p>
+ * <ul>
+ *   <li>If the owning thread is interrupted while joining, e.g. because the job was
+ *       cancelled or timed out, every subtask is interrupted.</li>
+ *   <li>A fail-fast scope interrupts the remaining subtasks as soon as one fails.</li>
+ *   <li>Closing the scope interrupts unfinished subtasks and waits until all of them have
+ *       ended, so no subtask outlives its job.</li>
+ * </ul>
+ *
+ * <p>This follows the shape of {@code StructuredTaskScope}, which is still a preview API in
+ * Java 21.</p>
+ *
+ * <pre>{@code
+ * try (JobScope scope = JobScope.open("run-" + runId)) {
+ *     Future<?> shard = scope.fork(() -> launch(shardRunId));
+ *     scope.join();
+ * }
+ * }</pre>
+ */
+public final class JobScope implements AutoCloseable {
+
+    private final ExecutorService executor;
+
+    private final boolean failFast;
+
+    private final List<Future<?>> subtasks = new ArrayList<>();
+
+    private final AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+
+    private JobScope(String name, boolean failFast) {
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 1).factory());
+        this.failFast = failFast;
+    }
+
+    /**
+     * Opens a scope whose subtasks run to completion independently of each other's failures.
+     *
+     * @param name The prefix of the subtask thread names.
+     * @return The scope, to be closed by the owning thread.
+     */
+    public static JobScope open(String name) {
+        return new JobScope(name, false);
+    }
+
+    /**
+     * Opens a scope that interrupts the remaining subtasks as soon as one fails.
+     *
+     * @param name The prefix of the subtask thread names.
+     * @return The scope, to be closed by the owning thread.
+     */
+    public static JobScope openFailFast(String name) {
+        return new JobScope(name, true);
+    }
+
+    /**
+     * Starts a subtask on its own virtual thread.
+     *
+     * @param task The subtask.
+     * @param <T>  The result type of the subtask.
+     * @return The future of the subtask, complete once {@link #join()} returned.
+     */
+    public synchronized <T> Future<T> fork(Callable<T> task) {
+        Future<T> future = executor.submit(() -> {
+            try {
+                return task.call();
+            } catch (Throwable t) {
+                if (firstFailure.compareAndSet(null, t) && failFast) {
+                    cancelAll();
+                }
+                throw t;
+            }
+        });
+        subtasks.add(future);
+        if (failFast && firstFailure.get() != null) {
+            future.cancel(true);
+        }
+        return future;
+    }
+
+    /**
+     * Waits until every subtask has finished, failed or been cancelled.
+     *
+     * @throws InterruptedException If the owning thread is interrupted; every subtask is interrupted first.
+     */
+    public void join() throws InterruptedException {
+        for (Future<?> subtask : snapshot()) {
+            try {
+                subtask.get();
+            } catch (ExecutionException | CancellationException e) {
+                // Reported through the subtask's future and throwIfFailed()
+            } catch (InterruptedException e) {
+                cancelAll();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Rethrows the first subtask failure, after {@link #join()}.
+     *
+     * @throws ExecutionException If a subtask failed.
+     */
+    public void throwIfFailed() throws ExecutionException {
+        Throwable failure = firstFailure.get();
+        if (failure != null) {
+            throw new ExecutionException(failure);
+        }
+    }
+
+    /**
+     * Interrupts the unfinished subtasks and waits until all of them have ended.
+     */
+    @Override
+    public void close() {
+        cancelAll();
+        executor.close();
+    }
+
+    private void cancelAll() {
+        for (Future<?> subtask : snapshot()) {
+            subtask.cancel(true);
+        }
+    }
+
+    private synchronized List<Future<?>> snapshot() {
+        return new ArrayList<>(subtasks);
+    }
+}
@@ -0,0 +1,253 @@
+package com.framework.apiserver.execution;
+
+import com.framework.apiserver.config.ExecutionMode;
+import com.framework.apiserver.config.JobStatus;
+import com.framework.apiserver.dto.MatrixRunStatus;
+import com.framework.apiserver.dto.RunOptions;
+import com.framework.apiserver.dto.TestExecutionResponse;
+import com.framework.apiserver.entity.JobTracking;
+import com.framework.apiserver.event.JobStatusChangedEvent;
+import com.framework.apiserver.service.JobTrackingService;
+import com.framework.apiserver.service.TestExecutionService;
+import com.framework.apiserver.utilities.AsyncJobManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * Fans one tag expression out across several browsers and tracks the runs as one job.
+ *
+ * <p>A matrix run is a parent job with one child job per browser. Every child is an ordinary
+ * asynchronous run with its own browser, queued and admitted to the Grid like any other job
+ * and executed by its own runner process, so the browsers run in parallel as far as the
+ * scheduler slots and the Grid allow. Children always run forked: in-process runs of a
+ * server share one worker and would run one browser after the other.</p>
+ *
+ * <p>The parent job is RUNNING once any browser runs. When every child has finished it
+ * takes the combined outcome: FAILED if any browser's job failed, else TIMED_OUT if any
+ * browser's run exceeded its deadline, else CANCELLED if any browser was cancelled, and
+ * COMPLETED with the summed failures only once every browser completed its run; cancelling
+ * the parent cancels its browsers. Job status changes are
+ * handled after their transaction committed, on a single coordinator thread, so the
+ * children's statuses are read as stored and a parent is finished once.</p>
+ */
+@Component
+@Slf4j
+public class MatrixRunCoordinator implements DisposableBean {
+
+    private static final Set<JobStatus> FINISHED_STATUSES =
+            Set.of(JobStatus.COMPLETED, JobStatus.FAILED, JobStatus.CANCELLED, JobStatus.TIMED_OUT);
+
+    private final TestExecutionService testExecutionService;
+
+    private final AsyncJobManager asyncJobManager;
+
+    private final JobTrackingService jobTrackingService;
+
+    private final ExecutorService coordinator = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "matrix-coordinator");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Constructs a MatrixRunCoordinator.
+     *
+     * @param testExecutionService The service queueing the run of each browser.
+     * @param asyncJobManager      The manager of the job lifecycle.
+     * @param jobTrackingService   The store of the parent and child jobs.
+     */
+    public MatrixRunCoordinator(TestExecutionService testExecutionService, AsyncJobManager asyncJobManager,
+                                JobTrackingService jobTrackingService) {
+        this.testExecutionService = testExecutionService;
+        this.asyncJobManager = asyncJobManager;
+        this.jobTrackingService = jobTrackingService;
+    }
+
+    /**
+     * Queues a matrix run: a parent job and one run of the tag expression per browser.
+     *
+     * <p>If a browser's run cannot be queued, the runs already queued are cancelled and the
+     * parent job fails.</p>
+     *
+     * @param options   The run options shared by every browser; the browser and execution
+     *                  mode are set per child.
+     * @param browsers  The browsers to run on, e.g. chrome, firefox and edge.
+     * @param createdBy The ID of the user who started the run.
+     * @return The unique identifier of the parent job.
+     * @throws IllegalArgumentException if no browser is given.
+     * @throws java.util.concurrent.RejectedExecutionException if the scheduler queue is full.
+     */
+    public String submit(RunOptions options, List<String> browsers, String createdBy) {
+        List<String> matrix = browsers.stream()
+                .map(browser -> browser.toLowerCase().trim())
+                .filter(browser -> !browser.isEmpty())
+                .distinct()
+                .toList();
+        if (matrix.isEmpty()) {
+            throw new IllegalArgumentException("A matrix run needs at least one browser");
+        }
+
+        String parentJobId = asyncJobManager.createJobWithTracking(null, options.getTag(), createdBy);
+        jobTrackingService.recordMatrixJob(parentJobId, null, String.join(",", matrix));
+        asyncJobManager.updateJobStatus(parentJobId, JobStatus.QUEUED);
+        List<String> childJobIds = new ArrayList<>();
+        try {
+            for (String browser : matrix) {
+                RunOptions childOptions = options.toBuilder()
+                        .browserType(browser)
+                        .executionMode(ExecutionMode.FORKED)
+                        .build();
+                String childJobId = testExecutionService.runTestsAsync(childOptions, createdBy);
+                childJobIds.add(childJobId);
+                jobTrackingService.recordMatrixJob(childJobId, parentJobId, browser);
+            }
+        } catch (RuntimeException e) {
+            childJobIds.forEach(asyncJobManager::cancelJob);
+            asyncJobManager.failJob(parentJobId, "Could not queue the matrix run: " + e.getMessage());
+            throw e;
+        }
+        log.info("Matrix run {} queued on {} browser(s): {}", parentJobId, matrix.size(), matrix);
+        // A browser may have finished before it was linked to the parent
+        coordinator.execute(() -> update(parentJobId));
+        return parentJobId;
+    }
+
+    /**
+     * Retrieves a matrix run with the status and result of each browser.
+     *
+     * @param parentJobId The ID of the parent job.
+     * @return The matrix run, or empty if the job does not exist or is not a matrix run.
+     */
+    public Optional<MatrixRunStatus> getStatus(String parentJobId) {
+        return jobTrackingService.getJobById(parentJobId)
+                .filter(parent -> parent.getParentJobId() == null)
+                .flatMap(parent -> {
+                    List<JobTracking> children = jobTrackingService.getChildJobs(parentJobId);
+                    if (children.isEmpty()) {
+                        return Optional.empty();
+                    }
+                    List<MatrixRunStatus.BrowserRun> runs = children.stream().map(this::browserRun).toList();
+                    return Optional.of(MatrixRunStatus.builder()
+                            .jobId(parentJobId)
+                            .tag(parent.getTag())
+                            .status(parent.getStatus())
+                            .startTime(parent.getStartTime())
+                            .endTime(parent.getEndTime())
+                            .failures(runs.stream()
+                                    .map(MatrixRunStatus.BrowserRun::getFailures)
+                                    .filter(failures -> failures != null && failures > 0)
+                                    .mapToInt(Integer::intValue)
+                                    .sum())
+                            .browsers(runs)
+                            .build());
+                });
+    }
+
+    /**
+     * Updates the parent of a child job whose status changed, or cancels the browsers of a
+     * cancelled parent, once the change is committed.
+     *
+     * @param event The job status change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJobStatusChanged(JobStatusChangedEvent event) {
+        JobTracking job = event.getJobTracking();
+        if (job.getParentJobId() != null) {
+            String parentJobId = job.getParentJobId();
+            coordinator.execute(() -> update(parentJobId));
+        } else if (job.getStatus() == JobStatus.CANCELLED) {
+            String jobId = job.getJobId();
+            coordinator.execute(() -> cancelBrowsers(jobId));
+        }
+    }
+
+    /**
+     * Marks the parent RUNNING once a browser runs, and finishes it once every browser finished.
+     */
+    private void update(String parentJobId) {
+        try {
+            JobTracking parent = jobTrackingService.getJobById(parentJobId).orElse(null);
+            if (parent == null || FINISHED_STATUSES.contains(parent.getStatus())) {
+                return;
+            }
+            List<JobTracking> children = jobTrackingService.getChildJobs(parentJobId);
+            if (children.isEmpty()) {
+                return;
+            }
+            if (!children.stream().allMatch(child -> FINISHED_STATUSES.contains(child.getStatus()))) {
+                if (parent.getStatus() != JobStatus.RUNNING
+                        && children.stream().anyMatch(child -> child.getStatus() == JobStatus.RUNNING)) {
+                    asyncJobManager.updateJobStatus(parentJobId, JobStatus.RUNNING);
+                }
+                return;
+            }
+            finish(parentJobId, children);
+        } catch (RuntimeException e) {
+            log.warn("Could not update matrix run {}: {}", parentJobId, e.getMessage());
+        }
+    }
+
+    private void finish(String parentJobId, List<JobTracking> children) {
+        List<MatrixRunStatus.BrowserRun> runs = children.stream().map(this::browserRun).toList();
+        String summary = runs.stream()
+                .map(run -> run.getBrowserType() + ": " + (run.getResult() != null ? run.getResult() : run.getStatus()))
+                .collect(Collectors.joining("; "));
+        if (runs.stream().anyMatch(run -> run.getStatus() == JobStatus.FAILED)) {
+            asyncJobManager.failJob(parentJobId, "Matrix run failed on a browser: " + summary);
+        } else if (runs.stream().anyMatch(run -> run.getStatus() == JobStatus.TIMED_OUT)) {
+            // A browser stopped at its deadline has no complete result, so neither has the matrix run
+            asyncJobManager.timeoutJob(parentJobId, "Matrix run timed out on a browser: " + summary);
+        } else if (runs.stream().anyMatch(run -> run.getStatus() == JobStatus.CANCELLED)) {
+            asyncJobManager.updateJobStatus(parentJobId, JobStatus.CANCELLED);
+        } else {
+            int failures = runs.stream()
+                    .map(MatrixRunStatus.BrowserRun::getFailures)
+                    .filter(count -> count != null && count > 0)
+                    .mapToInt(Integer::intValue)
+                    .sum();
+            asyncJobManager.completeJob(parentJobId, new TestExecutionResponse("Matrix run finished: " + summary,
+                    failures, null));
+        }
+        log.info("Matrix run {} finished: {}", parentJobId, summary);
+    }
+
+    private void cancelBrowsers(String parentJobId) {
+        try {
+            for (JobTracking child : jobTrackingService.getChildJobs(parentJobId)) {
+                if (!FINISHED_STATUSES.contains(child.getStatus())) {
+                    asyncJobManager.cancelJob(child.getJobId());
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not cancel the browsers of matrix run {}: {}", parentJobId, e.getMessage());
+        }
+    }
+
+    private MatrixRunStatus.BrowserRun browserRun(JobTracking child) {
+        TestExecutionResponse result = asyncJobManager.getResult(child.getJobId());
+        return MatrixRunStatus.BrowserRun.builder()
+                .browserType(child.getBrowserType())
+                .jobId(child.getJobId())
+                .status(child.getStatus())
+                .runId(result != null ? result.getRunId() : null)
+                .result(child.getErrorMessage() != null ? child.getErrorMessage()
+                        : result != null ? result.getStatus() : null)
+                .failures(result != null && result.getExitCode() >= 0 ? result.getExitCode() : null)
+                .build();
+    }
+
+    @Override
+    public void destroy() {
+        coordinator.shutdownNow();
+    }
+}
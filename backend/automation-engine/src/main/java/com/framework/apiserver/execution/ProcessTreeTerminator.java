@@ -0,0 +1,71 @@
+package com.framework.apiserver.execution;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Terminates a runner process together with every process it started (driver services,
+ * browsers).
+ *
+ * <p>Termination is graceful first: only the root process is asked to stop, so the runner's
+ * shutdown hook can quit its WebDriver sessions, which closes the browsers and releases
+ * Grid slots. Processes still alive after the grace period, including descendants that were
+ * re-parented when the root exited, are killed forcibly.</p>
+ */
+@Slf4j
+public final class ProcessTreeTerminator {
+
+    private ProcessTreeTerminator() {
+    }
+
+    /**
+     * Terminates a process tree and blocks until it is gone.
+     *
+     * <p>A pending interrupt of the calling thread is preserved but does not cut the wait short,
+     * since termination usually runs because the calling thread was interrupted.</p>
+     *
+     * @param root        The root process of the tree.
+     * @param gracePeriod How long the root process is given to stop on its own.
+     */
+    public static void terminate(ProcessHandle root, Duration gracePeriod) {
+        boolean interrupted = Thread.interrupted();
+        try {
+            // Snapshot the tree first, children are re-parented once the root exits
+            List<ProcessHandle> tree = new ArrayList<>();
+            tree.add(root);
+            root.descendants().forEach(tree::add);
+            log.info("Terminating process {} and {} descendant(s)", root.pid(), tree.size() - 1);
+
+            if (root.isAlive() && root.destroy()) {
+                await(root, gracePeriod);
+            }
+            root.descendants().forEach(tree::add);
+            List<ProcessHandle> survivors = tree.stream().filter(ProcessHandle::isAlive).toList();
+            if (!survivors.isEmpty()) {
+                log.warn("Killing {} process(es) left after the grace period of process {}", survivors.size(), root.pid());
+                survivors.forEach(ProcessHandle::destroyForcibly);
+                survivors.forEach(process -> await(process, gracePeriod));
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void await(ProcessHandle process, Duration timeout) {
+        try {
+            process.onExit().get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            log.debug("Process {} did not exit within {}", process.pid(), timeout);
+        }
+    }
+}
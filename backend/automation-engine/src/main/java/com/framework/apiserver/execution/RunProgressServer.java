@@ -0,0 +1,310 @@
+package com.framework.apiserver.execution;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.framework.apiserver.config.ExecutionProperties;
+import com.framework.apiserver.dto.RunProgress;
+import com.framework.apiserver.service.JobTrackingService;
+import com.framework.apiserver.testrunner.LiveProgressPlugin;
+import com.framework.apiserver.testrunner.RunnerWorker;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Receives the scenario and step results streamed by runners and turns them into live job progress.
+ *
+ * <p>The server listens on a loopback port and publishes it in the
+ * {@link LiveProgressPlugin#PROGRESS_PORT_PROPERTY} system property, which every runner entry
+ * point (forked JVMs, pool workers and the in-process engine) picks up to attach the
+ * {@link LiveProgressPlugin}. Runs are registered with the job they belong to before they
+ * are launched; shard runs ({@code runId-shard-N}) count towards the job of their parent run.
+ * Every scenario start and result updates the job's counters and failure list and is pushed
+ * to the SSE clients of {@code /api/jobs/updates}; step results are throttled to
+ * {@link ExecutionProperties.Progress#getStepBroadcastIntervalMs()} per job.</p>
+ *
+ * <p>The browser session pool statistics a runner reports at the end of a run are added to
+ * the {@code browser.session.pool.hits}, {@code .misses} and {@code .recycled} counters.</p>
+ */
+@Component
+@Slf4j
+public class RunProgressServer implements DisposableBean {
+
+    private static final String SHARD_SUFFIX = "-shard-";
+
+    // Bounds the size of the progress event of runs with many failures
+    private static final int MAX_FAILURES = 50;
+
+    private final ExecutionProperties.Progress properties;
+
+    private final JobTrackingService jobTrackingService;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    // Progress of the registered runs, by run ID
+    private final Map<String, JobProgress> progressByRun = new ConcurrentHashMap<>();
+
+    private ServerSocket serverSocket;
+
+    private volatile boolean running;
+
+    /**
+     * Constructs a RunProgressServer.
+     *
+     * @param executionProperties The execution configuration.
+     * @param jobTrackingService  The service broadcasting progress to SSE clients.
+     * @param meterRegistry       The registry of the browser session pool counters.
+     */
+    public RunProgressServer(ExecutionProperties executionProperties, JobTrackingService jobTrackingService,
+                             MeterRegistry meterRegistry) {
+        this.properties = executionProperties.getProgress();
+        this.jobTrackingService = jobTrackingService;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Opens the progress channel once the server is ready, before the runner pool spawns its
+     * workers so they inherit the port.
+     *
+     * <p>Nothing is started when live progress is disabled or inside a runner JVM, which loads
+     * the same application context for its glue code.</p>
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void start() {
+        if (!properties.isEnabled() || RunnerWorker.isRunnerJvm()) {
+            return;
+        }
+        try {
+            serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        } catch (IOException e) {
+            log.error("Live progress disabled, progress channel could not be opened: {}", e.getMessage());
+            return;
+        }
+        running = true;
+        System.setProperty(LiveProgressPlugin.PROGRESS_PORT_PROPERTY, String.valueOf(serverSocket.getLocalPort()));
+        Thread acceptor = new Thread(this::acceptRunners, "run-progress-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        log.info("Live progress channel listening on port {}", serverSocket.getLocalPort());
+    }
+
+    /**
+     * Starts tracking the progress of a run on behalf of a job.
+     *
+     * @param runId The unique identifier of the test run.
+     * @param jobId The ID of the job the run belongs to.
+     */
+    public void register(String runId, String jobId) {
+        if (jobId != null) {
+            progressByRun.put(runId, new JobProgress(new RunProgress(jobId, runId)));
+        }
+    }
+
+    /**
+     * Stops tracking the progress of a run.
+     *
+     * @param runId The unique identifier of the test run.
+     */
+    public void unregister(String runId) {
+        progressByRun.remove(runId);
+    }
+
+    /**
+     * Retrieves the current progress of a job.
+     *
+     * @param jobId The ID of the job.
+     * @return A snapshot of the job's progress, or empty if no run of the job is being tracked.
+     */
+    public Optional<RunProgress> getProgress(String jobId) {
+        return progressByRun.values().stream()
+                .filter(progress -> jobId.equals(progress.progress.getJobId()))
+                .findFirst()
+                .map(JobProgress::snapshot);
+    }
+
+    /**
+     * Retrieves the current progress of a registered run.
+     *
+     * @param runId The unique identifier of the test run.
+     * @return A snapshot of the run's progress, or empty if the run is not registered.
+     */
+    public Optional<RunProgress> getRunProgress(String runId) {
+        return Optional.ofNullable(progressByRun.get(runId)).map(JobProgress::snapshot);
+    }
+
+    private void acceptRunners() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                // One virtual thread per runner connection, they spend their life blocked in reads
+                Thread.ofVirtual().name("run-progress-reader").start(() -> readEvents(socket));
+            } catch (IOException e) {
+                if (running) {
+                    log.warn("Failed to accept a runner progress connection: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the events of one runner connection until the run finishes and the runner closes it.
+     */
+    private void readEvents(Socket socket) {
+        try (socket; BufferedReader reader = new BufferedReader(
+                new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                try {
+                    handle(mapper.readTree(line));
+                } catch (IOException e) {
+                    log.debug("Ignoring malformed progress event: {}", e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            log.debug("Runner progress connection closed: {}", e.getMessage());
+        }
+    }
+
+    private void handle(JsonNode event) {
+        String runId = event.path("runId").asText();
+        if (LiveProgressPlugin.SESSION_POOL.equals(event.path("event").asText())) {
+            recordSessionPool(runId, event);
+            return;
+        }
+        JobProgress jobProgress = progressByRun.get(runId);
+        if (jobProgress == null && runId.contains(SHARD_SUFFIX)) {
+            jobProgress = progressByRun.get(runId.substring(0, runId.lastIndexOf(SHARD_SUFFIX)));
+        }
+        if (jobProgress == null) {
+            return;
+        }
+        if (jobProgress.apply(event, properties.getStepBroadcastIntervalMs())) {
+            jobTrackingService.broadcastRunProgress(jobProgress.snapshot());
+        }
+    }
+
+    private void recordSessionPool(String runId, JsonNode event) {
+        long hits = event.path("hits").asLong();
+        long misses = event.path("misses").asLong();
+        long recycled = event.path("recycled").asLong();
+        meterRegistry.counter("browser.session.pool.hits").increment(hits);
+        meterRegistry.counter("browser.session.pool.misses").increment(misses);
+        meterRegistry.counter("browser.session.pool.recycled").increment(recycled);
+        log.info("Run {} reused {} browser session(s), started {} and recycled {}", runId, hits, misses, recycled);
+    }
+
+    /**
+     * Closes the progress channel when the application context is closed.
+     */
+    @Override
+    public void destroy() {
+        running = false;
+        if (serverSocket != null) {
+            try {
+                serverSocket.close();
+            } catch (IOException e) {
+                log.debug("Failed to close progress channel: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * The progress of one job, updated by the reader threads of its runner connections.
+     */
+    private static final class JobProgress {
+
+        private final RunProgress progress;
+
+        // Names of the running scenarios, by feature URI and line
+        private final Map<String, String> runningScenarios = new LinkedHashMap<>();
+
+        private long lastStepBroadcast;
+
+        private JobProgress(RunProgress progress) {
+            this.progress = progress;
+        }
+
+        /**
+         * Applies an event to the progress.
+         *
+         * @return True if the change should be broadcast.
+         */
+        private synchronized boolean apply(JsonNode event, long stepIntervalMs) {
+            String scenario = event.path("scenario").asText();
+            String location = event.path("uri").asText() + ":" + event.path("line").asLong();
+            progress.setUpdatedAt(LocalDateTime.now());
+            switch (event.path("event").asText()) {
+                case LiveProgressPlugin.TEST_CASE_STARTED -> {
+                    runningScenarios.put(location, scenario);
+                    return true;
+                }
+                case LiveProgressPlugin.STEP_FINISHED -> {
+                    progress.setLastStep(event.path("step").asText() + " - " + event.path("status").asText());
+                    long now = System.currentTimeMillis();
+                    if (now - lastStepBroadcast < stepIntervalMs) {
+                        return false;
+                    }
+                    lastStepBroadcast = now;
+                    return true;
+                }
+                case LiveProgressPlugin.TEST_CASE_FINISHED -> {
+                    runningScenarios.remove(location);
+                    progress.setCompleted(progress.getCompleted() + 1);
+                    switch (event.path("status").asText()) {
+                        case "PASSED" -> progress.setPassed(progress.getPassed() + 1);
+                        case "FAILED", "AMBIGUOUS" -> {
+                            progress.setFailed(progress.getFailed() + 1);
+                            if (progress.getFailures().size() < MAX_FAILURES) {
+                                progress.getFailures().add(new RunProgress.ScenarioFailure(scenario, location,
+                                        event.path("error").asText(null)));
+                            }
+                        }
+                        default -> progress.setSkipped(progress.getSkipped() + 1);
+                    }
+                    return true;
+                }
+                default -> {
+                    return false;
+                }
+            }
+        }
+
+        /**
+         * Copies the progress, so it can be serialized while runners keep updating it.
+         */
+        private synchronized RunProgress snapshot() {
+            RunProgress copy = new RunProgress(progress.getJobId(), progress.getRunId());
+            copy.setCompleted(progress.getCompleted());
+            copy.setPassed(progress.getPassed());
+            copy.setFailed(progress.getFailed());
+            copy.setSkipped(progress.getSkipped());
+            copy.setRunningScenarios(new ArrayList<>(runningScenarios.values()));
+            copy.setFailures(new ArrayList<>(progress.getFailures()));
+            copy.setLastStep(progress.getLastStep());
+            copy.setUpdatedAt(progress.getUpdatedAt());
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.framework.apiserver.execution;
+
+import com.framework.apiserver.config.ExecutionProperties;
+import com.framework.apiserver.testrunner.RunnerWorker;
+import com.framework.apiserver.testrunner.ScenarioWatchdogPlugin;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Enforces run and scenario deadlines.
+ *
+ * <p>Run deadlines are enforced by the server: a run that is still executing when its deadline
+ * passes gets its timeout action run, which marks the job TIMED_OUT unless it finished or was
+ * cancelled meanwhile, and only then has its run thread interrupted, so the launcher
+ * terminates the runner exactly as for a cancellation. Both happen in one state transition of
+ * the deadline, and closing it waits for them, so a run finishing right at its deadline never
+ * keeps a stray interrupt.</p>
+ *
+ * <p>Scenario deadlines are enforced inside the runner by the {@link ScenarioWatchdogPlugin}.
+ * The configured {@link ExecutionProperties#getScenarioTimeoutSeconds()} is published in its
+ * system property, which forked runners and pool workers inherit and in-process runs read
+ * directly.</p>
+ */
+@Component
+@Slf4j
+public class RunWatchdog implements DisposableBean {
+
+    private static final int ACTIVE = 0;
+    private static final int FIRING = 1;
+    private static final int FIRED = 2;
+    private static final int CLOSED = 3;
+
+    private final ExecutionProperties executionProperties;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "run-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Constructs a RunWatchdog.
+     *
+     * @param executionProperties The execution configuration.
+     */
+    public RunWatchdog(ExecutionProperties executionProperties) {
+        this.executionProperties = executionProperties;
+    }
+
+    /**
+     * Publishes the scenario deadline once the server is ready, before the runner pool spawns
+     * its workers so they inherit it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void publishScenarioTimeout() {
+        int seconds = executionProperties.getScenarioTimeoutSeconds();
+        if (seconds > 0 && !RunnerWorker.isRunnerJvm()) {
+            System.setProperty(ScenarioWatchdogPlugin.SCENARIO_TIMEOUT_PROPERTY, String.valueOf(seconds));
+            log.info("Scenarios are failed after {} seconds", seconds);
+        }
+    }
+
+    /**
+     * Starts the deadline of a run. Must be called on the run thread, which is interrupted
+     * once the deadline passes.
+     *
+     * @param runId     The unique identifier of the test run.
+     * @param timeout   The deadline; zero or negative disables it.
+     * @param onTimeout The action marking the run timed out, executed on the watchdog thread;
+     *                  the run thread is interrupted afterwards only if it returned true.
+     * @return The deadline, to be closed once the run finishes.
+     */
+    public Deadline watch(String runId, Duration timeout, BooleanSupplier onTimeout) {
+        Deadline deadline = new Deadline();
+        if (timeout.isZero() || timeout.isNegative()) {
+            return deadline;
+        }
+        Thread runThread = Thread.currentThread();
+        deadline.future = scheduler.schedule(() -> {
+            if (deadline.state.compareAndSet(ACTIVE, FIRING)) {
+                boolean timedOut = false;
+                try {
+                    timedOut = onTimeout.getAsBoolean();
+                } finally {
+                    if (timedOut) {
+                        log.warn("Run {} exceeded its deadline of {} minute(s), stopping it", runId, timeout.toMinutes());
+                        runThread.interrupt();
+                    }
+                    // A job that finished or was cancelled meanwhile is left as it is
+                    deadline.state.set(timedOut ? FIRED : CLOSED);
+                    deadline.fired.countDown();
+                }
+            }
+        }, timeout.toMillis(), TimeUnit.MILLISECONDS);
+        return deadline;
+    }
+
+    /**
+     * Stops the watchdog thread when the application context is closed.
+     */
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * The deadline of a single run.
+     */
+    public static final class Deadline implements AutoCloseable {
+
+        private final AtomicInteger state = new AtomicInteger(ACTIVE);
+
+        // Released once the timeout action ran and the run thread was interrupted
+        private final CountDownLatch fired = new CountDownLatch(1);
+
+        private ScheduledFuture<?> future;
+
+        /**
+         * @return True if the run exceeded its deadline and is being stopped.
+         */
+        public boolean isExpired() {
+            return state.get() == FIRED;
+        }
+
+        /**
+         * Cancels the deadline of a run that finished in time. Must be called on the run thread:
+         * if the deadline passed meanwhile, it waits for the timeout action and then clears the
+         * interrupt it delivered to the run that had already finished.
+         */
+        @Override
+        public void close() {
+            if (state.compareAndSet(ACTIVE, CLOSED)) {
+                if (future != null) {
+                    future.cancel(false);
+                }
+                return;
+            }
+            while (true) {
+                try {
+                    fired.await();
+                    break;
+                } catch (InterruptedException e) {
+                    // The interrupt of this deadline, cleared below
+                }
+            }
+            if (state.get() == FIRED) {
+                Thread.interrupted();
+            }
+        }
+    }
+}
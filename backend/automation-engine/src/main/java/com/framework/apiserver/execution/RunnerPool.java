@@ -0,0 +1,404 @@
+package com.framework.apiserver.execution;
+
+import com.framework.apiserver.config.ExecutionProperties;
+import com.framework.apiserver.testrunner.ClassDataSharing;
+import com.framework.apiserver.testrunner.RunnerClasspath;
+import com.framework.apiserver.testrunner.RunnerWorker;
+import com.framework.apiserver.testrunner.TestRunner;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of pre-started runner JVMs for forked runs.
+ *
+ * <p>Each worker is a {@link RunnerWorker} process that has already loaded the runner
+ * classes, initialized the glue Spring context and resolved the driver binaries. Workers
+ * connect back to a loopback control channel and wait for runs. A run is handed to an idle
+ * worker when one is available (a pool hit); otherwise the caller falls back to cold-starting
+ * a runner JVM (a pool miss). Workers are replaced after
+ * {@link ExecutionProperties.Pool#getMaxRunsPerWorker()} runs, when their heap grows past
+ * {@link ExecutionProperties.Pool#getMaxHeapMb()}, when they die, or when their run is cancelled.</p>
+ *
+ * <p>Pool size, idle workers, hits, misses, hit rate and recycles are published as
+ * {@code runner.pool.*} metrics.</p>
+ */
+@Component
+@Slf4j
+public class RunnerPool implements DisposableBean {
+
+    private static final int HANDSHAKE_TIMEOUT_MS = 10_000;
+
+    private static final long POLL_INTERVAL_MS = 200;
+
+    private final ExecutionProperties.Pool properties;
+
+    private final Duration cancelGracePeriod;
+
+    // Workers that are started but not yet connected, by worker ID
+    private final Map<String, Worker> startingWorkers = new ConcurrentHashMap<>();
+
+    // Connected workers waiting for a run
+    private final BlockingQueue<Worker> idleWorkers = new LinkedBlockingQueue<>();
+
+    private final AtomicInteger liveWorkers = new AtomicInteger();
+
+    private final AtomicInteger workerCounter = new AtomicInteger();
+
+    private final Counter hits;
+
+    private final Counter misses;
+
+    private final MeterRegistry meterRegistry;
+
+    private ServerSocket controlSocket;
+
+    private volatile boolean running;
+
+    /**
+     * Constructs a RunnerPool and registers its metrics.
+     *
+     * @param executionProperties The execution configuration.
+     * @param meterRegistry       The registry the pool metrics are published to.
+     */
+    public RunnerPool(ExecutionProperties executionProperties, MeterRegistry meterRegistry) {
+        this.properties = executionProperties.getPool();
+        this.cancelGracePeriod = Duration.ofSeconds(executionProperties.getCancelGracePeriodSeconds());
+        this.meterRegistry = meterRegistry;
+        this.hits = Counter.builder("runner.pool.hits")
+                .description("Runs handed to a pre-started runner JVM")
+                .register(meterRegistry);
+        this.misses = Counter.builder("runner.pool.misses")
+                .description("Runs that had to cold-start a runner JVM")
+                .register(meterRegistry);
+        Gauge.builder("runner.pool.size", liveWorkers, AtomicInteger::get)
+                .description("Runner JVMs alive in the pool")
+                .register(meterRegistry);
+        Gauge.builder("runner.pool.idle", idleWorkers, BlockingQueue::size)
+                .description("Runner JVMs waiting for a run")
+                .register(meterRegistry);
+        Gauge.builder("runner.pool.hit.rate", this, RunnerPool::getHitRate)
+                .description("Share of forked runs served by a pre-started runner JVM")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens the control channel and starts the workers once the server is ready.
+     *
+     * <p>Nothing is started when the pool is disabled or inside a runner JVM, which loads
+     * the same application context for its glue code.</p>
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled() || RunnerWorker.isRunnerJvm()) {
+            return;
+        }
+        try {
+            controlSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        } catch (IOException e) {
+            log.error("Runner pool disabled, control channel could not be opened: {}", e.getMessage());
+            return;
+        }
+        running = true;
+        Thread acceptor = new Thread(this::acceptWorkers, "runner-pool-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        for (int i = 0; i < Math.max(1, properties.getSize()); i++) {
+            spawnWorker();
+        }
+        log.info("Runner pool started with {} workers on control port {}", properties.getSize(),
+                controlSocket.getLocalPort());
+    }
+
+    /**
+     * @return True if the pool accepts runs.
+     */
+    public boolean isEnabled() {
+        return running;
+    }
+
+    /**
+     * Hands a run to an idle worker and blocks until it finishes.
+     *
+     * @param runId       The unique identifier of the test run.
+     * @param features    The feature path, or {@code @file} pointing to a rerun file.
+     * @param tag         The tag expression used to filter scenarios, may be null.
+     * @param browserName The browser the UI scenarios run on.
+     * @param threads     The number of scenarios executed in parallel.
+     * @param runProperties System properties set in the worker for the duration of the run.
+     * @return True if a worker executed the run, false if no worker was idle and the caller
+     *         must cold-start a runner JVM instead.
+     * @throws IOException          If the worker died during the run.
+     * @throws InterruptedException If the calling thread is interrupted; the worker is killed.
+     */
+    public boolean tryRun(String runId, String features, String tag, String browserName, int threads,
+                          Map<String, String> runProperties) throws IOException, InterruptedException {
+        Worker worker = pollIdleWorker();
+        if (worker == null) {
+            misses.increment();
+            log.info("No idle runner worker for run {}, cold-starting a runner JVM", runId);
+            return false;
+        }
+        hits.increment();
+        log.info("Run {} handed to runner worker {}", runId, worker.id);
+        try {
+            worker.out.writeUTF(RunnerWorker.RUN);
+            worker.out.writeUTF(runId);
+            worker.out.writeUTF(browserName == null ? "chrome" : browserName);
+            worker.out.writeUTF(features);
+            worker.out.writeUTF(tag == null ? "" : tag);
+            worker.out.writeInt(threads);
+            worker.out.writeInt(runProperties.size());
+            for (Map.Entry<String, String> property : runProperties.entrySet()) {
+                worker.out.writeUTF(property.getKey());
+                worker.out.writeUTF(property.getValue());
+            }
+            worker.out.flush();
+
+            awaitReply(worker);
+            if (!RunnerWorker.DONE.equals(worker.in.readUTF())) {
+                throw new IOException("Unexpected reply from runner worker " + worker.id);
+            }
+            int status = worker.in.readInt();
+            long heapMb = worker.in.readLong();
+            worker.runs++;
+            log.info("Run {} finished on runner worker {} with exit status {} ({} runs, {} MB heap)",
+                    runId, worker.id, status, worker.runs, heapMb);
+            release(worker, heapMb);
+            return true;
+        } catch (InterruptedException e) {
+            log.info("Run {} cancelled, killing runner worker {}", runId, worker.id);
+            replace(worker, "cancelled");
+            throw e;
+        } catch (IOException e) {
+            replace(worker, "failed");
+            throw new IOException("Runner worker " + worker.id + " failed during run " + runId + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return The share of forked runs served by a pre-started worker, between 0 and 1.
+     */
+    public double getHitRate() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+
+    /**
+     * Takes the next live idle worker, discarding workers whose process has exited.
+     */
+    private Worker pollIdleWorker() {
+        Worker worker;
+        while ((worker = idleWorkers.poll()) != null) {
+            if (worker.process.isAlive()) {
+                return worker;
+            }
+            replace(worker, "died");
+        }
+        return null;
+    }
+
+    /**
+     * Waits until the worker replies, staying responsive to interrupts and to the worker dying.
+     */
+    private void awaitReply(Worker worker) throws IOException, InterruptedException {
+        while (worker.in.available() == 0) {
+            if (!worker.process.isAlive()) {
+                throw new IOException("runner worker process exited with code " + worker.process.exitValue());
+            }
+            Thread.sleep(POLL_INTERVAL_MS);
+        }
+    }
+
+    /**
+     * Returns a worker to the pool, or replaces it once it has served its quota of runs or grown too large.
+     */
+    private void release(Worker worker, long heapMb) {
+        if (worker.runs >= properties.getMaxRunsPerWorker()) {
+            replace(worker, "max-runs");
+        } else if (heapMb >= properties.getMaxHeapMb()) {
+            replace(worker, "memory");
+        } else {
+            idleWorkers.offer(worker);
+        }
+    }
+
+    /**
+     * Stops a worker and starts a fresh one in its place.
+     */
+    private void replace(Worker worker, String reason) {
+        meterRegistry.counter("runner.pool.recycled", "reason", reason).increment();
+        log.info("Recycling runner worker {} after {} runs ({})", worker.id, worker.runs, reason);
+        stopWorker(worker, !"max-runs".equals(reason) && !"memory".equals(reason));
+        if (running) {
+            spawnWorker();
+        }
+    }
+
+    /**
+     * Starts a new worker JVM; it joins the idle queue once it connects back.
+     */
+    private void spawnWorker() {
+        String workerId = "worker-" + workerCounter.incrementAndGet();
+        List<String> command = new ArrayList<>();
+        command.add("java");
+        command.addAll(properties.getJvmArgs());
+        command.add("-D" + RunnerWorker.RUNNER_JVM_PROPERTY + "=true");
+        command.add("-D" + RunnerWorker.WORKER_ID_PROPERTY + "=" + workerId);
+        command.add("-D" + RunnerWorker.CONTROL_PORT_PROPERTY + "=" + controlSocket.getLocalPort());
+        command.add("-D" + RunnerWorker.WARM_BROWSERS_PROPERTY + "=" + String.join(",", properties.getWarmBrowsers()));
+        command.addAll(TestRunner.forwardedSystemProperties());
+        command.addAll(ClassDataSharing.jvmOptions()); // start from the runner CDS archive, if trained
+        command.add("-cp");
+        command.add(RunnerClasspath.get()); // server classpath without the server-only jars
+        command.add(RunnerWorker.class.getName());
+        try {
+            Process process = new ProcessBuilder(command).inheritIO().start();
+            startingWorkers.put(workerId, new Worker(workerId, process));
+            liveWorkers.incrementAndGet();
+            process.onExit().thenRun(() -> {
+                if (startingWorkers.remove(workerId) != null) {
+                    liveWorkers.decrementAndGet();
+                    log.warn("Runner worker {} exited before connecting", workerId);
+                }
+            });
+        } catch (IOException e) {
+            log.error("Failed to start runner worker {}: {}", workerId, e.getMessage());
+        }
+    }
+
+    /**
+     * Accepts connections from starting workers and moves them to the idle queue.
+     */
+    private void acceptWorkers() {
+        while (running) {
+            try {
+                Socket socket = controlSocket.accept();
+                socket.setSoTimeout(HANDSHAKE_TIMEOUT_MS);
+                DataInputStream in = new DataInputStream(socket.getInputStream());
+                DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+                String hello = in.readUTF();
+                Worker worker = RunnerWorker.READY.equals(hello) ? startingWorkers.remove(in.readUTF()) : null;
+                if (worker == null) {
+                    log.warn("Rejected unknown connection on the runner pool control channel");
+                    socket.close();
+                    continue;
+                }
+                socket.setSoTimeout(0);
+                worker.connect(socket, in, out);
+                idleWorkers.offer(worker);
+                log.info("Runner worker {} is ready", worker.id);
+            } catch (SocketException e) {
+                if (running) {
+                    log.warn("Runner pool control channel error: {}", e.getMessage());
+                }
+            } catch (IOException e) {
+                log.warn("Runner worker handshake failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Asks a worker to exit, or terminates its process tree when it cannot be trusted to exit
+     * cleanly; the worker's browsers are closed before the pool considers the slot free.
+     */
+    private void stopWorker(Worker worker, boolean kill) {
+        liveWorkers.decrementAndGet();
+        if (!kill && worker.socket != null) {
+            try {
+                worker.out.writeUTF(RunnerWorker.EXIT);
+                worker.out.flush();
+            } catch (IOException e) {
+                kill = true;
+            }
+        }
+        worker.close();
+        if (kill) {
+            ProcessTreeTerminator.terminate(worker.process.toHandle(), cancelGracePeriod);
+        } else {
+            worker.process.onExit().orTimeout(30, TimeUnit.SECONDS)
+                    .exceptionally(e -> {
+                        worker.process.destroyForcibly();
+                        return null;
+                    });
+        }
+    }
+
+    /**
+     * Stops every worker and closes the control channel when the application context is closed.
+     */
+    @Override
+    public void destroy() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            controlSocket.close();
+        } catch (IOException e) {
+            log.warn("Failed to close the runner pool control channel: {}", e.getMessage());
+        }
+        Worker worker;
+        while ((worker = idleWorkers.poll()) != null) {
+            stopWorker(worker, false);
+        }
+        startingWorkers.values().forEach(starting -> starting.process.destroyForcibly());
+        startingWorkers.clear();
+    }
+
+    /**
+     * A runner JVM and its end of the control channel.
+     */
+    private static class Worker {
+
+        private final String id;
+        private final Process process;
+        private Socket socket;
+        private DataInputStream in;
+        private DataOutputStream out;
+        private int runs;
+
+        Worker(String id, Process process) {
+            this.id = id;
+            this.process = process;
+        }
+
+        void connect(Socket socket, DataInputStream in, DataOutputStream out) {
+            this.socket = socket;
+            this.in = in;
+            this.out = out;
+        }
+
+        void close() {
+            if (socket != null) {
+                try {
+                    socket.close();
+                } catch (IOException ignored) {
+                    // The worker is being discarded
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package com.framework.apiserver.execution;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.reporter.ExtentSparkReporter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.framework.apiserver.config.ExecutionMode;
+import com.framework.apiserver.dto.RunOptions;
+import com.framework.apiserver.service.ScenarioDurationService;
+import com.framework.apiserver.testrunner.TestRunner;
+import com.framework.apiserver.utilities.CommonUtils;
+import com.framework.apiserver.utilities.NetworkBlocking;
+import io.cucumber.gherkin.GherkinParser;
+import io.cucumber.messages.types.Envelope;
+import io.cucumber.messages.types.Examples;
+import io.cucumber.messages.types.Feature;
+import io.cucumber.messages.types.FeatureChild;
+import io.cucumber.messages.types.GherkinDocument;
+import io.cucumber.messages.types.Pickle;
+import io.cucumber.messages.types.PickleTag;
+import io.cucumber.messages.types.RuleChild;
+import io.cucumber.messages.types.Scenario;
+import io.cucumber.messages.types.TableRow;
+import io.cucumber.tagexpressions.Expression;
+import io.cucumber.tagexpressions.TagExpressionParser;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Splits a run into shards executed by separate runner processes and merges their reports.
+ *
+ * <p>The scenarios selected by the tag expression are read from the feature files and
+ * bin-packed into shards by their historical duration (longest first, each scenario to the
+ * currently shortest shard), so the run takes roughly as long as its longest shard. Every
+ * shard runs as a forked run of its own; once all shards finish, their Cucumber JSON reports
+ * are concatenated and their Extent JSON archives are rebuilt into one Spark report in
+ * {@code reports/{runId}}. The per-shard reports are kept under {@code reports/{runId}/shards}.</p>
+ */
+@Component
+@Slf4j
+public class ShardedRunExecutor {
+
+    // Duration assumed for scenarios that have never run
+    private static final long DEFAULT_DURATION_MS = 30_000;
+
+    private static final String EXTENT_JSON = "ExtentReport.json";
+
+    private final TestRunLauncher testRunLauncher;
+
+    private final ScenarioDurationService scenarioDurationService;
+
+    private final CommonUtils commonUtils;
+
+    /**
+     * Constructs a ShardedRunExecutor.
+     *
+     * @param testRunLauncher         The launcher used to start each shard.
+     * @param scenarioDurationService The source of historical scenario durations.
+     * @param commonUtils             The report file utilities.
+     */
+    public ShardedRunExecutor(TestRunLauncher testRunLauncher, ScenarioDurationService scenarioDurationService,
+                              CommonUtils commonUtils) {
+        this.testRunLauncher = testRunLauncher;
+        this.scenarioDurationService = scenarioDurationService;
+        this.commonUtils = commonUtils;
+    }
+
+    /**
+     * Executes a run as up to {@code shardCount} shards and blocks until all of them finish.
+     *
+     * @param options    The run options of the job.
+     * @param runId      The unique identifier of the merged test run.
+     * @param shardCount The maximum number of shards.
+     * @throws IOException          If the feature files cannot be read, or a shard failed to start or
+     *                              produced no report; the message names the missing shards, whose
+     *                              scenarios the merged report lacks.
+     * @throws InterruptedException If the calling thread is interrupted; running shards are cancelled
+     *                              and their runners terminated before it is thrown.
+     */
+    public void run(RunOptions options, String runId, int shardCount) throws IOException, InterruptedException {
+        List<List<String>> shards = plan(options.getTag(), shardCount);
+        Path runDir = Paths.get("reports", runId);
+        Path shardsDir = runDir.resolve("shards");
+        Files.createDirectories(shardsDir);
+        log.info("Run {} split into {} shard(s)", runId, shards.size());
+
+        RunOptions shardOptions = RunOptions.builder()
+                .browserType(options.getBrowserType())
+                .executionMode(ExecutionMode.FORKED)
+                .threads(options.getThreads())
+                .networkProfile(Objects.requireNonNullElse(testRunLauncher.resolveNetworkProfile(options),
+                        NetworkBlocking.NO_PROFILE))
+                .build();
+        List<String> shardRunIds = new ArrayList<>();
+        Map<String, String> failures = new LinkedHashMap<>();
+        // Shards are cancelled with the run, and the scope only closes once every runner is gone
+        try (JobScope scope = JobScope.open(runId + "-shard")) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < shards.size(); i++) {
+                String shardRunId = runId + "-shard-" + (i + 1);
+                Path shardFile = shardsDir.resolve("shard-" + (i + 1) + ".txt");
+                Files.write(shardFile, shards.get(i));
+                shardRunIds.add(shardRunId);
+                futures.add(scope.fork(() -> {
+                    testRunLauncher.launch(shardOptions, shardRunId, shardFile);
+                    return null;
+                }));
+            }
+            scope.join();
+            for (int i = 0; i < futures.size(); i++) {
+                if (futures.get(i).state() == Future.State.FAILED) {
+                    String error = futures.get(i).exceptionNow().getMessage();
+                    log.error("Shard {} of run {} failed: {}", i + 1, runId, error);
+                    failures.put("shard-" + (i + 1), "failed to start: " + error);
+                }
+            }
+        }
+
+        for (String shard : mergeShardReports(Paths.get("reports"), runId, shardRunIds)) {
+            failures.putIfAbsent(shard, "produced no report");
+        }
+        if (!failures.isEmpty()) {
+            // The merged report lacks the scenarios of these shards, so the run must not pass as complete
+            throw new IOException("Run " + runId + " is missing the results of " + failures.entrySet().stream()
+                    .map(failure -> failure.getKey() + " (" + failure.getValue() + ")")
+                    .collect(Collectors.joining(", ")));
+        }
+    }
+
+    /**
+     * Bin-packs the scenarios selected by a tag expression into at most {@code shardCount} shards.
+     *
+     * @param tag        The tag expression, may be null to select every scenario.
+     * @param shardCount The maximum number of shards.
+     * @return The shards, each a list of {@code path:line} rerun entries; empty shards are dropped.
+     * @throws IOException If the feature files cannot be read.
+     */
+    public List<List<String>> plan(String tag, int shardCount) throws IOException {
+        return plan(Paths.get(TestRunner.FEATURES_PATH), tag, shardCount);
+    }
+
+    /**
+     * Bin-packs the scenarios of the feature files under a folder into shards.
+     */
+    List<List<String>> plan(Path featuresDir, String tag, int shardCount) throws IOException {
+        Map<String, Long> history = scenarioDurationService.getAverageDurations();
+        long fallback = (long) history.values().stream().mapToLong(Long::longValue).average()
+                .orElse(DEFAULT_DURATION_MS);
+
+        List<Map.Entry<String, Long>> scenarios = new ArrayList<>();
+        for (Map.Entry<String, Long> scenario : selectScenarios(featuresDir, tag)) {
+            long duration = history.getOrDefault(ScenarioDurationService.scenarioKey(scenario.getKey(), scenario.getValue()), fallback);
+            scenarios.add(Map.entry(scenario.getKey() + ":" + scenario.getValue(), duration));
+        }
+        scenarios.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+
+        int count = Math.max(1, Math.min(shardCount, scenarios.size()));
+        List<List<String>> shards = new ArrayList<>();
+        long[] totals = new long[count];
+        for (int i = 0; i < count; i++) {
+            shards.add(new ArrayList<>());
+        }
+        for (Map.Entry<String, Long> scenario : scenarios) {
+            int shortest = 0;
+            for (int i = 1; i < count; i++) {
+                if (totals[i] < totals[shortest]) {
+                    shortest = i;
+                }
+            }
+            shards.get(shortest).add(scenario.getKey());
+            totals[shortest] += scenario.getValue();
+        }
+        shards.removeIf(List::isEmpty);
+        return shards;
+    }
+
+    /**
+     * Lists the scenarios matching a tag expression as feature path and line, one entry per
+     * scenario or scenario outline example row.
+     */
+    private List<Map.Entry<String, Long>> selectScenarios(Path featuresDir, String tag) throws IOException {
+        Expression expression = tag == null || tag.isBlank() ? null : TagExpressionParser.parse(tag);
+        GherkinParser parser = GherkinParser.builder().includeSource(false).build();
+        List<Map.Entry<String, Long>> selected = new ArrayList<>();
+
+        List<Path> featureFiles;
+        try (Stream<Path> paths = Files.walk(featuresDir)) {
+            featureFiles = paths.filter(path -> path.toString().endsWith(".feature")).sorted().toList();
+        }
+        for (Path featureFile : featureFiles) {
+            List<Envelope> envelopes = parser.parse(featureFile).toList();
+            Map<String, Long> lines = new HashMap<>();
+            envelopes.forEach(envelope -> envelope.getGherkinDocument()
+                    .flatMap(GherkinDocument::getFeature)
+                    .ifPresent(feature -> collectLines(feature, lines)));
+            for (Envelope envelope : envelopes) {
+                Pickle pickle = envelope.getPickle().orElse(null);
+                if (pickle == null) {
+                    continue;
+                }
+                List<String> tags = pickle.getTags().stream().map(PickleTag::getName).toList();
+                if (expression == null || expression.evaluate(tags)) {
+                    // The last AST node is the example row for outlines, the scenario otherwise
+                    List<String> astNodeIds = pickle.getAstNodeIds();
+                    selected.add(Map.entry(featureFile.toString().replace(File.separatorChar, '/'), lines.get(astNodeIds.get(astNodeIds.size() - 1))));
+                }
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Maps the AST node IDs of scenarios and example rows to their line in the feature file.
+     */
+    private static void collectLines(Feature feature, Map<String, Long> lines) {
+        List<Scenario> scenarios = new ArrayList<>();
+        for (FeatureChild child : feature.getChildren()) {
+            child.getScenario().ifPresent(scenarios::add);
+            child.getRule().ifPresent(rule -> rule.getChildren().stream()
+                    .map(RuleChild::getScenario)
+                    .forEach(scenario -> scenario.ifPresent(scenarios::add)));
+        }
+        for (Scenario scenario : scenarios) {
+            lines.put(scenario.getId(), scenario.getLocation().getLine());
+            for (Examples examples : scenario.getExamples()) {
+                for (TableRow row : examples.getTableBody()) {
+                    lines.put(row.getId(), row.getLocation().getLine());
+                }
+            }
+        }
+    }
+
+    /**
+     * Moves the shard reports under the merged run folder, concatenates their Cucumber JSON
+     * reports and rebuilds a single Extent Spark report from their JSON archives.
+     *
+     * @param reportsDir  The reports folder holding the run and shard report folders.
+     * @param runId       The unique identifier of the merged test run.
+     * @param shardRunIds The run IDs of the shards, in shard order.
+     * @return The names of the shards without a Cucumber JSON report, e.g. {@code shard-2}.
+     * @throws IOException If a report cannot be moved, read or written.
+     */
+    List<String> mergeShardReports(Path reportsDir, String runId, List<String> shardRunIds) throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        ArrayNode mergedJson = mapper.createArrayNode();
+        ExtentReports extent = new ExtentReports();
+        boolean extentMerged = false;
+        Path runDir = reportsDir.resolve(runId);
+        List<String> missingReports = new ArrayList<>();
+
+        for (int i = 0; i < shardRunIds.size(); i++) {
+            String shardRunId = shardRunIds.get(i);
+            String shardName = "shard-" + (i + 1);
+            Path shardDir = runDir.resolve("shards").resolve(shardName);
+            Path shardReports = reportsDir.resolve(shardRunId);
+            if (Files.isDirectory(shardReports)) {
+                FileUtils.moveDirectory(shardReports.toFile(), shardDir.toFile());
+            }
+            String extentFolder = commonUtils.getReportFolderWithRunId(".", shardRunId);
+            if (extentFolder != null) {
+                commonUtils.moveReportToRunIdFolder(extentFolder, runId + "/shards/" + shardName);
+            }
+
+            File shardJson = shardDir.resolve("cucumber-reports.json").toFile();
+            if (shardJson.exists()) {
+                mapper.readTree(shardJson).forEach(mergedJson::add);
+            } else {
+                missingReports.add(shardName);
+            }
+            File extentJson = shardDir.resolve("Reports").resolve(EXTENT_JSON).toFile();
+            if (extentJson.exists()) {
+                extent.createDomainFromJsonArchive(extentJson.getPath());
+                extentMerged = true;
+            }
+        }
+
+        mapper.writerWithDefaultPrettyPrinter().writeValue(runDir.resolve("cucumber-reports.json").toFile(), mergedJson);
+        if (extentMerged) {
+            Path sparkReport = runDir.resolve("Reports").resolve("SparkReport.html");
+            Files.createDirectories(sparkReport.getParent());
+            extent.attachReporter(new ExtentSparkReporter(sparkReport.toFile()));
+            extent.flush();
+        }
+        return missingReports;
+    }
+}
@@ -0,0 +1,260 @@
+package com.framework.apiserver.execution;
+
+import com.framework.apiserver.config.ExecutionMode;
+import com.framework.apiserver.config.ExecutionProperties;
+import com.framework.apiserver.dto.RunOptions;
+import com.framework.apiserver.testrunner.ClassDataSharing;
+import com.framework.apiserver.testrunner.RunnerClasspath;
+import com.framework.apiserver.testrunner.RunnerWorker;
+import com.framework.apiserver.testrunner.TestRunner;
+import com.framework.apiserver.utilities.BrowserSessionPool;
+import com.framework.apiserver.utilities.CommandProfiler;
+import com.framework.apiserver.utilities.PageMetrics;
+import com.framework.apiserver.utilities.CommonUtils;
+import com.framework.apiserver.utilities.NetworkBlocking;
+import com.framework.apiserver.utilities.PageObjects;
+import com.framework.apiserver.utilities.SessionSnapshots;
+import com.framework.apiserver.utilities.SharedBrowserContexts;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Launches a test run with the execution mode selected for the job.
+ *
+ * <p>Forked runs are handed to an idle pre-started worker of the {@link RunnerPool} when the
+ * pool is enabled, and otherwise start a new runner JVM through {@link CommonUtils#testCaseRun};
+ * in-process runs are handed to the {@link InProcessCucumberEngine}. Jobs that do not request
+ * a mode use {@link ExecutionProperties#getDefaultMode()}. The runs of a batch always share
+ * one new runner JVM, see {@link CommonUtils#batchRun}.</p>
+ */
+@Component
+@Slf4j
+public class TestRunLauncher {
+
+    private final ExecutionProperties executionProperties;
+
+    private final InProcessCucumberEngine inProcessEngine;
+
+    private final RunnerPool runnerPool;
+
+    /**
+     * Constructs a TestRunLauncher.
+     *
+     * @param executionProperties The execution configuration.
+     * @param inProcessEngine     The engine used for in-process runs.
+     * @param runnerPool          The pool of pre-started runner JVMs used for forked runs.
+     */
+    public TestRunLauncher(ExecutionProperties executionProperties, InProcessCucumberEngine inProcessEngine,
+                           RunnerPool runnerPool) {
+        this.executionProperties = executionProperties;
+        this.inProcessEngine = inProcessEngine;
+        this.runnerPool = runnerPool;
+    }
+
+    /**
+     * Publishes the browser session pool, shared browser context, element cache, command
+     * profiler, page metrics, session cache, runner classpath and CDS archive settings once the
+     * server is ready, before the runner pool spawns its workers so they inherit them.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void publishBrowserSettings() {
+        if (RunnerWorker.isRunnerJvm()) {
+            return;
+        }
+        ExecutionProperties.SessionPool sessionPool = executionProperties.getSessionPool();
+        if (sessionPool.isEnabled() && sessionPool.getMaxUsesPerSession() > 0) {
+            System.setProperty(BrowserSessionPool.MAX_USES_PROPERTY, String.valueOf(sessionPool.getMaxUsesPerSession()));
+            log.info("Browser sessions are reused for up to {} scenarios", sessionPool.getMaxUsesPerSession());
+        }
+        ExecutionProperties.BrowserContexts browserContexts = executionProperties.getBrowserContexts();
+        if (browserContexts.isEnabled() && browserContexts.getMaxPerBrowser() > 0) {
+            System.setProperty(SharedBrowserContexts.MAX_CONTEXTS_PROPERTY, String.valueOf(browserContexts.getMaxPerBrowser()));
+            log.info("Chromium scenarios share browsers, up to {} contexts per browser", browserContexts.getMaxPerBrowser());
+        }
+        if (executionProperties.getElementCache().isEnabled()) {
+            System.setProperty(PageObjects.ELEMENT_CACHE_PROPERTY, "true");
+            log.info("Page objects reuse located elements until they go stale");
+        }
+        if (executionProperties.getCommandProfiler().isEnabled()) {
+            System.setProperty(CommandProfiler.ENABLED_PROPERTY, "true");
+        }
+        if (executionProperties.getPageMetrics().isEnabled()) {
+            System.setProperty(PageMetrics.ENABLED_PROPERTY, "true");
+        }
+        ExecutionProperties.SessionCache sessionCache = executionProperties.getSessionCache();
+        if (sessionCache.isEnabled() && sessionCache.getTtlSeconds() > 0) {
+            System.setProperty(SessionSnapshots.TTL_PROPERTY, String.valueOf(sessionCache.getTtlSeconds()));
+            log.info("Logins are reused for up to {} seconds", sessionCache.getTtlSeconds());
+        }
+        List<String> excludedJars = executionProperties.getRunnerClasspath().getExcludedJars();
+        if (!excludedJars.isEmpty()) {
+            System.setProperty(RunnerClasspath.EXCLUDED_JARS_PROPERTY, String.join(",", excludedJars));
+        }
+        ExecutionProperties.Cds cds = executionProperties.getCds();
+        if (cds.isEnabled() && cds.getRunnerArchive() != null && !cds.getRunnerArchive().isBlank()) {
+            System.setProperty(ClassDataSharing.ARCHIVE_PROPERTY, cds.getRunnerArchive());
+            if (!ClassDataSharing.jvmOptions().isEmpty()) {
+                log.info("Runners start from the CDS archive {}", cds.getRunnerArchive());
+            }
+        }
+    }
+
+    /**
+     * Resolves the execution mode of a run.
+     *
+     * @param options The run options, may be null.
+     * @return The requested execution mode, or the configured default.
+     */
+    public ExecutionMode resolveMode(RunOptions options) {
+        if (options != null && options.getExecutionMode() != null) {
+            return options.getExecutionMode();
+        }
+        return executionProperties.getDefaultMode();
+    }
+
+    /**
+     * Resolves the number of scenarios a run executes in parallel.
+     *
+     * @param options The run options, may be null.
+     * @return The requested thread count, or the configured default, capped at the configured maximum.
+     */
+    public int resolveThreads(RunOptions options) {
+        int threads = options != null && options.getThreads() != null
+                ? options.getThreads()
+                : executionProperties.getDefaultThreads();
+        return Math.max(1, Math.min(threads, executionProperties.getMaxThreads()));
+    }
+
+    /**
+     * Resolves the number of runner processes a run is split across.
+     *
+     * @param options The run options, may be null.
+     * @return The requested shard count, or the configured default, capped at the configured maximum.
+     */
+    public int resolveShards(RunOptions options) {
+        int shards = options != null && options.getShards() != null
+                ? options.getShards()
+                : executionProperties.getDefaultShards();
+        return Math.max(1, Math.min(shards, executionProperties.getMaxShards()));
+    }
+
+    /**
+     * Resolves the deadline of a whole run.
+     *
+     * @param options The run options, may be null.
+     * @return The requested timeout, or the configured default; {@link Duration#ZERO} if the run has no deadline.
+     */
+    public Duration resolveRunTimeout(RunOptions options) {
+        int minutes = options != null && options.getTimeoutMinutes() != null
+                ? options.getTimeoutMinutes()
+                : executionProperties.getRunTimeoutMinutes();
+        return Duration.ofMinutes(Math.max(0, minutes));
+    }
+
+    /**
+     * Resolves the network blocking profile of a run: the profile the job selects, else the
+     * profile of the first configured tag its tag expression contains, else the default.
+     *
+     * @param options The run options, may be null.
+     * @return The profile name, or null if the run blocks nothing.
+     */
+    public String resolveNetworkProfile(RunOptions options) {
+        ExecutionProperties.NetworkBlocking networkBlocking = executionProperties.getNetworkBlocking();
+        String profile = options == null ? null : options.getNetworkProfile();
+        if ((profile == null || profile.isBlank()) && options != null && options.getTag() != null) {
+            for (Map.Entry<String, String> tagProfile : networkBlocking.getTagProfiles().entrySet()) {
+                String tag = tagProfile.getKey().startsWith("@") ? tagProfile.getKey() : "@" + tagProfile.getKey();
+                if (Pattern.compile(Pattern.quote(tag) + "(?![\\w-])").matcher(options.getTag()).find()) {
+                    profile = tagProfile.getValue();
+                    break;
+                }
+            }
+        }
+        if (profile == null || profile.isBlank()) {
+            profile = networkBlocking.getDefaultProfile();
+        }
+        if (profile == null || profile.isBlank() || profile.equalsIgnoreCase(NetworkBlocking.NO_PROFILE)) {
+            return null;
+        }
+        return profile.trim();
+    }
+
+    /**
+     * Collects the system properties a run sets in its runner on top of the common options.
+     */
+    private Map<String, String> runProperties(RunOptions options, String runId) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        String profileName = resolveNetworkProfile(options);
+        if (profileName != null) {
+            ExecutionProperties.Profile profile = executionProperties.getNetworkBlocking().getProfiles().get(profileName);
+            if (profile == null) {
+                log.warn("Run {} selects unknown network blocking profile '{}', nothing is blocked", runId, profileName);
+            } else {
+                List<String> blockedUrls = NetworkBlocking.blockedUrls(profile.getUrlPatterns(), profile.getResourceTypes());
+                properties.put(NetworkBlocking.PROFILE_PROPERTY, profileName);
+                properties.put(NetworkBlocking.BLOCKED_URLS_PROPERTY, String.join(",", blockedUrls));
+                log.info("Run {} blocks {} URL pattern(s) of network profile '{}'", runId, blockedUrls.size(), profileName);
+            }
+        }
+        return properties;
+    }
+
+    /**
+     * Launches a run and blocks until it finishes.
+     *
+     * @param options    The run options. A tag run uses {@link RunOptions#getTag()}; a rerun
+     *                   leaves the tag empty and passes the rerun file instead.
+     * @param runId      The unique identifier of the test run.
+     * @param rerunFile  The rerun file listing the scenarios to execute, or null for a tag run.
+     * @throws IOException          If the run cannot be started.
+     * @throws InterruptedException If the calling thread is interrupted while waiting; the runner
+     *                              process tree (or the in-process run) is stopped first.
+     */
+    public void launch(RunOptions options, String runId, Path rerunFile) throws IOException, InterruptedException {
+        ExecutionMode mode = resolveMode(options);
+        String tag = options.getTag();
+        int threads = resolveThreads(options);
+        log.info("Launching run {} in {} mode with {} thread(s)", runId, mode, threads);
+        String features = rerunFile == null ? TestRunner.FEATURES_PATH : "@" + rerunFile.toAbsolutePath();
+        Map<String, String> runProperties = runProperties(options, runId);
+        if (mode == ExecutionMode.IN_PROCESS) {
+            inProcessEngine.run(runId, features, tag, options.getBrowserType(), threads, runProperties);
+        } else if (!runnerPool.isEnabled()
+                || !runnerPool.tryRun(runId, features, tag, options.getBrowserType(), threads, runProperties)) {
+            CommonUtils.testCaseRun(tag, runId, rerunFile == null ? Path.of(".") : rerunFile, options.getBrowserType(), threads,
+                    Duration.ofSeconds(executionProperties.getCancelGracePeriodSeconds()), runProperties);
+        }
+    }
+
+    /**
+     * Launches the tag runs of a batch one after the other in a single forked runner JVM and
+     * blocks until the last one finishes. The runs share the options of the batch: its
+     * browser, thread count and network blocking profile.
+     *
+     * @param options     The run options of the batch; its tag is the combined tag expressions.
+     * @param tagsByRunId The tag expression of each run, by run ID, in the order they run.
+     * @throws IOException          If the runner cannot be started.
+     * @throws InterruptedException If the calling thread is interrupted while waiting; the runner
+     *                              process tree is stopped first.
+     */
+    public void launchBatch(RunOptions options, Map<String, String> tagsByRunId) throws IOException, InterruptedException {
+        int threads = resolveThreads(options);
+        String batchId = tagsByRunId.keySet().iterator().next();
+        log.info("Launching batch of {} run(s) from {} with {} thread(s)", tagsByRunId.size(), batchId, threads);
+        CommonUtils.batchRun(tagsByRunId, options.getBrowserType(), threads,
+                Duration.ofSeconds(executionProperties.getCancelGracePeriodSeconds()), runProperties(options, batchId));
+    }
+}
@@ -1,6 +1,5 @@
 package com.framework.apiserver.hooks;
 
-import com.framework.apiserver.ApiServerApplication;
 import io.cucumber.spring.CucumberContextConfiguration;
 import org.springframework.boot.test.context.SpringBootTest;
 
@@ -9,14 +8,16 @@ import org.springframework.boot.test.context.SpringBootTest;
  * Cucumber with the Spring Boot testing framework.
  *
  * <p>It ensures that the Spring application context is loaded and shared
- * across Cucumber step definitions during test execution.</p>
+ * across Cucumber step definitions during test execution. The context is the slim
+ * {@link RunnerContextConfiguration} rather than the API server: no web environment is
+ * started and beans are initialized lazily.</p>
  *
  * <p>Annotations:</p>
  * <ul>
  *   <li>@CucumberContextConfiguration: Indicates that this class provides
  *       Cucumber-specific context configuration.</li>
  *   <li>@SpringBootTest: Loads the Spring Boot application context for testing,
- *       using the specified application class.</li>
+ *       using the runner configuration.</li>
  * </ul>
  *
  * <p>Usage:</p>
@@ -26,6 +27,9 @@ import org.springframework.boot.test.context.SpringBootTest;
  * </ul>
  */
 @CucumberContextConfiguration
-@SpringBootTest(classes = ApiServerApplication.class)
+@SpringBootTest(classes = RunnerContextConfiguration.class,
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {"spring.main.lazy-initialization=true", "spring.main.banner-mode=off",
+                "spring.devtools.restart.enabled=false"})
 public class CucumberSpringConfiguration {
 }
\ No newline at end of file
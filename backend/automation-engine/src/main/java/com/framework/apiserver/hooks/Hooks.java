@@ -1,9 +1,16 @@
 package com.framework.apiserver.hooks;
 
+import com.framework.apiserver.testrunner.RunDiagnostics;
+import com.framework.apiserver.testrunner.RunSettings;
 import com.framework.apiserver.utilities.BaseClass;
 import com.framework.apiserver.utilities.CommonUtils;
+import com.framework.apiserver.utilities.ConditionWait;
 import com.framework.apiserver.utilities.DriverManager;
+import com.framework.apiserver.utilities.NetworkBlocking;
+import com.framework.apiserver.utilities.PageMetrics;
+import com.framework.apiserver.utilities.PageObjects;
 import com.framework.apiserver.utilities.SeleniumTestBase;
+import com.framework.apiserver.utilities.SessionSnapshots;
 import io.cucumber.java.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import lombok.RequiredArgsConstructor;
@@ -20,7 +27,9 @@ import java.util.*;
  * <ul>
  *   <li>@Before: Executes before each scenario to set up preconditions.</li>
  *   <li>@After: Executes after each scenario to clean up resources.</li>
- *   <li>@AfterStep: Executes after each step to perform additional actions like capturing screenshots.</li>
+ *   <li>@AfterStep: Executes after each step to perform additional actions like capturing screenshots
+ *       and page metrics.</li>
+ *   <li>@BeforeAll: Executes before all scenarios to reset the run statistics.</li>
  *   <li>@AfterAll: Executes after all scenarios to process test run information.</li>
  *   <li>@Autowired: Injects Spring-managed dependencies.</li>
  * </ul>
@@ -51,24 +60,62 @@ public class Hooks {
     private CommonUtils commonUtils;
 
     /**
-     * Executes before each scenario to set up preconditions.
+     * Executes before all scenarios to reset the network blocking, wait and page metrics
+     * statistics of the run.
+     */
+    @BeforeAll
+    public static void beforeAll() {
+        NetworkBlocking.resetStats();
+        ConditionWait.resetStats();
+        PageMetrics.resetStats();
+    }
+
+    /**
+     * Executes after all scenarios to write the network blocking, wait and page metrics
+     * reports of the run.
+     */
+    @AfterAll
+    public static void afterAll() {
+        String runId = RunSettings.runId();
+        NetworkBlocking.writeReport(runId);
+        ConditionWait.writeReport(runId);
+        PageMetrics.writeReport(runId);
+    }
+
+    /**
+     * Executes before each scenario to set up preconditions. Scenarios tagged
+     * {@code @fresh_login} do not restore the session of an earlier login.
      *
      * @param scenario The current Cucumber scenario being executed.
      */
     @Before
     public void beforeHook(Scenario scenario) {
+        RunDiagnostics.firstScenarioStarted();
         baseClass.setScenario(scenario);
-        baseClass.infoLog("Run ID: " + System.getProperty("run.id"));
+        baseClass.infoLog("Run ID: " + RunSettings.runId());
+        PageObjects.resetScenarioStats();
+        SessionSnapshots.beginScenario(scenario.getSourceTagNames());
     }
 
     /**
      * Executes after each scenario to clean up resources.
      *
-     * <p>Quits the WebDriver instance to ensure proper cleanup.</p>
+     * <p>Reports the element lookups the scenario performed and avoided, then releases the
+     * scenario thread's WebDriver instance to the browser session pool and
+     * clears its scenario to ensure proper cleanup. The browser of a failed scenario is quit
+     * rather than reused.</p>
+     *
+     * @param scenario The current Cucumber scenario being executed.
      */
     @After
-    public void tearDown() {
-        driverManager.quitDriver();  // quit driver after scenario
+    public void tearDown(Scenario scenario) {
+        Map<String, Long> lookups = PageObjects.scenarioStats();
+        if (lookups.get("lookups") + lookups.get("lookupsAvoided") > 0) {
+            baseClass.infoLog("Element lookups: " + lookups.get("lookups") + " performed, "
+                    + lookups.get("lookupsAvoided") + " avoided by the element cache");
+        }
+        driverManager.releaseDriver(scenario.isFailed());  // reset and pool, or quit, the driver after scenario
+        baseClass.setScenario(null);
     }
 
     /**
@@ -87,4 +134,14 @@ public class Hooks {
         }
     }
 
+    /**
+     * Executes after each step to record the load metrics of the page the browser shows.
+     *
+     * @param scenario The current Cucumber scenario being executed.
+     */
+    @AfterStep
+    public void capturePageMetrics(Scenario scenario) {
+        PageMetrics.capture(seleniumTestBase.getDriver(), scenario.getName());
+    }
+
 }
\ No newline at end of file
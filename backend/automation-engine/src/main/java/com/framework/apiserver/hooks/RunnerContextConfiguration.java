@@ -0,0 +1,55 @@
+package com.framework.apiserver.hooks;
+
+import com.framework.apiserver.config.FrameworkProperties;
+import com.framework.apiserver.config.GridProperties;
+import com.framework.apiserver.config.SftpProperties;
+import com.framework.apiserver.execution.GridMonitor;
+import com.framework.apiserver.utilities.AsyncJobManager;
+import com.framework.apiserver.utilities.BaseClass;
+import com.framework.apiserver.utilities.JwtUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.context.ConfigurationPropertiesAutoConfiguration;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+
+/**
+ * RunnerContextConfiguration defines the Spring context of the JVMs executing scenarios.
+ *
+ * <p>Runners only need the glue: the Selenium, API and data utilities, the browser settings
+ * and the Grid monitor. The API server's web, security, JPA and scheduling beans are left
+ * out, and auto-configuration is limited to property binding and the JDBC template used by
+ * {@code DBUtil}, so a runner does not start Hibernate, a web server or the job machinery
+ * it never uses. Beans are created when a scenario first needs them.</p>
+ *
+ * <p>This class is deliberately not a {@code @Configuration}: the API server scans the
+ * whole application package and must not pick it up.</p>
+ *
+ * @see CucumberSpringConfiguration
+ */
+@ComponentScan(basePackageClasses = BaseClass.class,
+        excludeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE,
+                classes = {AsyncJobManager.class, JwtUtil.class}))
+@Import(GridMonitor.class)
+@EnableConfigurationProperties({FrameworkProperties.class, GridProperties.class, SftpProperties.class})
+@ImportAutoConfiguration({PropertyPlaceholderAutoConfiguration.class, ConfigurationPropertiesAutoConfiguration.class,
+        DataSourceAutoConfiguration.class, JdbcTemplateAutoConfiguration.class})
+public class RunnerContextConfiguration {
+
+    /**
+     * Provides the registry of the Grid monitor's gauge; runners do not export metrics.
+     *
+     * @return An in-memory meter registry.
+     */
+    @Bean
+    public MeterRegistry meterRegistry() {
+        return new SimpleMeterRegistry();
+    }
+}
@@ -1,12 +1,11 @@
 package com.framework.apiserver.pages;
 
+import com.framework.apiserver.utilities.PageObjects;
 import com.framework.apiserver.utilities.SelUtil;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -60,7 +59,7 @@ public class BookStorePage {
 	public BookStorePage(WebDriver driver, SelUtil selUtil) {
 		this.driver = driver;
 		this.selUtil = selUtil;
-		PageFactory.initElements(driver, this);
+		PageObjects.initElements(driver, this);
 	}
 
 	/**
@@ -73,16 +72,12 @@ public class BookStorePage {
 	}
 
 	/**
-	 * Retrieves the titles of the books displayed on the page.
+	 * Retrieves the titles of the books displayed on the page, read in a single round trip.
 	 *
 	 * @return A list of book titles as strings.
 	 */
 	public List<String> getBookTitles() {
-		List<String> titles = new ArrayList<>();
-		for (WebElement bookTitle : bookTitles) {
-			titles.add(bookTitle.getText());
-		}
-		return titles;
+		return selUtil.extractTexts(bookTitles);
 	}
 
 	/**
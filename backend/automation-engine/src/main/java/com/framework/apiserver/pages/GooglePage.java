@@ -1,11 +1,11 @@
 package com.framework.apiserver.pages;
 
+import com.framework.apiserver.utilities.PageObjects;
 import com.framework.apiserver.utilities.SelUtil;
 import jakarta.annotation.PostConstruct;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
 
 import java.util.List;
 
@@ -41,12 +41,12 @@ public class GooglePage {
     public GooglePage(WebDriver driver, SelUtil selUtil) {
         this.driver = driver;
         this.selUtil = selUtil;
-        PageFactory.initElements(driver, this);
+        PageObjects.initElements(driver, this);
     }
 
     @PostConstruct
     public void initElements() {
-        PageFactory.initElements(driver, this);
+        PageObjects.initElements(driver, this);
     }
 
     public void navigateToGoogle(String url) {
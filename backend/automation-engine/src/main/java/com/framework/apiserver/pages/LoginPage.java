@@ -1,11 +1,15 @@
 package com.framework.apiserver.pages;
 
+import com.framework.apiserver.utilities.PageObjects;
 import com.framework.apiserver.utilities.SelUtil;
 import jakarta.annotation.PostConstruct;
+import org.openqa.selenium.By;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
+
+import java.net.URI;
 
 /**
  * LoginPage represents the page object model for the Login page of the application.
@@ -30,6 +34,13 @@ import org.openqa.selenium.support.PageFactory;
  */
 public class LoginPage {
 
+	/**
+	 * The page the application shows a logged in user.
+	 */
+	private static final String PROFILE_PATH = "/profile";
+
+	private static final String LOGIN_PATH = "/login";
+
 	private final WebDriver driver;
 	private final SelUtil selUtil;
 
@@ -69,6 +80,12 @@ public class LoginPage {
 	@FindBy(id = "name")
 	private WebElement errorMessage;
 
+	/**
+	 * WebElement representing the name of the logged in user on the profile page.
+	 */
+	@FindBy(id = "userName-value")
+	private WebElement loggedInUserName;
+
 	/**
 	 * Constructs a LoginPage instance and initializes its elements.
 	 *
@@ -78,7 +95,7 @@ public class LoginPage {
 	public LoginPage(WebDriver driver, SelUtil selUtil) {
 		this.driver = driver;
 		this.selUtil = selUtil;
-		PageFactory.initElements(driver, this);
+		PageObjects.initElements(driver, this);
 	}
 
 	/**
@@ -86,7 +103,7 @@ public class LoginPage {
 	 */
 	@PostConstruct
 	public void initElements() {
-		PageFactory.initElements(driver, this);
+		PageObjects.initElements(driver, this);
 	}
 
 	/**
@@ -133,4 +150,54 @@ public class LoginPage {
 	public String getErrorMessage() {
 		return selUtil.getText(errorMessage);
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Waits for the outcome of a submitted login: the profile page or the error message.
+	 *
+	 * @param timeout The timeout in seconds.
+	 * @return True if the application logged the user in.
+	 */
+	public boolean waitForLoginResult(int timeout) {
+		try {
+			return selUtil.waitFor("login result", d -> d.getCurrentUrl().contains(PROFILE_PATH)
+					|| d.findElements(By.id("name")).stream().anyMatch(WebElement::isDisplayed), timeout)
+					&& driver.getCurrentUrl().contains(PROFILE_PATH);
+		} catch (TimeoutException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Opens the profile page of the application the browser shows.
+	 */
+	public void openProfilePage() {
+		driver.get(origin() + PROFILE_PATH);
+	}
+
+	/**
+	 * Opens the login page of the application the browser shows.
+	 */
+	public void openLoginPage() {
+		driver.get(origin() + LOGIN_PATH);
+	}
+
+	/**
+	 * Checks whether the profile page shows the given user as logged in.
+	 *
+	 * @param username The expected user.
+	 * @param timeout  The timeout in seconds.
+	 * @return True if the user is logged in.
+	 */
+	public boolean isLoggedInAs(String username, int timeout) {
+		try {
+			return username.equals(selUtil.waitForElementToBeVisible(loggedInUserName, timeout).getText());
+		} catch (TimeoutException e) {
+			return false;
+		}
+	}
+
+	private String origin() {
+		URI uri = URI.create(driver.getCurrentUrl());
+		return uri.getScheme() + "://" + uri.getAuthority();
+	}
+}
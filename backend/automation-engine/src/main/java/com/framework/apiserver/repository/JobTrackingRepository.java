@@ -81,4 +81,20 @@ public interface JobTrackingRepository extends JpaRepository<JobTracking, String
      * @return A list of JobTracking entities matching the specified run ID and statuses.
      */
     List<JobTracking> findByRunIdAndStatusIn(String runId, List<JobStatus> statuses);
-}
\ No newline at end of file
+
+    /**
+     * Finds the child jobs of a matrix run, ordered by their browser.
+     *
+     * @param parentJobId The ID of the parent job of the matrix run.
+     * @return A list of JobTracking entities whose parent is the given job.
+     */
+    List<JobTracking> findByParentJobIdOrderByBrowserType(String parentJobId);
+
+    /**
+     * Finds the jobs of the tag expressions of a batch run, in the order they run.
+     *
+     * @param batchJobId The ID of the job of the batch run.
+     * @return A list of JobTracking entities belonging to the given batch.
+     */
+    List<JobTracking> findByBatchJobIdOrderByRunId(String batchJobId);
+}
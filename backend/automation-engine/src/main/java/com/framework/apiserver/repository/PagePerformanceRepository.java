@@ -0,0 +1,14 @@
+package com.framework.apiserver.repository;
+
+import com.framework.apiserver.entity.PagePerformance;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface PagePerformanceRepository extends JpaRepository<PagePerformance, Long> {
+    List<PagePerformance> findByRunIdOrderByPage(String runId);
+    List<PagePerformance> findByPageAndRunStartTimeAfterOrderByRunStartTime(String page, LocalDateTime since);
+    List<PagePerformance> findByRunStartTimeAfterOrderByRunStartTime(LocalDateTime since);
+    boolean existsByRunId(String runId);
+}
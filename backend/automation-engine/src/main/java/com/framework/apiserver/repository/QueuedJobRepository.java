@@ -0,0 +1,61 @@
+package com.framework.apiserver.repository;
+
+import com.framework.apiserver.config.JobStatus;
+import com.framework.apiserver.entity.QueuedJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface QueuedJobRepository extends JpaRepository<QueuedJob, String> {
+
+    /**
+     * Locks the next queued jobs in priority order. Rows locked by another instance are
+     * skipped instead of waited for, so concurrent instances claim distinct jobs.
+     */
+    @Query(value = "SELECT * FROM job_queue WHERE status = 'QUEUED' ORDER BY priority_rank, enqueued_at "
+            + "LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<QueuedJob> lockNextQueued(@Param("limit") int limit);
+
+    /**
+     * Locks the running jobs whose lease has expired, skipping rows another instance is recovering.
+     */
+    @Query(value = "SELECT * FROM job_queue WHERE status = 'RUNNING' AND lease_expires_at < :now "
+            + "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<QueuedJob> lockExpiredLeases(@Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE QueuedJob q SET q.leaseExpiresAt = :leaseExpiresAt, q.updatedAt = :now "
+            + "WHERE q.claimedBy = :instanceId AND q.status = :status")
+    int renewLeases(@Param("instanceId") String instanceId, @Param("status") JobStatus status,
+                    @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE QueuedJob q SET q.status = :to, q.updatedAt = :now WHERE q.jobId = :jobId AND q.status = :from")
+    int transition(@Param("jobId") String jobId, @Param("from") JobStatus from, @Param("to") JobStatus to,
+                   @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE QueuedJob q SET q.cancelRequested = true, q.updatedAt = :now "
+            + "WHERE q.jobId = :jobId AND q.status = :status")
+    int requestCancel(@Param("jobId") String jobId, @Param("status") JobStatus status,
+                      @Param("now") LocalDateTime now);
+
+    @Query("SELECT q.jobId FROM QueuedJob q WHERE q.claimedBy = :instanceId AND q.status = :status "
+            + "AND q.cancelRequested = true")
+    List<String> findCancelRequested(@Param("instanceId") String instanceId, @Param("status") JobStatus status);
+
+    long countByStatus(JobStatus status);
+
+    @Query("SELECT COUNT(q) FROM QueuedJob q WHERE q.status = :status AND (q.priorityRank < :priorityRank "
+            + "OR (q.priorityRank = :priorityRank AND q.enqueuedAt < :enqueuedAt))")
+    long countQueuedAhead(@Param("status") JobStatus status, @Param("priorityRank") int priorityRank,
+                          @Param("enqueuedAt") LocalDateTime enqueuedAt);
+
+    void deleteByStatusInAndUpdatedAtBefore(List<JobStatus> statuses, LocalDateTime before);
+}
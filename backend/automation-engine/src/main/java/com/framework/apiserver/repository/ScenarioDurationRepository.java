@@ -0,0 +1,7 @@
+package com.framework.apiserver.repository;
+
+import com.framework.apiserver.entity.ScenarioDuration;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ScenarioDurationRepository extends JpaRepository<ScenarioDuration, String> {
+}
@@ -1,36 +1,54 @@
 package com.framework.apiserver.service;
 
-import lombok.Getter;
-import lombok.Setter;
 import org.springframework.stereotype.Service;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 import jakarta.servlet.http.HttpServletRequest;
 
+/**
+ * Resolves the browser a test run executes on.
+ *
+ * <p>The browser is scoped to the thread serving a request or executing a job, never shared
+ * between them, so concurrent requests for different browsers cannot run on each other's
+ * browser. A browser bound with {@link #open(String)} takes precedence; otherwise the
+ * {@code X-Browser-Type} header of the current request is used, then chrome.</p>
+ */
 @Service
 public class BrowserContextManager {
 
     private static final String BROWSER_TYPE_HEADER = "X-Browser-Type";
     private static final String DEFAULT_BROWSER = "chrome";
 
-    @Getter
-    @Setter
-    private String browserType;
+    // The browser bound to the request or job served by each thread
+    private final ThreadLocal<String> boundBrowserType = new ThreadLocal<>();
 
     /**
-     * Extract and set browser type from current HTTP request context.
-     * This manually does what BrowserInterceptor would do.
+     * Returns the browser of the request or job served by the current thread.
+     *
+     * @return The bound browser, the browser of the current request, or chrome.
      */
-    public String extractAndSetBrowserType() {
-        String browserType = extractBrowserTypeFromRequest();
+    public String getBrowserType() {
+        String browserType = boundBrowserType.get();
         if (browserType != null) {
-            setBrowserType(browserType);
-        } else {
-            browserType = DEFAULT_BROWSER;
-            setBrowserType(browserType);
+            return browserType;
         }
+        browserType = extractBrowserTypeFromRequest();
+        return browserType != null ? browserType : DEFAULT_BROWSER;
+    }
 
-        return browserType;
+    /**
+     * Binds a browser to the current thread until the returned scope is closed, e.g. for the
+     * duration of a job. Scopes can be nested; closing one restores the enclosing browser.
+     *
+     * @param browserType The browser, or null to keep the current one.
+     * @return The scope to close once the request or job is served.
+     */
+    public Scope open(String browserType) {
+        String previous = boundBrowserType.get();
+        if (browserType != null && !browserType.isBlank()) {
+            boundBrowserType.set(browserType.toLowerCase().trim());
+        }
+        return new Scope(previous);
     }
 
     /**
@@ -46,10 +64,6 @@ public class BrowserContextManager {
                 if (browserType != null && !browserType.trim().isEmpty()) {
                     return browserType.toLowerCase().trim();
                 }
-
-                // Log all headers for debugging
-                request.getHeaderNames().asIterator().forEachRemaining(headerName ->
-                        System.out.println("  " + headerName + ": " + request.getHeader(headerName)));
             }
         } catch (Exception e) {
             System.out.println("BrowserContextManager: Error extracting browser type from request: " + e.getMessage());
@@ -57,4 +71,26 @@ public class BrowserContextManager {
 
         return null;
     }
-}
\ No newline at end of file
+
+    /**
+     * The browser bound to a thread by {@link #open(String)}; closing it restores the
+     * browser bound before.
+     */
+    public final class Scope implements AutoCloseable {
+
+        private final String previous;
+
+        private Scope(String previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            if (previous == null) {
+                boundBrowserType.remove();
+            } else {
+                boundBrowserType.set(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,365 @@
+package com.framework.apiserver.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.framework.apiserver.config.JobPriority;
+import com.framework.apiserver.config.JobStatus;
+import com.framework.apiserver.config.SchedulerProperties;
+import com.framework.apiserver.dto.JobRequest;
+import com.framework.apiserver.dto.TestExecutionResponse;
+import com.framework.apiserver.entity.QueuedJob;
+import com.framework.apiserver.repository.QueuedJobRepository;
+import com.framework.apiserver.testrunner.RunnerWorker;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.net.InetAddress;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Service class for the database-backed job queue shared by server instances.
+ *
+ * <p>Asynchronous jobs are stored in the {@code job_queue} table with the request they
+ * execute. Instances claim queued jobs with {@code SELECT ... FOR UPDATE SKIP LOCKED}, so
+ * concurrent instances never claim the same job, and hold a lease on every job they run,
+ * renewed by heartbeats. A job whose lease expires was abandoned by a dead instance and is
+ * queued again, until it has been claimed {@link SchedulerProperties.Durable#getMaxAttempts()}
+ * times. Status and result of every job are written to its row, so any instance can report on
+ * any job.</p>
+ *
+ * <p>The queue is only used when {@code scheduler.durable.enabled} is set; otherwise jobs stay
+ * in the memory of the instance that accepted them.</p>
+ */
+@Service
+@Slf4j
+public class JobQueueService {
+
+    private static final List<JobStatus> FINISHED_STATUSES = List.of(
+            JobStatus.COMPLETED, JobStatus.FAILED, JobStatus.CANCELLED, JobStatus.TIMED_OUT);
+
+    private final QueuedJobRepository repository;
+
+    private final SchedulerProperties properties;
+
+    private final JobTrackingService jobTrackingService;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * The name under which this instance claims jobs.
+     */
+    @Getter
+    private final String instanceId;
+
+    /**
+     * Constructs a JobQueueService.
+     *
+     * @param repository         The repository of queued jobs.
+     * @param properties         The scheduler configuration.
+     * @param jobTrackingService The service tracking job status for the dashboard.
+     */
+    public JobQueueService(QueuedJobRepository repository, SchedulerProperties properties,
+                           JobTrackingService jobTrackingService) {
+        this.repository = repository;
+        this.properties = properties;
+        this.jobTrackingService = jobTrackingService;
+        String configured = properties.getDurable().getInstanceId();
+        this.instanceId = configured != null && !configured.isBlank() ? configured : defaultInstanceId();
+    }
+
+    /**
+     * @return True if jobs are queued in the database. Runner JVMs never use the queue.
+     */
+    public boolean isEnabled() {
+        return properties.getDurable().isEnabled() && !RunnerWorker.isRunnerJvm();
+    }
+
+    /**
+     * Verifies that a new job can be admitted without exceeding the queue limit, which is
+     * shared by all instances.
+     *
+     * @throws RejectedExecutionException if the queue is full.
+     */
+    @Transactional(readOnly = true, timeout = 5)
+    public void ensureCapacity() {
+        long depth = repository.countByStatus(JobStatus.QUEUED);
+        if (depth >= properties.getMaxQueueSize()) {
+            throw new RejectedExecutionException("Job queue is full (" + depth + "/"
+                    + properties.getMaxQueueSize() + " waiting)");
+        }
+    }
+
+    /**
+     * Adds a job to the queue.
+     *
+     * @param jobId    The ID of the job.
+     * @param priority The scheduling priority of the job.
+     * @param request  The work of the job.
+     */
+    @Transactional(timeout = 5)
+    public void enqueue(String jobId, JobPriority priority, JobRequest request) {
+        LocalDateTime now = LocalDateTime.now();
+        repository.save(QueuedJob.builder()
+                .jobId(jobId)
+                .kind(request.getKind())
+                .request(writeRequest(request))
+                .priority(priority)
+                .priorityRank(priority.ordinal())
+                .status(JobStatus.QUEUED)
+                .enqueuedAt(now)
+                .updatedAt(now)
+                .build());
+        log.info("Job {} queued with priority {}", jobId, priority);
+    }
+
+    /**
+     * Claims the next queued jobs for this instance and starts their lease.
+     *
+     * @param limit The number of free execution slots.
+     * @return The claimed jobs, in priority order.
+     */
+    @Transactional(timeout = 10)
+    public List<QueuedJob> claim(int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<QueuedJob> claimed = repository.lockNextQueued(limit);
+        for (QueuedJob job : claimed) {
+            job.setStatus(JobStatus.RUNNING);
+            job.setClaimedBy(instanceId);
+            job.setClaimedAt(now);
+            job.setLeaseExpiresAt(now.plusSeconds(properties.getDurable().getLeaseSeconds()));
+            job.setAttempts(job.getAttempts() + 1);
+            job.setUpdatedAt(now);
+            log.info("Job {} claimed by {} (attempt {})", job.getJobId(), instanceId, job.getAttempts());
+        }
+        return repository.saveAll(claimed);
+    }
+
+    /**
+     * Renews the leases of the jobs this instance runs.
+     *
+     * @return The number of renewed leases.
+     */
+    @Transactional(timeout = 10)
+    public int renewLeases() {
+        LocalDateTime now = LocalDateTime.now();
+        return repository.renewLeases(instanceId, JobStatus.RUNNING,
+                now.plusSeconds(properties.getDurable().getLeaseSeconds()), now);
+    }
+
+    /**
+     * Recovers the jobs whose instance stopped renewing their lease. A job is queued again
+     * unless it was cancelled or has used up its attempts, in which case it is finished.
+     *
+     * @return The number of recovered jobs.
+     */
+    @Transactional(timeout = 30)
+    public int recoverExpiredLeases() {
+        LocalDateTime now = LocalDateTime.now();
+        List<QueuedJob> expired = repository.lockExpiredLeases(now);
+        for (QueuedJob job : expired) {
+            String owner = job.getClaimedBy();
+            job.setClaimedBy(null);
+            job.setLeaseExpiresAt(null);
+            job.setUpdatedAt(now);
+            if (job.isCancelRequested()) {
+                job.setStatus(JobStatus.CANCELLED);
+                jobTrackingService.updateJobStatus(job.getJobId(), JobStatus.CANCELLED);
+                log.warn("Job {} was cancelled while its instance {} stopped responding", job.getJobId(), owner);
+            } else if (job.getAttempts() >= properties.getDurable().getMaxAttempts()) {
+                String error = "Instance " + owner + " stopped responding, giving up after "
+                        + job.getAttempts() + " attempt(s)";
+                job.setStatus(JobStatus.FAILED);
+                job.setErrorMessage(error);
+                jobTrackingService.failJob(job.getJobId(), JobStatus.FAILED, error);
+                log.warn("Job {} failed: {}", job.getJobId(), error);
+            } else {
+                job.setStatus(JobStatus.QUEUED);
+                job.setEnqueuedAt(now);
+                jobTrackingService.updateJobStatus(job.getJobId(), JobStatus.QUEUED);
+                log.warn("Job {} queued again, its instance {} stopped responding", job.getJobId(), owner);
+            }
+        }
+        repository.saveAll(expired);
+        return expired.size();
+    }
+
+    /**
+     * Records the status of a job. Only statuses reached after the job was claimed are recorded;
+     * the QUEUED status of a claimed job is local to the instance running it.
+     *
+     * @param jobId        The ID of the job.
+     * @param status       The new status of the job.
+     * @param errorMessage The error of a failed job, may be null.
+     */
+    @Transactional(timeout = 5)
+    public void updateStatus(String jobId, JobStatus status, String errorMessage) {
+        if (status == JobStatus.QUEUED || status == JobStatus.PENDING) {
+            return;
+        }
+        repository.findById(jobId).ifPresent(job -> {
+            job.setStatus(status);
+            if (errorMessage != null) {
+                job.setErrorMessage(truncate(errorMessage));
+            }
+            if (FINISHED_STATUSES.contains(status)) {
+                job.setLeaseExpiresAt(null);
+            }
+            job.setUpdatedAt(LocalDateTime.now());
+            repository.save(job);
+        });
+    }
+
+    /**
+     * Records the result of a job.
+     *
+     * @param jobId    The ID of the job.
+     * @param response The result of the job.
+     */
+    @Transactional(timeout = 5)
+    public void storeResult(String jobId, TestExecutionResponse response) {
+        repository.findById(jobId).ifPresent(job -> {
+            job.setResultStatus(truncate(response.getStatus()));
+            job.setResultExitCode(response.getExitCode());
+            job.setResultRunId(response.getRunId());
+            job.setUpdatedAt(LocalDateTime.now());
+            repository.save(job);
+        });
+    }
+
+    /**
+     * Cancels a job that is not running on this instance. A queued job is cancelled right
+     * away; for a running job a cancellation is requested, which the instance running it
+     * picks up with its next poll.
+     *
+     * @param jobId The ID of the job.
+     * @return True if the job was cancelled or its cancellation requested.
+     */
+    @Transactional(timeout = 5)
+    public boolean cancel(String jobId) {
+        LocalDateTime now = LocalDateTime.now();
+        if (repository.transition(jobId, JobStatus.QUEUED, JobStatus.CANCELLED, now) > 0) {
+            jobTrackingService.updateJobStatus(jobId, JobStatus.CANCELLED);
+            log.info("Queued job {} cancelled", jobId);
+            return true;
+        }
+        if (repository.requestCancel(jobId, JobStatus.RUNNING, now) > 0) {
+            log.info("Cancellation of job {} requested from its instance", jobId);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return The IDs of the jobs running on this instance whose cancellation was requested elsewhere.
+     */
+    @Transactional(readOnly = true, timeout = 5)
+    public List<String> findCancelRequested() {
+        return repository.findCancelRequested(instanceId, JobStatus.RUNNING);
+    }
+
+    /**
+     * Retrieves a job of the queue.
+     *
+     * @param jobId The ID of the job.
+     * @return The job, or empty if it was never queued in the database.
+     */
+    @Transactional(readOnly = true, timeout = 5)
+    public Optional<QueuedJob> find(String jobId) {
+        return repository.findById(jobId);
+    }
+
+    /**
+     * Retrieves the result of a job.
+     *
+     * @param jobId The ID of the job.
+     * @return The result, or empty if the job has not recorded one.
+     */
+    @Transactional(readOnly = true, timeout = 5)
+    public Optional<TestExecutionResponse> findResult(String jobId) {
+        return repository.findById(jobId)
+                .filter(job -> job.getResultStatus() != null)
+                .map(job -> new TestExecutionResponse(job.getResultStatus(),
+                        job.getResultExitCode() != null ? job.getResultExitCode() : -1, job.getResultRunId()));
+    }
+
+    /**
+     * Returns the 1-based position of a job in the shared queue.
+     *
+     * @param jobId The ID of the job.
+     * @return The queue position, or 0 if the job is not waiting.
+     */
+    @Transactional(readOnly = true, timeout = 5)
+    public int getQueuePosition(String jobId) {
+        return repository.findById(jobId)
+                .filter(job -> job.getStatus() == JobStatus.QUEUED)
+                .map(job -> (int) repository.countQueuedAhead(JobStatus.QUEUED, job.getPriorityRank(),
+                        job.getEnqueuedAt()) + 1)
+                .orElse(0);
+    }
+
+    /**
+     * @return The number of jobs waiting in the shared queue.
+     */
+    @Transactional(readOnly = true, timeout = 5)
+    public int getQueueDepth() {
+        return (int) repository.countByStatus(JobStatus.QUEUED);
+    }
+
+    /**
+     * Deletes finished jobs last updated before a given time.
+     *
+     * @param before The cut-off time.
+     */
+    @Transactional(timeout = 30)
+    public void deleteFinishedBefore(LocalDateTime before) {
+        repository.deleteByStatusInAndUpdatedAtBefore(new ArrayList<>(FINISHED_STATUSES), before);
+    }
+
+    /**
+     * Deserializes the request of a queued job.
+     *
+     * @param job The queued job.
+     * @return The request of the job.
+     * @throws IllegalStateException if the request cannot be read.
+     */
+    public JobRequest readRequest(QueuedJob job) {
+        try {
+            return mapper.readValue(job.getRequest(), JobRequest.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable request of job " + job.getJobId() + ": " + e.getMessage(), e);
+        }
+    }
+
+    private String writeRequest(JobRequest request) {
+        try {
+            return mapper.writeValueAsString(request);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Job request cannot be serialized: " + e.getMessage(), e);
+        }
+    }
+
+    private static String truncate(String value) {
+        return value != null && value.length() > 2000 ? value.substring(0, 2000) : value;
+    }
+
+    private static String defaultInstanceId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown-host";
+        }
+        // The random part keeps a restarted instance from renewing the leases of its previous life
+        return host + "-" + ProcessHandle.current().pid() + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
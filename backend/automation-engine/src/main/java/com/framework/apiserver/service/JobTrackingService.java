@@ -1,7 +1,9 @@
 package com.framework.apiserver.service;
 
+import com.framework.apiserver.config.JobPriority;
 import com.framework.apiserver.config.JobStatus;
 import com.framework.apiserver.dto.JobStatusSummary;
+import com.framework.apiserver.dto.RunProgress;
 import com.framework.apiserver.entity.JobTracking;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
@@ -28,6 +30,17 @@ public interface JobTrackingService {
      */
     String startAsyncJob(String runId, String tag, String createdBy);
 
+    /**
+     * Starts an asynchronous job with the given parameters and scheduling priority.
+     *
+     * @param runId the run identifier for grouping related jobs
+     * @param tag the job tag for identification
+     * @param createdBy the user who created the job
+     * @param priority the scheduling priority of the job
+     * @return the unique job ID
+     */
+    String startAsyncJob(String runId, String tag, String createdBy, JobPriority priority);
+
     /**
      * Starts a synchronous job with the given parameters.
      *
@@ -54,6 +67,14 @@ public interface JobTrackingService {
      */
     void updateJobStatus(String jobId, JobStatus status, String errorMessage);
 
+    /**
+     * Records how long a queued job is expected to wait before it starts running.
+     *
+     * @param jobId the job ID to update
+     * @param estimatedWaitSeconds the expected wait in seconds, or null if unknown
+     */
+    void updateEstimatedWait(String jobId, Long estimatedWaitSeconds);
+
     /**
      * Completes a job with the given status.
      *
@@ -117,9 +138,50 @@ public interface JobTrackingService {
      */
     List<JobTracking> getJobsByRunId(String runId);
 
+    /**
+     * Records the browser of a job and, for one browser of a matrix run, its parent job.
+     *
+     * @param jobId       the unique identifier of the job
+     * @param parentJobId the parent job of the matrix run, null for the parent itself
+     * @param browserType the browser of the job, or the browsers of a parent job
+     */
+    void recordMatrixJob(String jobId, String parentJobId, String browserType);
+
+    /**
+     * Retrieves the child jobs of a matrix run.
+     *
+     * @param parentJobId the unique identifier of the parent job
+     * @return list of the child jobs, ordered by browser
+     */
+    List<JobTracking> getChildJobs(String parentJobId);
+
+    /**
+     * Records the browser of a job and the batch run it is one tag expression of.
+     *
+     * @param jobId       the unique identifier of the job
+     * @param batchJobId  the job of the batch run
+     * @param browserType the browser the batch runs on
+     */
+    void recordBatchJob(String jobId, String batchJobId, String browserType);
+
+    /**
+     * Retrieves the jobs of the tag expressions of a batch run.
+     *
+     * @param batchJobId the unique identifier of the job of the batch run
+     * @return list of the jobs, in the order the batch runs them
+     */
+    List<JobTracking> getBatchJobs(String batchJobId);
+
     /**
      * Cleans up old completed jobs.
      * A scheduled task typically calls this method.
      */
     void cleanupOldJobs();
-}
\ No newline at end of file
+
+    /**
+     * Broadcasts the live progress of a running job to all connected SSE clients.
+     *
+     * @param progress the current progress of the job
+     */
+    void broadcastRunProgress(RunProgress progress);
+}
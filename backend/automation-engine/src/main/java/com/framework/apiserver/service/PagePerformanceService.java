@@ -0,0 +1,207 @@
+package com.framework.apiserver.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.framework.apiserver.config.ExecutionProperties;
+import com.framework.apiserver.dto.PageMetricsReport;
+import com.framework.apiserver.dto.dashboard.PagePerformanceRegression;
+import com.framework.apiserver.entity.PagePerformance;
+import com.framework.apiserver.repository.PagePerformanceRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Service class for managing the load performance history of the pages test runs visit.
+ *
+ * <p>After every run the page metrics the runner captured are read from
+ * {@code page-metrics.json} (of the run and of its shards), averaged per page and saved.
+ * A page metric is reported as a regression when its latest run is slower than the median
+ * of the earlier runs of the page by more than the configured threshold.</p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PagePerformanceService {
+
+    private static final String PAGE_METRICS_FILE = "page-metrics.json";
+
+    // Slowdowns below these are noise, however large in percent of a small baseline
+    private static final double MIN_REGRESSION_MS = 50;
+    private static final double MIN_REGRESSION_CLS = 0.05;
+
+    private final PagePerformanceRepository repository;
+
+    private final ExecutionProperties executionProperties;
+
+    /**
+     * Averages the page metrics of a finished run per page and saves them.
+     *
+     * @param runId     The unique identifier of the test run.
+     * @param startTime The start time of the run.
+     */
+    @Transactional
+    public void recordRun(String runId, LocalDateTime startTime) {
+        if (repository.existsByRunId(runId)) {
+            return;
+        }
+        List<PageMetricsReport> reports = new ArrayList<>();
+        try {
+            for (Path file : reportFiles(runId)) {
+                reports.add(new ObjectMapper().readValue(file.toFile(), PageMetricsReport.class));
+            }
+        } catch (IOException e) {
+            log.warn("Could not record page metrics for {}: {}", runId, e.getMessage());
+            return;
+        }
+
+        Map<String, List<PageMetricsReport.PageSample>> byPage = new LinkedHashMap<>();
+        String networkProfile = null;
+        for (PageMetricsReport report : reports) {
+            networkProfile = report.getNetworkProfile();
+            for (PageMetricsReport.PageSample sample : report.getSamples()) {
+                byPage.computeIfAbsent(sample.getPage(), page -> new ArrayList<>()).add(sample);
+            }
+        }
+
+        List<PagePerformance> pages = new ArrayList<>();
+        for (Map.Entry<String, List<PageMetricsReport.PageSample>> entry : byPage.entrySet()) {
+            List<PageMetricsReport.PageSample> samples = entry.getValue();
+            pages.add(PagePerformance.builder()
+                    .runId(runId)
+                    .runStartTime(startTime)
+                    .page(entry.getKey())
+                    .networkProfile(networkProfile == null || networkProfile.isBlank() ? null : networkProfile)
+                    .samples(samples.size())
+                    .avgTtfbMs(average(samples, PageMetricsReport.PageSample::getTtfbMs))
+                    .avgDomContentLoadedMs(average(samples, PageMetricsReport.PageSample::getDomContentLoadedMs))
+                    .avgLoadMs(average(samples, PageMetricsReport.PageSample::getLoadMs))
+                    .avgFcpMs(average(samples, PageMetricsReport.PageSample::getFcpMs))
+                    .avgLcpMs(average(samples, PageMetricsReport.PageSample::getLcpMs))
+                    .maxLcpMs(samples.stream().mapToLong(PageMetricsReport.PageSample::getLcpMs).max().orElse(0))
+                    .avgCls(samples.stream().mapToDouble(PageMetricsReport.PageSample::getCls).average().orElse(0))
+                    .maxCls(samples.stream().mapToDouble(PageMetricsReport.PageSample::getCls).max().orElse(0))
+                    .avgTransferBytes(average(samples, PageMetricsReport.PageSample::getTransferBytes))
+                    .avgJsHeapUsedBytes(average(samples, PageMetricsReport.PageSample::getJsHeapUsedBytes))
+                    .avgDomNodes(average(samples, PageMetricsReport.PageSample::getDomNodes))
+                    .build());
+        }
+        repository.saveAll(pages);
+    }
+
+    /**
+     * Retrieves the page performance of a run.
+     *
+     * @param runId The unique identifier of the test run.
+     * @return The pages the run loaded, sorted by URL.
+     */
+    public List<PagePerformance> getRun(String runId) {
+        return repository.findByRunIdOrderByPage(runId);
+    }
+
+    /**
+     * Retrieves the performance history of a page.
+     *
+     * @param page The page URL without its query string.
+     * @param days The number of days of history.
+     * @return The runs that loaded the page, oldest first.
+     */
+    public List<PagePerformance> getTrend(String page, int days) {
+        return repository.findByPageAndRunStartTimeAfterOrderByRunStartTime(page, LocalDateTime.now().minusDays(days));
+    }
+
+    /**
+     * Finds the page metrics whose latest run is slower than their baseline, the median of the
+     * earlier runs of the page with the same network blocking profile.
+     *
+     * @param days             The number of days of history compared.
+     * @param thresholdPercent The slowdown from which a metric is reported, or null for the
+     *                         configured threshold.
+     * @return The regressions, largest slowdown first.
+     */
+    public List<PagePerformanceRegression> getRegressions(int days, Integer thresholdPercent) {
+        ExecutionProperties.PageMetrics settings = executionProperties.getPageMetrics();
+        double threshold = (thresholdPercent != null ? thresholdPercent : settings.getRegressionThresholdPercent()) / 100.0;
+        Map<List<String>, List<PagePerformance>> history = repository
+                .findByRunStartTimeAfterOrderByRunStartTime(LocalDateTime.now().minusDays(days)).stream()
+                .collect(Collectors.groupingBy(page -> Stream.of(page.getPage(), page.getNetworkProfile())
+                        .map(String::valueOf).toList(), LinkedHashMap::new, Collectors.toList()));
+
+        Map<String, ToDoubleFunction<PagePerformance>> metrics = new LinkedHashMap<>();
+        metrics.put("ttfbMs", PagePerformance::getAvgTtfbMs);
+        metrics.put("fcpMs", PagePerformance::getAvgFcpMs);
+        metrics.put("lcpMs", PagePerformance::getAvgLcpMs);
+        metrics.put("loadMs", PagePerformance::getAvgLoadMs);
+        metrics.put("cls", PagePerformance::getAvgCls);
+
+        List<PagePerformanceRegression> regressions = new ArrayList<>();
+        for (List<PagePerformance> runs : history.values()) {
+            if (runs.size() < 2) {
+                continue;
+            }
+            PagePerformance latest = runs.get(runs.size() - 1);
+            List<PagePerformance> earlier = runs.subList(Math.max(0, runs.size() - 1 - settings.getBaselineRuns()),
+                    runs.size() - 1);
+            metrics.forEach((metric, value) -> {
+                double baseline = median(earlier.stream().mapToDouble(value).filter(v -> v > 0).sorted().toArray());
+                double current = value.applyAsDouble(latest);
+                double minimum = metric.equals("cls") ? MIN_REGRESSION_CLS : MIN_REGRESSION_MS;
+                if (baseline > 0 && current > baseline * (1 + threshold) && current - baseline >= minimum) {
+                    regressions.add(new PagePerformanceRegression(latest.getPage(), latest.getNetworkProfile(), metric,
+                            baseline, current, Math.round((current - baseline) * 1000 / baseline) / 10.0,
+                            latest.getRunId()));
+                }
+            });
+        }
+        regressions.sort(Comparator.comparingDouble(PagePerformanceRegression::getChangePercent).reversed());
+        return regressions;
+    }
+
+    /**
+     * Lists the page metrics reports of a run: its own, or those of its shards.
+     */
+    private static List<Path> reportFiles(String runId) throws IOException {
+        Path runDir = Paths.get("reports", runId);
+        List<Path> files = new ArrayList<>();
+        if (Files.exists(runDir.resolve(PAGE_METRICS_FILE))) {
+            files.add(runDir.resolve(PAGE_METRICS_FILE));
+        }
+        Path shardsDir = runDir.resolve("shards");
+        if (Files.isDirectory(shardsDir)) {
+            try (Stream<Path> shards = Files.list(shardsDir)) {
+                shards.map(shard -> shard.resolve(PAGE_METRICS_FILE)).filter(Files::exists).forEach(files::add);
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Averages a metric over the samples that reported it.
+     */
+    private static long average(List<PageMetricsReport.PageSample> samples, ToLongFunction<PageMetricsReport.PageSample> metric) {
+        return Math.round(samples.stream().mapToLong(metric).filter(value -> value > 0).average().orElse(0));
+    }
+
+    private static double median(double[] sorted) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+    }
+}
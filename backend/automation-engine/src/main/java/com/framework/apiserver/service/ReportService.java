@@ -30,4 +30,13 @@ public interface ReportService {
      * @return A ResponseEntity containing the Spark report or an appropriate error response.
      */
     ResponseEntity<?> viewSparkReport(String runId);
+
+    /**
+     * Retrieves the WebDriver command latencies of a test run, merged across its shards.
+     *
+     * @param runId The ID of the test run.
+     * @param top   The number of slowest steps and single commands to include.
+     * @return A ResponseEntity containing the command latency report or an appropriate error response.
+     */
+    ResponseEntity<?> getCommandLatency(String runId, int top);
 }
\ No newline at end of file
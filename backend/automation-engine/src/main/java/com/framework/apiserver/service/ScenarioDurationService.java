@@ -0,0 +1,117 @@
+package com.framework.apiserver.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.framework.apiserver.entity.ScenarioDuration;
+import com.framework.apiserver.repository.ScenarioDurationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service class for managing historical scenario durations.
+ *
+ * <p>After every run the per-scenario durations are read from the Cucumber JSON report
+ * and folded into a moving average, which the sharded execution uses to balance shards.</p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ScenarioDurationService {
+
+    // Number of recent runs that dominate the moving average
+    private static final int AVERAGE_WINDOW = 10;
+
+    private static final String FEATURES_FOLDER = "features/";
+
+    private final ScenarioDurationRepository repository;
+
+    /**
+     * Builds the key identifying a scenario across runs.
+     *
+     * @param uri  The feature file URI or path, as reported by Cucumber or Gherkin.
+     * @param line The line of the scenario, or of the example row for scenario outlines.
+     * @return The scenario key.
+     */
+    public static String scenarioKey(String uri, long line) {
+        int featuresIndex = uri.lastIndexOf(FEATURES_FOLDER);
+        String path = featuresIndex >= 0 ? uri.substring(featuresIndex + FEATURES_FOLDER.length()) : uri;
+        return path + ":" + line;
+    }
+
+    /**
+     * Retrieves the average duration of every known scenario.
+     *
+     * @return A map of scenario key to average duration in milliseconds.
+     */
+    public Map<String, Long> getAverageDurations() {
+        return repository.findAll().stream()
+                .collect(Collectors.toMap(ScenarioDuration::getScenarioKey, ScenarioDuration::getAverageDurationMs));
+    }
+
+    /**
+     * Folds the scenario durations of a finished run into the historical averages.
+     *
+     * @param runId The unique identifier of the test run.
+     */
+    @Transactional
+    public void recordRun(String runId) {
+        Map<String, Long> durations = new HashMap<>();
+        Map<String, String> names = new HashMap<>();
+        try {
+            JsonNode root = new ObjectMapper().readTree(new File("reports/" + runId + "/cucumber-reports.json"));
+            for (JsonNode feature : root) {
+                String uri = feature.path("uri").asText();
+                for (JsonNode element : feature.path("elements")) {
+                    if (!"scenario".equals(element.path("type").asText())) {
+                        continue;
+                    }
+                    String key = scenarioKey(uri, element.path("line").asLong());
+                    durations.put(key, sumDurationMs(element));
+                    names.put(key, element.path("name").asText());
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not record scenario durations for {}: {}", runId, e.getMessage());
+            return;
+        }
+
+        Map<String, ScenarioDuration> existing = repository.findAllById(durations.keySet()).stream()
+                .collect(Collectors.toMap(ScenarioDuration::getScenarioKey, Function.identity()));
+        LocalDateTime now = LocalDateTime.now();
+        durations.forEach((key, durationMs) -> {
+            ScenarioDuration entity = existing.getOrDefault(key,
+                    ScenarioDuration.builder().scenarioKey(key).averageDurationMs(durationMs).build());
+            int samples = Math.min(entity.getSamples() + 1, AVERAGE_WINDOW);
+            entity.setAverageDurationMs(entity.getAverageDurationMs() + (durationMs - entity.getAverageDurationMs()) / samples);
+            entity.setSamples(entity.getSamples() + 1);
+            entity.setScenarioName(names.get(key));
+            entity.setLastRunId(runId);
+            entity.setUpdatedAt(now);
+            existing.put(key, entity);
+        });
+        repository.saveAll(existing.values());
+    }
+
+    /**
+     * Sums the durations of the hooks and steps of a scenario element.
+     */
+    private static long sumDurationMs(JsonNode element) {
+        long nanos = 0;
+        for (String section : new String[]{"before", "steps", "after"}) {
+            for (JsonNode step : element.path(section)) {
+                nanos += step.path("result").path("duration").asLong();
+            }
+        }
+        return nanos / 1_000_000;
+    }
+}
@@ -1,5 +1,6 @@
 package com.framework.apiserver.service;
 
+import com.framework.apiserver.dto.RunOptions;
 import com.framework.apiserver.dto.TestExecutionResponse;
 
 /**
@@ -18,10 +19,23 @@ public interface TestExecutionService {
     TestExecutionResponse runCucumberTests(String tag, String jobId, boolean isAsync);
 
     /**
-     * Executes tests asynchronously based on the specified tag and associates the execution with a job ID.
+     * Executes Cucumber tests with the specified run options.
      *
-     * @param tag The tag used to filter and execute specific tests.
+     * @param options The run options (tag, browser and execution mode).
+     * @param jobId   The unique identifier for the asynchronous test execution job.
+     * @param isAsync Indicates whether the execution is asynchronous.
+     * @return A TestExecutionResponse object containing the results of the test execution.
+     */
+    TestExecutionResponse runCucumberTests(RunOptions options, String jobId, boolean isAsync);
+
+    /**
+     * Executes tests asynchronously with the specified run options and associates the execution with a job ID.
+     *
+     * @param options The run options; a null priority is derived from the tag and a null
+     *                execution mode falls back to the configured default.
      * @param createdBy The unique identifier for the asynchronous test execution job.
+     * @return The unique identifier of the queued job.
+     * @throws java.util.concurrent.RejectedExecutionException if the scheduler queue is full.
      */
-    String runTestsAsync(String tag, String createdBy);
+    String runTestsAsync(RunOptions options, String createdBy);
 }
\ No newline at end of file
@@ -1,8 +1,10 @@
 package com.framework.apiserver.service.impl;
 
+import com.framework.apiserver.config.JobPriority;
 import com.framework.apiserver.config.JobStatus;
 import com.framework.apiserver.config.JobType;
 import com.framework.apiserver.dto.JobStatusSummary;
+import com.framework.apiserver.dto.RunProgress;
 import com.framework.apiserver.entity.JobTracking;
 import com.framework.apiserver.event.JobStatusChangedEvent;
 import com.framework.apiserver.repository.JobTrackingRepository;
@@ -19,11 +21,14 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
 /**
@@ -42,14 +47,18 @@ public class JobTrackingServiceImpl implements JobTrackingService {
     private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
     private final Set<SseEmitter> activeEmitters = ConcurrentHashMap.newKeySet();
 
+    // SSE work blocks on the database and on slow clients, so it runs on virtual threads
+    // instead of occupying the common ForkJoin pool
+    private final ExecutorService sseExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
     // List of statuses considered as active
     private static final List<JobStatus> ACTIVE_STATUSES = List.of(
-            JobStatus.PENDING, JobStatus.RUNNING
+            JobStatus.PENDING, JobStatus.QUEUED, JobStatus.RUNNING
     );
 
     // List of statuses considered as completed
     private static final List<JobStatus> COMPLETED_STATUSES = List.of(
-            JobStatus.COMPLETED, JobStatus.FAILED, JobStatus.CANCELLED
+            JobStatus.COMPLETED, JobStatus.FAILED, JobStatus.CANCELLED, JobStatus.TIMED_OUT
     );
 
     /**
@@ -88,7 +97,7 @@ public class JobTrackingServiceImpl implements JobTrackingService {
                 log.error("Error getting initial job status: {}", e.getMessage(), e);
                 return null;
             }
-        }).thenAcceptAsync(currentStatus -> { // Use thenAcceptAsync to avoid blocking
+        }, sseExecutor).thenAcceptAsync(currentStatus -> { // Use thenAcceptAsync to avoid blocking
             if (currentStatus != null && activeEmitters.contains(emitter)) {
                 try {
                     emitter.send(SseEmitter.event()
@@ -101,7 +110,7 @@ public class JobTrackingServiceImpl implements JobTrackingService {
                     cleanup.run();
                 }
             }
-        }).exceptionally(throwable -> {
+        }, sseExecutor).exceptionally(throwable -> {
             log.error("Error in async SSE initialization: {}", throwable.getMessage(), throwable);
             cleanup.run();
             return null;
@@ -121,6 +130,10 @@ public class JobTrackingServiceImpl implements JobTrackingService {
             data.put("totalActiveJobs", summary.getTotalActiveJobs());
             data.put("asyncJobs", summary.getAsyncJobs());
             data.put("syncJobs", summary.getSyncJobs());
+            data.put("queuedJobs", summary.getQueuedJobs());
+            data.put("runningJobs", summary.getRunningJobs());
+            data.put("oldestQueuedWaitSeconds", summary.getOldestQueuedWaitSeconds());
+            data.put("averageWaitSeconds", summary.getAverageWaitSeconds());
             data.put("timestamp", LocalDateTime.now().toString());
             return data;
         } catch (Exception e) {
@@ -137,11 +150,29 @@ public class JobTrackingServiceImpl implements JobTrackingService {
 
         Map<JobType, Long> jobsByType = activeJobs.stream()
                 .collect(Collectors.groupingBy(JobTracking::getType, Collectors.counting()));
+        Map<JobStatus, Long> jobsByStatus = activeJobs.stream()
+                .collect(Collectors.groupingBy(JobTracking::getStatus, Collectors.counting()));
+
+        LocalDateTime now = LocalDateTime.now();
+        long oldestQueuedWaitSeconds = activeJobs.stream()
+                .filter(job -> job.getStatus() == JobStatus.QUEUED && job.getStartTime() != null)
+                .mapToLong(job -> Duration.between(job.getStartTime(), now).getSeconds())
+                .max()
+                .orElse(0L);
+        double averageWaitSeconds = activeJobs.stream()
+                .filter(job -> job.getStatus() == JobStatus.RUNNING && job.getWaitTimeSeconds() != null)
+                .mapToLong(JobTracking::getWaitTimeSeconds)
+                .average()
+                .orElse(0.0);
 
         return JobStatusSummary.builder()
                 .totalActiveJobs(activeJobs.size())
                 .asyncJobs(jobsByType.getOrDefault(JobType.ASYNC, 0L).intValue())
                 .syncJobs(jobsByType.getOrDefault(JobType.SYNC, 0L).intValue())
+                .queuedJobs(jobsByStatus.getOrDefault(JobStatus.QUEUED, 0L).intValue())
+                .runningJobs(jobsByStatus.getOrDefault(JobStatus.RUNNING, 0L).intValue())
+                .oldestQueuedWaitSeconds(oldestQueuedWaitSeconds)
+                .averageWaitSeconds(averageWaitSeconds)
                 .activeJobs(activeJobs)
                 .build();
     }
@@ -171,7 +202,7 @@ public class JobTrackingServiceImpl implements JobTrackingService {
                 log.error("Error getting job status for broadcast: {}", e.getMessage(), e);
                 return null;
             }
-        }).thenAcceptAsync(summaryData -> {
+        }, sseExecutor).thenAcceptAsync(summaryData -> {
             // Create a copy of active emitters to avoid concurrent modification
             Set<SseEmitter> currentEmitters = new HashSet<>(activeEmitters);
             List<SseEmitter> deadEmitters = new ArrayList<>();
@@ -204,12 +235,47 @@ public class JobTrackingServiceImpl implements JobTrackingService {
                 log.debug("Removed {} dead SSE emitters. Active connections: {}",
                         deadEmitters.size(), emitters.size());
             }
-        }).exceptionally(throwable -> {
+        }, sseExecutor).exceptionally(throwable -> {
             log.error("Error in broadcast async processing: {}", throwable.getMessage(), throwable);
             return null;
         });
     }
 
+    /**
+     * Broadcasts the live progress of a running job to all connected SSE clients.
+     * Progress is sent as a separate "job-progress-update" event on the same channel,
+     * so clients that only consume status summaries are not affected. Like job updates,
+     * the events are sent asynchronously so slow clients never hold up the progress reader.
+     */
+    @Override
+    public void broadcastRunProgress(RunProgress progress) {
+        if (activeEmitters.isEmpty()) {
+            return;
+        }
+
+        CompletableFuture.runAsync(() -> {
+            List<SseEmitter> deadEmitters = new ArrayList<>();
+            for (SseEmitter emitter : new HashSet<>(activeEmitters)) {
+                try {
+                    emitter.send(SseEmitter.event()
+                            .name("job-progress-update")
+                            .data(progress));
+                } catch (Exception e) {
+                    log.debug("Failed to send progress to SSE client: {}", e.getMessage());
+                    deadEmitters.add(emitter);
+                }
+            }
+
+            if (!deadEmitters.isEmpty()) {
+                activeEmitters.removeAll(deadEmitters);
+                emitters.removeAll(deadEmitters);
+            }
+        }, sseExecutor).exceptionally(throwable -> {
+            log.error("Error in progress broadcast: {}", throwable.getMessage(), throwable);
+            return null;
+        });
+    }
+
     /**
      * Starts an asynchronous job with the provided details.
      *
@@ -221,6 +287,21 @@ public class JobTrackingServiceImpl implements JobTrackingService {
     @Override
     @Transactional(timeout = 5)
     public String startAsyncJob(String runId, String tag, String createdBy) {
+        return startAsyncJob(runId, tag, createdBy, JobPriority.NORMAL);
+    }
+
+    /**
+     * Starts an asynchronous job with the provided details and scheduling priority.
+     *
+     * @param runId The run ID associated with the job.
+     * @param tag The tag associated with the job.
+     * @param createdBy The user or system that created the job.
+     * @param priority The scheduling priority of the job.
+     * @return The unique identifier of the started job.
+     */
+    @Override
+    @Transactional(timeout = 5)
+    public String startAsyncJob(String runId, String tag, String createdBy, JobPriority priority) {
         String jobId = UUID.randomUUID().toString();
 
         JobTracking jobTracking = JobTracking.builder()
@@ -228,6 +309,7 @@ public class JobTrackingServiceImpl implements JobTrackingService {
                 .runId(runId)
                 .type(JobType.ASYNC)
                 .tag(tag)
+                .priority(priority)
                 .status(JobStatus.PENDING)
                 .startTime(LocalDateTime.now())
                 .createdBy(createdBy)
@@ -298,9 +380,13 @@ public class JobTrackingServiceImpl implements JobTrackingService {
             jobTracking.setStatus(status);
             jobTracking.setErrorMessage(errorMessage);
 
-            // Update thread name for running jobs
+            // Update thread name for running jobs and record how long they waited for a slot
             if (status == JobStatus.RUNNING) {
                 jobTracking.setThreadName(Thread.currentThread().getName());
+                jobTracking.setEstimatedWaitSeconds(null);
+                if (jobTracking.getWaitTimeSeconds() == null && jobTracking.getStartTime() != null) {
+                    jobTracking.setWaitTimeSeconds(Duration.between(jobTracking.getStartTime(), LocalDateTime.now()).getSeconds());
+                }
             }
 
             // Set end time for completed jobs
@@ -316,6 +402,26 @@ public class JobTrackingServiceImpl implements JobTrackingService {
         }
     }
 
+    /**
+     * Records how long a queued job is expected to wait before it starts running and
+     * broadcasts the update.
+     *
+     * @param jobId The unique identifier of the job.
+     * @param estimatedWaitSeconds The expected wait in seconds, or null if unknown.
+     */
+    @Override
+    @Transactional(timeout = 10, propagation = Propagation.REQUIRED)
+    public void updateEstimatedWait(String jobId, Long estimatedWaitSeconds) {
+        jobTrackingRepository.findById(jobId).ifPresent(jobTracking -> {
+            if (Objects.equals(jobTracking.getEstimatedWaitSeconds(), estimatedWaitSeconds)) {
+                return;
+            }
+            jobTracking.setEstimatedWaitSeconds(estimatedWaitSeconds);
+            jobTrackingRepository.save(jobTracking);
+            eventPublisher.publishEvent(new JobStatusChangedEvent(jobTracking, "UPDATED"));
+        });
+    }
+
     /**
      * Marks a job as completed with the specified status.
      *
@@ -429,6 +535,66 @@ public class JobTrackingServiceImpl implements JobTrackingService {
         return jobTrackingRepository.findByRunIdAndStatusIn(runId, ACTIVE_STATUSES);
     }
 
+    /**
+     * Records the browser of a job and, for one browser of a matrix run, its parent job.
+     *
+     * @param jobId       The unique identifier of the job.
+     * @param parentJobId The parent job of the matrix run, null for the parent itself.
+     * @param browserType The browser of the job, or the browsers of a parent job.
+     */
+    @Override
+    @Transactional(timeout = 10)
+    public void recordMatrixJob(String jobId, String parentJobId, String browserType) {
+        jobTrackingRepository.findById(jobId).ifPresent(jobTracking -> {
+            jobTracking.setParentJobId(parentJobId);
+            jobTracking.setBrowserType(browserType);
+            jobTrackingRepository.save(jobTracking);
+            eventPublisher.publishEvent(new JobStatusChangedEvent(jobTracking, "UPDATED"));
+        });
+    }
+
+    /**
+     * Retrieves the child jobs of a matrix run.
+     *
+     * @param parentJobId The unique identifier of the parent job.
+     * @return A list of the child jobs, ordered by browser.
+     */
+    @Override
+    @Transactional(readOnly = true, timeout = 10)
+    public List<JobTracking> getChildJobs(String parentJobId) {
+        return jobTrackingRepository.findByParentJobIdOrderByBrowserType(parentJobId);
+    }
+
+    /**
+     * Records the browser of a job and the batch run it is one tag expression of.
+     *
+     * @param jobId       The unique identifier of the job.
+     * @param batchJobId  The job of the batch run.
+     * @param browserType The browser the batch runs on.
+     */
+    @Override
+    @Transactional(timeout = 10)
+    public void recordBatchJob(String jobId, String batchJobId, String browserType) {
+        jobTrackingRepository.findById(jobId).ifPresent(jobTracking -> {
+            jobTracking.setBatchJobId(batchJobId);
+            jobTracking.setBrowserType(browserType);
+            jobTrackingRepository.save(jobTracking);
+            eventPublisher.publishEvent(new JobStatusChangedEvent(jobTracking, "UPDATED"));
+        });
+    }
+
+    /**
+     * Retrieves the jobs of the tag expressions of a batch run.
+     *
+     * @param batchJobId The unique identifier of the job of the batch run.
+     * @return A list of the jobs, ordered by run ID, i.e. in the order the batch runs them.
+     */
+    @Override
+    @Transactional(readOnly = true, timeout = 10)
+    public List<JobTracking> getBatchJobs(String batchJobId) {
+        return jobTrackingRepository.findByBatchJobIdOrderByRunId(batchJobId);
+    }
+
     /**
      * Cleans up old completed jobs periodically.
      * Deletes jobs with completed statuses that ended more than 24 hours ago.
@@ -1,5 +1,7 @@
 package com.framework.apiserver.service.impl;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.framework.apiserver.dto.CommandLatencyReport;
 import com.framework.apiserver.dto.dashboard.ReportStatsDto;
 import com.framework.apiserver.repository.TestRunInfoRepository;
 import com.framework.apiserver.service.ReportService;
@@ -12,6 +14,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 
 
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
@@ -36,6 +44,8 @@ public class ReportServiceImpl implements ReportService {
 
     private static final String REPORTS_BASE_PATH = "reports";
 
+    private static final String COMMAND_LATENCY_FILE = "command-latency.json";
+
     /**
      * Retrieves the zipped report file for the specified run ID.
      *
@@ -124,4 +134,48 @@ public class ReportServiceImpl implements ReportService {
                     .body("Unable to load report: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Retrieves the WebDriver command latencies of a test run.
+     *
+     * <p>The report written by the runner is read from the run's folder; for a sharded run,
+     * the reports of its shards are merged. Returns 404 if the run has no command latency
+     * report, e.g. because command profiling was disabled.</p>
+     *
+     * @param runId The unique identifier of the test run.
+     * @param top   The number of slowest steps and single commands to include.
+     * @return A ResponseEntity containing the merged CommandLatencyReport, or an error response.
+     */
+    public ResponseEntity<?> getCommandLatency(String runId, int top) {
+        Path runDir = Paths.get(REPORTS_BASE_PATH, runId);
+        List<Path> files = new ArrayList<>();
+        if (Files.exists(runDir.resolve(COMMAND_LATENCY_FILE))) {
+            files.add(runDir.resolve(COMMAND_LATENCY_FILE));
+        }
+        Path shardsDir = runDir.resolve("shards");
+        if (Files.isDirectory(shardsDir)) {
+            try (Stream<Path> shards = Files.list(shardsDir)) {
+                shards.map(shard -> shard.resolve(COMMAND_LATENCY_FILE)).filter(Files::exists).forEach(files::add);
+            } catch (IOException e) {
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body("Unable to list the shards of run " + runId + ": " + e.getMessage());
+            }
+        }
+        if (files.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body("Command latency report not found for runId: " + runId);
+        }
+
+        ObjectMapper mapper = new ObjectMapper();
+        CommandLatencyReport merged = new CommandLatencyReport();
+        try {
+            for (Path file : files) {
+                merged.merge(mapper.readValue(file.toFile(), CommandLatencyReport.class));
+            }
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Unable to read command latency report: " + e.getMessage());
+        }
+        return ResponseEntity.ok(merged.top(Math.max(1, top)));
+    }
+}
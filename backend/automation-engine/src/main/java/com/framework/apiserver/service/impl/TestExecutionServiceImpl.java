@@ -1,16 +1,29 @@
 package com.framework.apiserver.service.impl;
 
+import com.framework.apiserver.config.ExecutionMode;
+import com.framework.apiserver.config.JobKind;
+import com.framework.apiserver.config.JobPriority;
+import com.framework.apiserver.dto.JobRequest;
+import com.framework.apiserver.dto.RunOptions;
+import com.framework.apiserver.dto.RunProgress;
 import com.framework.apiserver.dto.TestExecutionResponse;
+import com.framework.apiserver.execution.RunProgressServer;
+import com.framework.apiserver.execution.RunWatchdog;
+import com.framework.apiserver.execution.ShardedRunExecutor;
+import com.framework.apiserver.execution.TestRunLauncher;
 import com.framework.apiserver.service.BrowserContextManager;
 import com.framework.apiserver.service.JobTrackingService;
+import com.framework.apiserver.service.PagePerformanceService;
+import com.framework.apiserver.service.ScenarioDurationService;
 import com.framework.apiserver.service.TestExecutionService;
 import com.framework.apiserver.service.TestRunInfoService;
+import com.framework.apiserver.testrunner.RunDiagnostics;
 import com.framework.apiserver.utilities.AsyncJobManager;
 import com.framework.apiserver.utilities.CommonUtils;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.nio.file.Path;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -48,11 +61,28 @@ public class TestExecutionServiceImpl implements TestExecutionService {
     @Autowired
     private TestRunInfoService testRunInfoService;
 
+    @Autowired
+    private TestRunLauncher testRunLauncher;
+
+    @Autowired
+    private ShardedRunExecutor shardedRunExecutor;
+
+    @Autowired
+    private ScenarioDurationService scenarioDurationService;
+
+    @Autowired
+    private PagePerformanceService pagePerformanceService;
+
+    @Autowired
+    private RunProgressServer runProgressServer;
+
+    @Autowired
+    private RunWatchdog runWatchdog;
+
     /**
      * Executes Cucumber tests filtered by the specified tag.
      *
-     * <p>This method sets system properties for Cucumber tag filtering, runs the tests
-     * using JUnitCore, and processes the results to generate a summary of the execution.</p>
+     * <p>The run uses the browser of the current request and the default execution mode.</p>
      *
      * @param tag       The Cucumber tag used to filter the tests to be executed.
      * @param jobId  The unique identifier for the asynchronous test execution job.
@@ -60,29 +90,78 @@ public class TestExecutionServiceImpl implements TestExecutionService {
      * the number of test failures, and the run ID.
      */
     public TestExecutionResponse runCucumberTests(String tag, String jobId, boolean isAsync) {
+        RunOptions options = RunOptions.builder()
+                .tag(tag)
+                .browserType(browserContextManager.getBrowserType())
+                .build();
+        return runCucumberTests(options, jobId, isAsync);
+    }
+
+    /**
+     * Executes Cucumber tests with the specified run options.
+     *
+     * <p>This method launches the run in the requested execution mode (a forked runner JVM
+     * or the in-process engine), or splits it across several runner processes when more than
+     * one shard is requested, and processes the results to generate a summary of the execution.
+     * While the run executes, the scenario results streamed by the runners are pushed to the
+     * job's SSE clients. The scenario durations of the run are recorded to balance future shards.
+     * If the job is cancelled or the run exceeds its deadline, the runner is terminated and the
+     * partial results are recorded; a run past its deadline marks the job TIMED_OUT.</p>
+     *
+     * <p>The job is completed, failed or left stopped here, exactly once; an asynchronous caller
+     * has marked it RUNNING already and does not complete it again.</p>
+     *
+     * @param options The run options (tag, browser and execution mode).
+     * @param jobId   The unique identifier for the asynchronous test execution job.
+     * @param isAsync Whether the caller marked the job RUNNING already.
+     * @return A TestExecutionResponse object containing the execution status,
+     * the number of test failures, and the run ID.
+     */
+    public TestExecutionResponse runCucumberTests(RunOptions options, String jobId, boolean isAsync) {
+        String tag = options.getTag();
         String runId = CommonUtils.generateRunId();
         System.out.println("Run ID: " + runId);
         LocalDateTime startTime = LocalDateTime.now();
-        if(!isAsync) {
-            asyncJobManager.setJobRunning(jobId);
+        if(!isAsync && !asyncJobManager.setJobRunning(jobId)) {
+            return new TestExecutionResponse("Job " + jobId + " was stopped before it started", -1, null);
         }
         try {
-            // Command to launch a new JVM process
-            CommonUtils.testCaseRun(tag, runId, Path.of("."), browserContextManager.getBrowserType());
+            int shards = testRunLauncher.resolveShards(options);
+            Duration runTimeout = testRunLauncher.resolveRunTimeout(options);
+            runProgressServer.register(runId, jobId);
+            try (RunWatchdog.Deadline deadline = runWatchdog.watch(runId, runTimeout, () -> {
+                if (!asyncJobManager.timeoutJob(jobId, "Run exceeded its deadline of " + runTimeout.toMinutes() + " minute(s)")) {
+                    return false;
+                }
+                if (testRunLauncher.resolveMode(options) == ExecutionMode.IN_PROCESS) {
+                    RunDiagnostics.writeThreadDump(runId, "timeout");
+                }
+                return true;
+            })) {
+                if (shards > 1) {
+                    shardedRunExecutor.run(options, runId, shards);
+                } else {
+                    testRunLauncher.launch(options, runId, null);
+                }
+            } catch (InterruptedException e) {
+                return recordStoppedRun(tag, jobId, runId, startTime);
+            } finally {
+                runProgressServer.unregister(runId);
+            }
 
             LocalDateTime endTime = LocalDateTime.now();
             long durationSeconds = Duration.between(startTime, endTime).getSeconds();
 
             HashMap<String, Object> result = commonUtils.createRunInfoFileAndDb(testRunInfoService, tag, runId, startTime, endTime,
                     durationSeconds);
+            scenarioDurationService.recordRun(runId);
+            pagePerformanceService.recordRun(runId, startTime);
             TestExecutionResponse response = new TestExecutionResponse(
                     String.valueOf(result.get("status")),
                     (Integer) result.get("failureCount"),
                     runId
             );
-            if(!isAsync) {
-                asyncJobManager.completeJob(jobId, response);
-            }
+            asyncJobManager.completeJob(jobId, response);
             return response;
         } catch (Exception e) {
             asyncJobManager.failJob(jobId, e.getMessage());
@@ -91,33 +170,80 @@ public class TestExecutionServiceImpl implements TestExecutionService {
     }
 
     /**
-     * Executes Cucumber tests asynchronously based on the specified tag and created by.
+     * Records the partial results of a run whose job was cancelled or timed out while it executed.
      *
-     * <p>This method updates the job status to "running", executes the tests,
-     * and updates the job status to "completed" or "failed" based on the result.</p>
+     * <p>The runner has already been terminated; the results come from the scenarios it
+     * reported before it was stopped.</p>
+     */
+    private TestExecutionResponse recordStoppedRun(String tag, String jobId, String runId, LocalDateTime startTime) {
+        LocalDateTime endTime = LocalDateTime.now();
+        long durationSeconds = Duration.between(startTime, endTime).getSeconds();
+        RunProgress progress = runProgressServer.getRunProgress(runId).orElseGet(() -> new RunProgress(jobId, runId));
+        String reason = asyncJobManager.isTimedOut(jobId) ? "Timed Out" : "Cancelled";
+        HashMap<String, Object> result = commonUtils.createStoppedRunInfo(testRunInfoService, tag, runId, startTime,
+                endTime, durationSeconds, progress, reason);
+        TestExecutionResponse response = new TestExecutionResponse(
+                String.valueOf(result.get("status")),
+                (Integer) result.get("failureCount"),
+                runId
+        );
+        asyncJobManager.completeJob(jobId, response);
+        return response;
+    }
+
+    /**
+     * Registers the execution of queued test runs with the job manager.
+     */
+    @PostConstruct
+    void registerJobHandlers() {
+        asyncJobManager.registerHandler(JobKind.RUN, this::executeRunJob);
+    }
+
+    /**
+     * Executes Cucumber tests asynchronously with the specified run options and created by.
      *
-     * @param tag   The Cucumber tag used to filter the tests to be executed.
+     * <p>This method queues the job on the scheduler, which updates the job status to "running"
+     * once a slot is free, executes the tests, and updates the job status to "completed" or
+     * "failed" based on the result. The browser of the current request is captured at
+     * submission time, since the job may start after other requests have been served, possibly
+     * on another server instance.</p>
+     *
+     * @param options   The run options of the job.
      * @param createdBy The ID of the user who started the job.
+     * @return The unique identifier of the queued job.
      */
-    public String runTestsAsync(String tag, String createdBy) {
-        String jobId = asyncJobManager.createJobWithTracking(null, tag, createdBy);
-        Thread jobThread = new Thread(() -> {
-            asyncJobManager.setJobRunning(jobId);
-            try {
-                TestExecutionResponse response = runCucumberTests(tag, jobId, true);
-                asyncJobManager.completeJob(jobId, response);
-            } catch (Exception e) {
-                asyncJobManager.failJob(jobId, e.getMessage());
-            }
-        });
-
-        jobThread.setName("AsyncTest-" + tag + "-" + jobId.substring(0, 8));
-        asyncJobManager.registerJobThread(jobId, jobThread);
-        jobThread.start();
+    public String runTestsAsync(RunOptions options, String createdBy) {
+        if (options.getBrowserType() == null) {
+            options.setBrowserType(browserContextManager.getBrowserType());
+        }
+        String tag = options.getTag();
+        JobPriority jobPriority = asyncJobManager.resolvePriority(tag, options.getPriority());
+        String jobId = asyncJobManager.createJobWithTracking(null, tag, createdBy, jobPriority);
+        asyncJobManager.enqueueJob(jobId, jobPriority, JobRequest.builder()
+                .kind(JobKind.RUN)
+                .options(options)
+                .build());
 
         return jobId;
     }
 
+    /**
+     * Executes a queued test run on the current scheduler slot.
+     *
+     * @param jobId   The unique identifier of the job.
+     * @param request The request of the job, holding its run options.
+     */
+    private void executeRunJob(String jobId, JobRequest request) {
+        if (!asyncJobManager.setJobRunning(jobId)) {
+            return;
+        }
+        try {
+            runCucumberTests(request.getOptions(), jobId, true);
+        } catch (Exception e) {
+            asyncJobManager.failJob(jobId, e.getMessage());
+        }
+    }
+
     /**
      * Executes Cucumber tests asynchronously based on the specified tag and job ID.
      *
@@ -129,11 +255,16 @@ public class TestExecutionServiceImpl implements TestExecutionService {
      */
     @Deprecated
     public void runTestsAsyncLegacy(String tag, String jobId) {
+        RunOptions options = RunOptions.builder()
+                .tag(tag)
+                .browserType(browserContextManager.getBrowserType())
+                .build();
         Thread jobThread = new Thread(() -> {
-            asyncJobManager.setJobRunning(jobId);
+            if (!asyncJobManager.setJobRunning(jobId)) {
+                return;
+            }
             try {
-                TestExecutionResponse response = runCucumberTests(tag, jobId, true);
-                asyncJobManager.completeJob(jobId, response);
+                runCucumberTests(options, jobId, true);
             } catch (Exception e) {
                 asyncJobManager.failJob(jobId);
             }
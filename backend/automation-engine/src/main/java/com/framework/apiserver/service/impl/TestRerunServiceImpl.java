@@ -2,10 +2,21 @@ package com.framework.apiserver.service.impl;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.framework.apiserver.config.ExecutionMode;
+import com.framework.apiserver.config.JobKind;
+import com.framework.apiserver.config.JobPriority;
+import com.framework.apiserver.dto.JobRequest;
+import com.framework.apiserver.dto.RunOptions;
+import com.framework.apiserver.dto.RunProgress;
 import com.framework.apiserver.dto.TestExecutionResponse;
+import com.framework.apiserver.execution.RunProgressServer;
+import com.framework.apiserver.execution.RunWatchdog;
+import com.framework.apiserver.execution.TestRunLauncher;
 import com.framework.apiserver.service.*;
+import com.framework.apiserver.testrunner.RunDiagnostics;
 import com.framework.apiserver.utilities.AsyncJobManager;
 import com.framework.apiserver.utilities.CommonUtils;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -46,13 +57,23 @@ public class TestRerunServiceImpl implements TestRerunService {
     @Autowired
     private CommonUtils commonUtils;
 
+    @Autowired
+    private TestRunLauncher testRunLauncher;
+
+    @Autowired
+    private RunProgressServer runProgressServer;
+
+    @Autowired
+    private RunWatchdog runWatchdog;
+
     private static final String REPORTS_BASE_PATH = "reports";
 
     /**
      * Reruns all tests for the specified run ID.
      *
      * <p>This method retrieves the tags associated with the given run ID from the
-     * `run-info.json` file and triggers the execution of all tests using those tags.</p>
+     * `run-info.json` file and triggers the execution of all tests using those tags. If the
+     * job is cancelled or times out, the tag run records the partial results of the rerun.</p>
      *
      * @param runId The unique identifier of the test run to rerun.
      * @param jobId The unique identifier of the asynchronous job.
@@ -97,9 +118,20 @@ public class TestRerunServiceImpl implements TestRerunService {
             String newRunId = CommonUtils.generateRunId();
             LocalDateTime startTime = LocalDateTime.now();
             Path rerunFilePath = Paths.get("reports/"+runId+"/rerun.txt");
-            asyncJobManager.setJobRunning(jobId);
+            if (!asyncJobManager.setJobRunning(jobId)) {
+                return new TestExecutionResponse("Job " + jobId + " was stopped before it started", -1, null);
+            }
             Files.write(rerunFilePath, failedScenarioPathsWithLines);
-            CommonUtils.testCaseRun(null, newRunId, rerunFilePath, browserContextManager.getBrowserType());
+            RunOptions options = rerunOptions(browserContextManager.getBrowserType());
+            runProgressServer.register(newRunId, jobId);
+            try (RunWatchdog.Deadline deadline = watchRerun(jobId, newRunId, options)) {
+                testRunLauncher.launch(options, newRunId, rerunFilePath);
+            } catch (InterruptedException e) {
+                commonUtils.deleteFile(rerunFilePath.toString());
+                return recordStoppedRerun(jobId, newRunId, startTime);
+            } finally {
+                runProgressServer.unregister(newRunId);
+            }
             commonUtils.deleteFile(rerunFilePath.toString());
             LocalDateTime endTime = LocalDateTime.now();
             long durationSeconds = Duration.between(startTime, endTime).getSeconds();
@@ -121,6 +153,15 @@ public class TestRerunServiceImpl implements TestRerunService {
         }
     }
 
+    /**
+     * Registers the execution of queued reruns with the job manager.
+     */
+    @PostConstruct
+    void registerJobHandlers() {
+        asyncJobManager.registerHandler(JobKind.RERUN, this::executeRerunJob);
+        asyncJobManager.registerHandler(JobKind.RERUN_FAILED, this::executeFailedRerunJob);
+    }
+
     /**
      * Reruns all tests asynchronously for the specified run ID.
      *
@@ -131,28 +172,43 @@ public class TestRerunServiceImpl implements TestRerunService {
      * @param createdBy The ID of the user who started the job.
      */
     public String rerunTestsAsync(String runId, String createdBy) {
-        String jobId = asyncJobManager.createJobWithTracking(runId, "Rerun", createdBy);
-        Thread jobThread = new Thread(() -> {
-            asyncJobManager.setJobRunning(jobId);
-            try {
-                File infoFile = new File(REPORTS_BASE_PATH + "/" + runId + "/run-info.json");
-                if (!infoFile.exists()) {
-                    throw new FileNotFoundException("Run ID not found: " + runId);
-                }
+        String browserType = browserContextManager.getBrowserType();
+        JobPriority priority = asyncJobManager.resolvePriority(null, null);
+        String jobId = asyncJobManager.createJobWithTracking(runId, "Rerun", createdBy, priority);
+        asyncJobManager.enqueueJob(jobId, priority, JobRequest.builder()
+                .kind(JobKind.RERUN)
+                .sourceRunId(runId)
+                .options(RunOptions.builder().browserType(browserType).build())
+                .build());
+        return jobId;
+    }
 
-                ObjectMapper mapper = new ObjectMapper();
-                JsonNode node = mapper.readTree(infoFile);
-                String tags = node.get("tags").asText();
-                TestExecutionResponse response = testExecutionService.runCucumberTests(tags, jobId, true);
-                asyncJobManager.completeJob(jobId, response);
-            } catch (Exception e) {
-                asyncJobManager.failJob(jobId);
+    /**
+     * Executes a queued rerun of all tests on the current scheduler slot.
+     *
+     * @param jobId   The unique identifier of the job.
+     * @param request The request of the job, holding the run to rerun and its browser.
+     */
+    private void executeRerunJob(String jobId, JobRequest request) {
+        String runId = request.getSourceRunId();
+        if (!asyncJobManager.setJobRunning(jobId)) {
+            return;
+        }
+        try {
+            File infoFile = new File(REPORTS_BASE_PATH + "/" + runId + "/run-info.json");
+            if (!infoFile.exists()) {
+                throw new FileNotFoundException("Run ID not found: " + runId);
             }
-        });
-        jobThread.setName("AsyncRerun-" + runId + "-" + jobId.substring(0, 8));
-        asyncJobManager.registerJobThread(jobId, jobThread);
-        jobThread.start();
-        return jobId;
+
+            ObjectMapper mapper = new ObjectMapper();
+            JsonNode node = mapper.readTree(infoFile);
+            String tags = node.get("tags").asText();
+            RunOptions options = RunOptions.builder().tag(tags).browserType(request.getOptions().getBrowserType()).build();
+            // Completes the job itself
+            testExecutionService.runCucumberTests(options, jobId, true);
+        } catch (Exception e) {
+            asyncJobManager.failJob(jobId);
+        }
     }
 
     /**
@@ -166,8 +222,11 @@ public class TestRerunServiceImpl implements TestRerunService {
      */
     @Deprecated
     public void rerunTestsAsyncLegacy(String runId, String jobId) {
+        String browserType = browserContextManager.getBrowserType();
         Thread jobThread = new Thread(() -> {
-            asyncJobManager.setJobRunning(jobId);
+            if (!asyncJobManager.setJobRunning(jobId)) {
+                return;
+            }
             try {
                 File infoFile = new File(REPORTS_BASE_PATH + "/" + runId + "/run-info.json");
                 if (!infoFile.exists()) {
@@ -177,8 +236,9 @@ public class TestRerunServiceImpl implements TestRerunService {
                 ObjectMapper mapper = new ObjectMapper();
                 JsonNode node = mapper.readTree(infoFile);
                 String tags = node.get("tags").asText();
-                TestExecutionResponse response = testExecutionService.runCucumberTests(tags, jobId, true);
-                asyncJobManager.completeJob(jobId, response);
+                RunOptions options = RunOptions.builder().tag(tags).browserType(browserType).build();
+                // Completes the job itself
+                testExecutionService.runCucumberTests(options, jobId, true);
             } catch (Exception e) {
                 asyncJobManager.failJob(jobId);
             }
@@ -198,40 +258,63 @@ public class TestRerunServiceImpl implements TestRerunService {
      * @param createdBy The ID of the user who started the job.
      */
     public String rerunFailedTestsAsync(String runId, String createdBy) {
-        String jobId = asyncJobManager.createJobWithTracking(runId, "FailedRerun", createdBy);
-        Thread jobThread = new Thread(() -> {
-            asyncJobManager.setJobRunning(jobId);
-            try {
-                List<String> failedScenarioPathsWithLines = testRunInfoService.getFailureScenarios(runId);
-                if (failedScenarioPathsWithLines.isEmpty()) {
-                    throw new FileNotFoundException("No failed scenarios found for runId " + runId);
-                }
+        RunOptions options = rerunOptions(browserContextManager.getBrowserType());
+        JobPriority priority = asyncJobManager.resolvePriority(null, null);
+        String jobId = asyncJobManager.createJobWithTracking(runId, "FailedRerun", createdBy, priority);
+        asyncJobManager.enqueueJob(jobId, priority, JobRequest.builder()
+                .kind(JobKind.RERUN_FAILED)
+                .sourceRunId(runId)
+                .options(options)
+                .build());
+        return jobId;
+    }
 
-                String newRunId = CommonUtils.generateRunId();
-                System.setProperty("run.id", newRunId);
+    /**
+     * Executes a queued rerun of the failed tests on the current scheduler slot.
+     *
+     * @param jobId   The unique identifier of the job.
+     * @param request The request of the job, holding the run to rerun and the rerun options.
+     */
+    private void executeFailedRerunJob(String jobId, JobRequest request) {
+        String runId = request.getSourceRunId();
+        RunOptions options = request.getOptions();
+        if (!asyncJobManager.setJobRunning(jobId)) {
+            return;
+        }
+        try {
+            List<String> failedScenarioPathsWithLines = testRunInfoService.getFailureScenarios(runId);
+            if (failedScenarioPathsWithLines.isEmpty()) {
+                throw new FileNotFoundException("No failed scenarios found for runId " + runId);
+            }
 
-                LocalDateTime startTime = LocalDateTime.now();
-                Path rerunFilePath = Paths.get("reports/"+runId+"/rerun.txt");
-                Files.write(rerunFilePath, failedScenarioPathsWithLines);
-                CommonUtils.testCaseRun(null, newRunId, rerunFilePath, browserContextManager.getBrowserType());
+            String newRunId = CommonUtils.generateRunId();
+
+            LocalDateTime startTime = LocalDateTime.now();
+            Path rerunFilePath = Paths.get("reports/"+runId+"/rerun.txt");
+            Files.write(rerunFilePath, failedScenarioPathsWithLines);
+            runProgressServer.register(newRunId, jobId);
+            try (RunWatchdog.Deadline deadline = watchRerun(jobId, newRunId, options)) {
+                testRunLauncher.launch(options, newRunId, rerunFilePath);
+            } catch (InterruptedException e) {
                 commonUtils.deleteFile(rerunFilePath.toString());
+                recordStoppedRerun(jobId, newRunId, startTime);
+                return;
+            } finally {
+                runProgressServer.unregister(newRunId);
+            }
+            commonUtils.deleteFile(rerunFilePath.toString());
 
-                LocalDateTime endTime = LocalDateTime.now();
-                long durationSeconds = Duration.between(startTime, endTime).getSeconds();
+            LocalDateTime endTime = LocalDateTime.now();
+            long durationSeconds = Duration.between(startTime, endTime).getSeconds();
 
-                HashMap<String, Object> result = commonUtils.createRunInfoFileAndDb(testRunInfoService, "Rerun", newRunId, startTime, endTime,
-                        durationSeconds);
+            HashMap<String, Object> result = commonUtils.createRunInfoFileAndDb(testRunInfoService, "Rerun", newRunId, startTime, endTime,
+                    durationSeconds);
 
-                asyncJobManager.completeJob(jobId, new TestExecutionResponse(String.valueOf(result.get("status")),
-                        (Integer) result.get("failureCount"), newRunId));
-            } catch (Exception e) {
-                asyncJobManager.failJob(jobId);
-            }
-        });
-        jobThread.setName("AsyncFailedRerun-" + runId + "-" + jobId.substring(0, 8));
-        asyncJobManager.registerJobThread(jobId, jobThread);
-        jobThread.start();
-        return jobId;
+            asyncJobManager.completeJob(jobId, new TestExecutionResponse(String.valueOf(result.get("status")),
+                    (Integer) result.get("failureCount"), newRunId));
+        } catch (Exception e) {
+            asyncJobManager.failJob(jobId);
+        }
     }
 
     /**
@@ -245,8 +328,11 @@ public class TestRerunServiceImpl implements TestRerunService {
      */
     @Deprecated
     public void rerunFailedTestsAsyncLegacy(String runId, String jobId) {
+        String browserType = browserContextManager.getBrowserType();
         Thread jobThread = new Thread(() -> {
-            asyncJobManager.setJobRunning(jobId);
+            if (!asyncJobManager.setJobRunning(jobId)) {
+                return;
+            }
             try {
                 List<String> failedScenarioPathsWithLines = testRunInfoService.getFailureScenarios(runId);
                 if (failedScenarioPathsWithLines.isEmpty()) {
@@ -254,12 +340,11 @@ public class TestRerunServiceImpl implements TestRerunService {
                 }
 
                 String newRunId = CommonUtils.generateRunId();
-                System.setProperty("run.id", newRunId);
 
                 LocalDateTime startTime = LocalDateTime.now();
                 Path rerunFilePath = Paths.get("reports/"+runId+"/rerun.txt");
                 Files.write(rerunFilePath, failedScenarioPathsWithLines);
-                CommonUtils.testCaseRun(null, newRunId, rerunFilePath, browserContextManager.getBrowserType());
+                CommonUtils.testCaseRun(null, newRunId, rerunFilePath, browserType);
                 commonUtils.deleteFile(rerunFilePath.toString());
 
                 LocalDateTime endTime = LocalDateTime.now();
@@ -279,4 +364,61 @@ public class TestRerunServiceImpl implements TestRerunService {
         jobThread.start();
     }
 
-}
\ No newline at end of file
+    /**
+     * Starts the deadline of a failed-scenario rerun, the same run deadline tag runs get. Must
+     * be called on the thread launching the rerun.
+     *
+     * @param jobId   The unique identifier of the job.
+     * @param runId   The run ID of the rerun.
+     * @param options The run options of the rerun.
+     * @return The deadline, to be closed once the rerun finishes.
+     */
+    private RunWatchdog.Deadline watchRerun(String jobId, String runId, RunOptions options) {
+        Duration runTimeout = testRunLauncher.resolveRunTimeout(options);
+        return runWatchdog.watch(runId, runTimeout, () -> {
+            if (!asyncJobManager.timeoutJob(jobId, "Rerun exceeded its deadline of " + runTimeout.toMinutes() + " minute(s)")) {
+                return false;
+            }
+            if (testRunLauncher.resolveMode(options) == ExecutionMode.IN_PROCESS) {
+                RunDiagnostics.writeThreadDump(runId, "timeout");
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Records the partial results of a failed-scenario rerun whose job was cancelled or timed
+     * out while it executed, like stopped tag runs.
+     *
+     * @param jobId     The unique identifier of the job.
+     * @param runId     The run ID of the rerun.
+     * @param startTime When the rerun started.
+     * @return The response the job completes with.
+     */
+    private TestExecutionResponse recordStoppedRerun(String jobId, String runId, LocalDateTime startTime) {
+        LocalDateTime endTime = LocalDateTime.now();
+        long durationSeconds = Duration.between(startTime, endTime).getSeconds();
+        RunProgress progress = runProgressServer.getRunProgress(runId).orElseGet(() -> new RunProgress(jobId, runId));
+        String reason = asyncJobManager.isTimedOut(jobId) ? "Timed Out" : "Cancelled";
+        HashMap<String, Object> result = commonUtils.createStoppedRunInfo(testRunInfoService, "Rerun", runId, startTime,
+                endTime, durationSeconds, progress, reason);
+        TestExecutionResponse response = new TestExecutionResponse(
+                String.valueOf(result.get("status")),
+                (Integer) result.get("failureCount"),
+                runId
+        );
+        asyncJobManager.completeJob(jobId, response);
+        return response;
+    }
+
+    /**
+     * Builds the run options of a failed-scenario rerun, which selects scenarios through a
+     * rerun file rather than a tag and uses the default execution mode.
+     *
+     * @param browserType The browser the scenarios run on.
+     * @return The run options.
+     */
+    private RunOptions rerunOptions(String browserType) {
+        return RunOptions.builder().browserType(browserType).build();
+    }
+}
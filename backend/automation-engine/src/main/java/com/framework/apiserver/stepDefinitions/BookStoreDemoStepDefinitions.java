@@ -5,7 +5,7 @@ import com.framework.apiserver.pages.LoginPage;
 import com.framework.apiserver.utilities.BaseClass;
 import com.framework.apiserver.utilities.DriverManager;
 import com.framework.apiserver.utilities.SelUtil;
-import com.framework.apiserver.service.TestExecutionService;
+import com.framework.apiserver.utilities.SessionSnapshots;
 import io.cucumber.java.en.*;
 import org.openqa.selenium.WebDriver;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -33,14 +33,15 @@ import org.springframework.beans.factory.annotation.Autowired;
  * @see BaseClass
  * @see DriverManager
  * @see SelUtil
- * @see TestExecutionService
  */
 public class BookStoreDemoStepDefinitions {
 
+    // Seconds to wait for the outcome of a login
+    private static final int LOGIN_TIMEOUT = 10;
+
     private final BrowserStepDefinitions browserStepDefinitions;
     private final DriverManager driverManager;
     private final BaseClass baseClass;
-    private final TestExecutionService testService;
     private final SelUtil selUtil;
 
     private WebDriver driver;
@@ -52,19 +53,16 @@ public class BookStoreDemoStepDefinitions {
      *
      * @param driverManager The DriverManager instance for managing WebDriver.
      * @param baseClass The BaseClass instance for logging and utility methods.
-     * @param testService The TestExecutionService instance for test execution.
      * @param selUtil The SelUtil instance for Selenium utility methods.
      */
     @Autowired
     public BookStoreDemoStepDefinitions(BrowserStepDefinitions browserStepDefinitions,
                                         DriverManager driverManager,
                                         BaseClass baseClass,
-                                        TestExecutionService testService,
                                         SelUtil selUtil) {
         this.browserStepDefinitions = browserStepDefinitions;
         this.driverManager = driverManager;
         this.baseClass = baseClass;
-        this.testService = testService;
         this.selUtil = selUtil;
     }
 
@@ -100,15 +98,36 @@ public class BookStoreDemoStepDefinitions {
     /**
      * Logs in to the application using the provided username and password.
      *
+     * <p>If an earlier scenario logged in with the same credentials, its session is restored
+     * instead of filling in the login form. A session the application rejects is dropped and
+     * the user logs in through the form; a successful form login is kept for later scenarios.</p>
+     *
      * @param username The username for login.
      * @param password The password for login.
      */
     @Given("User log in to the application with username {string} and password {string}")
     public void userLogInToTheApplicationWithUsernameAndPassword(String username, String password) {
         ensureDriverInitialized();
+        if (SessionSnapshots.restore(driver, username, password)) {
+            loginPage.openProfilePage();
+            if (loginPage.isLoggedInAs(username, LOGIN_TIMEOUT)) {
+                baseClass.infoLog("Logged in as " + username + " with the session of an earlier login");
+                return;
+            }
+            baseClass.infoLog("The session of " + username + " was rejected, logging in through the form");
+            SessionSnapshots.invalidate(driver, username, password);
+            loginPage.openLoginPage();
+        }
         loginPage.enterUsername(username);
         loginPage.enterPassword(password);
         loginPage.clickLoginButton();
+        if (SessionSnapshots.isEnabled()) {
+            if (loginPage.waitForLoginResult(LOGIN_TIMEOUT)) {
+                SessionSnapshots.capture(driver, username, password);
+            } else {
+                SessionSnapshots.invalidate(driver, username, password);
+            }
+        }
     }
 
     /**
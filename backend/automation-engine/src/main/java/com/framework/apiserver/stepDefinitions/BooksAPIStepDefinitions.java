@@ -5,7 +5,6 @@ import io.cucumber.java.en.*;
 import com.framework.apiserver.utilities.APIUtil;
 import com.framework.apiserver.utilities.BaseClass;
 import org.springframework.beans.factory.annotation.Autowired;
-import com.framework.apiserver.service.TestExecutionService;
 
 /**
  * BooksAPIStepDefinitions provides step definitions for interacting with the Books API.
@@ -28,16 +27,12 @@ import com.framework.apiserver.service.TestExecutionService;
  *
  * @see APIUtil
  * @see BaseClass
- * @see TestExecutionService
  */
 public class BooksAPIStepDefinitions {
 
     @Autowired
     private BaseClass baseClass;
 
-    @Autowired
-    private TestExecutionService testService;
-
     @Autowired
     private APIUtil apiUtil;
 
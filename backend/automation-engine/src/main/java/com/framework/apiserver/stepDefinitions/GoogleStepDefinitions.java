@@ -1,7 +1,6 @@
 package com.framework.apiserver.stepDefinitions;
 
 import com.framework.apiserver.pages.GooglePage;
-import com.framework.apiserver.service.TestExecutionService;
 import com.framework.apiserver.utilities.BaseClass;
 import com.framework.apiserver.utilities.DriverManager;
 import com.framework.apiserver.utilities.SelUtil;
@@ -15,7 +14,6 @@ public class GoogleStepDefinitions {
 
     private final DriverManager driverManager;
     private final BaseClass baseClass;
-    private final TestExecutionService testService;
     private final SelUtil selUtil;
 
     private WebDriver driver;
@@ -26,17 +24,14 @@ public class GoogleStepDefinitions {
      *
      * @param driverManager The DriverManager instance for managing WebDriver.
      * @param baseClass The BaseClass instance for logging and utility methods.
-     * @param testService The TestExecutionService instance for test execution.
      * @param selUtil The SelUtil instance for Selenium utility methods.
      */
     @Autowired
     public GoogleStepDefinitions(DriverManager driverManager,
                                         BaseClass baseClass,
-                                        TestExecutionService testService,
                                         SelUtil selUtil) {
         this.driverManager = driverManager;
         this.baseClass = baseClass;
-        this.testService = testService;
         this.selUtil = selUtil;
     }
 
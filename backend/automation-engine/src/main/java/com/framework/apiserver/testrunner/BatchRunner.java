@@ -0,0 +1,58 @@
+package com.framework.apiserver.testrunner;
+
+import io.cucumber.core.cli.Main;
+
+/**
+ * The BatchRunner class executes several tag runs one after the other in a single JVM.
+ *
+ * <p>Each run of a batch has its own run ID and reports, exactly as if {@link TestRunner}
+ * had executed it in a JVM of its own, but the JVM startup and the glue Spring context,
+ * which cucumber-spring reuses from the Spring test context cache, are paid once for the
+ * whole batch. Like a pool worker, a batch serves several runs, so the Extent adapter (one
+ * report per JVM) is not used.</p>
+ *
+ * <p>The runs are passed as arguments, a run ID followed by its tag expression for each run.
+ * A run that fails does not stop the batch; the exit code is the highest Cucumber exit
+ * status of its runs.</p>
+ */
+public class BatchRunner {
+
+	/**
+	 * The main method executes the runs of the batch in the order given.
+	 *
+	 * @param args The run ID and tag expression of each run.
+	 */
+	public static void main(String[] args) {
+		if (args.length == 0 || args.length % 2 != 0) {
+			System.err.println("Usage: BatchRunner <runId> <tag> [<runId> <tag> ...]");
+			System.exit(2);
+		}
+		int threads = Integer.getInteger(TestRunner.THREADS_PROPERTY, 1);
+
+		// Capture diagnostics and release browser sessions when the server terminates the batch
+		RunDiagnostics.registerShutdownHook();
+
+		byte exitStatus = 0;
+		for (int i = 0; i < args.length; i += 2) {
+			String runId = args[i];
+			String tag = args[i + 1];
+			long start = System.currentTimeMillis();
+			System.setProperty("run.id", runId);
+			RunDiagnostics.runStarted(runId);
+			byte status;
+			try {
+				status = Main.run(TestRunner.buildCucumberOptions(runId, TestRunner.FEATURES_PATH, tag, threads, false),
+						Thread.currentThread().getContextClassLoader());
+			} catch (Exception e) {
+				System.err.println("Run " + runId + " failed in batch runner: " + e.getMessage());
+				status = 1;
+			} finally {
+				RunDiagnostics.runFinished();
+			}
+			System.out.println("Batch run " + runId + " (" + tag + ") finished in "
+					+ (System.currentTimeMillis() - start) + " ms with status " + status);
+			exitStatus = (byte) Math.max(exitStatus, status);
+		}
+		System.exit(exitStatus);
+	}
+}
@@ -0,0 +1,53 @@
+package com.framework.apiserver.testrunner;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * The ClassDataSharing class lets runner JVMs start from an application class-data archive.
+ *
+ * <p>A CDS archive holds the classes a training run loaded (Spring, Cucumber, Selenium and
+ * the glue) already parsed and verified, so a runner maps them instead of loading them from
+ * the jars. The `cds` build profile trains the archive on the packaged application, see
+ * {@link RunnerTraining}. The archive is named by the `runner.cds.archive` system property.</p>
+ *
+ * <p>An archive is only valid for the classpath it was trained with, and the JVM cannot
+ * archive classes of a directory. Runners therefore only use it when the archive exists
+ * and their classpath consists of jars only, i.e. when the server runs from the packaged
+ * application rather than from {@code target/classes}. Should the jars have changed since
+ * the training run, the JVM ignores the archive and loads the classes as usual.</p>
+ */
+public final class ClassDataSharing {
+
+	/**
+	 * System property holding the path of the runner CDS archive.
+	 */
+	public static final String ARCHIVE_PROPERTY = "runner.cds.archive";
+
+	private ClassDataSharing() {
+	}
+
+	/**
+	 * Lists the JVM options starting a runner from the CDS archive.
+	 *
+	 * @param classpath The entries of the runner classpath.
+	 * @return The options, empty if no usable archive is configured.
+	 */
+	public static List<String> jvmOptions(List<String> classpath) {
+		String archive = System.getProperty(ARCHIVE_PROPERTY);
+		if (archive == null || archive.isBlank() || !new File(archive).isFile()) {
+			return List.of();
+		}
+		if (classpath.isEmpty() || !classpath.stream().allMatch(entry -> new File(entry).isFile())) {
+			return List.of();
+		}
+		return List.of("-XX:SharedArchiveFile=" + new File(archive).getAbsolutePath(), "-Xshare:auto");
+	}
+
+	/**
+	 * @return The JVM options starting a runner on the {@link RunnerClasspath} from the CDS archive.
+	 */
+	public static List<String> jvmOptions() {
+		return jvmOptions(RunnerClasspath.entries());
+	}
+}
@@ -0,0 +1,51 @@
+package com.framework.apiserver.testrunner;
+
+import com.framework.apiserver.utilities.CommandProfiler;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.HookTestStep;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestCaseStarted;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestRunStarted;
+import io.cucumber.plugin.event.TestStepStarted;
+
+/**
+ * The CommandProfilerPlugin tells the {@link CommandProfiler} which scenario and step every
+ * WebDriver command belongs to, and writes the command latency report of the run.
+ *
+ * <p>The plugin is attached by {@link TestRunner#buildCucumberOptions} when the
+ * `runner.command-profiler.enabled` system property is true. Scenario and step events are
+ * published on the thread running the scenario, the thread the profiled commands are sent
+ * from.</p>
+ */
+public class CommandProfilerPlugin implements ConcurrentEventListener {
+
+	private final String runId;
+
+	/**
+	 * Constructs a CommandProfilerPlugin for the run of the `run.id` system property.
+	 */
+	public CommandProfilerPlugin() {
+		this.runId = RunSettings.runId();
+	}
+
+	@Override
+	public void setEventPublisher(EventPublisher publisher) {
+		publisher.registerHandlerFor(TestRunStarted.class, event -> CommandProfiler.reset());
+		publisher.registerHandlerFor(TestCaseStarted.class,
+				event -> CommandProfiler.scenarioStarted(event.getTestCase().getName()));
+		publisher.registerHandlerFor(TestStepStarted.class, this::onTestStepStarted);
+		publisher.registerHandlerFor(TestCaseFinished.class, event -> CommandProfiler.scenarioFinished());
+		publisher.registerHandlerFor(TestRunFinished.class, event -> CommandProfiler.writeReport(runId));
+	}
+
+	private void onTestStepStarted(TestStepStarted event) {
+		if (event.getTestStep() instanceof PickleStepTestStep step) {
+			CommandProfiler.stepStarted(step.getStep().getKeyword() + step.getStep().getText());
+		} else if (event.getTestStep() instanceof HookTestStep hook) {
+			CommandProfiler.stepStarted(hook.getHookType() + " hook");
+		}
+	}
+}
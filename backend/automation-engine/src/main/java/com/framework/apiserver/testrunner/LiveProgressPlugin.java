@@ -0,0 +1,251 @@
+package com.framework.apiserver.testrunner;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.framework.apiserver.utilities.BrowserSessionPool;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.Result;
+import io.cucumber.plugin.event.TestCase;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestCaseStarted;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestRunStarted;
+import io.cucumber.plugin.event.TestStepFinished;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The LiveProgressPlugin class streams scenario and step results of a running test to the server.
+ *
+ * <p>The plugin is attached by {@link TestRunner#buildCucumberOptions} when the
+ * `runner.progress.port` system property is set, with that port as its argument. It
+ * connects to the server on the loopback interface when the run starts and writes one JSON
+ * object per line for every event:</p>
+ * <ul>
+ *   <li>TEST_CASE_STARTED: the scenario name, feature path and line.</li>
+ *   <li>STEP_FINISHED: the step text and its status.</li>
+ *   <li>TEST_CASE_FINISHED: the scenario status and, for failures, the error message.</li>
+ *   <li>SESSION_POOL: once the run finished, the browser session pool hits, misses and
+ *       recycled sessions of the run.</li>
+ * </ul>
+ *
+ * <p>Every message carries the `run.id` of the run. Scenario threads only enqueue messages to a
+ * bounded buffer that a sender thread writes to the socket, so a slow server never holds up the
+ * run: once the buffer is three quarters full, step and scenario start messages are dropped,
+ * keeping the remaining room for scenario results. When the run finishes the buffer is flushed
+ * for a few seconds at most. If the server cannot be reached the run continues without
+ * streaming.</p>
+ */
+public class LiveProgressPlugin implements ConcurrentEventListener {
+
+	/**
+	 * System property holding the loopback port the server listens on for progress events.
+	 */
+	public static final String PROGRESS_PORT_PROPERTY = "runner.progress.port";
+
+	public static final String TEST_CASE_STARTED = "TEST_CASE_STARTED";
+	public static final String STEP_FINISHED = "STEP_FINISHED";
+	public static final String TEST_CASE_FINISHED = "TEST_CASE_FINISHED";
+	public static final String SESSION_POOL = "SESSION_POOL";
+
+	// Feature URIs are reported relative to it, the form rerun files and run info use
+	private static final URI WORKING_DIRECTORY = Paths.get("").toAbsolutePath().toUri();
+
+	private static final int BUFFER_CAPACITY = 1024;
+
+	// Progress messages are dropped beyond it, keeping room for scenario results
+	private static final int PROGRESS_LIMIT = BUFFER_CAPACITY * 3 / 4;
+
+	private static final long FLUSH_TIMEOUT_SECONDS = 5;
+
+	// Marks the end of the run for the sender thread, compared by identity
+	private static final Map<String, Object> END_OF_RUN = new LinkedHashMap<>();
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	private final int port;
+
+	private final String runId;
+
+	private final BlockingQueue<Map<String, Object>> buffer = new ArrayBlockingQueue<>(BUFFER_CAPACITY);
+
+	private final AtomicLong dropped = new AtomicLong();
+
+	private Socket socket;
+
+	// Writes the buffered messages, null while not connected
+	private volatile Thread sender;
+
+	// Session pool counters of the JVM when the run started, pool workers serve many runs
+	private Map<String, Long> poolStatsAtStart = Map.of();
+
+	/**
+	 * Constructs a LiveProgressPlugin; Cucumber passes the text after the colon of the plugin option.
+	 *
+	 * @param port The loopback port of the server.
+	 */
+	public LiveProgressPlugin(String port) {
+		this.port = Integer.parseInt(port.trim());
+		this.runId = RunSettings.runId();
+	}
+
+	@Override
+	public void setEventPublisher(EventPublisher publisher) {
+		publisher.registerHandlerFor(TestRunStarted.class, event -> onTestRunStarted());
+		publisher.registerHandlerFor(TestCaseStarted.class, this::onTestCaseStarted);
+		publisher.registerHandlerFor(TestStepFinished.class, this::onTestStepFinished);
+		publisher.registerHandlerFor(TestCaseFinished.class, this::onTestCaseFinished);
+		publisher.registerHandlerFor(TestRunFinished.class, event -> onTestRunFinished());
+	}
+
+	private void onTestRunStarted() {
+		poolStatsAtStart = BrowserSessionPool.stats();
+		connect();
+	}
+
+	private void onTestRunFinished() {
+		if (BrowserSessionPool.isEnabled()) {
+			Map<String, Object> message = new LinkedHashMap<>();
+			message.put("event", SESSION_POOL);
+			message.put("runId", runId);
+			BrowserSessionPool.stats().forEach((name, value) ->
+					message.put(name, value - poolStatsAtStart.getOrDefault(name, 0L)));
+			send(message, false);
+		}
+		close();
+	}
+
+	private void onTestCaseStarted(TestCaseStarted event) {
+		send(scenarioMessage(TEST_CASE_STARTED, event.getTestCase()), true);
+	}
+
+	private void onTestStepFinished(TestStepFinished event) {
+		if (!(event.getTestStep() instanceof PickleStepTestStep step)) {
+			return;
+		}
+		Map<String, Object> message = scenarioMessage(STEP_FINISHED, event.getTestCase());
+		message.put("step", step.getStep().getKeyword() + step.getStep().getText());
+		message.put("status", event.getResult().getStatus().name());
+		send(message, true);
+	}
+
+	private void onTestCaseFinished(TestCaseFinished event) {
+		Result result = event.getResult();
+		Map<String, Object> message = scenarioMessage(TEST_CASE_FINISHED, event.getTestCase());
+		message.put("status", result.getStatus().name());
+		if (result.getError() != null) {
+			message.put("error", result.getError().getMessage());
+		}
+		message.put("durationMs", result.getDuration().toMillis());
+		send(message, false);
+	}
+
+	private Map<String, Object> scenarioMessage(String type, TestCase testCase) {
+		Map<String, Object> message = new LinkedHashMap<>();
+		message.put("event", type);
+		message.put("runId", runId);
+		message.put("scenario", testCase.getName());
+		message.put("uri", WORKING_DIRECTORY.relativize(testCase.getUri()).toString());
+		message.put("line", testCase.getLocation().getLine());
+		return message;
+	}
+
+	private synchronized void connect() {
+		OutputStream out;
+		try {
+			socket = new Socket(InetAddress.getLoopbackAddress(), port);
+			out = new BufferedOutputStream(socket.getOutputStream());
+		} catch (IOException e) {
+			System.err.println("Live progress disabled for run " + runId + ": " + e.getMessage());
+			closeSocket();
+			return;
+		}
+		sender = Thread.ofPlatform().daemon().name("live-progress-" + runId).start(() -> drain(out));
+	}
+
+	/**
+	 * Enqueues a message without blocking the scenario thread.
+	 *
+	 * @param message  The message.
+	 * @param progress Whether the message only reports progress and may be dropped first.
+	 */
+	private void send(Map<String, Object> message, boolean progress) {
+		if (sender == null) {
+			return;
+		}
+		if ((progress && buffer.size() >= PROGRESS_LIMIT) || !buffer.offer(message)) {
+			dropped.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Writes the buffered messages until the end of the run, flushing whenever the buffer is drained.
+	 */
+	private void drain(OutputStream out) {
+		try {
+			for (Map<String, Object> message = buffer.take(); message != END_OF_RUN; message = buffer.take()) {
+				out.write(mapper.writeValueAsBytes(message));
+				out.write('\n');
+				if (buffer.isEmpty()) {
+					out.flush();
+				}
+			}
+			out.flush();
+		} catch (IOException e) {
+			System.err.println("Live progress stopped for run " + runId + ": " + e.getMessage());
+			sender = null;
+			buffer.clear();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			closeSocket();
+		}
+	}
+
+	/**
+	 * Lets the sender flush the buffered messages, then closes the connection.
+	 */
+	private void close() {
+		Thread thread = sender;
+		if (thread == null) {
+			return;
+		}
+		try {
+			if (buffer.offer(END_OF_RUN, FLUSH_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+				thread.join(TimeUnit.SECONDS.toMillis(FLUSH_TIMEOUT_SECONDS));
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		sender = null;
+		// Unblocks a sender stuck writing to an unresponsive server
+		closeSocket();
+		if (dropped.get() > 0) {
+			System.err.println("Live progress for run " + runId + " dropped " + dropped.get() + " message(s)");
+		}
+	}
+
+	private synchronized void closeSocket() {
+		if (socket != null) {
+			try {
+				socket.close();
+			} catch (IOException ignored) {
+				// The server drops the connection anyway
+			}
+		}
+		socket = null;
+	}
+}
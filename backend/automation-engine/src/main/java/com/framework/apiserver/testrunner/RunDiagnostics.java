@@ -0,0 +1,168 @@
+package com.framework.apiserver.testrunner;
+
+import com.framework.apiserver.utilities.DriverManager;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The RunDiagnostics class captures what a run was doing when it had to be stopped.
+ *
+ * <p>Diagnostics are written to {@code reports/{runId}/diagnostics}: a thread dump of the
+ * JVM and, for a timed out scenario, a screenshot of its browser, so a hung page load or a
+ * stuck API call can be investigated after the watchdog failed the scenario or the server
+ * terminated the run.</p>
+ *
+ * <p>Runner entry points mark the run they execute as active. The shutdown hook they register
+ * only captures diagnostics while a run is still active, i.e. when the server terminates the
+ * runner because the run was cancelled or exceeded its deadline.</p>
+ */
+public final class RunDiagnostics {
+
+	private static volatile String activeRunId;
+
+	private static volatile long runStartedAt;
+
+	private static final AtomicBoolean firstScenarioStarted = new AtomicBoolean();
+
+	private RunDiagnostics() {
+	}
+
+	/**
+	 * Marks a run as executing in this JVM.
+	 *
+	 * @param runId The unique identifier of the test run.
+	 */
+	public static void runStarted(String runId) {
+		activeRunId = runId;
+		runStartedAt = System.nanoTime();
+		firstScenarioStarted.set(false);
+	}
+
+	/**
+	 * Logs, at the first scenario of a run, how long the runner took to get there and the
+	 * footprint of its JVM: the cost of starting the runner and its Spring context.
+	 */
+	public static void firstScenarioStarted() {
+		String runId = activeRunId;
+		if (runId == null || !firstScenarioStarted.compareAndSet(false, true)) {
+			return;
+		}
+		long heapUsed = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+		long resident = residentMemory();
+		System.out.println("RunDiagnostics: Run " + runId + " started its first scenario after "
+				+ (System.nanoTime() - runStartedAt) / 1_000_000 + " ms (JVM up "
+				+ ManagementFactory.getRuntimeMXBean().getUptime() + " ms), "
+				+ ManagementFactory.getClassLoadingMXBean().getLoadedClassCount() + " classes loaded, "
+				+ (heapUsed >> 20) + " MB heap used" + (resident > 0 ? ", " + (resident >> 20) + " MB resident" : ""));
+	}
+
+	/**
+	 * Reads the resident memory of this JVM from procfs.
+	 *
+	 * @return The resident set size in bytes, or 0 where procfs is not available.
+	 */
+	private static long residentMemory() {
+		try {
+			List<String> status = Files.readAllLines(Paths.get("/proc/self/status"));
+			for (String line : status) {
+				if (line.startsWith("VmRSS:")) {
+					return Long.parseLong(line.replaceAll("[^0-9]", "")) * 1024;
+				}
+			}
+		} catch (IOException | RuntimeException e) {
+			// Not Linux
+		}
+		return 0;
+	}
+
+	/**
+	 * Marks the run of this JVM as finished.
+	 */
+	public static void runFinished() {
+		activeRunId = null;
+	}
+
+	/**
+	 * Registers a shutdown hook that writes a thread dump of an unfinished run and then quits
+	 * every open browser, releasing the browser sessions of a terminated runner. No screenshot
+	 * is taken here, since a hung browser would keep the hook from quitting the others within
+	 * the server's grace period.
+	 */
+	public static void registerShutdownHook() {
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			String runId = activeRunId;
+			if (runId != null) {
+				System.err.println("Runner terminated during run " + runId + ", capturing diagnostics");
+				writeThreadDump(runId, "terminated");
+			}
+			DriverManager.quitAllDrivers();
+		}, "driver-cleanup"));
+	}
+
+	/**
+	 * Writes a thread dump of this JVM, including locked monitors and synchronizers.
+	 *
+	 * @param runId The unique identifier of the test run.
+	 * @param name  The name of the dump, without extension.
+	 * @return The written file, or null if it could not be written.
+	 */
+	public static Path writeThreadDump(String runId, String name) {
+		StringBuilder dump = new StringBuilder();
+		for (ThreadInfo thread : ManagementFactory.getThreadMXBean().dumpAllThreads(true, true)) {
+			dump.append(thread.getThreadName()).append(" (").append(thread.getThreadState()).append(")\n");
+			for (StackTraceElement frame : thread.getStackTrace()) {
+				dump.append("\tat ").append(frame).append('\n');
+			}
+			dump.append('\n');
+		}
+		try {
+			Path file = diagnosticsFolder(runId).resolve(sanitize(name) + "-threads.txt");
+			Files.writeString(file, dump, StandardCharsets.UTF_8);
+			return file;
+		} catch (IOException e) {
+			System.err.println("Could not write thread dump for run " + runId + ": " + e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Writes a screenshot of a browser, if it still responds.
+	 *
+	 * @param runId  The unique identifier of the test run.
+	 * @param name   The name of the screenshot, without extension.
+	 * @param driver The driver of the browser, may be null.
+	 * @return The written file, or null if no screenshot could be taken.
+	 */
+	public static Path writeScreenshot(String runId, String name, WebDriver driver) {
+		if (!(driver instanceof TakesScreenshot screenshotDriver)) {
+			return null;
+		}
+		try {
+			Path file = diagnosticsFolder(runId).resolve(sanitize(name) + ".png");
+			Files.write(file, screenshotDriver.getScreenshotAs(OutputType.BYTES));
+			return file;
+		} catch (Exception e) {
+			System.err.println("Could not capture screenshot for run " + runId + ": " + e.getMessage());
+			return null;
+		}
+	}
+
+	private static Path diagnosticsFolder(String runId) throws IOException {
+		return Files.createDirectories(Paths.get("reports", runId, "diagnostics"));
+	}
+
+	private static String sanitize(String name) {
+		return name.replaceAll("[^A-Za-z0-9._-]+", "_");
+	}
+}
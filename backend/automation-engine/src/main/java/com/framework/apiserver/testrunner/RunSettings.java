@@ -0,0 +1,77 @@
+package com.framework.apiserver.testrunner;
+
+import java.util.Map;
+
+/**
+ * The RunSettings class holds the settings of the run the glue code executes: its run ID,
+ * browser and network blocking profile.
+ *
+ * <p>Forked runners and pool workers receive them as system properties. In-process runs
+ * share the API server's JVM, where system properties are visible to the server too, so the
+ * {@code InProcessCucumberEngine} applies them here instead: each isolated runner class loader
+ * has its own copy of this class, and its settings take precedence over system properties.</p>
+ */
+public final class RunSettings {
+
+	/**
+	 * The setting holding the run ID.
+	 */
+	public static final String RUN_ID = "run.id";
+
+	/**
+	 * The setting holding the browser UI scenarios run on.
+	 */
+	public static final String BROWSER_NAME = "browserName";
+
+	// Settings of the in-process run in progress; empty in runner JVMs
+	private static volatile Map<String, String> settings = Map.of();
+
+	private RunSettings() {
+	}
+
+	/**
+	 * Reads a setting of the current run.
+	 *
+	 * @param key The setting, a system property name.
+	 * @return The value applied for the run, else the system property, else null.
+	 */
+	public static String get(String key) {
+		String value = settings.get(key);
+		return value != null ? value : System.getProperty(key);
+	}
+
+	/**
+	 * Reads a setting of the current run.
+	 *
+	 * @param key          The setting, a system property name.
+	 * @param defaultValue The value returned when the setting is not set.
+	 * @return The value applied for the run, else the system property, else the default.
+	 */
+	public static String get(String key, String defaultValue) {
+		String value = get(key);
+		return value != null ? value : defaultValue;
+	}
+
+	/**
+	 * @return The run ID of the current run, or null outside a run.
+	 */
+	public static String runId() {
+		return get(RUN_ID);
+	}
+
+	/**
+	 * Applies the settings of an in-process run, replacing those of the previous run.
+	 *
+	 * @param runSettings The settings, by system property name.
+	 */
+	public static void apply(Map<String, String> runSettings) {
+		settings = Map.copyOf(runSettings);
+	}
+
+	/**
+	 * Clears the settings of the finished in-process run.
+	 */
+	public static void clear() {
+		settings = Map.of();
+	}
+}
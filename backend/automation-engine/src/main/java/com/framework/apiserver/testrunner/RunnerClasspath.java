@@ -0,0 +1,64 @@
+package com.framework.apiserver.testrunner;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * The RunnerClasspath class builds the classpath of the JVMs and class loaders executing scenarios.
+ *
+ * <p>Runners start from the API server's classpath without the jars only the server uses,
+ * e.g. its developer tools, API documentation, security and actuator. Every jar on the
+ * classpath is opened and searched at startup, so a shorter classpath starts runners faster
+ * and keeps their footprint down.</p>
+ *
+ * <p>The jars left out are listed in the `runner.classpath.excluded-jars` system property, a
+ * comma-separated list of jar file name patterns in which {@code *} matches any characters.
+ * Without the property, runners get the full classpath.</p>
+ */
+public final class RunnerClasspath {
+
+	/**
+	 * System property holding the jar file name patterns left out of runner classpaths.
+	 */
+	public static final String EXCLUDED_JARS_PROPERTY = "runner.classpath.excluded-jars";
+
+	private RunnerClasspath() {
+	}
+
+	/**
+	 * @return The classpath of a runner JVM, in the {@code -cp} format.
+	 */
+	public static String get() {
+		return String.join(File.pathSeparator, entries());
+	}
+
+	/**
+	 * @return The absolute entries of the runner classpath, in the order of the server classpath.
+	 */
+	public static List<String> entries() {
+		List<Pattern> excluded = new ArrayList<>();
+		for (String pattern : System.getProperty(EXCLUDED_JARS_PROPERTY, "").split(",")) {
+			if (!pattern.isBlank()) {
+				excluded.add(glob(pattern.trim()));
+			}
+		}
+		List<String> entries = new ArrayList<>();
+		for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+			if (entry.isBlank()) {
+				continue;
+			}
+			String name = new File(entry).getName();
+			if (!name.endsWith(".jar") || excluded.stream().noneMatch(pattern -> pattern.matcher(name).matches())) {
+				entries.add(new File(entry).getAbsolutePath());
+			}
+		}
+		return entries;
+	}
+
+	private static Pattern glob(String pattern) {
+		return Pattern.compile(String.join(".*", Arrays.stream(pattern.split("\\*", -1)).map(Pattern::quote).toList()));
+	}
+}
@@ -0,0 +1,69 @@
+package com.framework.apiserver.testrunner;
+
+import com.framework.apiserver.hooks.CucumberSpringConfiguration;
+import io.cucumber.core.cli.Main;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.edge.EdgeOptions;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.springframework.test.context.TestContextManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * The RunnerTraining class is the training run of the runner CDS archive.
+ *
+ * <p>It loads what a runner loads before its first scenario, without starting a browser:
+ * the glue Spring context, the browser options and driver classes, and Cucumber with its
+ * report plugins, by a dry run of every feature. The Extent report is left out, as it
+ * would add a report folder per training run. Run with
+ * {@code -XX:ArchiveClassesAtExit=runner.jsa} and the runner classpath, the JVM writes the
+ * loaded classes to the archive on exit, see {@link ClassDataSharing}. The reports of the
+ * dry run are deleted.</p>
+ */
+public class RunnerTraining {
+
+	/**
+	 * The main method performs the training run.
+	 *
+	 * @param args Command-line arguments (not used in this implementation).
+	 * @throws IOException If the reports of the dry run cannot be deleted.
+	 */
+	public static void main(String[] args) throws IOException {
+		long start = System.currentTimeMillis();
+		new TestContextManager(CucumberSpringConfiguration.class).getTestContext().getApplicationContext();
+		new ChromeOptions();
+		new FirefoxOptions();
+		new EdgeOptions();
+		RemoteWebDriver.builder();
+
+		String runId = "cds-training-" + ProcessHandle.current().pid();
+		List<String> options = new ArrayList<>(List.of(TestRunner.buildCucumberOptions(runId,
+				TestRunner.FEATURES_PATH, null, 1, false)));
+		options.add("--dry-run");
+		byte status = Main.run(options.toArray(new String[0]), Thread.currentThread().getContextClassLoader());
+
+		deleteReports(Paths.get("reports", runId));
+		System.out.println("Runner training run finished in " + (System.currentTimeMillis() - start)
+				+ " ms (dry run status " + status + ")");
+		System.exit(0);
+	}
+
+	private static void deleteReports(Path folder) throws IOException {
+		if (!Files.exists(folder)) {
+			return;
+		}
+		try (Stream<Path> paths = Files.walk(folder)) {
+			for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+				Files.delete(path);
+			}
+		}
+	}
+}
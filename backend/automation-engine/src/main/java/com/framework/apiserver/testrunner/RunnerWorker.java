@@ -0,0 +1,236 @@
+package com.framework.apiserver.testrunner;
+
+import com.framework.apiserver.hooks.CucumberSpringConfiguration;
+import io.cucumber.core.cli.Main;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.chrome.ChromeDriverService;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.edge.EdgeDriverService;
+import org.openqa.selenium.edge.EdgeOptions;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.firefox.GeckoDriverService;
+import org.openqa.selenium.remote.service.DriverFinder;
+import org.openqa.selenium.remote.service.DriverService;
+import org.springframework.test.context.TestContextManager;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The RunnerWorker class is the entry point of a pre-started runner JVM.
+ *
+ * <p>Instead of executing a single run like {@link TestRunner}, a worker warms itself up
+ * once and then executes runs handed to it by the server over a local control channel:</p>
+ * <ul>
+ *   <li>Loads the Cucumber runtime and initializes the glue Spring context, which
+ *       cucumber-spring reuses from the Spring test context cache for every run.</li>
+ *   <li>Resolves the browser driver binaries listed in the `runner.warm.browsers` system
+ *       property, so the first scenario does not pay for Selenium Manager.</li>
+ *   <li>Connects to the server on the loopback port given by `runner.control.port`,
+ *       announces itself as READY and waits for RUN commands until told to EXIT.</li>
+ * </ul>
+ *
+ * <p>A worker serves several runs, so the Extent adapter (one report per JVM) is not used;
+ * every run still produces its Cucumber HTML and JSON reports.</p>
+ */
+public class RunnerWorker {
+
+	/**
+	 * System property holding the identifier the worker announces to the server.
+	 */
+	public static final String WORKER_ID_PROPERTY = "runner.worker.id";
+
+	/**
+	 * System property holding the loopback port of the server control channel.
+	 */
+	public static final String CONTROL_PORT_PROPERTY = "runner.control.port";
+
+	/**
+	 * System property holding a comma-separated list of browsers whose drivers are resolved at startup.
+	 */
+	public static final String WARM_BROWSERS_PROPERTY = "runner.warm.browsers";
+
+	/**
+	 * System property the server sets on the command line of every runner JVM it starts:
+	 * forked runners, batch runners and pool workers.
+	 */
+	public static final String RUNNER_JVM_PROPERTY = "runner.jvm";
+
+	// Decided once at startup, the server sets run settings of its own while it runs
+	private static final boolean RUNNER_JVM = Boolean.getBoolean(RUNNER_JVM_PROPERTY);
+
+	public static final String READY = "READY";
+	public static final String RUN = "RUN";
+	public static final String DONE = "DONE";
+	public static final String EXIT = "EXIT";
+
+	/**
+	 * Checks whether the current JVM runs glue code (a forked runner or a pool worker)
+	 * rather than the API server itself.
+	 *
+	 * @return True inside a runner JVM, false otherwise.
+	 */
+	public static boolean isRunnerJvm() {
+		return RUNNER_JVM;
+	}
+
+	/**
+	 * The main method warms the worker up and serves runs until the server closes the channel.
+	 *
+	 * @param args Command-line arguments (not used in this implementation).
+	 * @throws IOException If the control channel cannot be opened.
+	 */
+	public static void main(String[] args) throws IOException {
+		String workerId = System.getProperty(WORKER_ID_PROPERTY);
+		int port = Integer.parseInt(System.getProperty(CONTROL_PORT_PROPERTY));
+
+		warmUp();
+		// Release browser sessions when the server terminates the worker
+		RunDiagnostics.registerShutdownHook();
+
+		try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+			 DataInputStream in = new DataInputStream(socket.getInputStream());
+			 DataOutputStream out = new DataOutputStream(socket.getOutputStream())) {
+			out.writeUTF(READY);
+			out.writeUTF(workerId);
+			out.flush();
+			System.out.println("Runner worker " + workerId + " is ready");
+
+			while (true) {
+				String command;
+				try {
+					command = in.readUTF();
+				} catch (EOFException e) {
+					break;
+				}
+				if (!RUN.equals(command)) {
+					break;
+				}
+				String runId = in.readUTF();
+				String browserName = in.readUTF();
+				String features = in.readUTF();
+				String tag = in.readUTF();
+				int threads = in.readInt();
+				Map<String, String> runProperties = new LinkedHashMap<>();
+				int count = in.readInt();
+				for (int i = 0; i < count; i++) {
+					runProperties.put(in.readUTF(), in.readUTF());
+				}
+
+				byte status = run(runId, browserName, features, tag, threads, runProperties);
+
+				out.writeUTF(DONE);
+				out.writeInt(status);
+				out.writeLong(usedHeapMb());
+				out.flush();
+			}
+		}
+		System.out.println("Runner worker " + workerId + " is exiting");
+		System.exit(0);
+	}
+
+	/**
+	 * Executes a single run with the same options as {@link TestRunner}. The run properties
+	 * are set as system properties for the duration of the run only.
+	 */
+	private static byte run(String runId, String browserName, String features, String tag, int threads,
+							Map<String, String> runProperties) {
+		System.setProperty("run.id", runId);
+		System.setProperty("browserName", browserName);
+		runProperties.forEach(System::setProperty);
+		RunDiagnostics.runStarted(runId);
+		try {
+			return Main.run(TestRunner.buildCucumberOptions(runId, features, tag, threads, false),
+					Thread.currentThread().getContextClassLoader());
+		} catch (Exception e) {
+			System.err.println("Run " + runId + " failed in runner worker: " + e.getMessage());
+			return 1;
+		} finally {
+			RunDiagnostics.runFinished();
+			runProperties.keySet().forEach(System::clearProperty);
+		}
+	}
+
+	/**
+	 * Initializes the glue Spring context and resolves driver binaries ahead of the first run.
+	 */
+	private static void warmUp() {
+		long start = System.currentTimeMillis();
+		new TestContextManager(CucumberSpringConfiguration.class).getTestContext().getApplicationContext();
+
+		String browsers = System.getProperty(WARM_BROWSERS_PROPERTY, "");
+		if (System.getenv("GRID_URL") == null) {
+			for (String browser : browsers.split(",")) {
+				resolveDriver(browser.trim().toLowerCase());
+			}
+		}
+		System.out.println("Runner worker warmed up in " + (System.currentTimeMillis() - start) + " ms");
+	}
+
+	/**
+	 * Resolves a driver binary through Selenium Manager and pins it in the driver system property,
+	 * so every later driver service of this JVM skips the lookup.
+	 */
+	private static void resolveDriver(String browser) {
+		DriverService service;
+		Capabilities options;
+		String driverProperty;
+		switch (browser) {
+			case "chrome" -> {
+				service = ChromeDriverService.createDefaultService();
+				options = new ChromeOptions();
+				driverProperty = ChromeDriverService.CHROME_DRIVER_EXE_PROPERTY;
+			}
+			case "firefox" -> {
+				service = GeckoDriverService.createDefaultService();
+				options = new FirefoxOptions();
+				driverProperty = GeckoDriverService.GECKO_DRIVER_EXE_PROPERTY;
+			}
+			case "edge" -> {
+				service = EdgeDriverService.createDefaultService();
+				options = new EdgeOptions();
+				driverProperty = EdgeDriverService.EDGE_DRIVER_EXE_PROPERTY;
+			}
+			default -> {
+				return;
+			}
+		}
+		try {
+			String driverPath = new DriverFinder(service, options).getDriverPath();
+			System.setProperty(driverProperty, driverPath);
+		} catch (Exception e) {
+			System.err.println("Could not resolve the " + browser + " driver: " + e.getMessage());
+		} finally {
+			service.close();
+		}
+	}
+
+	/**
+	 * Reads the heap the worker retained after its last garbage collection, which is what the
+	 * next runs start from, without forcing a collection. Until the first collection it falls
+	 * back to the current usage, which still counts the garbage of the run.
+	 */
+	static long usedHeapMb() {
+		long retained = 0;
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			MemoryUsage afterCollection = pool.getType() == MemoryType.HEAP ? pool.getCollectionUsage() : null;
+			if (afterCollection != null) {
+				retained += afterCollection.getUsed();
+			}
+		}
+		if (retained == 0) {
+			retained = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+		}
+		return retained / (1024 * 1024);
+	}
+}
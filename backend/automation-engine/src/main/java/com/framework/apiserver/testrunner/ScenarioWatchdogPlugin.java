@@ -0,0 +1,146 @@
+package com.framework.apiserver.testrunner;
+
+import com.framework.apiserver.utilities.DriverManager;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.TestCase;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestCaseStarted;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The ScenarioWatchdogPlugin class fails scenarios that exceed their deadline.
+ *
+ * <p>The plugin is attached by {@link TestRunner#buildCucumberOptions} when the
+ * `runner.scenario.timeout.seconds` system property is positive, with that value as its
+ * argument. Every scenario gets a deadline when it starts; a scenario still running when its
+ * deadline passes is handled on a separate thread:</p>
+ * <ul>
+ *   <li>A thread dump and a screenshot of the scenario's browser are written to
+ *       {@code reports/{runId}/diagnostics}.</li>
+ *   <li>The scenario's browser is quit, so a step blocked on a page load or a wait fails
+ *       with the next browser command.</li>
+ *   <li>The scenario thread is interrupted, which fails steps blocked in sleeps and waits.</li>
+ * </ul>
+ *
+ * <p>A step blocked where neither helps (e.g. a socket read without timeout) keeps the
+ * scenario running; the run-level deadline enforced by the server then terminates the runner.</p>
+ */
+public class ScenarioWatchdogPlugin implements ConcurrentEventListener {
+
+	/**
+	 * System property holding the per-scenario deadline in seconds; 0 disables the watchdog.
+	 */
+	public static final String SCENARIO_TIMEOUT_PROPERTY = "runner.scenario.timeout.seconds";
+
+	// Shared by every run of the JVM, pool workers serve many runs
+	private static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "scenario-watchdog");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final long timeoutSeconds;
+
+	private final String runId;
+
+	// Deadlines of the running scenarios
+	private final Map<TestCase, Deadline> deadlines = new ConcurrentHashMap<>();
+
+	/**
+	 * Constructs a ScenarioWatchdogPlugin; Cucumber passes the text after the colon of the plugin option.
+	 *
+	 * @param timeoutSeconds The deadline of every scenario, in seconds.
+	 */
+	public ScenarioWatchdogPlugin(String timeoutSeconds) {
+		this.timeoutSeconds = Long.parseLong(timeoutSeconds.trim());
+		this.runId = RunSettings.runId();
+	}
+
+	@Override
+	public void setEventPublisher(EventPublisher publisher) {
+		publisher.registerHandlerFor(TestCaseStarted.class, this::onTestCaseStarted);
+		publisher.registerHandlerFor(TestCaseFinished.class, this::onTestCaseFinished);
+	}
+
+	/**
+	 * Starts the deadline of a scenario; the event is published on the thread running the scenario.
+	 */
+	private void onTestCaseStarted(TestCaseStarted event) {
+		TestCase testCase = event.getTestCase();
+		Deadline deadline = new Deadline(Thread.currentThread());
+		deadlines.put(testCase, deadline);
+		deadline.future = scheduler.schedule(() -> {
+			Thread handler = new Thread(() -> onTimeout(testCase, deadline), "scenario-timeout");
+			handler.setDaemon(true);
+			handler.start();
+		}, timeoutSeconds, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Ends the deadline of a scenario; published on the thread running the scenario.
+	 */
+	private void onTestCaseFinished(TestCaseFinished event) {
+		Deadline deadline = deadlines.remove(event.getTestCase());
+		if (deadline == null) {
+			return;
+		}
+		synchronized (deadline) {
+			deadline.finished = true;
+			if (deadline.future != null) {
+				deadline.future.cancel(false);
+			}
+			if (deadline.interrupted) {
+				// Clear an interrupt nothing consumed, so it does not fail the next scenario on this thread
+				Thread.interrupted();
+			}
+		}
+	}
+
+	private void onTimeout(TestCase testCase, Deadline deadline) {
+		// Claimed first, a scenario finishing meanwhile is neither reported nor interrupted
+		synchronized (deadline) {
+			if (deadline.finished || deadline.claimed) {
+				return;
+			}
+			deadline.claimed = true;
+		}
+		Thread scenarioThread = deadline.scenarioThread;
+		String name = "timeout-" + testCase.getName() + "-line" + testCase.getLocation().getLine();
+		System.err.println("Scenario '" + testCase.getName() + "' of run " + runId + " exceeded its deadline of "
+				+ timeoutSeconds + "s on thread " + scenarioThread.getName() + ", failing it");
+		RunDiagnostics.writeThreadDump(runId, name);
+		RunDiagnostics.writeScreenshot(runId, name, DriverManager.getDriverOf(scenarioThread));
+		synchronized (deadline) {
+			// Finished while the diagnostics were written, its thread may run the next scenario already
+			if (deadline.finished) {
+				return;
+			}
+			DriverManager.quitDriverOf(scenarioThread);
+			scenarioThread.interrupt();
+			deadline.interrupted = true;
+		}
+	}
+
+	/**
+	 * The deadline of a running scenario, guarded by itself once it passed.
+	 */
+	private static final class Deadline {
+
+		private final Thread scenarioThread;
+		private volatile ScheduledFuture<?> future;
+		private boolean finished;
+		private boolean claimed;
+		private boolean interrupted;
+
+		private Deadline(Thread scenarioThread) {
+			this.scenarioThread = scenarioThread;
+		}
+	}
+}
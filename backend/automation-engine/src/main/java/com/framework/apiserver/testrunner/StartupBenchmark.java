@@ -0,0 +1,86 @@
+package com.framework.apiserver.testrunner;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The StartupBenchmark class measures how much the runner CDS archive shortens runner startup.
+ *
+ * <p>It starts the {@link RunnerTraining} workload, which loads what a runner loads before
+ * its first scenario, alternately with and without the archive, and reports the median wall
+ * time of each. One untimed start of each comes first, so both read the jars from the page
+ * cache.</p>
+ *
+ * <p>Arguments: the archive, then the number of timed starts of each variant (default 5).</p>
+ */
+public class StartupBenchmark {
+
+	/**
+	 * The main method runs the benchmark.
+	 *
+	 * @param args The archive, and optionally the number of timed starts of each variant.
+	 * @throws IOException          If a JVM cannot be started.
+	 * @throws InterruptedException If the benchmark is interrupted.
+	 */
+	public static void main(String[] args) throws IOException, InterruptedException {
+		if (args.length == 0 || !new File(args[0]).isFile()) {
+			System.err.println("Usage: StartupBenchmark <archive> [runs]; the archive does not exist");
+			System.exit(1);
+		}
+		List<String> archiveOptions = List.of("-XX:SharedArchiveFile=" + new File(args[0]).getAbsolutePath(),
+				"-Xshare:auto");
+		int runs = args.length > 1 ? Math.max(1, Integer.parseInt(args[1])) : 5;
+
+		start(List.of());
+		start(archiveOptions);
+		long[] without = new long[runs];
+		long[] with = new long[runs];
+		for (int i = 0; i < runs; i++) {
+			without[i] = start(List.of());
+			with[i] = start(archiveOptions);
+		}
+
+		long baseline = median(without);
+		long archived = median(with);
+		System.out.println("Runner startup without CDS archive: " + Arrays.toString(without) + " ms, median " + baseline + " ms");
+		System.out.println("Runner startup with CDS archive:    " + Arrays.toString(with) + " ms, median " + archived + " ms");
+		System.out.printf("CDS archive saves %d ms (%.1f%%) per runner start%n", baseline - archived,
+				baseline > 0 ? (baseline - archived) * 100.0 / baseline : 0);
+	}
+
+	/**
+	 * Starts the training workload in a new JVM and waits for it.
+	 *
+	 * @return The wall time in milliseconds.
+	 */
+	private static long start(List<String> jvmOptions) throws IOException, InterruptedException {
+		List<String> command = new ArrayList<>();
+		command.add("java");
+		command.add("-D" + RunnerWorker.RUNNER_JVM_PROPERTY + "=true");
+		command.addAll(jvmOptions);
+		command.add("-cp");
+		command.add(RunnerClasspath.get());
+		command.add(RunnerTraining.class.getName());
+		long start = System.nanoTime();
+		Process process = new ProcessBuilder(command)
+				.redirectOutput(ProcessBuilder.Redirect.DISCARD)
+				.redirectError(ProcessBuilder.Redirect.INHERIT)
+				.start();
+		int exitCode = process.waitFor();
+		long millis = (System.nanoTime() - start) / 1_000_000;
+		if (exitCode != 0) {
+			throw new IllegalStateException("Runner training run exited with " + exitCode);
+		}
+		return millis;
+	}
+
+	private static long median(long[] values) {
+		long[] sorted = values.clone();
+		Arrays.sort(sorted);
+		int middle = sorted.length / 2;
+		return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+	}
+}
@@ -1,8 +1,6 @@
 package com.framework.apiserver.testrunner;
 
 import io.cucumber.core.cli.Main;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * The TestRunner class is responsible for executing Cucumber tests.
@@ -32,26 +30,19 @@ public class TestFailedRunner {
                 String runId = System.getProperty("run.id");
                 String featurePath = System.getProperty("cucumber.feature.path");
 
-                // Initialize Cucumber options
-                List<String> cucumberOptions = new ArrayList<>(List.of(
-                        "@" + featurePath, // Path to feature files
-                        "--glue", "com.framework.apiserver.stepDefinitions", // Step definitions package
-                        "--glue", "com.framework.apiserver.hooks", // Hooks package
-                        "--plugin", "pretty", // Pretty console output
-                        "--plugin", "html:reports/" + runId + "/cucumber-reports.html", // HTML report
-                        "--plugin", "json:reports/" + runId + "/cucumber-reports.json", // JSON report
-                        "--plugin", "com.aventstack.extentreports.cucumber.adapter.ExtentCucumberAdapter:", // Extent report
-                        "--monochrome" // Disable colored output for better readability
-                ));
-
                 // Optionally add tag filtering if specified
                 String tag = System.getProperty("cucumber.filter.tags");
-                if (tag != null && !tag.isEmpty()) {
-                        cucumberOptions.add("--tags");
-                        cucumberOptions.add(tag);
-                }
+
+                // Optionally run scenarios in parallel
+                int threads = Integer.getInteger(TestRunner.THREADS_PROPERTY, 1);
+
+                // Capture diagnostics and release browser sessions when the server terminates the runner
+                RunDiagnostics.registerShutdownHook();
 
                 // Run Cucumber with the specified options
-                Main.run(cucumberOptions.toArray(new String[0]), Thread.currentThread().getContextClassLoader());
+                RunDiagnostics.runStarted(runId);
+                Main.run(TestRunner.buildCucumberOptions(runId, "@" + featurePath, tag, threads, true),
+                        Thread.currentThread().getContextClassLoader());
+                RunDiagnostics.runFinished();
         }
-}
\ No newline at end of file
+}
@@ -1,5 +1,11 @@
 package com.framework.apiserver.testrunner;
 
+import com.framework.apiserver.utilities.BrowserSessionPool;
+import com.framework.apiserver.utilities.CommandProfiler;
+import com.framework.apiserver.utilities.PageMetrics;
+import com.framework.apiserver.utilities.PageObjects;
+import com.framework.apiserver.utilities.SessionSnapshots;
+import com.framework.apiserver.utilities.SharedBrowserContexts;
 import io.cucumber.core.cli.Main;
 import java.util.ArrayList;
 import java.util.List;
@@ -13,6 +19,16 @@ import java.util.List;
  */
 public class TestRunner {
 
+	/**
+	 * The location of the feature files, relative to the working directory.
+	 */
+	public static final String FEATURES_PATH = "src/test/resources/features";
+
+	/**
+	 * System property holding the number of scenarios executed in parallel.
+	 */
+	public static final String THREADS_PROPERTY = "runner.threads";
+
 	/**
 	 * The main method serves as the entry point for running Cucumber tests.
 	 *
@@ -22,6 +38,8 @@ public class TestRunner {
 	 *   <li>Constructs a list of Cucumber options, including feature file paths, glue code,
 	 *       and reporting plugins.</li>
 	 *   <li>Optionally adds a tag filter if the `cucumber.filter.tags` system property is set.</li>
+	 *   <li>Optionally runs scenarios in parallel if the `runner.threads` system property is set.</li>
+	 *   <li>Registers a shutdown hook that captures diagnostics and quits the open browsers when the run is terminated.</li>
 	 *   <li>Invokes the Cucumber `Main.run` method to execute the tests with the specified options.</li>
 	 * </ul>
 	 *
@@ -31,26 +49,100 @@ public class TestRunner {
 		// Retrieve the run ID from system properties
 		String runId = System.getProperty("run.id");
 
+		// Optionally add tag filtering if specified
+		String tag = System.getProperty("cucumber.filter.tags");
+
+		// Optionally run scenarios in parallel
+		int threads = Integer.getInteger(THREADS_PROPERTY, 1);
+
+		// Capture diagnostics and release browser sessions when the server terminates the runner
+		RunDiagnostics.registerShutdownHook();
+
+		// Run Cucumber with the specified options
+		RunDiagnostics.runStarted(runId);
+		Main.run(buildCucumberOptions(runId, FEATURES_PATH, tag, threads, true),
+				Thread.currentThread().getContextClassLoader());
+		RunDiagnostics.runFinished();
+	}
+
+	/**
+	 * Builds the Cucumber command-line options shared by every runner entry point.
+	 *
+	 * <p>Reports are written to {@code reports/{runId}}. The Extent adapter keeps a single
+	 * report per JVM, so it is only enabled when the JVM serves exactly one run. When the
+	 * `runner.progress.port` system property is set, scenario results are also streamed to
+	 * the server by the {@link LiveProgressPlugin}; when `runner.scenario.timeout.seconds` is
+	 * positive, the {@link ScenarioWatchdogPlugin} fails scenarios exceeding that deadline; when
+	 * `runner.command-profiler.enabled` is true, the {@link CommandProfilerPlugin} attributes
+	 * WebDriver command latencies to scenarios and steps.</p>
+	 *
+	 * @param runId        The unique identifier of the test run.
+	 * @param features     The feature path, or {@code @file} pointing to a rerun file.
+	 * @param tag          The tag expression used to filter scenarios, may be null.
+	 * @param threads      The number of scenarios executed in parallel.
+	 * @param extentReport Whether to attach the Extent report plugin.
+	 * @return The Cucumber options.
+	 */
+	public static String[] buildCucumberOptions(String runId, String features, String tag, int threads,
+												boolean extentReport) {
 		// Initialize Cucumber options
 		List<String> cucumberOptions = new ArrayList<>(List.of(
-				"src/test/resources/features", // Path to feature files
+				features, // Path to feature files
 				"--glue", "com.framework.apiserver.stepDefinitions", // Step definitions package
 				"--glue", "com.framework.apiserver.hooks", // Hooks package
 				"--plugin", "pretty", // Pretty console output
 				"--plugin", "html:reports/" + runId + "/cucumber-reports.html", // HTML report
 				"--plugin", "json:reports/" + runId + "/cucumber-reports.json", // JSON report
-				"--plugin", "com.aventstack.extentreports.cucumber.adapter.ExtentCucumberAdapter:", // Extent report
 				"--monochrome" // Disable colored output for better readability
 		));
+		if (extentReport) {
+			cucumberOptions.add("--plugin");
+			cucumberOptions.add("com.aventstack.extentreports.cucumber.adapter.ExtentCucumberAdapter:"); // Extent report
+		}
+		String progressPort = System.getProperty(LiveProgressPlugin.PROGRESS_PORT_PROPERTY);
+		if (progressPort != null && !progressPort.isBlank()) {
+			cucumberOptions.add("--plugin");
+			cucumberOptions.add(LiveProgressPlugin.class.getName() + ":" + progressPort); // Live progress
+		}
+		long scenarioTimeout = Long.getLong(ScenarioWatchdogPlugin.SCENARIO_TIMEOUT_PROPERTY, 0);
+		if (scenarioTimeout > 0) {
+			cucumberOptions.add("--plugin");
+			cucumberOptions.add(ScenarioWatchdogPlugin.class.getName() + ":" + scenarioTimeout); // Scenario deadline
+		}
+		if (CommandProfiler.isEnabled()) {
+			cucumberOptions.add("--plugin");
+			cucumberOptions.add(CommandProfilerPlugin.class.getName()); // WebDriver command latency
+		}
 
-		// Optionally add tag filtering if specified
-		String tag = System.getProperty("cucumber.filter.tags");
 		if (tag != null && !tag.isEmpty()) {
 			cucumberOptions.add("--tags");
 			cucumberOptions.add(tag);
 		}
+		if (threads > 1) {
+			cucumberOptions.add("--threads");
+			cucumberOptions.add(String.valueOf(threads));
+		}
+		return cucumberOptions.toArray(new String[0]);
+	}
 
-		// Run Cucumber with the specified options
-		Main.run(cucumberOptions.toArray(new String[0]), Thread.currentThread().getContextClassLoader());
+	/**
+	 * Lists the runner system properties set in this JVM as JVM options, so a forked runner
+	 * or pool worker inherits the server's progress channel, scenario deadline, browser
+	 * session pool and shared browser context settings.
+	 *
+	 * @return The {@code -Dkey=value} options.
+	 */
+	public static List<String> forwardedSystemProperties() {
+		List<String> options = new ArrayList<>();
+		for (String key : List.of(LiveProgressPlugin.PROGRESS_PORT_PROPERTY, ScenarioWatchdogPlugin.SCENARIO_TIMEOUT_PROPERTY,
+				BrowserSessionPool.MAX_USES_PROPERTY, SharedBrowserContexts.MAX_CONTEXTS_PROPERTY,
+				PageObjects.ELEMENT_CACHE_PROPERTY, CommandProfiler.ENABLED_PROPERTY, PageMetrics.ENABLED_PROPERTY,
+				SessionSnapshots.TTL_PROPERTY)) {
+			String value = System.getProperty(key);
+			if (value != null) {
+				options.add("-D" + key + "=" + value);
+			}
+		}
+		return options;
 	}
-}
\ No newline at end of file
+}
@@ -1,25 +1,55 @@
 package com.framework.apiserver.utilities;
 
+import com.framework.apiserver.config.JobKind;
+import com.framework.apiserver.config.JobPriority;
 import com.framework.apiserver.config.JobStatus;
+import com.framework.apiserver.dto.JobRequest;
 import com.framework.apiserver.dto.TestExecutionResponse;
+import com.framework.apiserver.entity.JobTracking;
+import com.framework.apiserver.entity.QueuedJob;
+import com.framework.apiserver.execution.GridAdmission;
+import com.framework.apiserver.execution.JobScheduler;
+import com.framework.apiserver.service.BrowserContextManager;
+import com.framework.apiserver.service.JobQueueService;
 import com.framework.apiserver.service.JobTrackingService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Utility class for managing asynchronous jobs.
  * Provides methods to create, track, update, and manage the lifecycle of asynchronous jobs.
+ * Jobs are executed through the {@link JobScheduler}, which bounds concurrency and queues
+ * the remaining jobs by priority.
+ *
+ * <p>Jobs submitted with a {@link JobRequest} are executed by the handler registered for
+ * their {@link JobKind}. When the durable queue is enabled such jobs are stored in the
+ * database by the {@link JobQueueService} instead and run by whichever instance claims
+ * them; status and results are then written through to the queue, so every instance can
+ * report on every job.</p>
+ *
+ * <p>Before a job runs on its slot, the {@link GridAdmission} checks that the Selenium Grid
+ * has free slots for its browser; otherwise the job gives its slot back and is queued again
+ * until it does. While it runs, the browser of its request is bound to the job's thread by
+ * the {@link BrowserContextManager}.</p>
  */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class AsyncJobManager {
 
+    // Statuses a job does not leave any more
+    private static final Set<JobStatus> FINISHED_STATUSES = EnumSet.of(JobStatus.COMPLETED, JobStatus.FAILED,
+            JobStatus.CANCELLED, JobStatus.TIMED_OUT);
+
     // Map to store the status of jobs by their IDs
     private final Map<String, JobStatus> jobStatusMap = new ConcurrentHashMap<>();
     // Map to store the threads associated with jobs by their IDs
@@ -29,6 +59,17 @@ public class AsyncJobManager {
 
     private final JobTrackingService jobTrackingService;
 
+    private final JobScheduler jobScheduler;
+
+    private final JobQueueService jobQueueService;
+
+    private final GridAdmission gridAdmission;
+
+    private final BrowserContextManager browserContextManager;
+
+    // Handlers executing queued job requests, by kind
+    private final Map<JobKind, JobHandler> handlers = new EnumMap<>(JobKind.class);
+
     /**
      * Creates a new job with a unique ID and sets its status to PENDING.
      *
@@ -54,6 +95,188 @@ public class AsyncJobManager {
         return jobId;
     }
 
+    /**
+     * Creates a new scheduled job with tracking information after checking that the
+     * scheduler can still admit it.
+     *
+     * @param runId     The run ID associated with the job.
+     * @param tag       The tag associated with the job.
+     * @param createdBy The user who created the job.
+     * @param priority  The scheduling priority of the job.
+     * @return The unique ID of the created job.
+     * @throws RejectedExecutionException if every slot is busy and the queue is full.
+     */
+    public String createJobWithTracking(String runId, String tag, String createdBy, JobPriority priority) {
+        if (jobQueueService.isEnabled()) {
+            jobQueueService.ensureCapacity();
+        } else {
+            jobScheduler.ensureCapacity();
+        }
+        String jobId = jobTrackingService.startAsyncJob(runId, tag, createdBy, priority);
+        jobStatusMap.put(jobId, JobStatus.PENDING);
+        return jobId;
+    }
+
+    /**
+     * Resolves the scheduling priority for a run.
+     *
+     * @param tag       The tag expression of the run, may be null.
+     * @param requested The priority requested by the caller, may be null.
+     * @return The effective priority.
+     */
+    public JobPriority resolvePriority(String tag, JobPriority requested) {
+        return jobScheduler.resolvePriority(tag, requested);
+    }
+
+    /**
+     * Marks a job as QUEUED and hands it to the scheduler. The task runs on a scheduler
+     * slot as soon as one is free; its thread is registered so the job can be cancelled.
+     *
+     * @param jobId    The ID of the job.
+     * @param priority The scheduling priority of the job.
+     * @param task     The work to execute.
+     * @throws RejectedExecutionException if every slot is busy and the queue is full.
+     */
+    public void submitJob(String jobId, JobPriority priority, Runnable task) {
+        updateJobStatus(jobId, JobStatus.QUEUED);
+        try {
+            jobScheduler.submit(jobId, priority, onSlot(jobId, task));
+        } catch (RejectedExecutionException e) {
+            failJob(jobId, "Rejected by scheduler: " + e.getMessage());
+            throw e;
+        }
+    }
+
+    private Runnable onSlot(String jobId, Runnable task) {
+        return () -> {
+            registerJobThread(jobId, Thread.currentThread());
+            try {
+                task.run();
+            } finally {
+                jobThreadMap.remove(jobId);
+                // Clear a pending cancellation interrupt so it does not leak into the next job on this slot
+                Thread.interrupted();
+            }
+        };
+    }
+
+    /**
+     * Registers the handler executing the job requests of a kind.
+     *
+     * @param kind    The kind of job.
+     * @param handler The handler executing the jobs.
+     */
+    public void registerHandler(JobKind kind, JobHandler handler) {
+        handlers.put(kind, handler);
+    }
+
+    /**
+     * Queues a job described by a request. The job is handed to the local scheduler, or
+     * stored in the durable queue for any instance to claim when it is enabled.
+     *
+     * @param jobId    The ID of the job.
+     * @param priority The scheduling priority of the job.
+     * @param request  The work of the job.
+     * @throws RejectedExecutionException if every slot is busy and the queue is full.
+     */
+    public void enqueueJob(String jobId, JobPriority priority, JobRequest request) {
+        if (!jobQueueService.isEnabled()) {
+            submitJob(jobId, priority, () -> execute(jobId, priority, request));
+            return;
+        }
+        // Marked first, another instance may claim the job as soon as it is stored
+        updateJobStatus(jobId, JobStatus.QUEUED);
+        try {
+            jobQueueService.enqueue(jobId, priority, request);
+        } catch (RuntimeException e) {
+            failJob(jobId, "Could not queue job: " + e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Runs a job this instance claimed from the durable queue on a local scheduler slot.
+     *
+     * @param job The claimed job.
+     */
+    public void runClaimedJob(QueuedJob job) {
+        String jobId = job.getJobId();
+        JobRequest request;
+        try {
+            request = jobQueueService.readRequest(job);
+        } catch (IllegalStateException e) {
+            failJob(jobId, e.getMessage());
+            return;
+        }
+        submitJob(jobId, job.getPriority(), () -> execute(jobId, job.getPriority(), request));
+    }
+
+    private void execute(String jobId, JobPriority priority, JobRequest request) {
+        JobHandler handler = handlers.get(request.getKind());
+        if (handler == null) {
+            failJob(jobId, "No handler for jobs of kind " + request.getKind());
+            return;
+        }
+        if (isCancelled(jobId)) {
+            // Cancelled while it waited for Grid capacity
+            gridAdmission.withdraw(jobId);
+            return;
+        }
+        // The job stays QUEUED until the Grid has browsers for it, so no runner waits in the Grid's session queue
+        GridAdmission.Admission admission = gridAdmission.tryAdmit(jobId, request.getOptions());
+        if (admission == null) {
+            // Gives the slot back meanwhile, so jobs of browsers with free Grid slots are not held up
+            try {
+                jobScheduler.requeue(jobId, priority, gridAdmission.getCheckInterval(),
+                        onSlot(jobId, () -> execute(jobId, priority, request)));
+            } catch (RejectedExecutionException e) {
+                gridAdmission.withdraw(jobId);
+                failJob(jobId, "Could not queue job again: " + e.getMessage());
+            }
+            return;
+        }
+        String browserType = request.getOptions() == null ? null : request.getOptions().getBrowserType();
+        try (admission; BrowserContextManager.Scope scope = browserContextManager.open(browserType)) {
+            handler.execute(jobId, request);
+        }
+    }
+
+    /**
+     * Returns the 1-based position of a job in the scheduler queue.
+     *
+     * @param jobId The ID of the job.
+     * @return The queue position, or 0 if the job is not waiting.
+     */
+    public int getQueuePosition(String jobId) {
+        int position = jobScheduler.getQueuePosition(jobId);
+        if (position == 0 && jobQueueService.isEnabled()) {
+            return jobQueueService.getQueuePosition(jobId);
+        }
+        return position;
+    }
+
+    /**
+     * Returns how long a queued job is expected to wait for Selenium Grid capacity.
+     *
+     * @param jobId The ID of the job.
+     * @return The expected wait in seconds, or null if unknown or the job is not waiting for the Grid.
+     */
+    public Long getEstimatedWaitSeconds(String jobId) {
+        return jobTrackingService.getJobById(jobId)
+                .map(JobTracking::getEstimatedWaitSeconds)
+                .orElse(null);
+    }
+
+    /**
+     * @return The number of jobs waiting for a free execution slot.
+     */
+    public int getQueueDepth() {
+        if (jobQueueService.isEnabled()) {
+            return jobQueueService.getQueueDepth();
+        }
+        return jobScheduler.getQueueDepth();
+    }
+
     /**
      * Registers a thread for a specific job ID.
      *
@@ -66,14 +289,21 @@ public class AsyncJobManager {
     }
 
     /**
-     * Updates the status of a job to RUNNING and notifies the job tracking service.
+     * Updates the status of a job to RUNNING and notifies the job tracking service, unless the
+     * job finished or was stopped already, e.g. by a cancellation that arrived after the job
+     * left the queue but before its thread was registered.
      *
      * @param jobId The ID of the job.
+     * @return True if the job is RUNNING now, false if its run must be skipped.
      */
-    public void setJobRunning(String jobId) {
-        jobStatusMap.put(jobId, JobStatus.RUNNING);
+    public boolean setJobRunning(String jobId) {
+        if (!moveUnlessFinished(jobId, JobStatus.RUNNING)) {
+            log.info("Job {} was {} before it started, skipping its run", jobId, jobStatusMap.get(jobId));
+            return false;
+        }
         jobTrackingService.updateJobStatus(jobId, JobStatus.RUNNING);
         log.info("Job {} is now RUNNING", jobId);
+        return true;
     }
 
     /**
@@ -85,56 +315,83 @@ public class AsyncJobManager {
     public void updateJobStatus(String jobId, JobStatus status) {
         jobStatusMap.put(jobId, status);
         jobTrackingService.updateJobStatus(jobId, status);
+        recordInQueue(jobId, status, null);
         log.info("Job {} status updated to {}", jobId, status);
     }
 
     /**
      * Marks a job as COMPLETED, stores its result, and removes its thread.
+     * A cancelled or timed out job keeps its status; the result holds what ran before it was stopped.
+     * A job that finished already keeps its status too, so it is completed exactly once.
      *
      * @param jobId    The ID of the job.
      * @param response The result of the completed job.
      */
     public void completeJob(String jobId, TestExecutionResponse response) {
-        jobStatusMap.put(jobId, JobStatus.COMPLETED);
         jobResultMap.put(jobId, response);
         jobThreadMap.remove(jobId);
+        if (jobQueueService.isEnabled()) {
+            try {
+                jobQueueService.storeResult(jobId, response);
+            } catch (RuntimeException e) {
+                log.warn("Could not record the result of job {} in the queue: {}", jobId, e.getMessage());
+            }
+        }
+        if (!moveUnlessFinished(jobId, JobStatus.COMPLETED)) {
+            log.info("Job {} was {} already, keeping its status", jobId, jobStatusMap.get(jobId));
+            return;
+        }
         jobTrackingService.completeJob(jobId, JobStatus.COMPLETED);
+        recordInQueue(jobId, JobStatus.COMPLETED, null);
         log.info("Job {} COMPLETED successfully", jobId);
     }
 
     /**
-     * Marks a job as FAILED and removes its thread.
+     * Marks a job as FAILED and removes its thread, unless the job finished or was stopped already.
      *
      * @param jobId The ID of the job.
      */
     public void failJob(String jobId) {
-        jobStatusMap.put(jobId, JobStatus.FAILED);
         jobThreadMap.remove(jobId);
+        if (!moveUnlessFinished(jobId, JobStatus.FAILED)) {
+            return;
+        }
         jobTrackingService.failJob(jobId, JobStatus.FAILED, null);
+        recordInQueue(jobId, JobStatus.FAILED, null);
     }
 
     /**
-     * Marks a job as FAILED with an error message and removes its thread.
+     * Marks a job as FAILED with an error message and removes its thread, unless the job finished or was stopped already.
      *
      * @param jobId       The ID of the job.
      * @param errorMessage The error message associated with the failure.
      */
     public void failJob(String jobId, String errorMessage) {
-        jobStatusMap.put(jobId, JobStatus.FAILED);
         jobThreadMap.remove(jobId);
+        if (!moveUnlessFinished(jobId, JobStatus.FAILED)) {
+            return;
+        }
 
         // Update job tracking with error message
         jobTrackingService.failJob(jobId, JobStatus.FAILED, errorMessage);
+        recordInQueue(jobId, JobStatus.FAILED, errorMessage);
         log.error("Job {} failed: {}", jobId, errorMessage);
     }
 
     /**
-     * Retrieves the status of a job by its ID.
+     * Retrieves the status of a job by its ID. With the durable queue enabled the shared
+     * status is returned, whichever instance accepted or runs the job.
      *
      * @param jobId The ID of the job.
      * @return The status of the job, or null if the job does not exist.
      */
     public JobStatus getStatus(String jobId) {
+        if (jobQueueService.isEnabled()) {
+            JobStatus shared = jobQueueService.find(jobId).map(QueuedJob::getStatus).orElse(null);
+            if (shared != null) {
+                return shared;
+            }
+        }
         return jobStatusMap.getOrDefault(jobId, null);
     }
 
@@ -145,46 +402,170 @@ public class AsyncJobManager {
      * @return The result of the job, or null if the job does not exist or is not completed.
      */
     public TestExecutionResponse getResult(String jobId) {
-        return jobResultMap.get(jobId);
+        TestExecutionResponse result = jobResultMap.get(jobId);
+        if (result == null && jobQueueService.isEnabled()) {
+            return jobQueueService.findResult(jobId).orElse(null);
+        }
+        return result;
     }
 
     /**
      * Cancels a job by interrupting its thread and updating its status.
      *
+     * <p>The interrupt makes the launcher terminate the runner process tree (or stop the
+     * in-process run) and quit its browsers; the job thread then records the partial results
+     * of the run and frees its scheduler slot. A job of the durable queue that this instance
+     * does not run is cancelled in the queue, or by the instance running it.</p>
+     *
      * @param jobId The ID of the job.
      * @return True if the job was successfully canceled, false otherwise.
      */
     public boolean cancelJob(String jobId) {
+        if (jobScheduler.remove(jobId)) {
+            gridAdmission.withdraw(jobId);
+            updateJobStatus(jobId, JobStatus.CANCELLED);
+            return true;
+        }
         Thread thread = jobThreadMap.get(jobId);
         if (thread != null && thread.isAlive()) {
+            // Mark the job first, so the job thread does not report the interrupted run as failed
+            if (!moveUnlessFinished(jobId, JobStatus.CANCELLED)) {
+                log.info("Job {} was {} already, not cancelling it", jobId, jobStatusMap.get(jobId));
+                return false;
+            }
+            jobTrackingService.updateJobStatus(jobId, JobStatus.CANCELLED);
+            recordInQueue(jobId, JobStatus.CANCELLED, null);
+            log.info("Job {} status updated to {}", jobId, JobStatus.CANCELLED);
             thread.interrupt(); // Send interrupt signal
-            updateJobStatus(jobId, JobStatus.CANCELLED);
-            jobThreadMap.remove(jobId);
             return true;
         }
-        return jobTrackingService.cancelJob(jobId);
+        if (jobQueueService.isEnabled() && jobQueueService.cancel(jobId)) {
+            return true;
+        }
+        if (jobTrackingService.cancelJob(jobId)) {
+            // A job without a slot of its own, e.g. the parent of a matrix run
+            jobStatusMap.computeIfPresent(jobId, (id, status) -> JobStatus.CANCELLED);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Marks a job that has not finished yet as TIMED_OUT. The caller stops the run afterwards,
+     * like a cancellation, if the job was marked.
+     *
+     * @param jobId        The ID of the job.
+     * @param errorMessage The deadline that was exceeded.
+     * @return True if the job was marked, false if it had finished or was stopped already.
+     */
+    public boolean timeoutJob(String jobId, String errorMessage) {
+        // Decided on the status map, so a deadline passing as the job finishes never overwrites its outcome
+        if (!moveUnlessFinished(jobId, JobStatus.TIMED_OUT)) {
+            log.info("Job {} was {} before its deadline passed", jobId, jobStatusMap.get(jobId));
+            return false;
+        }
+        jobTrackingService.updateJobStatus(jobId, JobStatus.TIMED_OUT, errorMessage);
+        recordInQueue(jobId, JobStatus.TIMED_OUT, errorMessage);
+        log.warn("Job {} timed out: {}", jobId, errorMessage);
+        return true;
     }
 
     /**
-     * Counts the number of active jobs (RUNNING or PENDING).
+     * Checks whether a job has been cancelled.
+     *
+     * @param jobId The ID of the job.
+     * @return True if the job was cancelled.
+     */
+    public boolean isCancelled(String jobId) {
+        return jobStatusMap.get(jobId) == JobStatus.CANCELLED;
+    }
+
+    /**
+     * Checks whether a job has timed out.
+     *
+     * @param jobId The ID of the job.
+     * @return True if the job exceeded its deadline.
+     */
+    public boolean isTimedOut(String jobId) {
+        return jobStatusMap.get(jobId) == JobStatus.TIMED_OUT;
+    }
+
+    /**
+     * Checks whether a job was stopped before its run finished, by a cancellation or a timeout.
+     *
+     * @param jobId The ID of the job.
+     * @return True if the job was cancelled or timed out.
+     */
+    public boolean isStopped(String jobId) {
+        return isCancelled(jobId) || isTimedOut(jobId);
+    }
+
+    /**
+     * Moves a job to a status in one step with concurrent cancellations, timeouts and
+     * completions, unless it finished or was stopped already.
+     *
+     * @return True if the job was moved, false if it kept its final status.
+     */
+    private boolean moveUnlessFinished(String jobId, JobStatus status) {
+        boolean[] moved = new boolean[1];
+        jobStatusMap.compute(jobId, (id, current) -> {
+            if (current != null && FINISHED_STATUSES.contains(current)) {
+                return current;
+            }
+            moved[0] = true;
+            return status;
+        });
+        return moved[0];
+    }
+
+    /**
+     * Counts the number of active jobs (RUNNING, QUEUED or PENDING).
      *
      * @return The count of active jobs.
      */
     public int getActiveJobsCount() {
         return (int) jobStatusMap.values().stream()
-                .filter(status -> status == JobStatus.RUNNING || status == JobStatus.PENDING)
+                .filter(status -> status == JobStatus.RUNNING || status == JobStatus.QUEUED
+                        || status == JobStatus.PENDING)
                 .count();
     }
 
     /**
-     * Cleans up completed, failed, or canceled jobs from the job status and result maps.
+     * Cleans up completed, failed, canceled or timed out jobs from the job status and result maps.
      */
     public void cleanupCompletedJobs() {
         jobStatusMap.entrySet().removeIf(entry ->
                 entry.getValue() == JobStatus.COMPLETED ||
                         entry.getValue() == JobStatus.FAILED ||
-                        entry.getValue() == JobStatus.CANCELLED);
+                        entry.getValue() == JobStatus.CANCELLED ||
+                        entry.getValue() == JobStatus.TIMED_OUT);
 
         jobResultMap.keySet().removeIf(jobId -> !jobStatusMap.containsKey(jobId));
     }
-}
\ No newline at end of file
+
+    private void recordInQueue(String jobId, JobStatus status, String errorMessage) {
+        if (!jobQueueService.isEnabled()) {
+            return;
+        }
+        try {
+            jobQueueService.updateStatus(jobId, status, errorMessage);
+        } catch (RuntimeException e) {
+            log.warn("Could not record status {} of job {} in the queue: {}", status, jobId, e.getMessage());
+        }
+    }
+
+    /**
+     * Executes the job requests of one {@link JobKind}.
+     */
+    @FunctionalInterface
+    public interface JobHandler {
+
+        /**
+         * Executes a job on the current scheduler slot, reporting its outcome to the AsyncJobManager.
+         *
+         * @param jobId   The ID of the job.
+         * @param request The work of the job.
+         */
+        void execute(String jobId, JobRequest request);
+    }
+}
@@ -1,8 +1,6 @@
 package com.framework.apiserver.utilities;
 
 import io.cucumber.java.Scenario;
-import lombok.Getter;
-import lombok.Setter;
 import org.springframework.stereotype.Component;
 import org.testng.Assert;
 import org.testng.ISuiteListener;
@@ -16,10 +14,12 @@ import org.testng.ITestListener;
  * for logging informational, success, and failure messages to both the console and
  * Cucumber reports.</p>
  *
+ * <p>The current scenario is held per thread, so scenarios executed in parallel
+ * by Cucumber log to their own report entries.</p>
+ *
  * <p>Annotations:</p>
  * <ul>
  *   <li>@Component: Marks this class as a Spring-managed bean.</li>
- *   <li>@Getter, @Setter: Lombok annotations to generate getter and setter methods.</li>
  * </ul>
  *
  * <p>Usage:</p>
@@ -35,16 +35,36 @@ import org.testng.ITestListener;
  *
  * @author  ashish-khandelwal01
  */
-@Getter
-@Setter
 @Component
 public class BaseClass implements ITestListener, ISuiteListener {
 
     /**
      * The Cucumber Scenario object used for logging test steps and results.
-     * This is set dynamically during test execution.
+     * This is set dynamically during test execution, per scenario thread.
+     */
+    private final ThreadLocal<Scenario> scenario = new ThreadLocal<>();
+
+    /**
+     * Returns the scenario running on the current thread.
+     *
+     * @return The current scenario, or null outside of a scenario.
+     */
+    public Scenario getScenario() {
+        return scenario.get();
+    }
+
+    /**
+     * Sets the scenario running on the current thread.
+     *
+     * @param scenario The current scenario, or null to clear it.
      */
-    protected Scenario scenario;
+    public void setScenario(Scenario scenario) {
+        if (scenario == null) {
+            this.scenario.remove();
+        } else {
+            this.scenario.set(scenario);
+        }
+    }
 
     /**
      * Logs an informational message to the Cucumber scenario and the console.
@@ -83,6 +103,7 @@ public class BaseClass implements ITestListener, ISuiteListener {
      */
     public void extentReportLog(String message) {
         try {
+            Scenario scenario = getScenario();
             if (scenario != null) {
                 message = message.replace("\t", "&emsp;");
                 message = message.replace("\n", "<br>");
@@ -0,0 +1,217 @@
+package com.framework.apiserver.utilities;
+
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * BrowserSessionPool keeps warm browser sessions of this JVM for reuse by later scenarios.
+ *
+ * <p>Starting a browser takes seconds, so instead of quitting the browser of a finished
+ * scenario, {@link DriverManager} hands it back to the pool, which resets it and keeps it
+ * idle for the next scenario asking for the same browser type. A session is reset by:</p>
+ * <ul>
+ *   <li>closing every tab but the first one;</li>
+ *   <li>clearing the local and session storage of the page it is on;</li>
+ *   <li>deleting its cookies, of every domain on Chromium browsers;</li>
+ *   <li>restoring the window size it was started with and loading a blank page.</li>
+ * </ul>
+ *
+ * <p>A session is quit instead of being pooled when its scenario failed, when it has served
+ * the maximum number of scenarios, or when it cannot be reset. The maximum is read from the
+ * `runner.session.pool.max-uses` system property; 0, the default, disables pooling.
+ * Pool hits, misses and recycled sessions are counted for the run statistics.</p>
+ */
+public final class BrowserSessionPool {
+
+    /**
+     * System property holding the number of scenarios a session serves before it is quit; 0 disables pooling.
+     */
+    public static final String MAX_USES_PROPERTY = "runner.session.pool.max-uses";
+
+    private static final String BLANK_PAGE = "about:blank";
+
+    // Idle sessions, by browser type
+    private static final Map<String, Deque<WebDriver>> idleSessions = new ConcurrentHashMap<>();
+
+    // Scenarios served and initial window size of every pooled or borrowed session
+    private static final Map<WebDriver, Integer> uses = new ConcurrentHashMap<>();
+    private static final Map<WebDriver, Dimension> initialSizes = new ConcurrentHashMap<>();
+
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+    private static final AtomicLong recycled = new AtomicLong();
+
+    private BrowserSessionPool() {
+    }
+
+    /**
+     * @return True if finished sessions are kept for reuse.
+     */
+    public static boolean isEnabled() {
+        return maxUses() > 0;
+    }
+
+    /**
+     * Borrows an idle session of a browser type.
+     *
+     * @param browserType The browser type.
+     * @return A reset session, or null if none is idle and a new browser must be started.
+     */
+    public static WebDriver acquire(String browserType) {
+        if (!isEnabled()) {
+            return null;
+        }
+        Deque<WebDriver> idle = idleSessions.get(key(browserType));
+        WebDriver driver = null;
+        if (idle != null) {
+            synchronized (idle) {
+                driver = idle.pollFirst();
+            }
+        }
+        if (driver == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return driver;
+    }
+
+    /**
+     * Registers a browser started for a scenario, so it can be pooled afterwards.
+     *
+     * @param driver The new session.
+     */
+    public static void started(WebDriver driver) {
+        if (!isEnabled()) {
+            return;
+        }
+        uses.put(driver, 0);
+        try {
+            initialSizes.put(driver, driver.manage().window().getSize());
+        } catch (Exception e) {
+            // Sessions without a window size are still reset, only their size is not restored
+        }
+    }
+
+    /**
+     * Returns the session of a finished scenario. It is reset and kept idle, or quit when it
+     * cannot be reused.
+     *
+     * @param driver      The session.
+     * @param browserType The browser type the session was started for.
+     * @param healthy     False if the scenario failed, the session is then quit.
+     */
+    public static void release(WebDriver driver, String browserType, boolean healthy) {
+        if (!isEnabled()) {
+            quit(driver);
+            return;
+        }
+        int served = uses.merge(driver, 1, Integer::sum);
+        if (!healthy || served >= maxUses() || !reset(driver)) {
+            recycle(driver);
+            return;
+        }
+        Deque<WebDriver> idle = idleSessions.computeIfAbsent(key(browserType), type -> new ArrayDeque<>());
+        synchronized (idle) {
+            idle.addFirst(driver);
+        }
+    }
+
+    /**
+     * Forgets a session that was quit by its owner, e.g. because its scenario timed out.
+     *
+     * @param driver The quit session.
+     */
+    public static void discard(WebDriver driver) {
+        uses.remove(driver);
+        initialSizes.remove(driver);
+    }
+
+    /**
+     * Quits every idle session, e.g. when the run is cancelled or the JVM shuts down.
+     */
+    public static void quitAll() {
+        for (Deque<WebDriver> idle : idleSessions.values()) {
+            List<WebDriver> drained;
+            synchronized (idle) {
+                drained = List.copyOf(idle);
+                idle.clear();
+            }
+            drained.forEach(BrowserSessionPool::quit);
+        }
+    }
+
+    /**
+     * @return The pool hits, misses and recycled sessions since the JVM started.
+     */
+    public static Map<String, Long> stats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("recycled", recycled.get());
+        return stats;
+    }
+
+    private static boolean reset(WebDriver driver) {
+        try {
+            List<String> handles = List.copyOf(driver.getWindowHandles());
+            for (int i = 1; i < handles.size(); i++) {
+                driver.switchTo().window(handles.get(i)).close();
+            }
+            driver.switchTo().window(handles.get(0));
+            if (driver instanceof JavascriptExecutor js) {
+                try {
+                    js.executeScript("window.localStorage.clear(); window.sessionStorage.clear();");
+                } catch (Exception e) {
+                    // Pages without storage access, e.g. about:blank or file URLs
+                }
+            }
+            if (driver instanceof HasCdp cdp) {
+                cdp.executeCdpCommand("Network.clearBrowserCookies", Map.of());
+            } else {
+                driver.manage().deleteAllCookies();
+            }
+            Dimension size = initialSizes.get(driver);
+            if (size != null && !size.equals(driver.manage().window().getSize())) {
+                driver.manage().window().setSize(size);
+            }
+            driver.get(BLANK_PAGE);
+            return true;
+        } catch (Exception e) {
+            System.out.println("BrowserSessionPool: Session could not be reset, quitting it: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static void recycle(WebDriver driver) {
+        recycled.incrementAndGet();
+        quit(driver);
+    }
+
+    private static void quit(WebDriver driver) {
+        discard(driver);
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            System.out.println("BrowserSessionPool: Error quitting session: " + e.getMessage());
+        }
+    }
+
+    private static String key(String browserType) {
+        return browserType == null ? "" : browserType.toLowerCase();
+    }
+
+    private static int maxUses() {
+        return Integer.getInteger(MAX_USES_PROPERTY, 0);
+    }
+}
@@ -0,0 +1,267 @@
+package com.framework.apiserver.utilities;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.framework.apiserver.dto.CommandLatencyReport;
+import org.openqa.selenium.Alert;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * CommandProfiler measures how long every WebDriver command of a run takes, so the commands
+ * and steps that dominate scenario time can be found.
+ *
+ * <p>{@link DriverManager} hands scenarios a driver decorated with this listener when the
+ * `runner.command-profiler.enabled` system property is true. Every call to the driver, its
+ * elements, navigation, windows or alerts is timed and recorded:</p>
+ * <ul>
+ *   <li>in a latency histogram per command, e.g. {@code WebElement.click};</li>
+ *   <li>in the time spent in commands by each step of each scenario, as reported by the
+ *       {@code CommandProfilerPlugin};</li>
+ *   <li>in the list of the slowest single commands.</li>
+ * </ul>
+ *
+ * <p>The report of a run is written to `reports/{runId}/command-latency.json` and served by
+ * {@code /api/reports/{runId}/commands}.</p>
+ */
+public final class CommandProfiler implements WebDriverListener {
+
+    /**
+     * System property enabling the profiler; disabled unless set to true.
+     */
+    public static final String ENABLED_PROPERTY = "runner.command-profiler.enabled";
+
+    // Steps and single commands kept in the report
+    private static final int REPORTED_ENTRIES = 100;
+
+    private static final CommandProfiler LISTENER = new CommandProfiler();
+
+    // The undecorated driver of every profiled driver
+    private static final Map<WebDriver, WebDriver> originals = Collections.synchronizedMap(new WeakHashMap<>());
+
+    // The scenario and step running on each thread
+    private static final ThreadLocal<String> currentScenario = new ThreadLocal<>();
+    private static final ThreadLocal<String> currentStep = new ThreadLocal<>();
+
+    // Start times of the commands in progress on each thread, innermost first
+    private static final ThreadLocal<Deque<Long>> starts = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private static final Map<String, CommandLatencyReport.CommandLatency> commands = new ConcurrentHashMap<>();
+
+    // Commands and milliseconds, by scenario and step
+    private static final Map<List<String>, long[]> steps = new ConcurrentHashMap<>();
+
+    // The slowest commands, fastest first, guarded by itself
+    private static final PriorityQueue<CommandLatencyReport.CommandCall> slowest =
+            new PriorityQueue<>(Comparator.comparingLong(CommandLatencyReport.CommandCall::getMs));
+
+    private CommandProfiler() {
+    }
+
+    /**
+     * @return True if scenario drivers are profiled.
+     */
+    public static boolean isEnabled() {
+        return Boolean.getBoolean(ENABLED_PROPERTY);
+    }
+
+    /**
+     * Decorates a driver so its commands are timed.
+     *
+     * @param driver The driver of a scenario.
+     * @return The profiled driver, or the driver itself if the profiler is disabled.
+     */
+    public static WebDriver profile(WebDriver driver) {
+        if (!isEnabled()) {
+            return driver;
+        }
+        WebDriver profiled = new EventFiringDecorator<>(LISTENER).decorate(driver);
+        originals.put(profiled, driver);
+        return profiled;
+    }
+
+    /**
+     * @param driver A driver, profiled or not.
+     * @return The undecorated driver, for internal commands that must not be profiled or
+     *         must be matched against pooled and shared browsers.
+     */
+    public static WebDriver unwrap(WebDriver driver) {
+        WebDriver original = originals.get(driver);
+        return original == null ? driver : original;
+    }
+
+    /**
+     * Records the scenario running on the current thread.
+     *
+     * @param scenario The scenario name.
+     */
+    public static void scenarioStarted(String scenario) {
+        currentScenario.set(scenario);
+        currentStep.remove();
+    }
+
+    /**
+     * Records the step running on the current thread.
+     *
+     * @param step The step text, or the kind of hook.
+     */
+    public static void stepStarted(String step) {
+        currentStep.set(step);
+    }
+
+    /**
+     * Forgets the scenario of the current thread.
+     */
+    public static void scenarioFinished() {
+        currentScenario.remove();
+        currentStep.remove();
+        starts.remove();
+    }
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        if (isCommand(method)) {
+            starts.get().push(System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        finish(target, method);
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        finish(target, method);
+    }
+
+    private static void finish(Object target, Method method) {
+        if (!isCommand(method)) {
+            return;
+        }
+        Long start = starts.get().poll();
+        if (start == null) {
+            return;
+        }
+        long ms = (System.nanoTime() - start) / 1_000_000;
+        String command = typeOf(target) + "." + method.getName();
+        String scenario = currentScenario.get();
+        String step = currentStep.get();
+        CommandLatencyReport.CommandLatency latency =
+                commands.computeIfAbsent(command, name -> new CommandLatencyReport.CommandLatency());
+        synchronized (latency) {
+            latency.record(ms);
+        }
+        long[] stepTotals = steps.computeIfAbsent(List.of(String.valueOf(scenario), String.valueOf(step)),
+                key -> new long[2]);
+        synchronized (stepTotals) {
+            stepTotals[0]++;
+            stepTotals[1] += ms;
+        }
+        synchronized (slowest) {
+            if (slowest.size() < REPORTED_ENTRIES || slowest.peek().getMs() < ms) {
+                slowest.add(new CommandLatencyReport.CommandCall(command, scenario, step, ms));
+                if (slowest.size() > REPORTED_ENTRIES) {
+                    slowest.poll();
+                }
+            }
+        }
+    }
+
+    // Object methods and unwrapping are answered by the proxy, not by the browser
+    private static boolean isCommand(Method method) {
+        return method.getDeclaringClass() != Object.class
+                && !method.getName().equals("getWrappedDriver")
+                && !method.getName().equals("getWrappedElement");
+    }
+
+    private static String typeOf(Object target) {
+        if (target instanceof WebDriver) {
+            return "WebDriver";
+        } else if (target instanceof WebElement) {
+            return "WebElement";
+        } else if (target instanceof WebDriver.Navigation) {
+            return "Navigation";
+        } else if (target instanceof WebDriver.TargetLocator) {
+            return "TargetLocator";
+        } else if (target instanceof Alert) {
+            return "Alert";
+        } else if (target instanceof WebDriver.Window) {
+            return "Window";
+        } else if (target instanceof WebDriver.Timeouts) {
+            return "Timeouts";
+        } else if (target instanceof WebDriver.Options) {
+            return "Options";
+        }
+        return target.getClass().getSimpleName();
+    }
+
+    /**
+     * Clears the recorded commands, at the start of a run.
+     */
+    public static void reset() {
+        commands.clear();
+        steps.clear();
+        synchronized (slowest) {
+            slowest.clear();
+        }
+    }
+
+    /**
+     * @return The commands recorded since the last reset.
+     */
+    public static CommandLatencyReport report() {
+        CommandLatencyReport report = new CommandLatencyReport();
+        commands.forEach((command, latency) -> {
+            CommandLatencyReport.CommandLatency copy = new CommandLatencyReport.CommandLatency();
+            synchronized (latency) {
+                copy.add(latency);
+            }
+            report.getCommands().put(command, copy);
+        });
+        steps.forEach((key, totals) -> {
+            synchronized (totals) {
+                report.getSteps().add(new CommandLatencyReport.StepLatency(key.get(0), key.get(1), totals[0], totals[1]));
+            }
+        });
+        synchronized (slowest) {
+            report.getSlowest().addAll(slowest);
+        }
+        return report.top(REPORTED_ENTRIES);
+    }
+
+    /**
+     * Writes the command latency report of a run to its report folder.
+     *
+     * @param runId The unique identifier of the test run.
+     */
+    public static void writeReport(String runId) {
+        if (runId == null || commands.isEmpty()) {
+            return;
+        }
+        try {
+            Path path = Paths.get("reports", runId, "command-latency.json");
+            Files.createDirectories(path.getParent());
+            new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(path.toFile(), report());
+        } catch (IOException e) {
+            System.out.println("CommandProfiler: Could not write the command latency report: " + e.getMessage());
+        }
+    }
+}
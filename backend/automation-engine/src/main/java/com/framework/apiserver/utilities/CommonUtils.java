@@ -3,8 +3,16 @@ package com.framework.apiserver.utilities;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.framework.apiserver.dto.RunInfo;
+import com.framework.apiserver.dto.RunProgress;
 import com.framework.apiserver.entity.TestRunInfoEntity;
+import com.framework.apiserver.execution.JobScope;
+import com.framework.apiserver.execution.ProcessTreeTerminator;
 import com.framework.apiserver.service.TestRunInfoService;
+import com.framework.apiserver.testrunner.BatchRunner;
+import com.framework.apiserver.testrunner.ClassDataSharing;
+import com.framework.apiserver.testrunner.RunnerClasspath;
+import com.framework.apiserver.testrunner.RunnerWorker;
+import com.framework.apiserver.testrunner.TestRunner;
 import net.lingala.zip4j.ZipFile;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
@@ -16,6 +24,7 @@ import org.springframework.stereotype.Component;
 
 import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.io.BufferedReader;
@@ -61,6 +70,9 @@ import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
 @Component
 public class CommonUtils {
 
+    // Time a cancelled runner JVM is given to quit its browsers before it is killed
+    private static final Duration DEFAULT_CANCEL_GRACE_PERIOD = Duration.ofSeconds(10);
+
     @Autowired
     private BaseClass baseClass;
 
@@ -85,16 +97,76 @@ public class CommonUtils {
      * @throws InterruptedException If the current thread is interrupted while waiting for the process to complete.
      */
     public static void testCaseRun(String tag, String runId, Path failedReport, String browserName) throws IOException, InterruptedException {
+        testCaseRun(tag, runId, failedReport, browserName, 1);
+    }
+
+    /**
+     * Executes a test case run in a new JVM, running up to the given number of scenarios in parallel.
+     *
+     * @param tag          The tag to filter test cases to be executed.
+     * @param runId        The unique identifier for the test run.
+     * @param failedReport the path of the failed report file.
+     * @param browserName  the name of browser provided by the user
+     * @param threads      the number of scenarios executed in parallel
+     * @throws IOException          If an I/O error occurs during process execution.
+     * @throws InterruptedException If the current thread is interrupted while waiting for the process to complete.
+     */
+    public static void testCaseRun(String tag, String runId, Path failedReport, String browserName, int threads) throws IOException, InterruptedException {
+        testCaseRun(tag, runId, failedReport, browserName, threads, DEFAULT_CANCEL_GRACE_PERIOD);
+    }
+
+    /**
+     * Executes a test case run in a new JVM and terminates its process tree if the wait is interrupted.
+     *
+     * <p>When the calling thread is interrupted (e.g. the job is cancelled), the runner JVM is
+     * asked to stop so it can quit its browsers, and the runner and every process it started
+     * are killed once the grace period has elapsed.</p>
+     *
+     * @param tag               The tag to filter test cases to be executed.
+     * @param runId             The unique identifier for the test run.
+     * @param failedReport      the path of the failed report file.
+     * @param browserName       the name of browser provided by the user
+     * @param threads           the number of scenarios executed in parallel
+     * @param cancelGracePeriod how long the runner JVM is given to stop on its own when cancelled
+     * @throws IOException          If an I/O error occurs during process execution.
+     * @throws InterruptedException If the current thread is interrupted while waiting for the process to complete.
+     */
+    public static void testCaseRun(String tag, String runId, Path failedReport, String browserName, int threads,
+                                   Duration cancelGracePeriod) throws IOException, InterruptedException {
+        testCaseRun(tag, runId, failedReport, browserName, threads, cancelGracePeriod, Map.of());
+    }
+
+    /**
+     * Executes a test case run in a new JVM with additional system properties for the run.
+     *
+     * @param tag               The tag to filter test cases to be executed.
+     * @param runId             The unique identifier for the test run.
+     * @param failedReport      the path of the failed report file.
+     * @param browserName       the name of browser provided by the user
+     * @param threads           the number of scenarios executed in parallel
+     * @param cancelGracePeriod how long the runner JVM is given to stop on its own when cancelled
+     * @param runProperties     system properties set in the runner JVM, e.g. the network blocking profile
+     * @throws IOException          If an I/O error occurs during process execution.
+     * @throws InterruptedException If the current thread is interrupted while waiting for the process to complete.
+     */
+    public static void testCaseRun(String tag, String runId, Path failedReport, String browserName, int threads,
+                                   Duration cancelGracePeriod, Map<String, String> runProperties)
+            throws IOException, InterruptedException {
         List<String> command = new ArrayList<>();
         command.add("java");
+        command.add("-D" + RunnerWorker.RUNNER_JVM_PROPERTY + "=true");
         command.add("-Drun.id=" + runId);
+        command.add("-D" + TestRunner.THREADS_PROPERTY + "=" + threads);
+        command.addAll(TestRunner.forwardedSystemProperties());
+        runProperties.forEach((key, value) -> command.add("-D" + key + "=" + value));
         if(tag != null && !tag.isEmpty()) {
             command.add("-Dcucumber.filter.tags=" + tag);
         }else{
             command.add("-Dcucumber.feature.path=" + failedReport.toAbsolutePath());
         }
+        command.addAll(ClassDataSharing.jvmOptions()); // start from the runner CDS archive, if trained
         command.add("-cp");
-        command.add(System.getProperty("java.class.path")); // current classpath
+        command.add(RunnerClasspath.get()); // server classpath without the server-only jars
         command.add("-DbrowserName=" + browserName);
         if(tag != null && !tag.isEmpty()) {
             command.add("com.framework.apiserver.testrunner.TestRunner");
@@ -104,7 +176,54 @@ public class CommonUtils {
         ProcessBuilder processBuilder = new ProcessBuilder(command);
         processBuilder.inheritIO();
         Process process = processBuilder.start();
-        int exitCode = process.waitFor();
+        try {
+            process.waitFor();
+        } catch (InterruptedException e) {
+            System.out.println("Run " + runId + " cancelled, terminating runner process " + process.pid());
+            ProcessTreeTerminator.terminate(process.toHandle(), cancelGracePeriod);
+            throw e;
+        }
+    }
+
+    /**
+     * Executes several tag runs one after the other in a single new JVM, see {@link BatchRunner}.
+     *
+     * @param tagsByRunId       the tag expression of each run, by run ID, in the order they run
+     * @param browserName       the name of browser provided by the user
+     * @param threads           the number of scenarios each run executes in parallel
+     * @param cancelGracePeriod how long the runner JVM is given to stop on its own when cancelled
+     * @param runProperties     system properties set in the runner JVM, e.g. the network blocking profile
+     * @throws IOException          If an I/O error occurs during process execution.
+     * @throws InterruptedException If the current thread is interrupted while waiting for the process to complete.
+     */
+    public static void batchRun(Map<String, String> tagsByRunId, String browserName, int threads,
+                                Duration cancelGracePeriod, Map<String, String> runProperties)
+            throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add("java");
+        command.add("-D" + RunnerWorker.RUNNER_JVM_PROPERTY + "=true");
+        command.add("-D" + TestRunner.THREADS_PROPERTY + "=" + threads);
+        command.addAll(TestRunner.forwardedSystemProperties());
+        runProperties.forEach((key, value) -> command.add("-D" + key + "=" + value));
+        command.addAll(ClassDataSharing.jvmOptions()); // start from the runner CDS archive, if trained
+        command.add("-cp");
+        command.add(RunnerClasspath.get()); // server classpath without the server-only jars
+        command.add("-DbrowserName=" + browserName);
+        command.add(BatchRunner.class.getName());
+        tagsByRunId.forEach((runId, tag) -> {
+            command.add(runId);
+            command.add(tag);
+        });
+        ProcessBuilder processBuilder = new ProcessBuilder(command);
+        processBuilder.inheritIO();
+        Process process = processBuilder.start();
+        try {
+            process.waitFor();
+        } catch (InterruptedException e) {
+            System.out.println("Batch " + tagsByRunId.keySet() + " cancelled, terminating runner process " + process.pid());
+            ProcessTreeTerminator.terminate(process.toHandle(), cancelGracePeriod);
+            throw e;
+        }
     }
 
     /**
@@ -266,11 +385,12 @@ public class CommonUtils {
     }
 
     /**
-     * Retrieves the most recently modified report folder from the specified base directory
-     * excluding the "target" folder.
+     * Retrieves the Extent report folder of a run from the specified base directory,
+     * excluding the "reports" archive folder.
      *
-     * <p>This method scans the subdirectories of the given base directory and identifies
-     * the one with the most recent modification timestamp.</p>
+     * <p>This method scans the Extent output folders of the given base directory and identifies
+     * the one whose report mentions the run ID. Reports already archived under "reports" are
+     * skipped, so shard reports moved there are never picked up again.</p>
      *
      * @param baseDirPath The path of the base directory to search.
      * @param runId       The unique identifier for the run.
@@ -282,8 +402,10 @@ public class CommonUtils {
             return null;
         }
 
+        Path archiveDir = Paths.get(baseDirPath, "reports");
         try (Stream<Path> pathStream = Files.walk(Paths.get(baseDirPath))) {
             Optional<Path> matchedPath = pathStream
+                    .filter(path -> !path.startsWith(archiveDir))
                     .filter(Files::isRegularFile)
                     .filter(path -> path.toString().endsWith(".html"))
                     .filter(path -> path.getParent().toString().contains("Reports"))
@@ -473,6 +595,9 @@ public class CommonUtils {
      *   <li>Compresses the run ID folder into a zip file.</li>
      * </ul>
      *
+     * <p>Archiving the report and saving the run to the database run on virtual threads side by
+     * side; both have finished when this method returns.</p>
+     *
      * <p>If any exception occurs during the process, it logs an error message.</p>
      *
      * @param testRunInfoService The service used to save the run information to the database.
@@ -523,20 +648,105 @@ public class CommonUtils {
             String latestReportFolder = getReportFolderWithRunId(".", runId);
             if (latestReportFolder != null) {
                 moveReportToRunIdFolder(latestReportFolder, runId);
-                writeRunInfo(runInfo);
-                zipReportFolder(runId);
             }
-            List<String> failures = extractFailedScenarioPathsWithLineNumbers(reportsDir, runId);
-            runInfoDb.setFailureScenarios(failures);
-            testRunInfoService.save(runInfoDb);
+            // Archiving the report and recording the run are independent, so they run side by side
+            try (JobScope scope = JobScope.open(runId + "-report")) {
+                // Runs executed without the Extent adapter (e.g. in-process) only produce Cucumber reports
+                if (Files.isDirectory(Paths.get(reportsDir, runId))) {
+                    scope.fork(() -> {
+                        writeRunInfo(runInfo);
+                        zipReportFolder(runId);
+                        return null;
+                    });
+                }
+                scope.fork(() -> {
+                    List<String> failures = extractFailedScenarioPathsWithLineNumbers(reportsDir, runId);
+                    runInfoDb.setFailureScenarios(failures);
+                    testRunInfoService.save(runInfoDb);
+                    return null;
+                });
+                scope.join();
+                scope.throwIfFailed();
+            }
             System.out.println("✅ run-info.json imported to DB successfully.");
             return result;
         }catch(Exception e){
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
             System.err.println("❌ Failed to parse or insert run-info.json into DB.");
         }
         return null;
     }
 
+    /**
+     * Records the partial results of a cancelled or timed out run in the database.
+     *
+     * <p>A stopped runner is terminated before Cucumber writes its JSON report, so the
+     * counts and failed scenarios come from the progress streamed while the run executed.
+     * Scenarios that had not finished are not counted. Any reports and diagnostics the run
+     * did produce are archived as for a completed run.</p>
+     *
+     * @param testRunInfoService The service used to save the run information.
+     * @param tag                The tag associated with the run.
+     * @param runId              The unique identifier of the run.
+     * @param startTime          The start time of the run.
+     * @param endTime            The time the run was stopped.
+     * @param durationSeconds    The duration of the run in seconds.
+     * @param progress           The progress of the run when it was stopped.
+     * @param reason             Why the run was stopped, e.g. "Cancelled" or "Timed Out".
+     * @return A map with the status, the failure count, the passed count and the total count.
+     */
+    public HashMap<String, Object> createStoppedRunInfo(TestRunInfoService testRunInfoService, String tag, String runId,
+                                                        LocalDateTime startTime, LocalDateTime endTime,
+                                                        long durationSeconds, RunProgress progress, String reason) {
+        String status = "Execution " + reason + " after " + progress.getCompleted() + " scenario(s)";
+        HashMap<String, Object> result = new HashMap<>();
+        result.put("status", status);
+        result.put("failureCount", progress.getFailed());
+        result.put("passed", progress.getPassed());
+        result.put("total", progress.getCompleted());
+
+        TestRunInfoEntity runInfoDb = new TestRunInfoEntity();
+        runInfoDb.setRunId(runId);
+        runInfoDb.setTags(tag);
+        runInfoDb.setStartTime(startTime);
+        runInfoDb.setEndTime(endTime);
+        runInfoDb.setDurationSeconds((int) durationSeconds);
+        runInfoDb.setTotal(progress.getCompleted());
+        runInfoDb.setPassed(progress.getPassed());
+        runInfoDb.setFailed(progress.getFailed());
+        runInfoDb.setStatus(status);
+        runInfoDb.setFailureScenarios(progress.getFailures().stream()
+                .map(RunProgress.ScenarioFailure::getLocation)
+                .toList());
+
+        try {
+            String latestReportFolder = getReportFolderWithRunId(".", runId);
+            if (latestReportFolder != null) {
+                moveReportToRunIdFolder(latestReportFolder, runId);
+            }
+            if (Files.isDirectory(Paths.get("reports", runId))) {
+                RunInfo runInfo = new RunInfo();
+                runInfo.setRunId(runId);
+                runInfo.setTags(tag);
+                runInfo.setStartTime(startTime);
+                runInfo.setEndTime(endTime);
+                runInfo.setDurationSeconds(durationSeconds);
+                runInfo.setTotal(progress.getCompleted());
+                runInfo.setPassed(progress.getPassed());
+                runInfo.setFailed(progress.getFailed());
+                runInfo.setStatus(status);
+                writeRunInfo(runInfo);
+                zipReportFolder(runId);
+            }
+        } catch (Exception e) {
+            System.err.println("❌ Failed to archive the reports of stopped run " + runId + ": " + e.getMessage());
+        }
+        testRunInfoService.save(runInfoDb);
+        return result;
+    }
+
     /**
      * Reads the Cucumber JSON report and extracts the total and failed scenario counts.
      *
@@ -0,0 +1,259 @@
+package com.framework.apiserver.utilities;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NotFoundException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * ConditionWait waits for a condition on the page and returns as soon as it becomes true,
+ * instead of sleeping a fixed polling interval between checks.
+ *
+ * <p>Between two checks of a condition the wait blocks in the page until the DOM changes: a
+ * {@code MutationObserver}, together with the end of CSS transitions and animations, wakes it
+ * up, so an element that appears after 50 ms is found after about 50 ms. Checks are at least
+ * {@value #MIN_CHECK_INTERVAL_MS} ms apart, so a page that keeps changing, e.g. a spinner or a
+ * ticking clock, does not turn the wait into a busy loop of driver commands. A check is repeated
+ * at least every {@value #MAX_OBSERVE_MS} ms for changes the observer cannot see, e.g. layout.
+ * When the page cannot be observed (a browser without JavaScript, a page that keeps
+ * navigating, or a browser context shared with other scenarios, whose session must not be
+ * held) the wait polls instead, starting at {@value #MIN_POLL_MS} ms and doubling up to
+ * {@value #MAX_POLL_MS} ms.</p>
+ *
+ * <p>A wait is bound to one driver and reused for every condition of its scenario. The time
+ * every named condition took, and how often it timed out, is recorded for the run report,
+ * written to `reports/{runId}/wait-stats.json`.</p>
+ */
+public final class ConditionWait {
+
+    private static final long MAX_OBSERVE_MS = 250;
+    private static final long MIN_CHECK_INTERVAL_MS = 30;
+    private static final long MIN_POLL_MS = 10;
+    private static final long MAX_POLL_MS = 250;
+
+    // Failed observations in a row after which the wait polls for the rest of its life
+    private static final int MAX_OBSERVER_FAILURES = 3;
+
+    private static final String OBSERVE_SCRIPT = """
+            var done = arguments[arguments.length - 1];
+            var finished = false;
+            var observer;
+            var finish = function (changed) {
+                if (finished) { return; }
+                finished = true;
+                if (observer) { observer.disconnect(); }
+                document.removeEventListener('transitionend', wake, true);
+                document.removeEventListener('animationend', wake, true);
+                clearTimeout(timer);
+                done(changed);
+            };
+            var wake = function () { finish(true); };
+            var timer = setTimeout(function () { finish(false); }, arguments[0]);
+            observer = new MutationObserver(wake);
+            observer.observe(document, {subtree: true, childList: true, attributes: true, characterData: true});
+            document.addEventListener('transitionend', wake, true);
+            document.addEventListener('animationend', wake, true);
+            """;
+
+    private static final Map<String, ConditionStats> stats = new ConcurrentHashMap<>();
+
+    private final WebDriver driver;
+
+    // The undecorated driver observing the page, so waiting in the page is not profiled as a command
+    private final WebDriver observer;
+
+    private final boolean observable;
+
+    private int observerFailures;
+
+    /**
+     * Constructs a wait for the conditions of one driver.
+     *
+     * @param driver The driver whose page is checked.
+     */
+    public ConditionWait(WebDriver driver) {
+        this.driver = driver;
+        this.observer = CommandProfiler.unwrap(driver);
+        this.observable = observer instanceof JavascriptExecutor && !SharedBrowserContexts.isContext(observer);
+    }
+
+    /**
+     * @return The driver the wait checks.
+     */
+    public WebDriver getDriver() {
+        return driver;
+    }
+
+    /**
+     * Waits until a condition returns a value other than null or false.
+     *
+     * @param name      The name the condition is recorded under, e.g. visibility.
+     * @param condition The condition.
+     * @param timeout   How long to wait.
+     * @param ignored   Exceptions that count as the condition being false, besides {@link NotFoundException}.
+     * @param <T>       The result type of the condition.
+     * @return The result of the condition.
+     * @throws TimeoutException If the condition is still false once the timeout has elapsed.
+     */
+    @SafeVarargs
+    public final <T> T until(String name, Function<? super WebDriver, T> condition, Duration timeout,
+                             Class<? extends Throwable>... ignored) {
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        long pollMs = MIN_POLL_MS;
+        RuntimeException lastError = null;
+        while (true) {
+            long checkStart = System.nanoTime();
+            try {
+                T result = condition.apply(driver);
+                if (result != null && !Boolean.FALSE.equals(result)) {
+                    record(name, start, false);
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                if (!isIgnored(e, ignored)) {
+                    throw e;
+                }
+                lastError = e;
+            }
+            long remainingMs = (deadline - System.nanoTime()) / 1_000_000;
+            if (remainingMs <= 0) {
+                record(name, start, true);
+                throw new TimeoutException(String.format("Expected condition failed: waiting for %s (tried for %d ms)",
+                        condition, timeout.toMillis()), lastError);
+            }
+            if (observeChange(Math.min(remainingMs, MAX_OBSERVE_MS))) {
+                // Lets a burst of DOM changes settle before the next check
+                long sinceCheckMs = (System.nanoTime() - checkStart) / 1_000_000;
+                if (sinceCheckMs < MIN_CHECK_INTERVAL_MS) {
+                    sleep(Math.min(remainingMs, MIN_CHECK_INTERVAL_MS - sinceCheckMs));
+                }
+            } else {
+                sleep(Math.min(remainingMs, pollMs));
+                pollMs = Math.min(pollMs * 2, MAX_POLL_MS);
+            }
+        }
+    }
+
+    /**
+     * Blocks in the page until the DOM changes or the time is up.
+     *
+     * @return False if the page cannot be observed and the caller must poll.
+     */
+    private boolean observeChange(long maxMs) {
+        if (!observable || observerFailures >= MAX_OBSERVER_FAILURES) {
+            return false;
+        }
+        try {
+            ((JavascriptExecutor) observer).executeAsyncScript(OBSERVE_SCRIPT, maxMs);
+            observerFailures = 0;
+            return true;
+        } catch (WebDriverException e) {
+            // E.g. the page navigated while observed; polling takes over after repeated failures
+            observerFailures++;
+            return false;
+        }
+    }
+
+    private static boolean isIgnored(Throwable error, Class<? extends Throwable>[] ignored) {
+        if (error instanceof NotFoundException) {
+            return true;
+        }
+        for (Class<? extends Throwable> type : ignored) {
+            if (type.isInstance(error)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WebDriverException("Interrupted while waiting", e);
+        }
+    }
+
+    private static void record(String name, long start, boolean timedOut) {
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        stats.computeIfAbsent(name, key -> new ConditionStats()).add(elapsedMs, timedOut);
+    }
+
+    /**
+     * Resets the condition statistics, at the start of a run.
+     */
+    public static void resetStats() {
+        stats.clear();
+    }
+
+    /**
+     * @return By condition name: the number of waits, timeouts, and the average and maximum wait in milliseconds.
+     */
+    public static Map<String, Map<String, Long>> stats() {
+        Map<String, Map<String, Long>> snapshot = new TreeMap<>();
+        stats.forEach((name, conditionStats) -> snapshot.put(name, conditionStats.snapshot()));
+        return snapshot;
+    }
+
+    /**
+     * Writes the condition statistics of a run to its report folder.
+     *
+     * @param runId The unique identifier of the test run.
+     */
+    public static void writeReport(String runId) {
+        if (runId == null || stats.isEmpty()) {
+            return;
+        }
+        try {
+            Path path = Paths.get("reports", runId, "wait-stats.json");
+            Files.createDirectories(path.getParent());
+            new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(path.toFile(), stats());
+        } catch (IOException e) {
+            System.out.println("ConditionWait: Could not write the wait statistics: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Latencies of one named condition.
+     */
+    private static final class ConditionStats {
+
+        private long count;
+        private long timeouts;
+        private long totalMs;
+        private long maxMs;
+
+        private synchronized void add(long elapsedMs, boolean timedOut) {
+            count++;
+            totalMs += elapsedMs;
+            maxMs = Math.max(maxMs, elapsedMs);
+            if (timedOut) {
+                timeouts++;
+            }
+        }
+
+        private synchronized Map<String, Long> snapshot() {
+            Map<String, Long> snapshot = new LinkedHashMap<>();
+            snapshot.put("count", count);
+            snapshot.put("timeouts", timeouts);
+            snapshot.put("averageMs", count == 0 ? 0 : totalMs / count);
+            snapshot.put("maxMs", maxMs);
+            return snapshot;
+        }
+    }
+}
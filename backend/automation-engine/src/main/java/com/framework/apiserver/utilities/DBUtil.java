@@ -4,6 +4,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
 import java.sql.Clob;
@@ -15,6 +16,7 @@ import java.util.List;
 /**
  * DBUtil provides database interaction methods using Spring JdbcTemplate.
  * It supports fetching results as lists of strings, CLOBs, or single column values.
+ * It is created lazily, so the data source is only set up for runs that query a database.
  *
  * <p>Dependencies:</p>
  * <ul>
@@ -30,6 +32,7 @@ import java.util.List;
  *
  * @author ashish-khandelwal01
  */
+@Lazy
 @Component
 public class DBUtil {
 
@@ -1,16 +1,29 @@
 package com.framework.apiserver.utilities;
 
-import com.framework.apiserver.service.BrowserContextManager;
-import lombok.Getter;
+import com.framework.apiserver.testrunner.RunSettings;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * DriverManager is a utility class responsible for managing WebDriver instances.
  *
  * <p>This class provides methods to retrieve, create, and quit WebDriver instances.
- * It ensures that a single WebDriver instance is reused unless explicitly replaced.</p>
+ * Each thread owns its own WebDriver instance, so scenarios executed in parallel by
+ * Cucumber never share a browser. Within a thread the instance is reused unless
+ * explicitly replaced.</p>
+ *
+ * <p>When a scenario finishes its browser is released to the {@link BrowserSessionPool},
+ * which resets it and hands it to the next scenario asking for the same browser type, so
+ * most scenarios start on a warm browser instead of launching a new one. When shared browser
+ * contexts are enabled, Chrome and Edge scenarios instead get an isolated context of a
+ * browser shared with other scenarios, see {@link SharedBrowserContexts}. Every browser
+ * blocks the requests of the run's network blocking profile, see {@link NetworkBlocking}, and
+ * scenarios get it wrapped by the {@link CommandProfiler} when command profiling is enabled.</p>
  *
  * <p>Annotations:</p>
  * <ul>
@@ -22,7 +35,10 @@ import org.springframework.stereotype.Component;
  * <ul>
  *   <li>Call getDriver() to retrieve the current WebDriver instance or create a new one if none exists.</li>
  *   <li>Call createNewDriver() to create a new WebDriver instance, replacing any existing one.</li>
+ *   <li>Call releaseDriver(boolean) when a scenario finishes, to return its browser to the pool.</li>
  *   <li>Call quitDriver() to close and nullify the current WebDriver instance.</li>
+ *   <li>Call quitAllDrivers() to release the drivers of every thread and the pooled browsers, e.g. when a run is cancelled.</li>
+ *   <li>Call quitDriverOf(Thread) to release the driver of a scenario that timed out.</li>
  * </ul>
  *
  * @see SeleniumTestBase
@@ -33,21 +49,15 @@ public class DriverManager {
 
     private final SeleniumTestBase seleniumTestBase;
 
-    // Holds the current active driver instance
-    private WebDriver currentDriver;
+    // Holds the active driver instance of each scenario thread
+    private final ThreadLocal<WebDriver> currentDriver = new ThreadLocal<>();
 
-    @Autowired
-    private BrowserContextManager browserContextManager;
+    // Every driver of this JVM in use by a scenario, with the thread using it, so they can be
+    // captured and released when a scenario times out or a run is cancelled
+    private static final Map<WebDriver, Thread> liveDrivers = new ConcurrentHashMap<>();
 
-    /**
-     * -- GETTER --
-     *  Gets the browser type that the current driver was created for.
-     *
-     * @return The current browser type, or null if no driver exists.
-     */
-    // Track which browser type the current driver was created for
-    @Getter
-    private String currentBrowserType;
+    // Track which browser type the current driver of each thread was created for
+    private final ThreadLocal<String> currentBrowserType = new ThreadLocal<>();
 
     /**
      * Constructs a DriverManager instance with the required SeleniumTestBase dependency.
@@ -58,70 +68,174 @@ public class DriverManager {
     }
 
     /**
-     * Retrieves the current WebDriver instance.
+     * Gets the browser type that the current thread's driver was created for.
+     *
+     * @return The current browser type, or null if no driver exists.
+     */
+    public String getCurrentBrowserType() {
+        return currentBrowserType.get();
+    }
+
+    /**
+     * Retrieves the current thread's WebDriver instance.
      * If no instance exists or browser type has changed, a new one is created.
      *
      * @return The current WebDriver instance.
      */
-    public synchronized WebDriver getDriver() {
-        String requestedBrowserType = System.getProperty("browserName");
+    public WebDriver getDriver() {
+        String requestedBrowserType = RunSettings.get(RunSettings.BROWSER_NAME);
+        WebDriver driver = currentDriver.get();
         // Create new driver if none exists or browser type changed
-        if (currentDriver == null || !requestedBrowserType.equals(currentBrowserType)) {
-            if (currentDriver != null) {
-                try {
-                    currentDriver.quit();
-                } catch (Exception e) {
-                    System.out.println("Error closing previous driver: " + e.getMessage());
-                }
-                currentDriver = null;
+        if (driver == null || !requestedBrowserType.equals(currentBrowserType.get())) {
+            if (driver != null) {
+                quit(driver, "Error closing previous driver: ");
             }
-
-            currentDriver = seleniumTestBase.browserSetup(requestedBrowserType);
-            seleniumTestBase.setDriver(currentDriver);
-            currentBrowserType = requestedBrowserType;
+            driver = createDriver(requestedBrowserType);
         } else {
-            System.out.println("DriverManager: Reusing existing " + currentBrowserType + " WebDriver instance");
+            System.out.println("DriverManager: Reusing existing " + currentBrowserType.get() + " WebDriver instance");
         }
 
-        return currentDriver;
+        return driver;
     }
 
     /**
-     * Creates a new WebDriver instance, replacing any existing one.
+     * Creates a new WebDriver instance for the current thread, replacing any existing one.
      * If an existing instance is present, it is closed before creating a new one.
      *
      * @return The newly created WebDriver instance.
      */
-    public synchronized WebDriver createNewDriver() {
-        if (currentDriver != null) {
-            try {
-                currentDriver.quit();
-            } catch (Exception e) {
-                System.out.println("Error closing existing driver: " + e.getMessage());
-            }
+    public WebDriver createNewDriver() {
+        WebDriver driver = currentDriver.get();
+        if (driver != null) {
+            quit(driver, "Error closing existing driver: ");
         }
 
-        String browserType = System.getProperty("browserName");
-        currentDriver = seleniumTestBase.browserSetup(browserType);
-        seleniumTestBase.setDriver(currentDriver);
-        currentBrowserType = browserType;
-        return currentDriver;
+        return createDriver(RunSettings.get(RunSettings.BROWSER_NAME));
     }
 
     /**
-     * Closes the current WebDriver instance and sets it to null.
+     * Releases the current thread's WebDriver instance at the end of a scenario and clears it.
+     * The browser is reset and kept for the next scenario, unless pooling is disabled or the
+     * scenario failed, in which case it is quit so a broken session is never reused.
+     *
+     * @param scenarioFailed Whether the scenario that used the browser failed.
+     */
+    public void releaseDriver(boolean scenarioFailed) {
+        WebDriver driver = currentDriver.get() == null ? null : CommandProfiler.unwrap(currentDriver.get());
+        String browserType = currentBrowserType.get();
+        currentDriver.remove();
+        currentBrowserType.remove();
+        seleniumTestBase.setDriver(null);
+        // A driver quit by the scenario watchdog or a cancellation is no longer live
+        if (driver != null && liveDrivers.remove(driver) != null) {
+            if (SharedBrowserContexts.isContext(driver)) {
+                // A context is cheap to create, it is disposed of rather than pooled
+                quit(driver, "Error closing browser context: ");
+            } else {
+                BrowserSessionPool.release(driver, browserType, !scenarioFailed);
+            }
+        }
+    }
+
+    /**
+     * Closes the current thread's WebDriver instance and clears it.
      * Ensures proper cleanup of resources.
      */
-    public synchronized void quitDriver() {
-        if (currentDriver != null) {
-            try {
-                currentDriver.quit();
-            } catch (Exception e) {
-                System.out.println("Error quitting driver: " + e.getMessage());
+    public void quitDriver() {
+        WebDriver driver = currentDriver.get();
+        if (driver != null) {
+            quit(driver, "Error quitting driver: ");
+        }
+        currentDriver.remove();
+        currentBrowserType.remove();
+        seleniumTestBase.setDriver(null);
+    }
+
+    private WebDriver createDriver(String browserType) {
+        WebDriver driver;
+        if (SharedBrowserContexts.isEnabled(browserType)) {
+            driver = SharedBrowserContexts.open(browserType, () -> launchBrowser(browserType));
+        } else {
+            driver = BrowserSessionPool.acquire(browserType);
+            if (driver != null) {
+                System.out.println("DriverManager: Reusing pooled " + browserType + " WebDriver instance");
+            } else {
+                driver = launchBrowser(browserType);
+                BrowserSessionPool.started(driver);
             }
-            currentDriver = null;
-            currentBrowserType = null;
         }
+        NetworkBlocking.apply(driver);
+        liveDrivers.put(driver, Thread.currentThread());
+        WebDriver scenarioDriver = CommandProfiler.profile(driver);
+        currentDriver.set(scenarioDriver);
+        seleniumTestBase.setDriver(scenarioDriver);
+        currentBrowserType.set(browserType);
+        return scenarioDriver;
     }
 
-}
\ No newline at end of file
+    /**
+     * Launches a new browser, failing the scenario before a missing driver is pooled or tracked.
+     *
+     * @throws WebDriverException If the browser could not be started.
+     */
+    private WebDriver launchBrowser(String browserType) {
+        WebDriver driver = seleniumTestBase.browserSetup(browserType);
+        if (driver == null) {
+            throw new WebDriverException("Browser setup returned no " + browserType + " driver");
+        }
+        return driver;
+    }
+
+    /**
+     * Quits every driver of this JVM, whichever thread created it.
+     *
+     * <p>Called when a run is cancelled, so browser sessions (local or on the Grid) are
+     * released instead of lingering until their timeout. Scenarios still using a driver fail
+     * on their next command. Idle pooled browsers and shared browsers hosting scenario
+     * contexts are quit as well.</p>
+     */
+    public static void quitAllDrivers() {
+        for (WebDriver driver : liveDrivers.keySet()) {
+            quit(driver, "Error quitting driver on cancellation: ");
+        }
+        BrowserSessionPool.quitAll();
+        SharedBrowserContexts.quitAll();
+    }
+
+    /**
+     * Retrieves the driver created by a given thread, e.g. a scenario thread that stopped responding.
+     *
+     * @param thread The thread that created the driver.
+     * @return The live driver of the thread, or null if it has none.
+     */
+    public static WebDriver getDriverOf(Thread thread) {
+        return liveDrivers.entrySet().stream()
+                .filter(entry -> entry.getValue() == thread)
+                .map(Map.Entry::getKey)
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Quits the driver created by a given thread, so a scenario blocked on a browser command fails fast.
+     *
+     * @param thread The thread that created the driver.
+     */
+    public static void quitDriverOf(Thread thread) {
+        WebDriver driver = getDriverOf(thread);
+        if (driver != null) {
+            quit(driver, "Error quitting driver of timed out scenario: ");
+        }
+    }
+
+    private static void quit(WebDriver scenarioDriver, String errorMessage) {
+        WebDriver driver = CommandProfiler.unwrap(scenarioDriver);
+        liveDrivers.remove(driver);
+        BrowserSessionPool.discard(driver);
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            System.out.println(errorMessage + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.framework.apiserver.utilities;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Map;
+
+/**
+ * The state of one element read in bulk by {@link SelUtil#queryAll}, at the time it was read.
+ *
+ * <p>The text is the rendered text, as returned by {@code WebElement.getText()}: empty for an
+ * element that is not visible.</p>
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ElementSnapshot {
+
+    /**
+     * The tag name of the element, in lower case.
+     */
+    private final String tagName;
+
+    /**
+     * The rendered text of the element, trimmed.
+     */
+    private final String text;
+
+    /**
+     * Whether the element is displayed.
+     */
+    private final boolean visible;
+
+    /**
+     * The requested attributes of the element; null values for attributes it does not have.
+     */
+    private final Map<String, String> attributes;
+
+    /**
+     * @param name The attribute name.
+     * @return The value of a requested attribute, or null if the element does not have it.
+     */
+    public String getAttribute(String name) {
+        return attributes.get(name);
+    }
+}
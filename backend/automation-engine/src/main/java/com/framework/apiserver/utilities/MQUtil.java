@@ -3,6 +3,7 @@ package com.framework.apiserver.utilities;
 import com.ibm.mq.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
 import jakarta.annotation.PostConstruct;
@@ -10,6 +11,7 @@ import jakarta.annotation.PostConstruct;
 /**
  * Utility class for interacting with IBM MQ.
  * Provides methods to configure and send messages to an MQ queue.
+ * It is created lazily, so the MQ client classes are only loaded by runs that send messages.
  *
  * <p>Dependencies:</p>
  * <ul>
@@ -35,6 +37,7 @@ import jakarta.annotation.PostConstruct;
  * @see MQPutMessageOptions
  */
 @SuppressWarnings("deprecation")
+@Lazy
 @Component
 public class MQUtil {
 
@@ -10,6 +10,7 @@ import org.bson.Document;
 import org.json.simple.JSONObject;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
@@ -22,7 +23,9 @@ import static com.mongodb.client.model.Filters.eq;
  * MongoDBUtil provides utility methods for interacting with MongoDB.
  * It includes methods for initializing connections, retrieving collections,
  * and querying documents from MongoDB.
+ * It is created lazily, the first time a step needs MongoDB.
  */
+@Lazy
 @Component
 public class MongoDBUtil {
 
@@ -0,0 +1,266 @@
+package com.framework.apiserver.utilities;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.framework.apiserver.testrunner.RunSettings;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.remote.Augmenter;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * NetworkBlocking keeps runner browsers from loading requests a scenario does not need, such
+ * as ads, trackers, fonts or images, so pages load faster and use less bandwidth.
+ *
+ * <p>The server resolves the blocking profile of a run and hands its URL patterns to the
+ * runner in the `runner.network.blocked-urls` system property. Every browser a scenario gets
+ * from {@link DriverManager} applies them with the CDP command {@code Network.setBlockedURLs},
+ * which fails matching requests inside the browser before they are sent, without the round
+ * trip to the client that request interception costs. Pooled sessions get the patterns of
+ * the current run, so a session never keeps the profile of an earlier run. Browsers without
+ * CDP, e.g. Firefox, load every request.</p>
+ *
+ * <p>Resource types are blocked by the file extensions they are served with. For the run
+ * report, the blocked requests are counted by resource type and the bytes they would have
+ * transferred are estimated from the average size of the requests of the same type the
+ * browser did load; the report is written to `reports/{runId}/network-blocking.json`.</p>
+ */
+public final class NetworkBlocking {
+
+    /**
+     * System property holding the name of the blocking profile of the run.
+     */
+    public static final String PROFILE_PROPERTY = "runner.network.profile";
+
+    /**
+     * System property holding the comma-separated URL patterns blocked in the run.
+     */
+    public static final String BLOCKED_URLS_PROPERTY = "runner.network.blocked-urls";
+
+    /**
+     * Profile name a job selects to block nothing, whatever its tag or the default profile.
+     */
+    public static final String NO_PROFILE = "none";
+
+    private static final Map<String, List<String>> RESOURCE_EXTENSIONS = Map.of(
+            "image", List.of("png", "jpg", "jpeg", "gif", "webp", "avif", "svg", "ico"),
+            "font", List.of("woff", "woff2", "ttf", "otf", "eot"),
+            "media", List.of("mp4", "webm", "mp3", "ogg", "wav"),
+            "stylesheet", List.of("css"));
+
+    // Drivers blocking requests, so a pooled session of a run without a profile is cleared
+    private static final Set<WebDriver> blocking = Collections.synchronizedSet(
+            Collections.newSetFromMap(new WeakHashMap<>()));
+
+    // Drivers whose network events are counted
+    private static final Set<WebDriver> observed = Collections.synchronizedSet(
+            Collections.newSetFromMap(new WeakHashMap<>()));
+
+    private static final Map<String, LongAdder> blockedRequests = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> loadedRequests = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> loadedBytes = new ConcurrentHashMap<>();
+    private static final AtomicLong transferredBytes = new AtomicLong();
+
+    // Resource type of the requests in flight, by request ID
+    private static final Map<String, String> pendingTypes = new ConcurrentHashMap<>();
+
+    private NetworkBlocking() {
+    }
+
+    /**
+     * Expands a blocking profile to the URL patterns handed to the browser.
+     *
+     * @param urlPatterns   URL patterns, {@code *} matching any characters.
+     * @param resourceTypes Resource types: image, font, media or stylesheet; others are ignored.
+     * @return The URL patterns of the profile, without duplicates.
+     */
+    public static List<String> blockedUrls(List<String> urlPatterns, List<String> resourceTypes) {
+        Set<String> patterns = new LinkedHashSet<>();
+        for (String pattern : urlPatterns) {
+            if (pattern != null && !pattern.isBlank()) {
+                patterns.add(pattern.trim());
+            }
+        }
+        for (String type : resourceTypes) {
+            for (String extension : RESOURCE_EXTENSIONS.getOrDefault(type.trim().toLowerCase(), List.of())) {
+                patterns.add("*." + extension);
+                patterns.add("*." + extension + "?*");
+            }
+        }
+        return new ArrayList<>(patterns);
+    }
+
+    /**
+     * Applies the blocked URLs of the current run to a browser, or clears the ones of an
+     * earlier run. Failures are logged, the scenario then runs without blocking.
+     *
+     * @param driver The browser of a scenario.
+     */
+    public static void apply(WebDriver driver) {
+        List<String> urls = currentBlockedUrls();
+        if (urls.isEmpty() && !blocking.contains(driver)) {
+            return;
+        }
+        WebDriver cdpDriver = driver instanceof RemoteWebDriver && !(driver instanceof HasCdp)
+                ? new Augmenter().augment(driver)
+                : driver;
+        if (!(cdpDriver instanceof HasCdp cdp)) {
+            if (!urls.isEmpty()) {
+                System.out.println("NetworkBlocking: Browser does not support CDP, requests are not blocked");
+            }
+            return;
+        }
+        try {
+            cdp.executeCdpCommand("Network.enable", Map.of());
+            cdp.executeCdpCommand("Network.setBlockedURLs", Map.of("urls", urls));
+            if (urls.isEmpty()) {
+                blocking.remove(driver);
+                return;
+            }
+            blocking.add(driver);
+            observe(driver, cdpDriver);
+        } catch (Exception e) {
+            System.out.println("NetworkBlocking: Could not block requests: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Resets the counters, at the start of a run.
+     */
+    public static void resetStats() {
+        blockedRequests.clear();
+        loadedRequests.clear();
+        loadedBytes.clear();
+        pendingTypes.clear();
+        transferredBytes.set(0);
+    }
+
+    /**
+     * @return The blocking profile, blocked requests by resource type, estimated bytes saved
+     *         and bytes transferred since the counters were reset.
+     */
+    public static Map<String, Object> stats() {
+        Map<String, Long> blockedByType = new TreeMap<>();
+        long blockedTotal = 0;
+        long bytesSaved = 0;
+        for (Map.Entry<String, LongAdder> entry : blockedRequests.entrySet()) {
+            long blocked = entry.getValue().sum();
+            blockedByType.put(entry.getKey(), blocked);
+            blockedTotal += blocked;
+            bytesSaved += blocked * averageSize(entry.getKey());
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("profile", RunSettings.get(PROFILE_PROPERTY));
+        stats.put("blockedUrlPatterns", currentBlockedUrls().size());
+        stats.put("blockedRequests", blockedTotal);
+        stats.put("blockedRequestsByType", blockedByType);
+        stats.put("estimatedBytesSaved", bytesSaved);
+        stats.put("transferredBytes", transferredBytes.get());
+        return stats;
+    }
+
+    /**
+     * Writes the statistics of a run that blocked requests to its report folder.
+     *
+     * @param runId The unique identifier of the test run.
+     */
+    public static void writeReport(String runId) {
+        if (runId == null || currentBlockedUrls().isEmpty()) {
+            return;
+        }
+        try {
+            Path path = Paths.get("reports", runId, "network-blocking.json");
+            Files.createDirectories(path.getParent());
+            new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(path.toFile(), stats());
+        } catch (IOException e) {
+            System.out.println("NetworkBlocking: Could not write the network report: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Counts the blocked and loaded requests of a browser through its DevTools session.
+     * Browsers hosting several scenario contexts are not observed, their events would mix.
+     */
+    private static void observe(WebDriver driver, WebDriver cdpDriver) {
+        if (!(cdpDriver instanceof HasDevTools hasDevTools) || SharedBrowserContexts.isContext(driver)
+                || !observed.add(driver)) {
+            return;
+        }
+        try {
+            DevTools devTools = hasDevTools.getDevTools();
+            devTools.createSessionIfThereIsNotOne();
+            devTools.send(new Command<>("Network.enable", Map.of()));
+            devTools.addListener(networkEvent("Network.responseReceived"), event -> {
+                if (event.get("requestId") != null && event.get("type") != null) {
+                    pendingTypes.put(event.get("requestId").toString(), typeOf(event.get("type")));
+                }
+            });
+            devTools.addListener(networkEvent("Network.loadingFinished"), event -> {
+                String type = pendingTypes.remove(String.valueOf(event.get("requestId")));
+                long bytes = event.get("encodedDataLength") instanceof Number length ? length.longValue() : 0;
+                transferredBytes.addAndGet(bytes);
+                if (type != null) {
+                    loadedRequests.computeIfAbsent(type, key -> new LongAdder()).increment();
+                    loadedBytes.computeIfAbsent(type, key -> new LongAdder()).add(bytes);
+                }
+            });
+            devTools.addListener(networkEvent("Network.loadingFailed"), event -> {
+                pendingTypes.remove(String.valueOf(event.get("requestId")));
+                if (event.get("blockedReason") != null) {
+                    blockedRequests.computeIfAbsent(typeOf(event.get("type")), key -> new LongAdder()).increment();
+                }
+            });
+        } catch (Exception e) {
+            observed.remove(driver);
+            System.out.println("NetworkBlocking: Blocked requests are not counted: " + e.getMessage());
+        }
+    }
+
+    // Raw events, so the listeners do not depend on the CDP version of the browser
+    private static Event<Map<String, Object>> networkEvent(String name) {
+        return new Event<>(name, input -> input.read(Json.MAP_TYPE));
+    }
+
+    private static String typeOf(Object type) {
+        return type == null ? "other" : type.toString().toLowerCase();
+    }
+
+    private static long averageSize(String type) {
+        LongAdder loaded = loadedRequests.get(type);
+        LongAdder bytes = loadedBytes.get(type);
+        if (loaded == null || bytes == null || loaded.sum() == 0) {
+            return 0;
+        }
+        return bytes.sum() / loaded.sum();
+    }
+
+    private static List<String> currentBlockedUrls() {
+        String urls = RunSettings.get(BLOCKED_URLS_PROPERTY, "");
+        return Arrays.stream(urls.split(","))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .toList();
+    }
+}
@@ -0,0 +1,272 @@
+package com.framework.apiserver.utilities;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.framework.apiserver.dto.PageMetricsReport;
+import com.framework.apiserver.testrunner.RunSettings;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.remote.Augmenter;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PageMetrics records how fast the pages of the system under test load, so a release that
+ * slows a page down shows up in the run history before users notice.
+ *
+ * <p>The hooks call {@link #capture} after every step when the `runner.page-metrics.enabled`
+ * system property is true. The browser reports, for the page it shows:</p>
+ * <ul>
+ *   <li>the Navigation Timing of the page load: time to first byte, DOM content loaded,
+ *       load event and bytes transferred;</li>
+ *   <li>the first and largest contentful paint (FCP, LCP) and the cumulative layout shift
+ *       (CLS), from the buffered paint and layout shift entries;</li>
+ *   <li>for Chromium browsers, the JavaScript heap and DOM node count of the CDP command
+ *       {@code Performance.getMetrics}.</li>
+ * </ul>
+ *
+ * <p>A page load is identified by its document's time origin. The first step on a new page
+ * adds a sample; later steps on the same page update it, as LCP, CLS and the load event can
+ * be reported after the step that navigated. The samples of a run are written to
+ * `reports/{runId}/page-metrics.json`, which the server folds into the page performance
+ * history.</p>
+ */
+public final class PageMetrics {
+
+    /**
+     * System property enabling the capture; disabled unless set to true.
+     */
+    public static final String ENABLED_PROPERTY = "runner.page-metrics.enabled";
+
+    // Samples kept per run, so a runaway scenario cannot exhaust the runner heap
+    private static final int MAX_SAMPLES = 10_000;
+
+    // Returns null for pages not loaded over HTTP, e.g. about:blank between scenarios
+    private static final String METRICS_SCRIPT = """
+            if (!/^https?:$/.test(location.protocol)) {
+                return null;
+            }
+            function records(type) {
+                try {
+                    var observer = new PerformanceObserver(function () {});
+                    observer.observe({type: type, buffered: true});
+                    var entries = observer.takeRecords();
+                    observer.disconnect();
+                    return entries;
+                } catch (e) {
+                    return [];
+                }
+            }
+            var nav = performance.getEntriesByType('navigation')[0] || {};
+            var fcp = performance.getEntriesByName('first-contentful-paint')[0];
+            var lcp = records('largest-contentful-paint');
+            var cls = 0, session = 0, first = 0, last = 0;
+            records('layout-shift').forEach(function (shift) {
+                if (shift.hadRecentInput) {
+                    return;
+                }
+                if (session > 0 && shift.startTime - last < 1000 && shift.startTime - first < 5000) {
+                    session += shift.value;
+                } else {
+                    session = shift.value;
+                    first = shift.startTime;
+                }
+                last = shift.startTime;
+                cls = Math.max(cls, session);
+            });
+            return {
+                timeOrigin: performance.timeOrigin,
+                page: location.origin + location.pathname,
+                ttfb: nav.responseStart || 0,
+                domContentLoaded: nav.domContentLoadedEventEnd || 0,
+                load: nav.loadEventEnd || 0,
+                transferSize: nav.transferSize || 0,
+                fcp: fcp ? fcp.startTime : 0,
+                lcp: lcp.length ? lcp[lcp.length - 1].startTime : 0,
+                cls: cls
+            };
+            """;
+
+    private static final ConcurrentLinkedQueue<PageMetricsReport.PageSample> samples = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger sampleCount = new AtomicInteger();
+
+    // The page load each browser showed at its last capture
+    private static final Map<WebDriver, PageLoad> currentPages = Collections.synchronizedMap(new WeakHashMap<>());
+
+    // CDP access of remote browsers, augmented once per session
+    private static final Map<WebDriver, HasCdp> cdpDrivers = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final Set<WebDriver> withoutCdp = Collections.synchronizedSet(
+            Collections.newSetFromMap(new WeakHashMap<>()));
+
+    // Browsers whose CDP performance domain is enabled
+    private static final Set<WebDriver> performanceEnabled = Collections.synchronizedSet(
+            Collections.newSetFromMap(new WeakHashMap<>()));
+
+    private PageMetrics() {
+    }
+
+    /**
+     * @return True if page metrics are captured after every step.
+     */
+    public static boolean isEnabled() {
+        return Boolean.getBoolean(ENABLED_PROPERTY);
+    }
+
+    /**
+     * Reads the metrics of the page a scenario's browser shows. Failures are logged and the
+     * step is not affected.
+     *
+     * @param driver   The driver of the scenario, may be null if it did not start a browser.
+     * @param scenario The name of the scenario.
+     */
+    public static void capture(WebDriver driver, String scenario) {
+        if (driver == null || !isEnabled()) {
+            return;
+        }
+        // Captures are not scenario commands, they are kept out of the command profile
+        WebDriver browser = CommandProfiler.unwrap(driver);
+        if (!(browser instanceof JavascriptExecutor js)) {
+            return;
+        }
+        try {
+            if (!(js.executeScript(METRICS_SCRIPT) instanceof Map<?, ?> metrics)) {
+                return;
+            }
+            double timeOrigin = number(metrics.get("timeOrigin"));
+            PageLoad current = currentPages.get(browser);
+            PageMetricsReport.PageSample sample;
+            if (current != null && current.timeOrigin() == timeOrigin) {
+                sample = current.sample();
+            } else {
+                if (sampleCount.incrementAndGet() > MAX_SAMPLES) {
+                    return;
+                }
+                sample = new PageMetricsReport.PageSample();
+                sample.setScenario(scenario);
+                sample.setPage(String.valueOf(metrics.get("page")));
+                currentPages.put(browser, new PageLoad(timeOrigin, sample));
+                samples.add(sample);
+            }
+            sample.setTtfbMs(millis(metrics.get("ttfb")));
+            sample.setDomContentLoadedMs(millis(metrics.get("domContentLoaded")));
+            sample.setLoadMs(millis(metrics.get("load")));
+            sample.setTransferBytes(millis(metrics.get("transferSize")));
+            sample.setFcpMs(millis(metrics.get("fcp")));
+            sample.setLcpMs(millis(metrics.get("lcp")));
+            sample.setCls(number(metrics.get("cls")));
+            Map<String, Double> cdpMetrics = cdpMetrics(browser);
+            sample.setJsHeapUsedBytes(Math.round(cdpMetrics.getOrDefault("JSHeapUsedSize", 0.0)));
+            sample.setDomNodes(Math.round(cdpMetrics.getOrDefault("Nodes", 0.0)));
+        } catch (Exception e) {
+            System.out.println("PageMetrics: Could not read page metrics: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the CDP performance metrics of a Chromium browser; empty for other browsers and
+     * for contexts of a shared browser, whose CDP session is the browser's.
+     */
+    private static Map<String, Double> cdpMetrics(WebDriver browser) {
+        if (SharedBrowserContexts.isContext(browser)) {
+            return Map.of();
+        }
+        HasCdp cdp = cdpOf(browser);
+        if (cdp == null) {
+            return Map.of();
+        }
+        if (performanceEnabled.add(browser)) {
+            cdp.executeCdpCommand("Performance.enable", Map.of());
+        }
+        Map<String, Double> metrics = new HashMap<>();
+        if (cdp.executeCdpCommand("Performance.getMetrics", Map.of()).get("metrics") instanceof List<?> list) {
+            for (Object entry : list) {
+                if (entry instanceof Map<?, ?> metric) {
+                    metrics.put(String.valueOf(metric.get("name")), number(metric.get("value")));
+                }
+            }
+        }
+        return metrics;
+    }
+
+    private static HasCdp cdpOf(WebDriver browser) {
+        if (browser instanceof HasCdp cdp) {
+            return cdp;
+        }
+        if (!(browser instanceof RemoteWebDriver) || withoutCdp.contains(browser)) {
+            return null;
+        }
+        HasCdp cdp = cdpDrivers.get(browser);
+        if (cdp == null) {
+            if (new Augmenter().augment(browser) instanceof HasCdp augmented) {
+                cdp = augmented;
+                cdpDrivers.put(browser, cdp);
+            } else {
+                withoutCdp.add(browser);
+            }
+        }
+        return cdp;
+    }
+
+    private static double number(Object value) {
+        return value instanceof Number number ? number.doubleValue() : 0;
+    }
+
+    private static long millis(Object value) {
+        return Math.round(number(value));
+    }
+
+    /**
+     * Clears the recorded samples, at the start of a run.
+     */
+    public static void resetStats() {
+        samples.clear();
+        sampleCount.set(0);
+        currentPages.clear();
+    }
+
+    /**
+     * @return The page loads recorded since the last reset.
+     */
+    public static PageMetricsReport report() {
+        PageMetricsReport report = new PageMetricsReport();
+        report.setNetworkProfile(RunSettings.get(NetworkBlocking.PROFILE_PROPERTY));
+        report.getSamples().addAll(samples);
+        return report;
+    }
+
+    /**
+     * Writes the page metrics of a run to its report folder.
+     *
+     * @param runId The unique identifier of the test run.
+     */
+    public static void writeReport(String runId) {
+        if (runId == null || samples.isEmpty()) {
+            return;
+        }
+        try {
+            Path path = Paths.get("reports", runId, "page-metrics.json");
+            Files.createDirectories(path.getParent());
+            new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(path.toFile(), report());
+        } catch (IOException e) {
+            System.out.println("PageMetrics: Could not write the page metrics report: " + e.getMessage());
+        }
+    }
+
+    /**
+     * The page load a browser showed at its last capture, and its sample.
+     */
+    private record PageLoad(double timeOrigin, PageMetricsReport.PageSample sample) {
+    }
+}
@@ -0,0 +1,249 @@
+package com.framework.apiserver.utilities;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.interactions.Locatable;
+import org.openqa.selenium.support.CacheLookup;
+import org.openqa.selenium.support.FindAll;
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.FindBys;
+import org.openqa.selenium.support.pagefactory.Annotations;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * PageObjects initializes the {@code @FindBy} fields of page objects, as
+ * {@link org.openqa.selenium.support.PageFactory} does, with less work per page and per access.
+ *
+ * <ul>
+ *   <li>The locator metadata of a page class (its annotated fields and their {@link By}) is
+ *       read by reflection once and cached, so constructing a page only creates the proxies.</li>
+ *   <li>When the element cache is enabled (the `runner.element.cache` system property), or for
+ *       fields annotated with {@link CacheLookup}, a single element is located on first use
+ *       and reused by later calls. A cached element that went stale, because the page changed,
+ *       is located again and the call retried, so the cache never returns a detached element.
+ *       Element lists are located on every use unless annotated with {@link CacheLookup}.</li>
+ * </ul>
+ *
+ * <p>The element lookups every scenario thread performed and avoided are counted, and logged by
+ * the hooks at the end of each scenario.</p>
+ */
+public final class PageObjects {
+
+    /**
+     * System property enabling the cache of located elements; disabled unless set to true.
+     */
+    public static final String ELEMENT_CACHE_PROPERTY = "runner.element.cache";
+
+    // Locator metadata, by page class
+    private static final Map<Class<?>, List<ElementField>> metadata = new ConcurrentHashMap<>();
+
+    // Lookups performed and avoided by the scenario of each thread
+    private static final ThreadLocal<long[]> lookups = ThreadLocal.withInitial(() -> new long[2]);
+
+    private PageObjects() {
+    }
+
+    /**
+     * Initializes the {@code @FindBy}, {@code @FindBys} and {@code @FindAll} fields of a page
+     * object, including those declared by its superclasses.
+     *
+     * @param searchContext The driver or element the fields are located from.
+     * @param page          The page object.
+     */
+    public static void initElements(SearchContext searchContext, Object page) {
+        boolean cacheAll = Boolean.getBoolean(ELEMENT_CACHE_PROPERTY);
+        for (ElementField field : metadata.computeIfAbsent(page.getClass(), PageObjects::readFields)) {
+            Locator locator = new Locator(searchContext, field.by(), cacheAll || field.cacheLookup());
+            Object proxy = field.list()
+                    ? Proxy.newProxyInstance(PageObjects.class.getClassLoader(), new Class<?>[]{List.class},
+                            new ListHandler(locator, field.cacheLookup()))
+                    : Proxy.newProxyInstance(PageObjects.class.getClassLoader(),
+                            new Class<?>[]{WebElement.class, WrapsElement.class, Locatable.class},
+                            new ElementHandler(locator));
+            try {
+                field.field().set(page, proxy);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Cannot initialize field " + field.field().getName(), e);
+            }
+        }
+    }
+
+    /**
+     * @return The element lookups performed and avoided by the scenario of the current thread.
+     */
+    public static Map<String, Long> scenarioStats() {
+        long[] counts = lookups.get();
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("lookups", counts[0]);
+        stats.put("lookupsAvoided", counts[1]);
+        return stats;
+    }
+
+    /**
+     * Resets the lookup counters of the current thread, at the start of a scenario.
+     */
+    public static void resetScenarioStats() {
+        lookups.remove();
+    }
+
+    private static List<ElementField> readFields(Class<?> pageClass) {
+        List<ElementField> fields = new ArrayList<>();
+        for (Class<?> type = pageClass; type != null && type != Object.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                if (!field.isAnnotationPresent(FindBy.class) && !field.isAnnotationPresent(FindBys.class)
+                        && !field.isAnnotationPresent(FindAll.class)) {
+                    continue;
+                }
+                boolean list = isElementList(field);
+                if (!list && field.getType() != WebElement.class) {
+                    continue;
+                }
+                field.setAccessible(true);
+                fields.add(new ElementField(field, new Annotations(field).buildBy(), list,
+                        field.isAnnotationPresent(CacheLookup.class)));
+            }
+        }
+        return List.copyOf(fields);
+    }
+
+    private static boolean isElementList(Field field) {
+        return field.getType() == List.class
+                && field.getGenericType() instanceof ParameterizedType type
+                && type.getActualTypeArguments()[0] == WebElement.class;
+    }
+
+    private static void count(boolean located) {
+        lookups.get()[located ? 0 : 1]++;
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * The locator metadata of one field of a page class.
+     */
+    private record ElementField(Field field, By by, boolean list, boolean cacheLookup) {
+    }
+
+    /**
+     * Locates the element of one field of a page object, reusing it when caching is on.
+     */
+    private static final class Locator {
+
+        private final SearchContext searchContext;
+        private final By by;
+        private final boolean cache;
+
+        private WebElement element;
+        private List<WebElement> elements;
+
+        private Locator(SearchContext searchContext, By by, boolean cache) {
+            this.searchContext = searchContext;
+            this.by = by;
+            this.cache = cache;
+        }
+
+        private synchronized WebElement findElement() {
+            if (cache && element != null) {
+                count(false);
+                return element;
+            }
+            count(true);
+            WebElement located = searchContext.findElement(by);
+            if (cache) {
+                element = located;
+            }
+            return located;
+        }
+
+        private synchronized List<WebElement> findElements(boolean cacheList) {
+            if (cacheList && elements != null) {
+                count(false);
+                return elements;
+            }
+            count(true);
+            List<WebElement> located = searchContext.findElements(by);
+            if (cacheList) {
+                elements = located;
+            }
+            return located;
+        }
+
+        private synchronized void evict(WebElement stale) {
+            if (element == stale) {
+                element = null;
+            }
+        }
+    }
+
+    /**
+     * Forwards the calls of a single element field to its located element, locating it again
+     * once if the cached element went stale.
+     */
+    private static final class ElementHandler implements InvocationHandler {
+
+        private final Locator locator;
+
+        private ElementHandler(Locator locator) {
+            this.locator = locator;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getName().equals("toString") && method.getParameterCount() == 0) {
+                return "Proxy element for: " + locator.by;
+            }
+            WebElement element = locator.findElement();
+            if (method.getName().equals("getWrappedElement")) {
+                return element;
+            }
+            try {
+                return PageObjects.invoke(element, method, args);
+            } catch (StaleElementReferenceException e) {
+                if (!locator.cache) {
+                    throw e;
+                }
+                locator.evict(element);
+                return PageObjects.invoke(locator.findElement(), method, args);
+            }
+        }
+    }
+
+    /**
+     * Forwards the calls of an element list field to the located elements.
+     */
+    private static final class ListHandler implements InvocationHandler {
+
+        private final Locator locator;
+        private final boolean cacheList;
+
+        private ListHandler(Locator locator, boolean cacheList) {
+            this.locator = locator;
+            this.cacheList = cacheList;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            return PageObjects.invoke(locator.findElements(cacheList), method, args);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.framework.apiserver.utilities;
 import com.framework.apiserver.config.SftpProperties;
 import com.jcraft.jsch.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
 import java.io.File;
@@ -13,6 +14,7 @@ import java.util.Properties;
 /**
  * SFTPUtil is a utility class for handling SFTP operations.
  * It provides methods to connect, upload, download, and disconnect from an SFTP server.
+ * It is created lazily, when a step first transfers a file.
  *
  * <p>Dependencies:</p>
  * <ul>
@@ -26,6 +28,7 @@ import java.util.Properties;
  * @see ChannelSftp
  * @see Component
  */
+@Lazy
 @Component
 public class SFTPUtil {
 
@@ -1,22 +1,33 @@
 package com.framework.apiserver.utilities;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import org.openqa.selenium.*;
 import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.FluentWait;
-import org.openqa.selenium.support.ui.WebDriverWait;
 import org.springframework.aop.framework.Advised;
 import org.springframework.aop.support.AopUtils;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 /**
  * SelUtil is a utility class for common Selenium WebDriver operations.
  * It provides methods for waiting, interacting with elements, and performing actions on web pages.
  *
+ * <p>Every wait runs on the {@link ConditionWait} of the scenario thread, which is reused for
+ * all conditions of the scenario and returns as soon as the page changes so that the condition
+ * holds, instead of polling at a fixed interval.</p>
+ *
+ * <p>Reading many elements one by one costs a round trip to the driver per element and call,
+ * which adds up over the Grid. {@link #queryAll}, {@link #extractTexts} and {@link #extractTable}
+ * read the text, visibility and attributes of every matching element with a single script.</p>
+ *
  * <p>Dependencies:</p>
  * <ul>
  *   <li>Spring Framework for dependency injection</li>
@@ -25,19 +36,55 @@ import java.time.Duration;
  *
  * @see WebDriver
  * @see WebElement
- * @see WebDriverWait
- * @see FluentWait
+ * @see ConditionWait
  * @see Component
  */
 @Getter
 @Component
 public class SelUtil {
 
-    @Autowired
-    @Lazy
-    protected WebDriver driver;
+    private static final String QUERY_SCRIPT = """
+            var elements = arguments[0];
+            var strategy = arguments[1], selector = arguments[2], names = arguments[3];
+            if (!elements) {
+                if (strategy === 'xpath') {
+                    var found = document.evaluate(selector, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);
+                    elements = [];
+                    for (var i = 0; i < found.snapshotLength; i++) { elements.push(found.snapshotItem(i)); }
+                } else {
+                    elements = Array.prototype.slice.call(document.querySelectorAll(selector));
+                }
+            }
+            var isVisible = function (el) {
+                var style = window.getComputedStyle(el);
+                return style.visibility !== 'hidden' && style.display !== 'none'
+                    && !!(el.offsetWidth || el.offsetHeight || el.getClientRects().length);
+            };
+            return elements.map(function (el) {
+                var visible = isVisible(el);
+                var attributes = {};
+                names.forEach(function (name) { attributes[name] = el.getAttribute(name); });
+                return {tagName: el.tagName.toLowerCase(), text: visible ? (el.innerText || '').trim() : '',
+                        visible: visible, attributes: attributes};
+            });
+            """;
+
+    private static final String TABLE_SCRIPT = """
+            var cellSelector = arguments[2];
+            var rows = arguments[0].querySelectorAll(arguments[1]);
+            return Array.prototype.map.call(rows, function (row) {
+                return Array.prototype.map.call(row.querySelectorAll(cellSelector), function (cell) {
+                    return (cell.innerText || '').trim();
+                });
+            });
+            """;
+
     private final SeleniumTestBase seleniumTestBase;
 
+    // The wait of each scenario thread, replaced when the thread gets another driver
+    @Getter(AccessLevel.NONE)
+    private final ThreadLocal<ConditionWait> conditionWait = new ThreadLocal<>();
+
     /**
      * Constructs a SelUtil instance with the required SeleniumTestBase dependency.
      *
@@ -48,6 +95,37 @@ public class SelUtil {
         this.seleniumTestBase = seleniumTestBase;
     }
 
+    /**
+     * Returns the WebDriver of the scenario running on the current thread.
+     *
+     * @return The current WebDriver instance.
+     */
+    public WebDriver getDriver() {
+        return seleniumTestBase.getDriver();
+    }
+
+    /**
+     * Waits until a condition holds on the page of the current thread's driver.
+     *
+     * @param name      The name the condition's latency is recorded under.
+     * @param condition The condition.
+     * @param timeout   The timeout in seconds.
+     * @param ignored   Exceptions that count as the condition being false.
+     * @param <T>       The result type of the condition.
+     * @return The result of the condition.
+     */
+    @SafeVarargs
+    public final <T> T waitFor(String name, Function<? super WebDriver, T> condition, int timeout,
+                               Class<? extends Throwable>... ignored) {
+        WebDriver driver = getActualDriver(getDriver());
+        ConditionWait wait = conditionWait.get();
+        if (wait == null || wait.getDriver() != driver) {
+            wait = new ConditionWait(driver);
+            conditionWait.set(wait);
+        }
+        return wait.until(name, condition, Duration.ofSeconds(timeout), ignored);
+    }
+
     /**
      * Waits for a WebElement to be visible within the specified timeout.
      *
@@ -56,8 +134,7 @@ public class SelUtil {
      * @return The visible WebElement.
      */
     public WebElement waitForElementToBeVisible(WebElement element, int timeout) {
-        return new WebDriverWait(getDriver(), Duration.ofSeconds(timeout))
-                .until(ExpectedConditions.visibilityOf(element));
+        return waitFor("visible", ExpectedConditions.visibilityOf(element), timeout);
     }
 
     /**
@@ -68,8 +145,7 @@ public class SelUtil {
      * @return The clickable WebElement.
      */
     public WebElement waitForElementToBeClickable(WebElement element, int timeout) {
-        return new WebDriverWait(getDriver(), Duration.ofSeconds(timeout))
-                .until(ExpectedConditions.elementToBeClickable(element));
+        return waitFor("clickable", ExpectedConditions.elementToBeClickable(element), timeout);
     }
 
     /**
@@ -80,8 +156,7 @@ public class SelUtil {
      * @return True if the element is selected, false otherwise.
      */
     public boolean waitForElementToBeSelected(WebElement element, int timeout) {
-        return new WebDriverWait(getDriver(), Duration.ofSeconds(timeout))
-                .until(ExpectedConditions.elementToBeSelected(element));
+        return waitFor("selected", ExpectedConditions.elementToBeSelected(element), timeout);
     }
 
     /**
@@ -109,7 +184,7 @@ public class SelUtil {
      * @param element The WebElement to scroll to and click.
      */
     public void scrollIntoViewAndClick(WebElement element) {
-        WebDriver actualDriver = getActualDriver(driver);
+        WebDriver actualDriver = getActualDriver(getDriver());
         ((JavascriptExecutor) actualDriver).executeScript("arguments[0].scrollIntoView(true);", element);
         waitForElementToBeClickable(element, 10).click();
     }
@@ -125,7 +200,7 @@ public class SelUtil {
     }
 
     /**
-     * Clicks a WebElement using a FluentWait for it to be clickable.
+     * Clicks a WebElement after waiting for it to be clickable, ignoring intercepted clicks while waiting.
      *
      * @param element The WebElement to click.
      */
@@ -160,42 +235,33 @@ public class SelUtil {
      * @return True if the element becomes invisible, false otherwise.
      */
     public boolean waitForElementInvisible(WebElement element, int timeout) {
-        return new WebDriverWait(getDriver(), Duration.ofSeconds(timeout))
-                .until(ExpectedConditions.invisibilityOf(element));
+        return waitFor("invisible", ExpectedConditions.invisibilityOf(element), timeout);
     }
 
     /**
-     * Waits for a WebElement to be visible using FluentWait.
+     * Waits for a WebElement to be visible ignoring missing elements.
      *
      * @param element The WebElement to wait for.
      * @param timeout The timeout in seconds.
      * @return The visible WebElement.
      */
     public WebElement fluentWaitVisibilityOfElementLocated(WebElement element, int timeout) {
-        return new FluentWait<>(getDriver())
-                .withTimeout(Duration.ofSeconds(timeout))
-                .pollingEvery(Duration.ofSeconds(1))
-                .ignoring(NoSuchElementException.class)
-                .until(ExpectedConditions.visibilityOf(element));
+        return waitFor("visible", ExpectedConditions.visibilityOf(element), timeout, NoSuchElementException.class);
     }
 
     /**
-     * Waits for a WebElement to be clickable using FluentWait.
+     * Waits for a WebElement to be clickable ignoring missing elements.
      *
      * @param element The WebElement to wait for.
      * @param timeout The timeout in seconds.
      * @return The clickable WebElement.
      */
     public WebElement fluentWaitElementToBeClickable(WebElement element, int timeout) {
-        return new FluentWait<>(getDriver())
-                .withTimeout(Duration.ofSeconds(timeout))
-                .pollingEvery(Duration.ofSeconds(1))
-                .ignoring(NoSuchElementException.class)
-                .until(ExpectedConditions.elementToBeClickable(element));
+        return waitFor("clickable", ExpectedConditions.elementToBeClickable(element), timeout, NoSuchElementException.class);
     }
 
     /**
-     * Waits for a WebElement to be clickable using FluentWait, ignoring a specific exception.
+     * Waits for a WebElement to be clickable ignoring a specific exception.
      *
      * @param element          The WebElement to wait for.
      * @param timeout          The timeout in seconds.
@@ -203,11 +269,140 @@ public class SelUtil {
      * @return The clickable WebElement.
      */
     public WebElement fluentWaitElementToBeClickable(WebElement element, int timeout, Class<? extends Throwable> exceptionToIgnore) {
-        return new FluentWait<>(getDriver())
-                .withTimeout(Duration.ofSeconds(timeout))
-                .pollingEvery(Duration.ofSeconds(1))
-                .ignoring(exceptionToIgnore)
-                .until(ExpectedConditions.elementToBeClickable(element));
+        return waitFor("clickable", ExpectedConditions.elementToBeClickable(element), timeout, exceptionToIgnore);
+    }
+
+    /**
+     * Reads the text, visibility and attributes of every element matching a locator in a
+     * single round trip. CSS, XPath, id, name, class name and tag name locators are evaluated
+     * in the page; other locators find the elements first, in one more round trip.
+     *
+     * @param locator    The locator of the elements.
+     * @param attributes The attributes to read from every element.
+     * @return The state of every matching element, in document order.
+     */
+    public List<ElementSnapshot> queryAll(By locator, String... attributes) {
+        String[] query = toScriptQuery(locator);
+        if (query == null) {
+            return queryAll(getDriver().findElements(locator), attributes);
+        }
+        return runQuery(null, query[0], query[1], attributes);
+    }
+
+    /**
+     * Reads the text, visibility and attributes of already located elements, e.g. a
+     * {@code @FindBy} list, in a single round trip.
+     *
+     * @param elements   The elements.
+     * @param attributes The attributes to read from every element.
+     * @return The state of every element, in the order of the list.
+     */
+    public List<ElementSnapshot> queryAll(List<WebElement> elements, String... attributes) {
+        // Copied, so a lazily located list is resolved by a single find
+        List<WebElement> located = new ArrayList<>(elements);
+        if (located.isEmpty()) {
+            return List.of();
+        }
+        return runQuery(located, "css", null, attributes);
+    }
+
+    /**
+     * Reads the rendered text of every element matching a locator in a single round trip.
+     *
+     * @param locator The locator of the elements.
+     * @return The trimmed texts, empty for elements that are not visible.
+     */
+    public List<String> extractTexts(By locator) {
+        return queryAll(locator).stream().map(ElementSnapshot::getText).toList();
+    }
+
+    /**
+     * Reads the rendered text of already located elements in a single round trip.
+     *
+     * @param elements The elements.
+     * @return The trimmed texts, empty for elements that are not visible.
+     */
+    public List<String> extractTexts(List<WebElement> elements) {
+        return queryAll(elements).stream().map(ElementSnapshot::getText).toList();
+    }
+
+    /**
+     * Reads the cell texts of an HTML table in a single round trip.
+     *
+     * @param table The table element.
+     * @return The text of every cell, by row; header rows included.
+     */
+    public List<List<String>> extractTable(WebElement table) {
+        return extractTable(table, "tr", "th, td");
+    }
+
+    /**
+     * Reads the cell texts of a table or grid built from any markup, e.g. a div-based grid,
+     * in a single round trip.
+     *
+     * @param root         The element containing the rows.
+     * @param rowSelector  The CSS selector of the rows, relative to the root.
+     * @param cellSelector The CSS selector of the cells, relative to a row.
+     * @return The text of every cell, by row.
+     */
+    @SuppressWarnings("unchecked")
+    public List<List<String>> extractTable(WebElement root, String rowSelector, String cellSelector) {
+        Object rows = ((JavascriptExecutor) getActualDriver(getDriver()))
+                .executeScript(TABLE_SCRIPT, root, rowSelector, cellSelector);
+        List<List<String>> table = new ArrayList<>();
+        for (Object row : (List<Object>) rows) {
+            List<String> cells = new ArrayList<>();
+            for (Object cell : (List<Object>) row) {
+                cells.add(cell == null ? "" : cell.toString());
+            }
+            table.add(cells);
+        }
+        return table;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<ElementSnapshot> runQuery(List<WebElement> elements, String strategy, String selector,
+                                           String[] attributes) {
+        Object result = ((JavascriptExecutor) getActualDriver(getDriver()))
+                .executeScript(QUERY_SCRIPT, elements, strategy, selector, List.of(attributes));
+        List<ElementSnapshot> snapshots = new ArrayList<>();
+        for (Object item : (List<Object>) result) {
+            Map<String, Object> element = (Map<String, Object>) item;
+            Map<String, String> values = new LinkedHashMap<>();
+            ((Map<String, Object>) element.get("attributes"))
+                    .forEach((name, value) -> values.put(name, value == null ? null : value.toString()));
+            snapshots.add(new ElementSnapshot((String) element.get("tagName"), (String) element.get("text"),
+                    Boolean.TRUE.equals(element.get("visible")), values));
+        }
+        return snapshots;
+    }
+
+    /**
+     * Translates a locator to a strategy and selector the query script evaluates, based on
+     * the {@code By.<strategy>: <value>} form of its description.
+     *
+     * @return The strategy (css or xpath) and selector, or null if the locator cannot be evaluated in the page.
+     */
+    private static String[] toScriptQuery(By locator) {
+        String description = locator.toString();
+        int separator = description.indexOf(": ");
+        if (!description.startsWith("By.") || separator < 0) {
+            return null;
+        }
+        String value = description.substring(separator + 2);
+        return switch (description.substring(3, separator)) {
+            case "cssSelector" -> new String[]{"css", value};
+            case "xpath" -> new String[]{"xpath", value};
+            case "id" -> new String[]{"css", "[id=\"" + escapeCss(value) + "\"]"};
+            case "name" -> new String[]{"css", "[name=\"" + escapeCss(value) + "\"]"};
+            case "className" -> new String[]{"css", "[class~=\"" + escapeCss(value) + "\"]"};
+            case "tagName" -> new String[]{"css", value};
+            default -> null;
+        };
+    }
+
+    private static String escapeCss(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
     }
 
     /**
@@ -1,14 +1,14 @@
 package com.framework.apiserver.utilities;
 
 import com.framework.apiserver.config.FrameworkProperties;
+import com.framework.apiserver.execution.GridMonitor;
 import io.cucumber.java.Scenario;
-import lombok.Getter;
-import lombok.Setter;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.edge.EdgeDriver;
@@ -22,7 +22,6 @@ import org.springframework.stereotype.Component;
 
 import java.io.File;
 import java.io.IOException;
-import java.net.HttpURLConnection;
 import java.net.URL;
 import java.util.HashMap;
 
@@ -49,12 +48,13 @@ public class SeleniumTestBase {
 
     private final FrameworkProperties properties;
 
+    private final GridMonitor gridMonitor;
+
     @Autowired
     private BaseClass baseClass;
 
-    @Setter
-    @Getter
-    protected WebDriver driver;
+    // The driver of the scenario running on the current thread
+    private final ThreadLocal<WebDriver> driver = new ThreadLocal<>();
 
     @Value("${browser_mode}")
     private String browserMode;
@@ -63,9 +63,13 @@ public class SeleniumTestBase {
 
     /**
      * Constructs a SeleniumTestBase instance and initializes browser preferences.
+     *
+     * @param properties  The framework paths.
+     * @param gridMonitor The monitor deciding whether browsers are started on the Selenium Grid.
      */
-    public SeleniumTestBase(FrameworkProperties properties) {
+    public SeleniumTestBase(FrameworkProperties properties, GridMonitor gridMonitor) {
         this.properties = properties;
+        this.gridMonitor = gridMonitor;
         browserPref.put("download.default_directory", properties.getDownloadPath());
         browserPref.put("profile.default_content_setting_value.notifications", 2);
         browserPref.put("credentials_enable_service", false);
@@ -73,6 +77,28 @@ public class SeleniumTestBase {
         browserPref.put("credential_enable_service", false);
     }
 
+    /**
+     * Returns the WebDriver of the scenario running on the current thread.
+     *
+     * @return The WebDriver instance, or null if no browser was started on this thread.
+     */
+    public WebDriver getDriver() {
+        return driver.get();
+    }
+
+    /**
+     * Sets the WebDriver of the scenario running on the current thread.
+     *
+     * @param driver The WebDriver instance, or null to clear it.
+     */
+    public void setDriver(WebDriver driver) {
+        if (driver == null) {
+            this.driver.remove();
+        } else {
+            this.driver.set(driver);
+        }
+    }
+
     /**
      * Sets up the browser based on the configuration properties.
      *
@@ -83,14 +109,16 @@ public class SeleniumTestBase {
      * </ul>
      *
      * @return The WebDriver instance.
-     * @throws IllegalArgumentException if the browser is not supported.
+     * @throws WebDriverException if the browser is not supported or cannot be started, with the
+     *                            setup failure as its cause.
      */
     public WebDriver browserSetup(String browser) {
         WebDriver driver = null;
-        String gridUrl = System.getenv("GRID_URL");
+        String gridUrl = gridMonitor.gridUrl();
         System.out.println("GRID URL: " + gridUrl);
         try {
-            boolean useGrid = useGrid(gridUrl);
+            // Answered from the last Grid status check, the Grid is not contacted here
+            boolean useGrid = gridMonitor.isReady();
             System.out.println("Browser: " + browser + ", Mode: " + browserMode + ", Using Grid: " + useGrid);
             String b = browser.toLowerCase();
 
@@ -183,74 +211,19 @@ public class SeleniumTestBase {
 
         } catch (Exception e) {
             baseClass.failLog("Error initializing browser: " + e.getMessage());
+            throw new WebDriverException("Could not start " + browser + " browser: " + e.getMessage(), e);
         }
 
         return driver;
     }
 
-    /**
-     * Determines whether to use Selenium Grid for running tests based on the provided Grid URL.
-     *
-     * <p>This method checks if the Selenium Grid is available and ready to use by sending a GET request
-     * to the Grid's status endpoint. If the Grid is ready, it returns true; otherwise, it falls back to
-     * using a local WebDriver instance.</p>
-     *
-     * @param gridUrl The URL of the Selenium Grid, including the protocol (e.g., http://localhost:4444).
-     * @return {@code true} if the Selenium Grid is available and ready; {@code false} otherwise.
-     */
-    private boolean useGrid(String gridUrl) {
-        boolean useGrid = false;
-
-        if (gridUrl == null || gridUrl.trim().isEmpty()) {
-            System.out.println("Grid URL is null or empty, using local driver");
-            return false;
-        }
-
-        try {
-            URL url = new URL(gridUrl + "/status");
-            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod("GET");
-            conn.setConnectTimeout(10000); // 10 seconds - increased timeout
-            conn.setReadTimeout(10000); // 10 seconds read timeout
-            conn.connect();
-
-            int responseCode = conn.getResponseCode();
-            System.out.println("Grid status check response code: " + responseCode);
-
-            if (responseCode == 200) {
-                // Additional check to verify grid is ready
-                try {
-                    // Read response to ensure grid is actually ready
-                    String response = new String(conn.getInputStream().readAllBytes());
-                    if (response.contains("\"ready\": true") || response.contains("ready\":true")) {
-                        useGrid = true;
-                        System.out.println("Selenium Grid is ready and available");
-                    } else {
-                        System.out.println("Selenium Grid responded but is not ready yet");
-                    }
-                } catch (Exception e) {
-                    System.out.println("Error reading grid status response: " + e.getMessage());
-                }
-            } else {
-                System.out.println("Grid not available, response code: " + responseCode);
-            }
-
-            conn.disconnect();
-        } catch (Exception e) {
-            System.out.println("Grid connection failed: " + e.getMessage());
-            useGrid = false;
-        }
-
-        System.out.println("Using Grid: " + useGrid);
-        return useGrid;
-    }
-
     /**
      * Captures a screenshot and attaches it to the Cucumber scenario.
      *
      * @param scenario The Cucumber scenario to attach the screenshot to.
      */
     public void captureScreenshot(Scenario scenario) {
+        WebDriver driver = getDriver();
         if (driver != null) {
             byte[] screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
             scenario.attach(screenshot, "image/png", scenario.getName());
@@ -263,6 +236,7 @@ public class SeleniumTestBase {
      * Closes the browser and quits the WebDriver instance.
      */
     public void closeBrowser() {
+        WebDriver driver = getDriver();
         if (driver != null) {
             driver.quit();
         } else {
@@ -278,6 +252,7 @@ public class SeleniumTestBase {
      * @throws IOException if saving the screenshot fails.
      */
     public String captureScreenshot(String screenshotName) throws IOException {
+        WebDriver driver = getDriver();
         if (driver != null) {
             File screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.FILE);
             String filePath = properties.getScreenshotPath()
@@ -0,0 +1,240 @@
+package com.framework.apiserver.utilities;
+
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * SessionSnapshots lets scenarios skip the login form of an application they already logged
+ * in to, by restoring the browser state of an earlier successful login.
+ *
+ * <p>After a login succeeds, {@link #capture} keeps the cookies and the local and session
+ * storage of the application's origin, for the user and password that logged in. A later
+ * scenario logging in with the same credentials on the same origin calls {@link #restore},
+ * which puts that state into its fresh or pooled browser. The step then checks that the
+ * application accepts the restored session; if it does not, the step calls
+ * {@link #invalidate} and logs in through the form.</p>
+ *
+ * <p>Snapshots are kept in the memory of the runner JVM only, never written to a report, for
+ * the number of seconds of the `runner.session-cache.ttl-seconds` system property, or until
+ * a captured cookie expires. Without the property no snapshot is kept. Scenarios tagged
+ * {@value #FRESH_LOGIN_TAG} always log in through the form.</p>
+ */
+public final class SessionSnapshots {
+
+    /**
+     * System property holding the lifetime of a snapshot in seconds; snapshots are not used
+     * unless it is set to a positive number.
+     */
+    public static final String TTL_PROPERTY = "runner.session-cache.ttl-seconds";
+
+    /**
+     * Tag of the scenarios that must log in through the form, e.g. to test the login itself.
+     */
+    public static final String FRESH_LOGIN_TAG = "@fresh_login";
+
+    private static final String READ_STORAGE_SCRIPT = """
+            function read(storage) {
+                var items = {};
+                for (var i = 0; i < storage.length; i++) {
+                    items[storage.key(i)] = storage.getItem(storage.key(i));
+                }
+                return items;
+            }
+            return {local: read(window.localStorage), session: read(window.sessionStorage)};
+            """;
+
+    private static final String WRITE_STORAGE_SCRIPT = """
+            var local = arguments[0], session = arguments[1];
+            Object.keys(local).forEach(function (key) { window.localStorage.setItem(key, local[key]); });
+            Object.keys(session).forEach(function (key) { window.sessionStorage.setItem(key, session[key]); });
+            """;
+
+    private static final Map<Key, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    // Whether the scenario of the current thread may restore a snapshot
+    private static final ThreadLocal<Boolean> reuseAllowed = ThreadLocal.withInitial(() -> true);
+
+    private SessionSnapshots() {
+    }
+
+    /**
+     * @return True if successful logins are captured and restored.
+     */
+    public static boolean isEnabled() {
+        return ttlSeconds() > 0;
+    }
+
+    private static long ttlSeconds() {
+        return Long.getLong(TTL_PROPERTY, 0);
+    }
+
+    /**
+     * Starts a scenario on the current thread.
+     *
+     * @param tags The tags of the scenario; a {@value #FRESH_LOGIN_TAG} scenario restores no
+     *             snapshot.
+     */
+    public static void beginScenario(Collection<String> tags) {
+        reuseAllowed.set(!tags.contains(FRESH_LOGIN_TAG));
+    }
+
+    /**
+     * Keeps the state of the application a browser has just logged in to.
+     *
+     * @param driver   The browser, showing a page of the application.
+     * @param user     The user that logged in.
+     * @param password The password the user logged in with.
+     */
+    public static void capture(WebDriver driver, String user, String password) {
+        if (!isEnabled()) {
+            return;
+        }
+        // Captures are not scenario commands, they are kept out of the command profile
+        WebDriver browser = CommandProfiler.unwrap(driver);
+        try {
+            Key key = key(browser, user, password);
+            if (key == null) {
+                return;
+            }
+            Set<Cookie> cookies = Set.copyOf(browser.manage().getCookies());
+            Map<String, String> local = Map.of();
+            Map<String, String> session = Map.of();
+            if (browser instanceof JavascriptExecutor js
+                    && js.executeScript(READ_STORAGE_SCRIPT) instanceof Map<?, ?> storage) {
+                local = strings(storage.get("local"));
+                session = strings(storage.get("session"));
+            }
+            Instant expiresAt = Instant.now().plusSeconds(ttlSeconds());
+            for (Cookie cookie : cookies) {
+                if (cookie.getExpiry() != null && cookie.getExpiry().toInstant().isBefore(expiresAt)) {
+                    expiresAt = cookie.getExpiry().toInstant();
+                }
+            }
+            snapshots.put(key, new Snapshot(cookies, local, session, expiresAt));
+        } catch (Exception e) {
+            System.out.println("SessionSnapshots: Could not capture the session of " + user + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Restores the state of an earlier login of the user into a browser. The browser must
+     * show a page of the application's origin; the caller loads the page to continue on and
+     * checks the application accepted the session.
+     *
+     * @param driver   The browser, showing a page of the application.
+     * @param user     The user to log in.
+     * @param password The password of the user.
+     * @return True if a snapshot was restored, false if the user must log in through the form.
+     */
+    public static boolean restore(WebDriver driver, String user, String password) {
+        if (!isEnabled() || !reuseAllowed.get()) {
+            return false;
+        }
+        try {
+            Key key = key(driver, user, password);
+            Snapshot snapshot = key != null ? snapshots.get(key) : null;
+            if (snapshot == null) {
+                return false;
+            }
+            if (snapshot.expiresAt().isBefore(Instant.now())) {
+                snapshots.remove(key, snapshot);
+                return false;
+            }
+            Date now = new Date();
+            for (Cookie cookie : snapshot.cookies()) {
+                if (cookie.getExpiry() == null || cookie.getExpiry().after(now)) {
+                    driver.manage().addCookie(cookie);
+                }
+            }
+            if (driver instanceof JavascriptExecutor js) {
+                js.executeScript(WRITE_STORAGE_SCRIPT, snapshot.localStorage(), snapshot.sessionStorage());
+            }
+            return true;
+        } catch (Exception e) {
+            System.out.println("SessionSnapshots: Could not restore the session of " + user + ": " + e.getMessage());
+            invalidate(driver, user, password);
+            return false;
+        }
+    }
+
+    /**
+     * Drops the snapshot of a user the application no longer accepts, and clears the state
+     * restored into the browser so the user can log in through the form.
+     *
+     * @param driver   The browser, showing a page of the application.
+     * @param user     The user.
+     * @param password The password of the user.
+     */
+    public static void invalidate(WebDriver driver, String user, String password) {
+        try {
+            Key key = key(driver, user, password);
+            if (key != null) {
+                snapshots.remove(key);
+            }
+            driver.manage().deleteAllCookies();
+            if (driver instanceof JavascriptExecutor js) {
+                js.executeScript("window.localStorage.clear(); window.sessionStorage.clear();");
+            }
+        } catch (Exception e) {
+            System.out.println("SessionSnapshots: Could not clear the session of " + user + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Drops every snapshot.
+     */
+    public static void clear() {
+        snapshots.clear();
+    }
+
+    /**
+     * Identifies a login by the origin of the page the browser shows, the user and a hash of
+     * the password, so a scenario logging in with another password is never given the session.
+     */
+    private static Key key(WebDriver driver, String user, String password) throws NoSuchAlgorithmException {
+        String url = driver.getCurrentUrl();
+        URI uri = url != null ? URI.create(url) : null;
+        if (uri == null || uri.getHost() == null || !uri.getScheme().startsWith("http")) {
+            return null;
+        }
+        String origin = uri.getScheme() + "://" + uri.getHost() + (uri.getPort() >= 0 ? ":" + uri.getPort() : "");
+        byte[] hash = MessageDigest.getInstance("SHA-256").digest(String.valueOf(password).getBytes(StandardCharsets.UTF_8));
+        return new Key(origin, user, HexFormat.of().formatHex(hash));
+    }
+
+    private static Map<String, String> strings(Object items) {
+        Map<String, String> strings = new HashMap<>();
+        if (items instanceof Map<?, ?> map) {
+            map.forEach((key, value) -> {
+                if (key != null && value != null) {
+                    strings.put(key.toString(), value.toString());
+                }
+            });
+        }
+        return Map.copyOf(strings);
+    }
+
+    private record Key(String origin, String user, String passwordHash) {
+    }
+
+    /**
+     * The cookies and storage of a login, and when the snapshot expires.
+     */
+    private record Snapshot(Set<Cookie> cookies, Map<String, String> localStorage, Map<String, String> sessionStorage,
+                            Instant expiresAt) {
+    }
+}
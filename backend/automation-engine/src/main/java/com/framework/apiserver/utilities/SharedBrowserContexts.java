@@ -0,0 +1,340 @@
+package com.framework.apiserver.utilities;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.remote.Augmenter;
+import org.openqa.selenium.support.decorators.Decorated;
+import org.openqa.selenium.support.decorators.WebDriverDecorator;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * SharedBrowserContexts runs parallel scenarios in isolated browser contexts of one shared
+ * Chrome or Edge process instead of starting a browser per scenario.
+ *
+ * <p>A browser context is the lightweight equivalent of an incognito profile: it has its
+ * own cookies, storage and cache, but shares the browser process, so a concurrent scenario
+ * costs a renderer instead of a whole browser. Contexts are created over CDP
+ * ({@code Target.createBrowserContext}) and each scenario gets a {@link WebDriver} bound to
+ * the window of its context:</p>
+ * <ul>
+ *   <li>Every command of a scenario, including the commands of its elements, first switches
+ *       the shared session to the scenario's window and frames if another scenario used it
+ *       last. Commands of the scenarios sharing a browser are therefore serialized.</li>
+ *   <li>Quitting the driver disposes of the context and every window it opened, the shared
+ *       browser keeps running for the next scenario.</li>
+ *   <li>Window handles of other contexts are hidden from the scenario.</li>
+ * </ul>
+ *
+ * <p>A shared browser hosts at most the number of contexts set in the
+ * `runner.browser.contexts.max` system property; 0, the default, disables shared contexts.
+ * Timeouts and browser-level settings are shared by the scenarios of a browser. Browsers
+ * without CDP, e.g. Firefox, keep one browser per scenario.</p>
+ */
+public final class SharedBrowserContexts {
+
+    /**
+     * System property holding the number of contexts a shared browser hosts; 0 disables shared contexts.
+     */
+    public static final String MAX_CONTEXTS_PROPERTY = "runner.browser.contexts.max";
+
+    // Shared browsers, by browser type
+    private static final Map<String, List<SharedBrowser>> browsers = new ConcurrentHashMap<>();
+
+    // The context of every scenario driver handed out and not yet quit
+    private static final Map<WebDriver, BrowserContext> contexts = new ConcurrentHashMap<>();
+
+    private SharedBrowserContexts() {
+    }
+
+    /**
+     * @param browserType The browser type.
+     * @return True if scenarios of the browser type run in contexts of a shared browser.
+     */
+    public static boolean isEnabled(String browserType) {
+        String type = key(browserType);
+        return maxContexts() > 0 && (type.equals("chrome") || type.equals("edge"));
+    }
+
+    /**
+     * Opens an isolated context for a scenario, in a shared browser with a free context or
+     * in a new one.
+     *
+     * @param browserType The browser type.
+     * @param launcher    Starts a new browser of the browser type.
+     * @return The scenario driver, or a dedicated browser if the browser does not support contexts.
+     */
+    public static WebDriver open(String browserType, Supplier<WebDriver> launcher) {
+        SharedBrowser browser = reserve(browserType);
+        if (browser == null) {
+            WebDriver driver = launcher.get();
+            if (driver != null && !(driver instanceof HasCdp)) {
+                driver = new Augmenter().augment(driver);
+            }
+            if (!(driver instanceof HasCdp cdp)) {
+                // The browser cannot host contexts, the scenario keeps it for itself
+                return driver;
+            }
+            browser = share(browserType, driver, cdp);
+        }
+        try {
+            BrowserContext context = browser.openContext();
+            contexts.put(context.driver, context);
+            return context.driver;
+        } catch (RuntimeException e) {
+            browser.release();
+            throw e;
+        }
+    }
+
+    /**
+     * @param driver A scenario driver.
+     * @return True if the driver is bound to a context of a shared browser.
+     */
+    public static boolean isContext(WebDriver driver) {
+        return contexts.containsKey(driver);
+    }
+
+    /**
+     * Quits every shared browser, e.g. when the run is cancelled or the JVM shuts down.
+     */
+    public static void quitAll() {
+        contexts.clear();
+        for (List<SharedBrowser> shared : browsers.values()) {
+            List<SharedBrowser> drained;
+            synchronized (shared) {
+                drained = List.copyOf(shared);
+                shared.clear();
+            }
+            for (SharedBrowser browser : drained) {
+                try {
+                    browser.driver.quit();
+                } catch (Exception e) {
+                    System.out.println("SharedBrowserContexts: Error quitting shared browser: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static SharedBrowser reserve(String browserType) {
+        List<SharedBrowser> shared = browsers.computeIfAbsent(key(browserType), type -> new ArrayList<>());
+        synchronized (shared) {
+            for (SharedBrowser browser : shared) {
+                if (browser.openContexts < maxContexts()) {
+                    browser.openContexts++;
+                    return browser;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static SharedBrowser share(String browserType, WebDriver driver, HasCdp cdp) {
+        List<SharedBrowser> shared = browsers.computeIfAbsent(key(browserType), type -> new ArrayList<>());
+        SharedBrowser browser = new SharedBrowser(shared, driver, cdp);
+        synchronized (shared) {
+            browser.openContexts++;
+            shared.add(browser);
+        }
+        System.out.println("SharedBrowserContexts: Started shared " + browserType + " browser");
+        return browser;
+    }
+
+    private static String key(String browserType) {
+        return browserType == null ? "" : browserType.toLowerCase();
+    }
+
+    private static int maxContexts() {
+        return Integer.getInteger(MAX_CONTEXTS_PROPERTY, 0);
+    }
+
+    /**
+     * A browser process hosting the contexts of several scenarios over one WebDriver session.
+     */
+    private static final class SharedBrowser {
+
+        // The shared browsers of its type, guarding openContexts
+        private final List<SharedBrowser> shared;
+
+        private final WebDriver driver;
+
+        private final HasCdp cdp;
+
+        private int openContexts;
+
+        // The context the session is switched to, guarded by this
+        private BrowserContext focused;
+
+        private SharedBrowser(List<SharedBrowser> shared, WebDriver driver, HasCdp cdp) {
+            this.shared = shared;
+            this.driver = driver;
+            this.cdp = cdp;
+        }
+
+        private BrowserContext openContext() {
+            Map<String, Object> created = cdp.executeCdpCommand("Target.createBrowserContext",
+                    Map.of("disposeOnDetach", false));
+            String contextId = (String) created.get("browserContextId");
+            Map<String, Object> target = cdp.executeCdpCommand("Target.createTarget",
+                    Map.of("url", "about:blank", "browserContextId", contextId, "newWindow", true));
+            return new BrowserContext(this, contextId, (String) target.get("targetId"));
+        }
+
+        // Not holding the session lock, so a context stuck on a command can still be disposed of
+        private void closeContext(BrowserContext context) {
+            synchronized (this) {
+                if (focused == context) {
+                    focused = null;
+                }
+            }
+            try {
+                cdp.executeCdpCommand("Target.disposeBrowserContext", Map.of("browserContextId", context.contextId));
+            } finally {
+                release();
+            }
+        }
+
+        private void release() {
+            synchronized (shared) {
+                openContexts--;
+            }
+        }
+
+        /**
+         * Handles of the windows the context opened, as listed by the browser.
+         */
+        @SuppressWarnings("unchecked")
+        private Set<String> windowsOf(BrowserContext context) {
+            Map<String, Object> targets = cdp.executeCdpCommand("Target.getTargets", Map.of());
+            Set<String> handles = new HashSet<>();
+            for (Map<String, Object> info : (List<Map<String, Object>>) targets.get("targetInfos")) {
+                if ("page".equals(info.get("type")) && context.contextId.equals(info.get("browserContextId"))) {
+                    handles.add((String) info.get("targetId"));
+                }
+            }
+            return handles;
+        }
+    }
+
+    /**
+     * The context of one scenario, decorating the shared session so every command reaches
+     * the scenario's window.
+     */
+    private static final class BrowserContext extends WebDriverDecorator<WebDriver> {
+
+        private final SharedBrowser browser;
+
+        private final String contextId;
+
+        private final WebDriver driver;
+
+        // The window and frames the scenario switched to, restored whenever another scenario used the session
+        private String window;
+        private final List<FrameSwitch> frames = new ArrayList<>();
+
+        private volatile boolean closed;
+
+        private BrowserContext(SharedBrowser browser, String contextId, String window) {
+            this.browser = browser;
+            this.contextId = contextId;
+            this.window = window;
+            this.driver = decorate(browser.driver);
+        }
+
+        @Override
+        public Object call(Decorated<?> target, Method method, Object[] args) throws Throwable {
+            Object original = target.getOriginal();
+            if (method.getDeclaringClass() == Object.class) {
+                // Scenario drivers of one browser must not be equal, they are keys of the live driver maps
+                if (original == browser.driver && method.getName().equals("hashCode")) {
+                    return System.identityHashCode(this);
+                }
+                if (original == browser.driver && method.getName().equals("equals")) {
+                    return args[0] == driver;
+                }
+                return super.call(target, method, args);
+            }
+            if (original == browser.driver && method.getName().equals("quit")) {
+                close();
+                return null;
+            }
+            if (closed) {
+                throw new IllegalStateException("Browser context " + contextId + " was closed");
+            }
+            synchronized (browser) {
+                focus();
+                Object result = super.call(target, method, args);
+                if (original == browser.driver && method.getName().equals("getWindowHandles")) {
+                    Set<String> own = browser.windowsOf(this);
+                    result = ((Set<?>) result).stream()
+                            .filter(own::contains)
+                            .collect(Collectors.toCollection(LinkedHashSet::new));
+                } else if (original instanceof WebDriver.TargetLocator) {
+                    track(target, method, args);
+                }
+                return result;
+            }
+        }
+
+        /**
+         * Switches the shared session to the window and frames of this context, if another
+         * context used it last.
+         */
+        private void focus() throws Throwable {
+            if (browser.focused == this) {
+                return;
+            }
+            browser.driver.switchTo().window(window);
+            for (FrameSwitch frame : frames) {
+                super.call(frame.locator(), frame.method(), frame.args());
+            }
+            browser.focused = this;
+        }
+
+        private void track(Decorated<?> target, Method method, Object[] args) {
+            switch (method.getName()) {
+                case "window", "newWindow" -> {
+                    window = browser.driver.getWindowHandle();
+                    frames.clear();
+                }
+                case "defaultContent" -> frames.clear();
+                case "parentFrame" -> {
+                    if (!frames.isEmpty()) {
+                        frames.remove(frames.size() - 1);
+                    }
+                }
+                case "frame" -> frames.add(new FrameSwitch(target, method, args));
+                default -> {
+                }
+            }
+        }
+
+        private void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            contexts.remove(driver);
+            try {
+                browser.closeContext(this);
+            } catch (Exception e) {
+                System.out.println("SharedBrowserContexts: Error closing browser context: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * A frame switch of a scenario, replayed when the scenario gets the session back.
+     */
+    private record FrameSwitch(Decorated<?> locator, Method method, Object[] args) {
+    }
+}
@@ -0,0 +1,92 @@
+package com.framework.apiserver.controller;
+
+import com.framework.apiserver.config.JobPriority;
+import com.framework.apiserver.config.JobStatus;
+import com.framework.apiserver.dto.RunOptions;
+import com.framework.apiserver.execution.BatchRunCoordinator;
+import com.framework.apiserver.execution.MatrixRunCoordinator;
+import com.framework.apiserver.service.TestExecutionService;
+import com.framework.apiserver.service.TestRerunService;
+import com.framework.apiserver.utilities.AsyncJobManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncTestControllerTest {
+
+    @Mock
+    private TestExecutionService testExecutionService;
+
+    @Mock
+    private TestRerunService testRerunService;
+
+    @Mock
+    private AsyncJobManager asyncJobManager;
+
+    @Mock
+    private MatrixRunCoordinator matrixRunCoordinator;
+
+    @Mock
+    private BatchRunCoordinator batchRunCoordinator;
+
+    @InjectMocks
+    private AsyncTestController controller;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void queuedRunReportsItsQueuePosition() throws Exception {
+        when(testExecutionService.runTestsAsync(any(RunOptions.class), eq("ci"))).thenReturn("job-1");
+        when(asyncJobManager.getStatus("job-1")).thenReturn(JobStatus.QUEUED);
+        when(asyncJobManager.getQueuePosition("job-1")).thenReturn(3);
+
+        mockMvc.perform(post("/api/tests/async-run")
+                        .param("tags", "@smoke")
+                        .param("createdBy", "ci")
+                        .param("priority", "LOW"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.jobId").value("job-1"))
+                .andExpect(jsonPath("$.status").value("QUEUED"))
+                .andExpect(jsonPath("$.queuePosition").value(3));
+
+        ArgumentCaptor<RunOptions> options = ArgumentCaptor.forClass(RunOptions.class);
+        verify(testExecutionService).runTestsAsync(options.capture(), eq("ci"));
+        assertThat(options.getValue().getTag()).isEqualTo("@smoke");
+        assertThat(options.getValue().getPriority()).isEqualTo(JobPriority.LOW);
+    }
+
+    @Test
+    void saturatedSchedulerAnswers429WithTheQueueDepth() throws Exception {
+        when(testExecutionService.runTestsAsync(any(RunOptions.class), eq("system")))
+                .thenThrow(new RejectedExecutionException("Job queue is full (20/20 waiting, 2 running)"));
+        when(asyncJobManager.getQueueDepth()).thenReturn(20);
+
+        mockMvc.perform(post("/api/tests/async-run").param("tags", "@regression"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(jsonPath("$.error").value("Job queue is full (20/20 waiting, 2 running)"))
+                .andExpect(jsonPath("$.queueDepth").value(20));
+    }
+}
@@ -0,0 +1,255 @@
+package com.framework.apiserver.execution;
+
+import com.framework.apiserver.config.ExecutionMode;
+import com.framework.apiserver.config.ExecutionProperties;
+import com.framework.apiserver.config.JobKind;
+import com.framework.apiserver.config.JobPriority;
+import com.framework.apiserver.config.JobStatus;
+import com.framework.apiserver.dto.JobRequest;
+import com.framework.apiserver.dto.RunOptions;
+import com.framework.apiserver.dto.TestExecutionResponse;
+import com.framework.apiserver.entity.JobTracking;
+import com.framework.apiserver.service.BrowserContextManager;
+import com.framework.apiserver.service.JobTrackingService;
+import com.framework.apiserver.service.PagePerformanceService;
+import com.framework.apiserver.service.ScenarioDurationService;
+import com.framework.apiserver.service.TestRunInfoService;
+import com.framework.apiserver.utilities.AsyncJobManager;
+import com.framework.apiserver.utilities.CommonUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BatchRunCoordinatorTest {
+
+    @Mock
+    private AsyncJobManager asyncJobManager;
+
+    @Mock
+    private JobTrackingService jobTrackingService;
+
+    @Mock
+    private BrowserContextManager browserContextManager;
+
+    @Mock
+    private TestRunLauncher testRunLauncher;
+
+    @Mock
+    private RunProgressServer runProgressServer;
+
+    @Mock
+    private RunWatchdog runWatchdog;
+
+    @Mock
+    private CommonUtils commonUtils;
+
+    @Mock
+    private TestRunInfoService testRunInfoService;
+
+    @Mock
+    private ScenarioDurationService scenarioDurationService;
+
+    @Mock
+    private PagePerformanceService pagePerformanceService;
+
+    @TempDir
+    private Path reportsDir;
+
+    private final ExecutionProperties executionProperties = new ExecutionProperties();
+
+    private final LocalDateTime startTime = LocalDateTime.now().withNano(0).minusMinutes(5);
+
+    private BatchRunCoordinator coordinator;
+
+    @BeforeEach
+    void setUp() {
+        coordinator = new BatchRunCoordinator(asyncJobManager, jobTrackingService, browserContextManager,
+                testRunLauncher, runProgressServer, runWatchdog, commonUtils, testRunInfoService,
+                scenarioDurationService, pagePerformanceService, executionProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        coordinator.destroy();
+    }
+
+    @Test
+    void submitRejectsABatchWithoutTagExpressions() {
+        assertThatThrownBy(() -> coordinator.submit(options(), List.of(" ", ""), "user"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("at least one tag expression");
+        verifyNoInteractions(asyncJobManager);
+    }
+
+    @Test
+    void submitRejectsMoreTagExpressionsThanTheMaximum() {
+        executionProperties.getBatch().setMaxRuns(2);
+
+        assertThatThrownBy(() -> coordinator.submit(options(), List.of("@a", "@b", "@c"), "user"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("A batch run accepts at most 2 tag expressions, got 3");
+        verifyNoInteractions(asyncJobManager);
+    }
+
+    @Test
+    void submitQueuesEachTagExpressionOnceAndOnlyTheBatchJob() {
+        executionProperties.getBatch().setMaxRuns(2);
+        when(asyncJobManager.resolvePriority(eq("@a, @b"), any())).thenReturn(JobPriority.NORMAL);
+        when(asyncJobManager.createJobWithTracking(isNull(), eq("@a, @b"), eq("user"), eq(JobPriority.NORMAL)))
+                .thenReturn("batch");
+        when(asyncJobManager.createJobWithTracking(anyString(), anyString(), eq("user")))
+                .thenAnswer(invocation -> "job" + invocation.getArgument(1, String.class));
+
+        // Duplicates count once against the maximum
+        String batchJobId = coordinator.submit(options(), List.of("@a", " @a ", "@b", "@a"), "user");
+
+        assertThat(batchJobId).isEqualTo("batch");
+        ArgumentCaptor<String> runIds = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<String> tags = ArgumentCaptor.forClass(String.class);
+        verify(asyncJobManager, times(2)).createJobWithTracking(runIds.capture(), tags.capture(), eq("user"));
+        assertThat(tags.getAllValues()).containsExactly("@a", "@b");
+        assertThat(runIds.getAllValues()).allMatch(runId -> runId.matches(".+-batch-0[12]"));
+        assertThat(runIds.getAllValues().get(0)).endsWith("-batch-01");
+        verify(jobTrackingService).recordBatchJob("job@a", "batch", "firefox");
+        verify(asyncJobManager).updateJobStatus("job@b", JobStatus.QUEUED);
+        ArgumentCaptor<JobRequest> request = ArgumentCaptor.forClass(JobRequest.class);
+        verify(asyncJobManager).enqueueJob(eq("batch"), eq(JobPriority.NORMAL), request.capture());
+        assertThat(request.getValue().getKind()).isEqualTo(JobKind.BATCH);
+        assertThat(request.getValue().getOptions().getTag()).isEqualTo("@a, @b");
+        assertThat(request.getValue().getOptions().getExecutionMode()).isEqualTo(ExecutionMode.FORKED);
+        verify(asyncJobManager, never()).enqueueJob(eq("job@a"), any(), any());
+    }
+
+    @Test
+    void recordRunsSplitsTheRunnerTimeByReportTime() throws IOException {
+        writeReport("run-1", startTime.plusSeconds(10));
+        writeReport("run-2", startTime.plusSeconds(25));
+        when(commonUtils.createRunInfoFileAndDb(testRunInfoService, "@a", "run-1", startTime,
+                startTime.plusSeconds(10), 10L)).thenReturn(result("PASSED", 0));
+        when(commonUtils.createRunInfoFileAndDb(testRunInfoService, "@b", "run-2", startTime.plusSeconds(10),
+                startTime.plusSeconds(25), 15L)).thenReturn(result("FAILED", 2));
+
+        coordinator.recordRuns(reportsDir, "batch", jobs("@a", "@b"), startTime, false);
+
+        verify(scenarioDurationService).recordRun("run-1");
+        verify(pagePerformanceService).recordRun("run-2", startTime.plusSeconds(10));
+        assertThat(completion("job-1").getExitCode()).isZero();
+        assertThat(completion("job-2").getStatus()).isEqualTo("FAILED");
+        assertThat(completion("job-2").getExitCode()).isEqualTo(2);
+        TestExecutionResponse batch = completion("batch");
+        assertThat(batch.getStatus()).isEqualTo("Batch run finished: @a: PASSED; @b: FAILED");
+        assertThat(batch.getExitCode()).isEqualTo(2);
+        verify(asyncJobManager, never()).failJob(anyString(), anyString());
+    }
+
+    @Test
+    void recordRunsKeepsThePartialResultsOfRunsUnfinishedWhenTheBatchWasStopped() throws IOException {
+        writeReport("run-1", startTime.plusSeconds(10));
+        when(commonUtils.createRunInfoFileAndDb(testRunInfoService, "@a", "run-1", startTime,
+                startTime.plusSeconds(10), 10L)).thenReturn(result("PASSED", 0));
+        when(commonUtils.createStoppedRunInfo(eq(testRunInfoService), eq("@b"), eq("run-2"),
+                eq(startTime.plusSeconds(10)), any(), anyLong(), any(), eq("Cancelled")))
+                .thenReturn(result("CANCELLED", 1));
+
+        coordinator.recordRuns(reportsDir, "batch", jobs("@a", "@b"), startTime, true);
+
+        verify(asyncJobManager).updateJobStatus("job-2", JobStatus.CANCELLED);
+        assertThat(completion("job-2").getExitCode()).isEqualTo(1);
+        assertThat(completion("batch").getStatus()).isEqualTo("Batch run finished: @a: PASSED; @b: CANCELLED");
+        verify(asyncJobManager, never()).failJob(anyString(), anyString());
+    }
+
+    @Test
+    void recordRunsTimesOutTheUnfinishedRunsOfABatchPastItsDeadline() {
+        when(asyncJobManager.isTimedOut("batch")).thenReturn(true);
+        when(commonUtils.createStoppedRunInfo(eq(testRunInfoService), eq("@a"), eq("run-1"), eq(startTime), any(),
+                anyLong(), any(), eq("Timed Out"))).thenReturn(result("TIMED_OUT", 0));
+
+        coordinator.recordRuns(reportsDir, "batch", jobs("@a"), startTime, true);
+
+        verify(asyncJobManager).timeoutJob("job-1", "Batch run batch exceeded its deadline");
+        assertThat(completion("job-1").getStatus()).isEqualTo("TIMED_OUT");
+    }
+
+    @Test
+    void recordRunsFailsRunsWithoutAReportWhenTheRunnerWasNotStopped() throws IOException {
+        writeReport("run-1", startTime.plusSeconds(10));
+        when(commonUtils.createRunInfoFileAndDb(testRunInfoService, "@a", "run-1", startTime,
+                startTime.plusSeconds(10), 10L)).thenReturn(result("PASSED", 0));
+
+        coordinator.recordRuns(reportsDir, "batch", jobs("@a", "@b"), startTime, false);
+
+        assertThat(completion("job-1").getStatus()).isEqualTo("PASSED");
+        verify(asyncJobManager).failJob("job-2", "The batch runner produced no results for run run-2");
+        verify(asyncJobManager).failJob("batch", "Batch run failed on a tag expression: @a: PASSED; @b: no results");
+        verify(commonUtils, never()).createStoppedRunInfo(any(), any(), any(), any(), any(), anyLong(), any(), any());
+        verify(asyncJobManager, never()).completeJob(eq("batch"), any());
+    }
+
+    private TestExecutionResponse completion(String jobId) {
+        ArgumentCaptor<TestExecutionResponse> response = ArgumentCaptor.forClass(TestExecutionResponse.class);
+        verify(asyncJobManager).completeJob(eq(jobId), response.capture());
+        return response.getValue();
+    }
+
+    private void writeReport(String runId, LocalDateTime writtenAt) throws IOException {
+        Path report = Files.createDirectories(reportsDir.resolve(runId)).resolve("cucumber-reports.json");
+        Files.writeString(report, "[]");
+        Files.setLastModifiedTime(report, FileTime.from(writtenAt.atZone(ZoneId.systemDefault()).toInstant()));
+    }
+
+    private static Map<String, JobTracking> jobs(String... tags) {
+        Map<String, JobTracking> jobs = new LinkedHashMap<>();
+        for (int i = 0; i < tags.length; i++) {
+            String runId = "run-" + (i + 1);
+            jobs.put(runId, JobTracking.builder()
+                    .jobId("job-" + (i + 1))
+                    .runId(runId)
+                    .tag(tags[i])
+                    .batchJobId("batch")
+                    .build());
+        }
+        return jobs;
+    }
+
+    private static HashMap<String, Object> result(String status, int failureCount) {
+        HashMap<String, Object> result = new HashMap<>();
+        result.put("status", status);
+        result.put("failureCount", failureCount);
+        return result;
+    }
+
+    private static RunOptions options() {
+        return RunOptions.builder().browserType("firefox").build();
+    }
+}
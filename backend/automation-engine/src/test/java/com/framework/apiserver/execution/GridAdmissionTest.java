@@ -0,0 +1,153 @@
+package com.framework.apiserver.execution;
+
+import com.framework.apiserver.config.ExecutionProperties;
+import com.framework.apiserver.config.SchedulerProperties;
+import com.framework.apiserver.dto.GridStatus;
+import com.framework.apiserver.dto.RunOptions;
+import com.framework.apiserver.service.JobTrackingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GridAdmissionTest {
+
+    private final AtomicReference<GridStatus> gridStatus = new AtomicReference<>(new GridStatus(null, false, "No Grid configured"));
+
+    private final SchedulerProperties schedulerProperties = new SchedulerProperties();
+
+    private JobTrackingService jobTrackingService;
+
+    private GridAdmission gridAdmission;
+
+    @BeforeEach
+    void setUp() {
+        GridMonitor gridMonitor = mock(GridMonitor.class);
+        when(gridMonitor.getStatus()).thenAnswer(invocation -> gridStatus.get());
+        TestRunLauncher testRunLauncher = mock(TestRunLauncher.class);
+        when(testRunLauncher.resolveThreads(any())).thenAnswer(invocation -> ((RunOptions) invocation.getArgument(0)).getThreads());
+        when(testRunLauncher.resolveShards(any())).thenReturn(1);
+        jobTrackingService = mock(JobTrackingService.class);
+        gridAdmission = new GridAdmission(schedulerProperties, new ExecutionProperties(), gridMonitor, testRunLauncher,
+                jobTrackingService);
+    }
+
+    @Test
+    void admitsAtOnceWithoutGridSlotsForTheBrowser() {
+        assertThat(gridAdmission.tryAdmit("local", options("chrome", 2))).isNotNull();
+
+        gridStatus.set(grid("firefox", 2, 0));
+        assertThat(gridAdmission.tryAdmit("no-node", options("chrome", 2))).isNotNull();
+
+        verify(jobTrackingService, never()).updateEstimatedWait(anyString(), anyLong());
+    }
+
+    @Test
+    void admitsJobsOfABrowserFirstComeFirstServed() {
+        GridStatus status = grid("chrome", 4, 1);
+        status.getBrowsers().put("firefox", new GridStatus.BrowserSlots(2, 2));
+        gridStatus.set(status);
+
+        assertThat(gridAdmission.tryAdmit("first", options("chrome", 2))).isNull();
+        // One slot is free, but the earlier job of the browser goes first
+        assertThat(gridAdmission.tryAdmit("second", options("chrome", 1))).isNull();
+        // Jobs of other browsers are not held up
+        assertThat(gridAdmission.tryAdmit("other-browser", options("firefox", 1))).isNotNull();
+
+        // Room for either job, the first one takes it
+        gridStatus.set(grid("chrome", 4, 2));
+        assertThat(gridAdmission.tryAdmit("second", options("chrome", 1))).isNull();
+        GridAdmission.Admission first = gridAdmission.tryAdmit("first", options("chrome", 2));
+        assertThat(first).isNotNull();
+
+        first.close();
+        assertThat(gridAdmission.tryAdmit("second", options("chrome", 1))).isNotNull();
+        // No job of the browser finished while they waited, so there was nothing to estimate from
+        verify(jobTrackingService, never()).updateEstimatedWait(anyString(), anyLong());
+    }
+
+    @Test
+    void reservedSlotsAreHeldUntilTheReservationExpires() throws InterruptedException {
+        schedulerProperties.getGridAdmission().setReservationSeconds(1);
+        gridStatus.set(grid("chrome", 2, 2));
+        assertThat(gridAdmission.tryAdmit("first", options("chrome", 2))).isNotNull();
+
+        // The Grid does not report the sessions of the first job yet
+        assertThat(gridAdmission.tryAdmit("second", options("chrome", 1))).isNull();
+
+        Thread.sleep(1100);
+        assertThat(gridAdmission.tryAdmit("second", options("chrome", 1))).isNotNull();
+    }
+
+    @Test
+    void closingAnAdmissionReleasesItsSlots() {
+        schedulerProperties.getGridAdmission().setReservationSeconds(600);
+        gridStatus.set(grid("chrome", 2, 2));
+        GridAdmission.Admission first = gridAdmission.tryAdmit("first", options("chrome", 2));
+        assertThat(gridAdmission.tryAdmit("second", options("chrome", 2))).isNull();
+
+        first.close();
+
+        assertThat(gridAdmission.tryAdmit("second", options("chrome", 2))).isNotNull();
+    }
+
+    @Test
+    void estimatesTheWaitFromTheSlotsAheadAndTheAverageHold() {
+        gridAdmission.recordHold("chrome", Duration.ofSeconds(60));
+        gridStatus.set(grid("chrome", 2, 0));
+
+        assertThat(gridAdmission.tryAdmit("first", options("chrome", 2))).isNull();
+        verify(jobTrackingService).updateEstimatedWait("first", 60L);
+        // Three slots are needed before it fits: its own and the two of the job ahead
+        assertThat(gridAdmission.tryAdmit("second", options("chrome", 1))).isNull();
+        verify(jobTrackingService).updateEstimatedWait("second", 120L);
+
+        // An unchanged estimate is not written again
+        assertThat(gridAdmission.tryAdmit("first", options("chrome", 2))).isNull();
+        verify(jobTrackingService, times(1)).updateEstimatedWait("first", 60L);
+    }
+
+    @Test
+    void withdrawnJobNoLongerHoldsUpTheJobsBehindIt() {
+        gridStatus.set(grid("chrome", 4, 1));
+        assertThat(gridAdmission.tryAdmit("cancelled", options("chrome", 2))).isNull();
+        assertThat(gridAdmission.tryAdmit("second", options("chrome", 1))).isNull();
+
+        assertThat(gridAdmission.withdraw("cancelled")).isTrue();
+
+        assertThat(gridAdmission.tryAdmit("second", options("chrome", 1))).isNotNull();
+        assertThat(gridAdmission.withdraw("cancelled")).isFalse();
+    }
+
+    @Test
+    void waitingJobIsAdmittedOnceTheGridLosesItsNodes() {
+        gridStatus.set(grid("chrome", 1, 0));
+        assertThat(gridAdmission.tryAdmit("waiting", options("chrome", 1))).isNull();
+
+        gridStatus.set(new GridStatus("http://grid:4444", false, "Status check failed"));
+
+        assertThat(gridAdmission.tryAdmit("waiting", options("chrome", 1))).isNotNull();
+        assertThat(gridAdmission.withdraw("waiting")).isFalse();
+    }
+
+    private static RunOptions options(String browser, int threadCount) {
+        return RunOptions.builder().browserType(browser).threads(threadCount).build();
+    }
+
+    private static GridStatus grid(String browser, int total, int free) {
+        GridStatus status = new GridStatus("http://grid:4444", true, "Selenium Grid ready");
+        status.getBrowsers().put(browser, new GridStatus.BrowserSlots(total, free));
+        return status;
+    }
+}
@@ -0,0 +1,188 @@
+package com.framework.apiserver.execution;
+
+import com.framework.apiserver.config.JobPriority;
+import com.framework.apiserver.config.SchedulerProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JobSchedulerTest {
+
+    private final CountDownLatch blockerStarted = new CountDownLatch(1);
+
+    private final CountDownLatch releaseBlocker = new CountDownLatch(1);
+
+    private JobScheduler scheduler;
+
+    @AfterEach
+    void tearDown() {
+        releaseBlocker.countDown();
+        if (scheduler != null) {
+            scheduler.destroy();
+        }
+    }
+
+    @Test
+    void dispatchesByPriorityThenInSubmissionOrder() throws InterruptedException {
+        scheduler = new JobScheduler(properties(1, 10));
+        occupySlot();
+        List<String> executed = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(4);
+
+        scheduler.submit("low", JobPriority.LOW, record(executed, "low", done));
+        scheduler.submit("normal-1", JobPriority.NORMAL, record(executed, "normal-1", done));
+        scheduler.submit("high", JobPriority.HIGH, record(executed, "high", done));
+        scheduler.submit("normal-2", JobPriority.NORMAL, record(executed, "normal-2", done));
+
+        assertThat(scheduler.getQueueDepth()).isEqualTo(4);
+        assertThat(scheduler.getQueuePosition("high")).isEqualTo(1);
+        assertThat(scheduler.getQueuePosition("normal-1")).isEqualTo(2);
+        assertThat(scheduler.getQueuePosition("normal-2")).isEqualTo(3);
+        assertThat(scheduler.getQueuePosition("low")).isEqualTo(4);
+        assertThat(scheduler.getQueuePosition("blocker")).isZero();
+
+        releaseBlocker.countDown();
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(executed).containsExactly("high", "normal-1", "normal-2", "low");
+    }
+
+    @Test
+    void removedJobLeavesTheQueueAndNeverRuns() throws InterruptedException {
+        scheduler = new JobScheduler(properties(1, 10));
+        occupySlot();
+        List<String> executed = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(1);
+        scheduler.submit("cancelled", JobPriority.HIGH, record(executed, "cancelled", new CountDownLatch(1)));
+        scheduler.submit("kept", JobPriority.NORMAL, record(executed, "kept", done));
+
+        assertThat(scheduler.remove("cancelled")).isTrue();
+        assertThat(scheduler.isQueued("cancelled")).isFalse();
+        assertThat(scheduler.getQueuePosition("kept")).isEqualTo(1);
+        assertThat(scheduler.remove("cancelled")).isFalse();
+
+        releaseBlocker.countDown();
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(executed).containsExactly("kept");
+    }
+
+    @Test
+    void rejectsSubmissionsOnceEverySlotIsBusyAndTheQueueIsFull() throws InterruptedException {
+        scheduler = new JobScheduler(properties(1, 1));
+        occupySlot();
+        assertThat(scheduler.isSaturated()).isFalse();
+
+        scheduler.submit("queued", JobPriority.NORMAL, () -> { });
+
+        assertThat(scheduler.isSaturated()).isTrue();
+        assertThatThrownBy(scheduler::ensureCapacity).isInstanceOf(RejectedExecutionException.class);
+        assertThatThrownBy(() -> scheduler.submit("rejected", JobPriority.HIGH, () -> { }))
+                .isInstanceOf(RejectedExecutionException.class)
+                .hasMessageContaining("1/1 waiting");
+        assertThat(scheduler.isQueued("rejected")).isFalse();
+
+        assertThat(scheduler.remove("queued")).isTrue();
+        assertThat(scheduler.isSaturated()).isFalse();
+    }
+
+    @Test
+    void requeuedJobGivesItsSlotBackUntilTheDelayElapsed() throws InterruptedException {
+        scheduler = new JobScheduler(properties(1, 10));
+        List<String> executed = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(2);
+
+        scheduler.requeue("waiting", JobPriority.HIGH, Duration.ofMillis(300), record(executed, "waiting", done));
+        assertThat(scheduler.isQueued("waiting")).isTrue();
+        assertThat(scheduler.getQueueDepth()).isEqualTo(1);
+        // The slot is free meanwhile
+        scheduler.submit("other", JobPriority.LOW, record(executed, "other", done));
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(executed).containsExactly("other", "waiting");
+        assertThat(scheduler.isQueued("waiting")).isFalse();
+    }
+
+    @Test
+    void requeuedJobRemovedWhileHeldBackNeverRuns() throws InterruptedException {
+        scheduler = new JobScheduler(properties(1, 10));
+        List<String> executed = Collections.synchronizedList(new ArrayList<>());
+        scheduler.requeue("cancelled", JobPriority.NORMAL, Duration.ofMillis(100), record(executed, "cancelled", new CountDownLatch(1)));
+
+        assertThat(scheduler.remove("cancelled")).isTrue();
+
+        Thread.sleep(300);
+        assertThat(executed).isEmpty();
+        assertThat(scheduler.getQueueDepth()).isZero();
+    }
+
+    @Test
+    void explicitPriorityWins() {
+        scheduler = new JobScheduler(properties(1, 1));
+
+        assertThat(scheduler.resolvePriority("@smoke", JobPriority.LOW)).isEqualTo(JobPriority.LOW);
+        assertThat(scheduler.resolvePriority(null, JobPriority.HIGH)).isEqualTo(JobPriority.HIGH);
+    }
+
+    @Test
+    void resolvesPriorityFromTheSelectedTags() {
+        scheduler = new JobScheduler(properties(1, 1));
+
+        assertThat(scheduler.resolvePriority(null, null)).isEqualTo(JobPriority.NORMAL);
+        assertThat(scheduler.resolvePriority(" ", null)).isEqualTo(JobPriority.NORMAL);
+        assertThat(scheduler.resolvePriority("@smoke", null)).isEqualTo(JobPriority.HIGH);
+        assertThat(scheduler.resolvePriority("@regression", null)).isEqualTo(JobPriority.LOW);
+        assertThat(scheduler.resolvePriority("@api", null)).isEqualTo(JobPriority.NORMAL);
+        assertThat(scheduler.resolvePriority("(@smoke or @api) and @ui", null)).isEqualTo(JobPriority.HIGH);
+        assertThat(scheduler.resolvePriority("@regression and @smoke", null)).isEqualTo(JobPriority.HIGH);
+        assertThat(scheduler.resolvePriority("@smoke_ui", null)).isEqualTo(JobPriority.NORMAL);
+        assertThat(scheduler.resolvePriority("@api, @smoke", null)).isEqualTo(JobPriority.HIGH);
+    }
+
+    @Test
+    void negatedTagsDoNotRaiseOrLowerThePriority() {
+        scheduler = new JobScheduler(properties(1, 1));
+
+        assertThat(scheduler.resolvePriority("not @smoke", null)).isEqualTo(JobPriority.NORMAL);
+        assertThat(scheduler.resolvePriority("@regression and not @smoke", null)).isEqualTo(JobPriority.LOW);
+        assertThat(scheduler.resolvePriority("@regression and not @smoke_ui", null)).isEqualTo(JobPriority.LOW);
+        assertThat(scheduler.resolvePriority("not (@smoke or @regression)", null)).isEqualTo(JobPriority.NORMAL);
+        assertThat(scheduler.resolvePriority("not (@api and not @smoke)", null)).isEqualTo(JobPriority.HIGH);
+        assertThat(scheduler.resolvePriority("not not @smoke", null)).isEqualTo(JobPriority.HIGH);
+        assertThat(scheduler.resolvePriority("(not @wip) and @smoke", null)).isEqualTo(JobPriority.HIGH);
+    }
+
+    private void occupySlot() throws InterruptedException {
+        scheduler.submit("blocker", JobPriority.NORMAL, () -> {
+            blockerStarted.countDown();
+            try {
+                releaseBlocker.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertThat(blockerStarted.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private static Runnable record(List<String> executed, String jobId, CountDownLatch done) {
+        return () -> {
+            executed.add(jobId);
+            done.countDown();
+        };
+    }
+
+    private static SchedulerProperties properties(int slots, int queueSize) {
+        SchedulerProperties properties = new SchedulerProperties();
+        properties.setMaxConcurrentJobs(slots);
+        properties.setMaxQueueSize(queueSize);
+        return properties;
+    }
+}
@@ -0,0 +1,139 @@
+package com.framework.apiserver.execution;
+
+import com.framework.apiserver.config.JobStatus;
+import com.framework.apiserver.dto.TestExecutionResponse;
+import com.framework.apiserver.entity.JobTracking;
+import com.framework.apiserver.event.JobStatusChangedEvent;
+import com.framework.apiserver.service.JobTrackingService;
+import com.framework.apiserver.service.TestExecutionService;
+import com.framework.apiserver.utilities.AsyncJobManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MatrixRunCoordinatorTest {
+
+    @Mock
+    private TestExecutionService testExecutionService;
+
+    @Mock
+    private AsyncJobManager asyncJobManager;
+
+    @Mock
+    private JobTrackingService jobTrackingService;
+
+    private MatrixRunCoordinator coordinator;
+
+    @BeforeEach
+    void setUp() {
+        coordinator = new MatrixRunCoordinator(testExecutionService, asyncJobManager, jobTrackingService);
+        when(jobTrackingService.getJobById("parent")).thenReturn(Optional.of(JobTracking.builder()
+                .jobId("parent")
+                .tag("@smoke")
+                .status(JobStatus.QUEUED)
+                .build()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        coordinator.destroy();
+    }
+
+    @Test
+    void completesOnceEveryBrowserCompletedWithTheSummedFailures() {
+        JobTracking chrome = child("chrome", JobStatus.COMPLETED);
+        JobTracking firefox = child("firefox", JobStatus.COMPLETED);
+        when(asyncJobManager.getResult("job-chrome")).thenReturn(new TestExecutionResponse("PASSED", 0, "run-1"));
+        when(asyncJobManager.getResult("job-firefox")).thenReturn(new TestExecutionResponse("FAILED", 3, "run-2"));
+
+        finishBrowsers(chrome, firefox);
+
+        ArgumentCaptor<TestExecutionResponse> result = ArgumentCaptor.forClass(TestExecutionResponse.class);
+        verify(asyncJobManager, timeout(5000)).completeJob(eq("parent"), result.capture());
+        assertThat(result.getValue().getStatus()).isEqualTo("Matrix run finished: chrome: PASSED; firefox: FAILED");
+        assertThat(result.getValue().getExitCode()).isEqualTo(3);
+    }
+
+    @Test
+    void timesOutWhenABrowserTimedOutAlthoughTheOthersCompleted() {
+        JobTracking chrome = child("chrome", JobStatus.COMPLETED);
+        JobTracking firefox = child("firefox", JobStatus.TIMED_OUT);
+        firefox.setErrorMessage("Run exceeded its deadline of 60 minute(s)");
+        when(asyncJobManager.getResult("job-chrome")).thenReturn(new TestExecutionResponse("PASSED", 0, "run-1"));
+
+        finishBrowsers(chrome, firefox);
+
+        verify(asyncJobManager, timeout(5000)).timeoutJob("parent",
+                "Matrix run timed out on a browser: chrome: PASSED; firefox: Run exceeded its deadline of 60 minute(s)");
+        verify(asyncJobManager, never()).completeJob(eq("parent"), any());
+    }
+
+    @Test
+    void isCancelledWhenABrowserWasCancelledAlthoughTheOthersCompleted() {
+        JobTracking chrome = child("chrome", JobStatus.COMPLETED);
+        JobTracking edge = child("edge", JobStatus.CANCELLED);
+        when(asyncJobManager.getResult("job-chrome")).thenReturn(new TestExecutionResponse("PASSED", 0, "run-1"));
+
+        finishBrowsers(chrome, edge);
+
+        verify(asyncJobManager, timeout(5000)).updateJobStatus("parent", JobStatus.CANCELLED);
+        verify(asyncJobManager, never()).completeJob(eq("parent"), any());
+    }
+
+    @Test
+    void aFailedBrowserFailsTheRunWhateverTheOthersDid() {
+        JobTracking chrome = child("chrome", JobStatus.FAILED);
+        chrome.setErrorMessage("Could not start chrome browser");
+        JobTracking firefox = child("firefox", JobStatus.TIMED_OUT);
+        JobTracking edge = child("edge", JobStatus.CANCELLED);
+
+        finishBrowsers(chrome, firefox, edge);
+
+        verify(asyncJobManager, timeout(5000)).failJob("parent",
+                "Matrix run failed on a browser: chrome: Could not start chrome browser; firefox: TIMED_OUT; edge: CANCELLED");
+        verify(asyncJobManager, never()).timeoutJob(anyString(), anyString());
+    }
+
+    @Test
+    void runsWhileABrowserRunsAndFinishesOnlyOnceAllFinished() {
+        JobTracking chrome = child("chrome", JobStatus.COMPLETED);
+        JobTracking firefox = child("firefox", JobStatus.RUNNING);
+
+        finishBrowsers(chrome, firefox);
+
+        verify(asyncJobManager, timeout(5000)).updateJobStatus("parent", JobStatus.RUNNING);
+        verify(asyncJobManager, after(200).never()).completeJob(eq("parent"), any());
+    }
+
+    private void finishBrowsers(JobTracking... children) {
+        when(jobTrackingService.getChildJobs("parent")).thenReturn(List.of(children));
+        coordinator.onJobStatusChanged(new JobStatusChangedEvent(children[0], "UPDATED"));
+    }
+
+    private static JobTracking child(String browser, JobStatus status) {
+        return JobTracking.builder()
+                .jobId("job-" + browser)
+                .parentJobId("parent")
+                .browserType(browser)
+                .status(status)
+                .build();
+    }
+}
@@ -0,0 +1,76 @@
+package com.framework.apiserver.execution;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@EnabledOnOs({OS.LINUX, OS.MAC})
+class ProcessTreeTerminatorTest {
+
+    private Process runner;
+
+    @AfterEach
+    void tearDown() {
+        Thread.interrupted();
+        if (runner != null) {
+            runner.descendants().forEach(ProcessHandle::destroyForcibly);
+            runner.destroyForcibly();
+        }
+    }
+
+    @Test
+    void terminatesTheRunnerAndEveryProcessItStarted() throws IOException, InterruptedException {
+        // Stands in for a runner JVM with its driver service and browser
+        runner = new ProcessBuilder("sh", "-c", "sleep 300 & sleep 300 & wait").start();
+        List<ProcessHandle> children = awaitChildren(2);
+
+        ProcessTreeTerminator.terminate(runner.toHandle(), Duration.ofSeconds(2));
+
+        assertThat(runner.isAlive()).isFalse();
+        assertThat(children).noneMatch(ProcessHandle::isAlive);
+    }
+
+    @Test
+    void killsARunnerThatIgnoresTheRequestToStop() throws IOException, InterruptedException {
+        runner = new ProcessBuilder("sh", "-c", "trap '' TERM; sleep 300 & wait").start();
+        List<ProcessHandle> children = awaitChildren(1);
+
+        long start = System.nanoTime();
+        ProcessTreeTerminator.terminate(runner.toHandle(), Duration.ofMillis(500));
+
+        assertThat(runner.isAlive()).isFalse();
+        assertThat(children).noneMatch(ProcessHandle::isAlive);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(5000);
+    }
+
+    @Test
+    void keepsTheInterruptOfTheCancellingThread() throws IOException, InterruptedException {
+        runner = new ProcessBuilder("sh", "-c", "sleep 300 & wait").start();
+        awaitChildren(1);
+        Thread.currentThread().interrupt();
+
+        ProcessTreeTerminator.terminate(runner.toHandle(), Duration.ofSeconds(2));
+
+        assertThat(runner.isAlive()).isFalse();
+        assertThat(Thread.interrupted()).isTrue();
+    }
+
+    private List<ProcessHandle> awaitChildren(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        List<ProcessHandle> children = runner.children().toList();
+        while (children.size() < count) {
+            assertThat(System.nanoTime()).as("runner started its children").isLessThan(deadline);
+            Thread.sleep(20);
+            children = runner.children().toList();
+        }
+        return children;
+    }
+}
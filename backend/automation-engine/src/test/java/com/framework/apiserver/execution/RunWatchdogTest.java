@@ -0,0 +1,92 @@
+package com.framework.apiserver.execution;
+
+import com.framework.apiserver.config.ExecutionProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RunWatchdogTest {
+
+    private final RunWatchdog runWatchdog = new RunWatchdog(new ExecutionProperties());
+
+    private final AtomicInteger timeouts = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        Thread.interrupted();
+        runWatchdog.destroy();
+    }
+
+    @Test
+    void runPastItsDeadlineIsMarkedAndInterrupted() {
+        RunWatchdog.Deadline deadline = runWatchdog.watch("run-1", Duration.ofMillis(100), () -> {
+            timeouts.incrementAndGet();
+            return true;
+        });
+
+        assertThatThrownBy(() -> Thread.sleep(5000)).isInstanceOf(InterruptedException.class);
+        deadline.close();
+        assertThat(timeouts).hasValue(1);
+        assertThat(deadline.isExpired()).isTrue();
+    }
+
+    @Test
+    void runFinishedInTimeIsNeitherMarkedNorInterrupted() throws InterruptedException {
+        runWatchdog.watch("run-1", Duration.ofMillis(100), () -> {
+            timeouts.incrementAndGet();
+            return true;
+        }).close();
+
+        Thread.sleep(300);
+
+        assertThat(timeouts).hasValue(0);
+        assertThat(Thread.currentThread().isInterrupted()).isFalse();
+    }
+
+    @Test
+    void jobThatFinishedAsTheDeadlinePassedIsNotInterrupted() throws InterruptedException {
+        // The job was completed or cancelled before the deadline could mark it
+        RunWatchdog.Deadline deadline = runWatchdog.watch("run-1", Duration.ofMillis(100), () -> {
+            timeouts.incrementAndGet();
+            return false;
+        });
+
+        Thread.sleep(300);
+
+        assertThat(timeouts).hasValue(1);
+        assertThat(deadline.isExpired()).isFalse();
+        deadline.close();
+        assertThat(Thread.currentThread().isInterrupted()).isFalse();
+    }
+
+    @Test
+    void closingAfterTheDeadlineFiredClearsItsInterrupt() {
+        RunWatchdog.Deadline deadline = runWatchdog.watch("run-1", Duration.ofMillis(100), () -> true);
+        // The run finished right at its deadline, nothing consumed the interrupt
+        while (!deadline.isExpired()) {
+            Thread.onSpinWait();
+        }
+        assertThat(Thread.currentThread().isInterrupted()).isTrue();
+
+        deadline.close();
+
+        assertThat(Thread.currentThread().isInterrupted()).isFalse();
+    }
+
+    @Test
+    void zeroTimeoutDisablesTheDeadline() throws InterruptedException {
+        runWatchdog.watch("run-1", Duration.ZERO, () -> {
+            timeouts.incrementAndGet();
+            return true;
+        });
+
+        Thread.sleep(200);
+
+        assertThat(timeouts).hasValue(0);
+    }
+}
@@ -0,0 +1,155 @@
+package com.framework.apiserver.execution;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.framework.apiserver.service.ScenarioDurationService;
+import com.framework.apiserver.utilities.CommonUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ShardedRunExecutorTest {
+
+    private static final String FEATURE = String.join("\n",
+            "Feature: Shop",
+            "",
+            "  @smoke",
+            "  Scenario: Checkout",
+            "    Given a step",
+            "",
+            "  Scenario: Search",
+            "    Given a step",
+            "",
+            "  @regression",
+            "  Scenario Outline: Login as <user>",
+            "    Given a <user>",
+            "",
+            "    Examples:",
+            "      | user  |",
+            "      | admin |",
+            "      | guest |",
+            "");
+
+    @Mock
+    private TestRunLauncher testRunLauncher;
+
+    @Mock
+    private ScenarioDurationService scenarioDurationService;
+
+    @Mock
+    private CommonUtils commonUtils;
+
+    @TempDir
+    private Path tempDir;
+
+    private ShardedRunExecutor executor;
+
+    private Path featuresDir;
+
+    private String feature;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        executor = new ShardedRunExecutor(testRunLauncher, scenarioDurationService, commonUtils);
+        featuresDir = Files.createDirectories(tempDir.resolve("features"));
+        Path featureFile = Files.writeString(featuresDir.resolve("shop.feature"), FEATURE);
+        feature = featureFile.toString().replace('\\', '/');
+    }
+
+    @Test
+    void packsTheLongestScenariosFirstOntoTheShortestShard() throws IOException {
+        when(scenarioDurationService.getAverageDurations()).thenReturn(Map.of(
+                "shop.feature:4", 60_000L,
+                "shop.feature:7", 10_000L,
+                "shop.feature:16", 20_000L,
+                "shop.feature:17", 40_000L));
+
+        List<List<String>> shards = executor.plan(featuresDir, null, 2);
+
+        assertThat(shards).containsExactly(
+                List.of(feature + ":4", feature + ":7"),
+                List.of(feature + ":17", feature + ":16"));
+    }
+
+    @Test
+    void unknownScenariosAssumeTheAverageHistoricalDuration() throws IOException {
+        when(scenarioDurationService.getAverageDurations()).thenReturn(Map.of(
+                "shop.feature:4", 60_000L,
+                "shop.feature:7", 20_000L));
+
+        List<List<String>> shards = executor.plan(featuresDir, null, 3);
+
+        // The outline rows count as 40s each, so the 20s scenario joins one of them
+        assertThat(shards).containsExactly(
+                List.of(feature + ":4"),
+                List.of(feature + ":16", feature + ":7"),
+                List.of(feature + ":17"));
+    }
+
+    @Test
+    void scenariosWithoutHistoryAreSpreadEvenly() throws IOException {
+        when(scenarioDurationService.getAverageDurations()).thenReturn(Map.of());
+
+        List<List<String>> shards = executor.plan(featuresDir, null, 2);
+
+        assertThat(shards).containsExactly(
+                List.of(feature + ":4", feature + ":16"),
+                List.of(feature + ":7", feature + ":17"));
+    }
+
+    @Test
+    void dropsShardsLeftEmpty() throws IOException {
+        when(scenarioDurationService.getAverageDurations()).thenReturn(Map.of());
+
+        assertThat(executor.plan(featuresDir, "@smoke", 4)).containsExactly(List.of(feature + ":4"));
+        assertThat(executor.plan(featuresDir, "@missing", 4)).isEmpty();
+    }
+
+    @Test
+    void plansEveryExampleRowOfAnOutlineSeparately() throws IOException {
+        when(scenarioDurationService.getAverageDurations()).thenReturn(Map.of());
+
+        List<List<String>> shards = executor.plan(featuresDir, "@regression", 2);
+
+        assertThat(shards).containsExactly(List.of(feature + ":16"), List.of(feature + ":17"));
+    }
+
+    @Test
+    void mergesShardReportsAndNamesTheShardsWithoutOne() throws IOException {
+        Path reportsDir = tempDir.resolve("reports");
+        Files.createDirectories(reportsDir.resolve("run-1").resolve("shards"));
+        writeReport(reportsDir.resolve("run-1-shard-1"), "[{\"uri\":\"features/a.feature\"}]");
+        writeReport(reportsDir.resolve("run-1-shard-2"),
+                "[{\"uri\":\"features/b.feature\"},{\"uri\":\"features/c.feature\"}]");
+
+        List<String> missing = executor.mergeShardReports(reportsDir, "run-1",
+                List.of("run-1-shard-1", "run-1-shard-2", "run-1-shard-3"));
+
+        assertThat(missing).containsExactly("shard-3");
+        Path runDir = reportsDir.resolve("run-1");
+        assertThat(runDir.resolve("shards").resolve("shard-1").resolve("cucumber-reports.json")).exists();
+        assertThat(runDir.resolve("shards").resolve("shard-2").resolve("cucumber-reports.json")).exists();
+        assertThat(reportsDir.resolve("run-1-shard-1")).doesNotExist();
+        JsonNode merged = new ObjectMapper().readTree(runDir.resolve("cucumber-reports.json").toFile());
+        assertThat(merged.findValuesAsText("uri")).containsExactly(
+                "features/a.feature", "features/b.feature", "features/c.feature");
+    }
+
+    private static void writeReport(Path shardReports, String json) throws IOException {
+        Files.createDirectories(shardReports);
+        Files.writeString(shardReports.resolve("cucumber-reports.json"), json);
+    }
+}
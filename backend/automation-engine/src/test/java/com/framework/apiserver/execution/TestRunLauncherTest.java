@@ -0,0 +1,105 @@
+package com.framework.apiserver.execution;
+
+import com.framework.apiserver.config.ExecutionMode;
+import com.framework.apiserver.config.ExecutionProperties;
+import com.framework.apiserver.dto.RunOptions;
+import com.framework.apiserver.testrunner.TestRunner;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TestRunLauncherTest {
+
+    @Mock
+    private InProcessCucumberEngine inProcessEngine;
+
+    @Mock
+    private RunnerPool runnerPool;
+
+    private final ExecutionProperties executionProperties = new ExecutionProperties();
+
+    private TestRunLauncher launcher;
+
+    @BeforeEach
+    void setUp() {
+        launcher = new TestRunLauncher(executionProperties, inProcessEngine, runnerPool);
+    }
+
+    @Test
+    void inProcessRunsAreExecutedByTheEngineInsteadOfAForkedJvm() throws IOException, InterruptedException {
+        launcher.launch(options(ExecutionMode.IN_PROCESS), "run-1", null);
+
+        verify(inProcessEngine).run("run-1", TestRunner.FEATURES_PATH, "@smoke", "chrome", 2, Map.of());
+        verifyNoInteractions(runnerPool);
+    }
+
+    @Test
+    void inProcessRerunsExecuteTheScenariosOfTheRerunFile() throws IOException, InterruptedException {
+        Path rerunFile = Path.of("reports", "run-0", "rerun.txt");
+
+        launcher.launch(options(ExecutionMode.IN_PROCESS), "run-1", rerunFile);
+
+        verify(inProcessEngine).run("run-1", "@" + rerunFile.toAbsolutePath(), "@smoke", "chrome", 2, Map.of());
+    }
+
+    @Test
+    void forkedRunsAreHandedToAnIdlePoolWorker() throws IOException, InterruptedException {
+        when(runnerPool.isEnabled()).thenReturn(true);
+        when(runnerPool.tryRun("run-1", TestRunner.FEATURES_PATH, "@smoke", "chrome", 2, Map.of())).thenReturn(true);
+
+        launcher.launch(options(ExecutionMode.FORKED), "run-1", null);
+
+        verify(runnerPool).tryRun("run-1", TestRunner.FEATURES_PATH, "@smoke", "chrome", 2, Map.of());
+        verifyNoInteractions(inProcessEngine);
+    }
+
+    @Test
+    void runsWithoutAModeUseTheConfiguredDefault() {
+        assertThat(launcher.resolveMode(null)).isEqualTo(ExecutionMode.FORKED);
+
+        executionProperties.setDefaultMode(ExecutionMode.IN_PROCESS);
+
+        assertThat(launcher.resolveMode(RunOptions.builder().tag("@smoke").build())).isEqualTo(ExecutionMode.IN_PROCESS);
+        assertThat(launcher.resolveMode(options(ExecutionMode.FORKED))).isEqualTo(ExecutionMode.FORKED);
+    }
+
+    @Test
+    void threadsAndShardsAreCappedAtTheConfiguredMaximum() {
+        assertThat(launcher.resolveThreads(RunOptions.builder().threads(16).build())).isEqualTo(4);
+        assertThat(launcher.resolveThreads(RunOptions.builder().threads(0).build())).isEqualTo(1);
+        assertThat(launcher.resolveShards(RunOptions.builder().shards(9).build())).isEqualTo(4);
+        assertThat(launcher.resolveShards(null)).isEqualTo(1);
+    }
+
+    @Test
+    void runsHaveNoDeadlineUnlessOneIsConfiguredOrRequested() {
+        assertThat(launcher.resolveRunTimeout(null)).isEqualTo(Duration.ZERO);
+        assertThat(launcher.resolveRunTimeout(RunOptions.builder().timeoutMinutes(5).build())).isEqualTo(Duration.ofMinutes(5));
+
+        executionProperties.setRunTimeoutMinutes(30);
+
+        assertThat(launcher.resolveRunTimeout(null)).isEqualTo(Duration.ofMinutes(30));
+    }
+
+    private static RunOptions options(ExecutionMode mode) {
+        return RunOptions.builder()
+                .tag("@smoke")
+                .browserType("chrome")
+                .threads(2)
+                .executionMode(mode)
+                .build();
+    }
+}
@@ -0,0 +1,212 @@
+package com.framework.apiserver.service;
+
+import com.framework.apiserver.config.JobKind;
+import com.framework.apiserver.config.JobPriority;
+import com.framework.apiserver.config.JobStatus;
+import com.framework.apiserver.config.SchedulerProperties;
+import com.framework.apiserver.dto.JobRequest;
+import com.framework.apiserver.dto.RunOptions;
+import com.framework.apiserver.entity.QueuedJob;
+import com.framework.apiserver.repository.QueuedJobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Runs the database-backed job queue against PostgreSQL, as two server instances sharing it.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class JobQueueServiceIntegrationTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    @Qualifier("instanceA")
+    private JobQueueService instanceA;
+
+    @Autowired
+    @Qualifier("instanceB")
+    private JobQueueService instanceB;
+
+    @Autowired
+    private QueuedJobRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockitoBean
+    private JobTrackingService jobTrackingService;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void claimsInPriorityOrderAndSkipsJobsLockedByAnotherInstance() throws Exception {
+        enqueue("low", JobPriority.LOW);
+        enqueue("high", JobPriority.HIGH);
+        enqueue("normal", JobPriority.NORMAL);
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // Another instance holds the lock on the first job while this one claims
+        CompletableFuture<List<String>> lockHolder = CompletableFuture.supplyAsync(() ->
+                new TransactionTemplate(transactionManager).execute(status -> {
+                    List<String> lockedIds = repository.lockNextQueued(1).stream().map(QueuedJob::getJobId).toList();
+                    locked.countDown();
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return lockedIds;
+                }));
+        assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+
+        List<QueuedJob> claimed = instanceB.claim(2);
+        release.countDown();
+
+        assertThat(lockHolder.get(10, TimeUnit.SECONDS)).containsExactly("high");
+        assertThat(claimed).extracting(QueuedJob::getJobId).containsExactly("normal", "low");
+        QueuedJob normal = repository.findById("normal").orElseThrow();
+        assertThat(normal.getStatus()).isEqualTo(JobStatus.RUNNING);
+        assertThat(normal.getClaimedBy()).isEqualTo(instanceB.getInstanceId());
+        assertThat(normal.getAttempts()).isEqualTo(1);
+        assertThat(normal.getLeaseExpiresAt()).isAfter(LocalDateTime.now());
+    }
+
+    @Test
+    void jobOfAnInstanceThatStoppedRenewingItsLeaseIsQueuedAgain() {
+        enqueue("job", JobPriority.NORMAL);
+        assertThat(instanceA.claim(1)).hasSize(1);
+        assertThat(instanceA.renewLeases()).isEqualTo(1);
+        assertThat(instanceB.renewLeases()).isZero();
+        assertThat(instanceB.recoverExpiredLeases()).isZero();
+
+        expireLease("job");
+
+        assertThat(instanceB.recoverExpiredLeases()).isEqualTo(1);
+        QueuedJob recovered = repository.findById("job").orElseThrow();
+        assertThat(recovered.getStatus()).isEqualTo(JobStatus.QUEUED);
+        assertThat(recovered.getClaimedBy()).isNull();
+        verify(jobTrackingService).updateJobStatus("job", JobStatus.QUEUED);
+
+        List<QueuedJob> reclaimed = instanceB.claim(1);
+        assertThat(reclaimed).extracting(QueuedJob::getJobId).containsExactly("job");
+        assertThat(reclaimed.get(0).getClaimedBy()).isEqualTo(instanceB.getInstanceId());
+        assertThat(reclaimed.get(0).getAttempts()).isEqualTo(2);
+    }
+
+    @Test
+    void jobIsFailedOnceItUsedUpItsAttempts() {
+        enqueue("job", JobPriority.NORMAL);
+        for (int attempt = 1; attempt <= 2; attempt++) {
+            assertThat(instanceA.claim(1)).hasSize(1);
+            expireLease("job");
+            assertThat(instanceB.recoverExpiredLeases()).isEqualTo(1);
+        }
+
+        QueuedJob failed = repository.findById("job").orElseThrow();
+        assertThat(failed.getStatus()).isEqualTo(JobStatus.FAILED);
+        assertThat(failed.getErrorMessage()).contains("giving up after 2 attempt(s)");
+        verify(jobTrackingService).failJob(eq("job"), eq(JobStatus.FAILED), contains("giving up after 2 attempt(s)"));
+        assertThat(instanceB.claim(1)).isEmpty();
+    }
+
+    @Test
+    void queuedJobIsCancelledByAnyInstance() {
+        enqueue("job", JobPriority.NORMAL);
+
+        assertThat(instanceB.cancel("job")).isTrue();
+
+        assertThat(repository.findById("job").orElseThrow().getStatus()).isEqualTo(JobStatus.CANCELLED);
+        verify(jobTrackingService).updateJobStatus("job", JobStatus.CANCELLED);
+        assertThat(instanceA.claim(1)).isEmpty();
+        assertThat(instanceB.cancel("job")).isFalse();
+    }
+
+    @Test
+    void cancellingARunningJobIsRequestedFromTheInstanceRunningIt() {
+        enqueue("job", JobPriority.NORMAL);
+        assertThat(instanceA.claim(1)).hasSize(1);
+
+        assertThat(instanceB.cancel("job")).isTrue();
+
+        assertThat(repository.findById("job").orElseThrow().getStatus()).isEqualTo(JobStatus.RUNNING);
+        assertThat(instanceA.findCancelRequested()).containsExactly("job");
+        assertThat(instanceB.findCancelRequested()).isEmpty();
+
+        // The instance died before it stopped the job, recovery finishes the cancellation
+        expireLease("job");
+        assertThat(instanceB.recoverExpiredLeases()).isEqualTo(1);
+        assertThat(repository.findById("job").orElseThrow().getStatus()).isEqualTo(JobStatus.CANCELLED);
+        verify(jobTrackingService).updateJobStatus("job", JobStatus.CANCELLED);
+    }
+
+    private void enqueue(String jobId, JobPriority priority) {
+        instanceA.enqueue(jobId, priority, JobRequest.builder()
+                .kind(JobKind.RUN)
+                .options(RunOptions.builder().tag("@smoke").build())
+                .build());
+    }
+
+    private void expireLease(String jobId) {
+        QueuedJob job = repository.findById(jobId).orElseThrow();
+        job.setLeaseExpiresAt(LocalDateTime.now().minusMinutes(1));
+        repository.save(job);
+    }
+
+    @TestConfiguration
+    static class QueueInstances {
+
+        @Bean
+        JobQueueService instanceA(QueuedJobRepository repository, JobTrackingService jobTrackingService) {
+            return new JobQueueService(repository, properties("instance-a"), jobTrackingService);
+        }
+
+        @Bean
+        JobQueueService instanceB(QueuedJobRepository repository, JobTrackingService jobTrackingService) {
+            return new JobQueueService(repository, properties("instance-b"), jobTrackingService);
+        }
+
+        private static SchedulerProperties properties(String instanceId) {
+            SchedulerProperties properties = new SchedulerProperties();
+            properties.getDurable().setEnabled(true);
+            properties.getDurable().setInstanceId(instanceId);
+            properties.getDurable().setLeaseSeconds(60);
+            properties.getDurable().setMaxAttempts(2);
+            return properties;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.framework.apiserver.testrunner;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RunnerWorkerTest {
+
+	@Test
+	void readsTheHeapWithoutForcingACollection() {
+		long collections = collectionCount();
+
+		long heapMb = RunnerWorker.usedHeapMb();
+
+		assertThat(collectionCount()).isEqualTo(collections);
+		assertThat(heapMb).isBetween(0L, Runtime.getRuntime().maxMemory() / (1024 * 1024));
+	}
+
+	private static long collectionCount() {
+		return ManagementFactory.getGarbageCollectorMXBeans().stream()
+				.mapToLong(GarbageCollectorMXBean::getCollectionCount)
+				.sum();
+	}
+}
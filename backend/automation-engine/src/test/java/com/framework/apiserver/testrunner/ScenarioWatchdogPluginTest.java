@@ -0,0 +1,102 @@
+package com.framework.apiserver.testrunner;
+
+import io.cucumber.plugin.event.Event;
+import io.cucumber.plugin.event.EventHandler;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.Location;
+import io.cucumber.plugin.event.Result;
+import io.cucumber.plugin.event.Status;
+import io.cucumber.plugin.event.TestCase;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestCaseStarted;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ScenarioWatchdogPluginTest {
+
+	private static final String RUN_ID = "scenario-watchdog-test";
+
+	private final Map<Class<?>, EventHandler<?>> handlers = new HashMap<>();
+
+	private TestCase testCase;
+
+	@BeforeEach
+	void setUp() {
+		RunSettings.apply(Map.of(RunSettings.RUN_ID, RUN_ID));
+		testCase = mock(TestCase.class);
+		when(testCase.getName()).thenReturn("Slow checkout");
+		when(testCase.getLocation()).thenReturn(new Location(12, 3));
+		new ScenarioWatchdogPlugin("1").setEventPublisher(new EventPublisher() {
+			@Override
+			public <T> void registerHandlerFor(Class<T> eventType, EventHandler<T> handler) {
+				handlers.put(eventType, handler);
+			}
+
+			@Override
+			public <T> void removeHandlerFor(Class<T> eventType, EventHandler<T> handler) {
+				handlers.remove(eventType);
+			}
+		});
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		Thread.interrupted();
+		RunSettings.clear();
+		Path reports = Paths.get("reports", RUN_ID);
+		if (Files.exists(reports)) {
+			try (Stream<Path> files = Files.walk(reports)) {
+				files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+			}
+		}
+	}
+
+	@Test
+	void scenarioPastItsDeadlineIsInterruptedWithItsDiagnosticsWritten() throws InterruptedException {
+		publish(new TestCaseStarted(Instant.now(), testCase));
+
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!Thread.currentThread().isInterrupted()) {
+			assertThat(System.nanoTime()).as("scenario interrupted").isLessThan(deadline);
+			Thread.onSpinWait();
+		}
+		assertThat(Paths.get("reports", RUN_ID, "diagnostics", "timeout-Slow_checkout-line12-threads.txt")).exists();
+
+		// The interrupt nothing consumed does not reach the next scenario of the thread
+		publish(new TestCaseFinished(Instant.now(), testCase, new Result(Status.FAILED, Duration.ofSeconds(1), null)));
+		assertThat(Thread.currentThread().isInterrupted()).isFalse();
+	}
+
+	@Test
+	void scenarioFinishedInTimeIsNeverInterrupted() throws InterruptedException {
+		publish(new TestCaseStarted(Instant.now(), testCase));
+		publish(new TestCaseFinished(Instant.now(), testCase, new Result(Status.PASSED, Duration.ZERO, null)));
+
+		Thread.sleep(1500);
+
+		assertThat(Thread.currentThread().isInterrupted()).isFalse();
+		assertThat(Paths.get("reports", RUN_ID)).doesNotExist();
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T extends Event> void publish(T event) {
+		((EventHandler<T>) handlers.get(event.getClass())).receive(event);
+	}
+}
@@ -0,0 +1,182 @@
+package com.framework.apiserver.utilities;
+
+import com.framework.apiserver.config.JobKind;
+import com.framework.apiserver.config.JobPriority;
+import com.framework.apiserver.config.JobStatus;
+import com.framework.apiserver.dto.JobRequest;
+import com.framework.apiserver.dto.RunOptions;
+import com.framework.apiserver.dto.TestExecutionResponse;
+import com.framework.apiserver.execution.GridAdmission;
+import com.framework.apiserver.execution.JobScheduler;
+import com.framework.apiserver.service.BrowserContextManager;
+import com.framework.apiserver.service.JobQueueService;
+import com.framework.apiserver.service.JobTrackingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncJobManagerTest {
+
+    @Mock
+    private JobTrackingService jobTrackingService;
+
+    @Mock
+    private JobScheduler jobScheduler;
+
+    @Mock
+    private JobQueueService jobQueueService;
+
+    @Mock
+    private GridAdmission gridAdmission;
+
+    @Mock
+    private BrowserContextManager browserContextManager;
+
+    private AsyncJobManager asyncJobManager;
+
+    private String jobId;
+
+    @BeforeEach
+    void setUp() {
+        asyncJobManager = new AsyncJobManager(jobTrackingService, jobScheduler, jobQueueService, gridAdmission,
+                browserContextManager);
+        jobId = asyncJobManager.createJob();
+        asyncJobManager.setJobRunning(jobId);
+    }
+
+    @Test
+    void deadlinePassingAfterTheJobCompletedDoesNotTimeItOut() {
+        asyncJobManager.completeJob(jobId, new TestExecutionResponse("PASSED", 0, "run-1"));
+
+        assertThat(asyncJobManager.timeoutJob(jobId, "Run exceeded its deadline of 1 minute(s)")).isFalse();
+
+        assertThat(asyncJobManager.getStatus(jobId)).isEqualTo(JobStatus.COMPLETED);
+        verify(jobTrackingService, never()).updateJobStatus(eq(jobId), eq(JobStatus.TIMED_OUT), anyString());
+    }
+
+    @Test
+    void deadlinePassingAfterTheJobWasCancelledKeepsItCancelled() {
+        asyncJobManager.updateJobStatus(jobId, JobStatus.CANCELLED);
+
+        assertThat(asyncJobManager.timeoutJob(jobId, "Run exceeded its deadline of 1 minute(s)")).isFalse();
+
+        assertThat(asyncJobManager.getStatus(jobId)).isEqualTo(JobStatus.CANCELLED);
+    }
+
+    @Test
+    void timedOutJobKeepsItsStatusWhenItsPartialResultIsRecorded() {
+        assertThat(asyncJobManager.timeoutJob(jobId, "Run exceeded its deadline of 1 minute(s)")).isTrue();
+
+        TestExecutionResponse partial = new TestExecutionResponse("Timed Out", 2, "run-1");
+        asyncJobManager.completeJob(jobId, partial);
+
+        assertThat(asyncJobManager.getStatus(jobId)).isEqualTo(JobStatus.TIMED_OUT);
+        assertThat(asyncJobManager.getResult(jobId)).isSameAs(partial);
+        verify(jobTrackingService).updateJobStatus(jobId, JobStatus.TIMED_OUT, "Run exceeded its deadline of 1 minute(s)");
+        verify(jobTrackingService, never()).completeJob(eq(jobId), any());
+    }
+
+    @Test
+    void cancelArrivingAfterTheJobLeftTheQueueSkipsItsRun() {
+        String queued = queuedJob();
+        AtomicBoolean executed = new AtomicBoolean();
+        asyncJobManager.registerHandler(JobKind.RUN, (id, request) -> executed.set(true));
+        asyncJobManager.enqueueJob(queued, JobPriority.NORMAL, JobRequest.builder()
+                .kind(JobKind.RUN)
+                .options(RunOptions.builder().tag("@smoke").build())
+                .build());
+        ArgumentCaptor<Runnable> slotTask = ArgumentCaptor.forClass(Runnable.class);
+        verify(jobScheduler).submit(eq(queued), eq(JobPriority.NORMAL), slotTask.capture());
+
+        // Dispatched to a slot, but its thread is not registered yet
+        when(jobTrackingService.cancelJob(queued)).thenReturn(true);
+        assertThat(asyncJobManager.cancelJob(queued)).isTrue();
+        slotTask.getValue().run();
+
+        assertThat(executed).isFalse();
+        assertThat(asyncJobManager.getStatus(queued)).isEqualTo(JobStatus.CANCELLED);
+        verify(gridAdmission).withdraw(queued);
+        verify(gridAdmission, never()).tryAdmit(anyString(), any());
+    }
+
+    @Test
+    void cancelledJobIsNotMarkedRunning() {
+        String queued = queuedJob();
+        when(jobTrackingService.cancelJob(queued)).thenReturn(true);
+        asyncJobManager.cancelJob(queued);
+
+        assertThat(asyncJobManager.setJobRunning(queued)).isFalse();
+
+        assertThat(asyncJobManager.getStatus(queued)).isEqualTo(JobStatus.CANCELLED);
+        verify(jobTrackingService, never()).updateJobStatus(queued, JobStatus.RUNNING);
+    }
+
+    @Test
+    void cancellingAQueuedJobRemovesItFromTheSchedulerAndTheGridAdmission() {
+        String queued = queuedJob();
+        when(jobScheduler.remove(queued)).thenReturn(true);
+
+        assertThat(asyncJobManager.cancelJob(queued)).isTrue();
+
+        assertThat(asyncJobManager.getStatus(queued)).isEqualTo(JobStatus.CANCELLED);
+        verify(gridAdmission).withdraw(queued);
+    }
+
+    @Test
+    void cancellingARunningJobInterruptsItsThreadAndKeepsItCancelled() throws InterruptedException {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        Thread jobThread = new Thread(() -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+        });
+        jobThread.start();
+        asyncJobManager.registerJobThread(jobId, jobThread);
+
+        assertThat(asyncJobManager.cancelJob(jobId)).isTrue();
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // The job thread records what ran before it was stopped
+        asyncJobManager.completeJob(jobId, new TestExecutionResponse("Cancelled", 0, "run-1"));
+        assertThat(asyncJobManager.getStatus(jobId)).isEqualTo(JobStatus.CANCELLED);
+        verify(jobTrackingService).updateJobStatus(jobId, JobStatus.CANCELLED);
+        verify(jobTrackingService, never()).completeJob(eq(jobId), any());
+    }
+
+    @Test
+    void jobIsCompletedExactlyOnce() {
+        TestExecutionResponse response = new TestExecutionResponse("PASSED", 0, "run-1");
+        asyncJobManager.completeJob(jobId, response);
+        asyncJobManager.completeJob(jobId, response);
+        asyncJobManager.failJob(jobId, "Late failure");
+
+        assertThat(asyncJobManager.getStatus(jobId)).isEqualTo(JobStatus.COMPLETED);
+        verify(jobTrackingService, times(1)).completeJob(jobId, JobStatus.COMPLETED);
+        verify(jobTrackingService, never()).failJob(eq(jobId), any(), any());
+    }
+
+    private String queuedJob() {
+        String queued = asyncJobManager.createJob();
+        asyncJobManager.updateJobStatus(queued, JobStatus.QUEUED);
+        return queued;
+    }
+}
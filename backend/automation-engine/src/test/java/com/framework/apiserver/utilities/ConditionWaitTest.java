@@ -0,0 +1,112 @@
+package com.framework.apiserver.utilities;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+class ConditionWaitTest {
+
+    private WebDriver observableDriver;
+
+    @BeforeEach
+    void setUp() {
+        ConditionWait.resetStats();
+        observableDriver = mock(WebDriver.class, withSettings().extraInterfaces(JavascriptExecutor.class));
+    }
+
+    @Test
+    void returnsOnceAChangeOfThePageMakesTheConditionTrue() {
+        // The page changes at once after every check
+        when(((JavascriptExecutor) observableDriver).executeAsyncScript(anyString(), any())).thenReturn(true);
+        AtomicInteger checks = new AtomicInteger();
+
+        String result = new ConditionWait(observableDriver).until("visibility",
+                driver -> checks.incrementAndGet() == 3 ? "visible" : null, Duration.ofSeconds(5));
+
+        assertThat(result).isEqualTo("visible");
+        assertThat(checks).hasValue(3);
+        assertThat(ConditionWait.stats().get("visibility")).containsEntry("count", 1L).containsEntry("timeouts", 0L);
+    }
+
+    @Test
+    void keepsChecksAtLeastThirtyMillisecondsApartWhileThePageKeepsChanging() {
+        when(((JavascriptExecutor) observableDriver).executeAsyncScript(anyString(), any())).thenReturn(true);
+        List<Long> checkTimes = new ArrayList<>();
+
+        assertThatThrownBy(() -> new ConditionWait(observableDriver).until("clickable", driver -> {
+            checkTimes.add(System.nanoTime());
+            return false;
+        }, Duration.ofMillis(300))).isInstanceOf(TimeoutException.class);
+
+        // The last check may come sooner, at the deadline
+        assertThat(checkTimes).hasSizeGreaterThan(3);
+        for (int i = 1; i < checkTimes.size() - 1; i++) {
+            assertThat((checkTimes.get(i) - checkTimes.get(i - 1)) / 1_000_000).isGreaterThanOrEqualTo(29L);
+        }
+        assertThat(ConditionWait.stats().get("clickable")).containsEntry("timeouts", 1L);
+    }
+
+    @Test
+    void pollsAPageThatCannotBeObserved() {
+        WebDriver driver = mock(WebDriver.class);
+        AtomicInteger checks = new AtomicInteger();
+
+        Boolean result = new ConditionWait(driver).until("presence", ignored -> checks.incrementAndGet() == 4,
+                Duration.ofSeconds(5));
+
+        assertThat(result).isTrue();
+        assertThat(checks).hasValue(4);
+    }
+
+    @Test
+    void pollsOnceObservingThePageFailedRepeatedly() {
+        when(((JavascriptExecutor) observableDriver).executeAsyncScript(anyString(), any()))
+                .thenThrow(new WebDriverException("Page navigated"));
+
+        assertThatThrownBy(() -> new ConditionWait(observableDriver).until("presence", driver -> null,
+                Duration.ofMillis(500))).isInstanceOf(TimeoutException.class);
+
+        verify((JavascriptExecutor) observableDriver, times(3)).executeAsyncScript(anyString(), any());
+    }
+
+    @Test
+    void ignoresOnlyMissingElementsAndTheGivenExceptions() {
+        WebDriver driver = mock(WebDriver.class);
+        AtomicInteger checks = new AtomicInteger();
+
+        String result = new ConditionWait(driver).until("text", ignored -> {
+            if (checks.incrementAndGet() == 1) {
+                throw new NoSuchElementException("Not rendered yet");
+            }
+            if (checks.get() == 2) {
+                throw new StaleElementReferenceException("Re-rendered");
+            }
+            return "ready";
+        }, Duration.ofSeconds(5), StaleElementReferenceException.class);
+        assertThat(result).isEqualTo("ready");
+
+        assertThatThrownBy(() -> new ConditionWait(driver).until("text", ignored -> {
+            throw new StaleElementReferenceException("Re-rendered");
+        }, Duration.ofSeconds(5))).isInstanceOf(StaleElementReferenceException.class);
+    }
+}
@@ -0,0 +1,112 @@
+package com.framework.apiserver.utilities;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.CacheLookup;
+import org.openqa.selenium.support.FindBy;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PageObjectsTest {
+
+    private final WebDriver driver = mock(WebDriver.class);
+
+    private final WebElement user = mock(WebElement.class);
+
+    @BeforeEach
+    void setUp() {
+        PageObjects.resetScenarioStats();
+        when(driver.findElement(By.id("user"))).thenReturn(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.clearProperty(PageObjects.ELEMENT_CACHE_PROPERTY);
+    }
+
+    @Test
+    void locatesElementsOnEveryUseWithoutTheCache() {
+        LoginPage page = new LoginPage();
+        PageObjects.initElements(driver, page);
+
+        page.user.click();
+        page.user.sendKeys("alice");
+
+        verify(driver, times(2)).findElement(By.id("user"));
+        verify(user).sendKeys("alice");
+        assertThat(PageObjects.scenarioStats()).containsEntry("lookups", 2L).containsEntry("lookupsAvoided", 0L);
+    }
+
+    @Test
+    void cacheLookupFieldsAreLocatedOnce() {
+        WebElement logo = mock(WebElement.class);
+        when(driver.findElement(By.id("logo"))).thenReturn(logo);
+        LoginPage page = new LoginPage();
+        PageObjects.initElements(driver, page);
+
+        page.logo.click();
+        page.logo.click();
+
+        verify(driver).findElement(By.id("logo"));
+        verify(logo, times(2)).click();
+        assertThat(PageObjects.scenarioStats()).containsEntry("lookups", 1L).containsEntry("lookupsAvoided", 1L);
+    }
+
+    @Test
+    void cachedElementThatWentStaleIsLocatedAgain() {
+        System.setProperty(PageObjects.ELEMENT_CACHE_PROPERTY, "true");
+        WebElement rerendered = mock(WebElement.class);
+        doThrow(new StaleElementReferenceException("Re-rendered")).when(user).click();
+        when(driver.findElement(By.id("user"))).thenReturn(user, rerendered);
+        LoginPage page = new LoginPage();
+        PageObjects.initElements(driver, page);
+
+        page.user.click();
+        page.user.click();
+
+        verify(rerendered, times(2)).click();
+        verify(driver, times(2)).findElement(By.id("user"));
+    }
+
+    @Test
+    void initializesInheritedFieldsAndLocatesListsOnEveryUse() {
+        when(driver.findElements(By.cssSelector(".result"))).thenReturn(List.of(mock(WebElement.class)));
+        SearchPage page = new SearchPage();
+        PageObjects.initElements(driver, page);
+
+        assertThat(page.results).hasSize(1);
+        assertThat(page.results).hasSize(1);
+        page.user.click();
+
+        verify(driver, times(2)).findElements(By.cssSelector(".result"));
+        verify(user).click();
+    }
+
+    static class LoginPage {
+
+        @FindBy(id = "user")
+        WebElement user;
+
+        @CacheLookup
+        @FindBy(id = "logo")
+        WebElement logo;
+    }
+
+    static class SearchPage extends LoginPage {
+
+        @FindBy(css = ".result")
+        List<WebElement> results;
+    }
+}
@@ -0,0 +1,115 @@
+package com.framework.apiserver.utilities;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+class SessionSnapshotsTest {
+
+    private static final Cookie SESSION_COOKIE = new Cookie("session", "abc");
+
+    @BeforeEach
+    void setUp() {
+        System.setProperty(SessionSnapshots.TTL_PROPERTY, "900");
+        SessionSnapshots.beginScenario(List.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.clearProperty(SessionSnapshots.TTL_PROPERTY);
+        SessionSnapshots.clear();
+        SessionSnapshots.beginScenario(List.of());
+    }
+
+    @Test
+    void restoresTheCookiesAndStorageOfTheSameLoginOnTheSameOrigin() {
+        SessionSnapshots.capture(loggedIn("https://demoqa.com/profile", SESSION_COOKIE), "alice", "secret");
+
+        WebDriver browser = browser("https://demoqa.com/login");
+        assertThat(SessionSnapshots.restore(browser, "alice", "secret")).isTrue();
+
+        verify(browser.manage()).addCookie(SESSION_COOKIE);
+        verify((JavascriptExecutor) browser).executeScript(anyString(), eq(Map.of("token", "t-1")), eq(Map.of()));
+    }
+
+    @Test
+    void anotherPasswordOrOriginLogsInThroughTheForm() {
+        SessionSnapshots.capture(loggedIn("https://demoqa.com/profile", SESSION_COOKIE), "alice", "secret");
+
+        assertThat(SessionSnapshots.restore(browser("https://demoqa.com/login"), "alice", "changed")).isFalse();
+        assertThat(SessionSnapshots.restore(browser("https://staging.demoqa.com/login"), "alice", "secret")).isFalse();
+        assertThat(SessionSnapshots.restore(browser("https://demoqa.com/login"), "bob", "secret")).isFalse();
+    }
+
+    @Test
+    void freshLoginScenariosRestoreNothing() {
+        SessionSnapshots.capture(loggedIn("https://demoqa.com/profile", SESSION_COOKIE), "alice", "secret");
+
+        SessionSnapshots.beginScenario(List.of("@login", SessionSnapshots.FRESH_LOGIN_TAG));
+
+        assertThat(SessionSnapshots.restore(browser("https://demoqa.com/login"), "alice", "secret")).isFalse();
+    }
+
+    @Test
+    void snapshotExpiresWithItsEarliestCookie() {
+        Cookie expired = new Cookie("session", "abc", "/", new Date(System.currentTimeMillis() - 1000));
+        SessionSnapshots.capture(loggedIn("https://demoqa.com/profile", expired), "alice", "secret");
+
+        assertThat(SessionSnapshots.restore(browser("https://demoqa.com/login"), "alice", "secret")).isFalse();
+    }
+
+    @Test
+    void invalidatedSnapshotIsNotRestoredAgain() {
+        SessionSnapshots.capture(loggedIn("https://demoqa.com/profile", SESSION_COOKIE), "alice", "secret");
+        WebDriver rejected = browser("https://demoqa.com/login");
+
+        SessionSnapshots.invalidate(rejected, "alice", "secret");
+
+        verify(rejected.manage()).deleteAllCookies();
+        assertThat(SessionSnapshots.restore(browser("https://demoqa.com/login"), "alice", "secret")).isFalse();
+    }
+
+    @Test
+    void keepsNothingWithoutALifetime() {
+        System.clearProperty(SessionSnapshots.TTL_PROPERTY);
+        WebDriver browser = browser("https://demoqa.com/profile");
+
+        SessionSnapshots.capture(browser, "alice", "secret");
+
+        verify(browser.manage(), never()).getCookies();
+        assertThat(SessionSnapshots.restore(browser("https://demoqa.com/login"), "alice", "secret")).isFalse();
+    }
+
+    private static WebDriver loggedIn(String url, Cookie cookie) {
+        WebDriver browser = browser(url);
+        when(browser.manage().getCookies()).thenReturn(Set.of(cookie));
+        when(((JavascriptExecutor) browser).executeScript(anyString()))
+                .thenReturn(Map.of("local", Map.of("token", "t-1"), "session", Map.of()));
+        return browser;
+    }
+
+    private static WebDriver browser(String url) {
+        WebDriver browser = mock(WebDriver.class, withSettings().extraInterfaces(JavascriptExecutor.class));
+        WebDriver.Options options = mock(WebDriver.Options.class);
+        when(browser.manage()).thenReturn(options);
+        when(browser.getCurrentUrl()).thenReturn(url);
+        return browser;
+    }
+}
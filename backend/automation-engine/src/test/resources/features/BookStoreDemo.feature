@@ -16,7 +16,7 @@ Feature:  Book Store Demo UI Application
       | user1       | Password1   |
       | user2       | Password2   |
 
-  @smoke
+  @smoke @fresh_login
   Scenario Outline: Login and validate correct credentials
     Given User log in to the application with username "<username>" and password "<password>"
     Then User should see a search book field
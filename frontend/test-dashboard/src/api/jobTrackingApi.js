@@ -32,9 +32,10 @@ const getAuthToken = () => {
  * @param {Function} onMessage - Callback function to handle incoming messages
  * @param {Function} onError - Callback function to handle connection errors
  * @param {Function} onOpen - Callback function to handle connection open
+ * @param {Function} onProgress - Callback function to handle live progress of running jobs
  * @returns {Promise<Object>} The SSE connection object with close method
  */
-export const createSSEConnection = (onMessage, onError, onOpen) => {
+export const createSSEConnection = (onMessage, onError, onOpen, onProgress) => {
     const eventSource = new EventSource(`${BASE_URL}/updates`);
 
     eventSource.onopen = onOpen || (() => {});
@@ -49,6 +50,15 @@ export const createSSEConnection = (onMessage, onError, onOpen) => {
         }
     });
 
+    eventSource.addEventListener('job-progress-update', (event) => {
+        try {
+            const data = JSON.parse(event.data);
+            if (onProgress) onProgress(data);
+        } catch (error) {
+            console.error('Failed to parse SSE progress message:', error);
+        }
+    });
+
     return eventSource;
 };
 
@@ -80,6 +90,16 @@ export const getActiveJobs = () =>
 export const getJobByJobId = (jobId) =>
     jobsApi.get(`/${jobId}`);
 
+/**
+ * Retrieves the live progress of a running job.
+ *
+ * @function getJobProgress
+ * @param {string|number} jobId - The unique identifier of the job.
+ * @returns {Promise<import('axios').AxiosResponse>} A promise that resolves with the response containing the job progress.
+ */
+export const getJobProgress = (jobId) =>
+    jobsApi.get(`/${jobId}/progress`);
+
 /**
  * Retrieves jobs by tag.
  *
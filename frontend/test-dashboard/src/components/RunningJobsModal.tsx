@@ -1,9 +1,10 @@
 import React, { useState, useEffect } from 'react';
 import { X, Clock, User, Tag, Play, AlertCircle } from 'lucide-react';
-import { getActiveJobs } from '../api/jobTrackingApi';
+import { getActiveJobs, getJobProgress, createSSEConnection } from '../api/jobTrackingApi';
 
 const RunningJobsModal = ({ isOpen, onClose, totalJobs }) => {
   const [jobs, setJobs] = useState([]);
+  const [progress, setProgress] = useState<Record<string, any>>({});
   const [loading, setLoading] = useState(false);
   const [error, setError] = useState(null);
 
@@ -13,12 +14,25 @@ const RunningJobsModal = ({ isOpen, onClose, totalJobs }) => {
     }
   }, [isOpen]);
 
+  // Follow the live progress of running jobs while the modal is open
+  useEffect(() => {
+    if (!isOpen) {
+      return;
+    }
+    const eventSource = createSSEConnection(null, null, null, (update) => {
+      setProgress(prev => ({ ...prev, [update.jobId]: update }));
+    });
+    return () => eventSource.close();
+  }, [isOpen]);
+
   const fetchActiveJobs = async () => {
     setLoading(true);
     setError(null);
     try {
       const response = await getActiveJobs();
-      setJobs(response.data || []);
+      const activeJobs = response.data || [];
+      setJobs(activeJobs);
+      fetchProgress(activeJobs.filter(job => job.status === 'RUNNING'));
     } catch (err) {
       setError('Failed to fetch active jobs');
       console.error('Error fetching active jobs:', err);
@@ -27,12 +41,31 @@ const RunningJobsModal = ({ isOpen, onClose, totalJobs }) => {
     }
   };
 
+  // Progress of runs that started before the modal opened; later updates arrive over SSE
+  const fetchProgress = async (runningJobs) => {
+    const results = await Promise.allSettled(runningJobs.map(job => getJobProgress(job.jobId)));
+    const fetched: Record<string, any> = {};
+    results.forEach((result, index) => {
+      if (result.status === 'fulfilled' && result.value.data) {
+        fetched[runningJobs[index].jobId] = result.value.data;
+      }
+    });
+    setProgress(prev => ({ ...fetched, ...prev }));
+  };
+
+  const formatProgress = (jobProgress) => {
+    if (!jobProgress) return 'N/A';
+    return `${jobProgress.completed} done (${jobProgress.passed} passed, ${jobProgress.failed} failed)`;
+  };
+
   const getStatusIcon = (status) => {
     switch (status) {
       case 'RUNNING':
         return <Play className="w-4 h-4 text-green-500" />;
       case 'PENDING':
         return <Clock className="w-4 h-4 text-yellow-500" />;
+      case 'QUEUED':
+        return <Clock className="w-4 h-4 text-orange-500" />;
       default:
         return <AlertCircle className="w-4 h-4 text-gray-500" />;
     }
@@ -44,6 +77,8 @@ const RunningJobsModal = ({ isOpen, onClose, totalJobs }) => {
         return 'bg-green-100 text-green-800';
       case 'PENDING':
         return 'bg-yellow-100 text-yellow-800';
+      case 'QUEUED':
+        return 'bg-orange-100 text-orange-800';
       default:
         return 'bg-gray-100 text-gray-800';
     }
@@ -124,6 +159,7 @@ const RunningJobsModal = ({ isOpen, onClose, totalJobs }) => {
                       <th className="text-left p-4 font-medium text-gray-700">Status</th>
                       <th className="text-left p-4 font-medium text-gray-700">Tag</th>
                       <th className="text-left p-4 font-medium text-gray-700">Run ID</th>
+                      <th className="text-left p-4 font-medium text-gray-700">Progress</th>
                       <th className="text-left p-4 font-medium text-gray-700">Created By</th>
                       <th className="text-left p-4 font-medium text-gray-700">Started</th>
                       <th className="text-left p-4 font-medium text-gray-700">Thread</th>
@@ -164,6 +200,16 @@ const RunningJobsModal = ({ isOpen, onClose, totalJobs }) => {
                             {job.runId || 'N/A'}
                           </span>
                         </td>
+                        <td className="p-4">
+                          <div className="text-sm text-gray-700">
+                            {formatProgress(progress[job.jobId])}
+                          </div>
+                          {progress[job.jobId]?.runningScenarios?.length > 0 && (
+                            <div className="text-xs text-gray-500">
+                              Running: {progress[job.jobId].runningScenarios.join(', ')}
+                            </div>
+                          )}
+                        </td>
                         <td className="p-4">
                           <div className="flex items-center space-x-1">
                             <User className="w-3 h-3 text-gray-400" />
@@ -197,6 +243,10 @@ const RunningJobsModal = ({ isOpen, onClose, totalJobs }) => {
                     <div className="w-3 h-3 bg-yellow-500 rounded-full"></div>
                     <span className = "text-sm text-gray-700">Pending: {jobs.filter(j => j.status === 'PENDING').length}</span>
                   </div>
+                  <div className="flex items-center space-x-1">
+                    <div className="w-3 h-3 bg-orange-500 rounded-full"></div>
+                    <span className = "text-sm text-gray-700">Queued: {jobs.filter(j => j.status === 'QUEUED').length}</span>
+                  </div>
                   <div className="flex items-center space-x-1">
                     <div className="w-3 h-3 bg-blue-500 rounded-full"></div>
                     <span className = "text-sm text-gray-700">Async: {jobs.filter(j => j.type === 'ASYNC').length}</span>
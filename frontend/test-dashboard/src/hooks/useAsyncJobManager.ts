@@ -56,7 +56,8 @@ export function useAsyncJobManager(
           if (
             newStatus === 'COMPLETED' ||
             newStatus === 'FAILED' ||
-            newStatus === 'CANCELLED'
+            newStatus === 'CANCELLED' ||
+            newStatus === 'TIMED_OUT'
           ) {
             completedJobs.push(jobId);
             updatedJobs.delete(jobId);